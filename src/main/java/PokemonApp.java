@@ -1,11 +1,14 @@
+import controller.AsyncPokemonController;
 import controller.IPokemonController;
 import controller.PokemonController;
 import model.IPokemonModel;
+import model.Pokemon;
 import model.PokemonModel;
 import view.IPokemonView;
 import view.MainPokemonFrame;
 
 import javax.swing.*;
+import java.util.List;
 
 
 /**
@@ -39,32 +42,32 @@ public class PokemonApp {
         // Create controller with reference to model
         IPokemonController controller = new PokemonController(model);
 
+        // Runs slow controller calls on a worker thread to keep UI responsive
+        AsyncPokemonController asyncController = new AsyncPokemonController(controller);
+
         // Create view with reference to controller
-        IPokemonView view = new MainPokemonFrame(controller);
+        IPokemonView view = new MainPokemonFrame(controller, asyncController);
 
         // Display the view
         view.display();
 
-        // Load data in a background thread to keep UI responsive
-        new Thread(() -> {
-            // Fetch initial data
-            System.out.println("Loading Pokemon data, please wait...");
-            controller.fetchInitialPokemon(100); // Load first 100 Pokemon
-
+        // Load data on the async controller's worker thread
+        System.out.println("Loading Pokemon data, please wait...");
+        asyncController.fetchInitialPokemon(100).thenRun(() -> { // Load first 100 Pokemon
             // Use SwingUtilities.invokeLater to update UI components
             // This ensures UI updates happen on the EDT for thread safety
             SwingUtilities.invokeLater(() -> {
-                // Update the list panel with all loaded Pokemon
-                view.updatePokemonList(controller.getPokemonCollection());
+                // The list panel already follows the controller's change events
+                List<Pokemon> collection = controller.getPokemonCollection();
 
                 // If Pokemon were successfully loaded, show the first one in the details panel
-                if (!controller.getPokemonCollection().isEmpty()) {
-                    view.showPokemonDetails(controller.getPokemonCollection().get(0));
+                if (!collection.isEmpty()) {
+                    view.showPokemonDetails(collection.get(0));
                 }
 
                 System.out.println("Application initialized successfully!");
             });
-        }).start(); // The start() method begins execution of the new thread
+        });
     }
 }
 
@@ -0,0 +1,326 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonType;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous front for an {@link IPokemonController}, so the event dispatch thread
+ * never waits for a slow fetch, save, load or query.
+ * <p>
+ * Every call returns at once with a {@link CompletableFuture} and runs on a dedicated
+ * worker thread, in submission order, so a save queued after a load writes the loaded
+ * collection. Searches, filters, sorts and queries supersede each other: starting one
+ * cancels the previous one if it has not completed, and a cancelled request that has not
+ * started yet is skipped. Page fetches and name suggestions likewise supersede earlier
+ * ones of their own kind. Callers on the EDT should still check that a result belongs
+ * to their latest request before showing it, and hop back with
+ * {@code SwingUtilities.invokeLater}, since futures complete on the worker thread.
+ * <p>
+ * Fetches, saves and loads change or persist the collection and are never cancelled.
+ */
+public class AsyncPokemonController implements AutoCloseable {
+    private final IPokemonController controller;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final AtomicReference<CompletableFuture<?>> latestQuery = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<?>> latestPage = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<?>> latestSuggestion = new AtomicReference<>();
+
+    /**
+     * Creates an asynchronous controller with its own worker thread.
+     *
+     * @param controller the controller to run calls on
+     */
+    public AsyncPokemonController(IPokemonController controller) {
+        this(controller, Executors.newSingleThreadExecutor(AsyncPokemonController::newWorker), true);
+    }
+
+    /**
+     * Creates an asynchronous controller on a caller-supplied executor, which is not
+     * shut down by {@link #close()}. A multi-threaded executor gives up the ordering
+     * guarantee between calls.
+     *
+     * @param controller the controller to run calls on
+     * @param executor the executor to run calls on
+     */
+    public AsyncPokemonController(IPokemonController controller, ExecutorService executor) {
+        this(controller, executor, false);
+    }
+
+    private AsyncPokemonController(IPokemonController controller, ExecutorService executor, boolean ownsExecutor) {
+        if (controller == null || executor == null) {
+            throw new IllegalArgumentException("Controller and executor cannot be null");
+        }
+        this.controller = controller;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * Fetches the initial Pokemon in the background.
+     *
+     * @param count the number of Pokemon to fetch
+     * @return a future completing once the collection has been replaced
+     */
+    public CompletableFuture<Void> fetchInitialPokemon(int count) {
+        return submit(() -> {
+            controller.fetchInitialPokemon(count);
+            return null;
+        });
+    }
+
+    /**
+     * Saves the current collection in the background.
+     *
+     * @param filename the name of the file to save to
+     * @return a future completing once the collection has been written, or failing
+     *         with an UncheckedIOException if it could not be
+     */
+    public CompletableFuture<Void> saveCollection(String filename) {
+        return submit(() -> {
+            controller.saveCollection(filename);
+            return null;
+        });
+    }
+
+    /**
+     * Loads a collection in the background.
+     *
+     * @param filename the name of the file to load from
+     * @return a future with the loaded collection
+     */
+    public CompletableFuture<List<Pokemon>> loadCollection(String filename) {
+        return submit(() -> controller.loadCollection(filename));
+    }
+
+    /**
+     * Searches by name in the background, superseding any pending query.
+     *
+     * @param searchTerm the term to search for
+     * @return a future with the matching Pokemon, cancelled if superseded
+     */
+    public CompletableFuture<List<Pokemon>> searchPokemon(String searchTerm) {
+        return submitLatest(latestQuery, () -> controller.searchPokemon(searchTerm));
+    }
+
+    /**
+     * Filters by type in the background, superseding any pending query.
+     *
+     * @param type the type to filter by
+     * @return a future with the matching Pokemon, cancelled if superseded
+     */
+    public CompletableFuture<List<Pokemon>> filterPokemonByType(PokemonType type) {
+        return submitLatest(latestQuery, () -> controller.filterPokemonByType(type));
+    }
+
+    /**
+     * Sorts the collection in the background, superseding any pending query.
+     *
+     * @param key the key to sort by
+     * @param descending true for descending order
+     * @return a future with the sorted Pokemon, cancelled if superseded
+     */
+    public CompletableFuture<List<Pokemon>> sortPokemon(PokemonSortKey key, boolean descending) {
+        return submitLatest(latestQuery, () -> controller.sortPokemon(key, descending));
+    }
+
+    /**
+     * Runs a combined query in the background, superseding any pending query.
+     *
+     * @param query the query to run
+     * @return a future with the Pokemon of the requested page, cancelled if superseded
+     */
+    public CompletableFuture<List<Pokemon>> query(PokemonQuery query) {
+        return submitLatest(latestQuery, () -> controller.query(query));
+    }
+
+    /**
+     * Fetches one window of a query's results in the background, together with the total
+     * number of results and the version of the collection both were read at, superseding
+     * any pending page fetch. Queries do not supersede page fetches or the other way round.
+     *
+     * @param query the query to run; its offset and limit are ignored
+     * @param offset the number of results to skip
+     * @param limit the maximum number of results
+     * @return a future with the window, cancelled if superseded
+     */
+    public CompletableFuture<Page> getPage(PokemonQuery query, int offset, int limit) {
+        return submitLatest(latestPage, () -> {
+            while (true) {
+                long version = versionOf(controller.getSnapshot());
+                List<Pokemon> pokemon = controller.getPage(query, offset, limit);
+                int count = controller.count(query);
+                // A change between the reads would make them disagree, so read again
+                if (versionOf(controller.getSnapshot()) == version) {
+                    return new Page(offset, pokemon, count, version);
+                }
+            }
+        });
+    }
+
+    /**
+     * Suggests names in the background, superseding any pending suggestion.
+     *
+     * @param prefix the start of the name, ignoring case
+     * @param count the most suggestions to return
+     * @return a future with the names, best ranked first, cancelled if superseded
+     */
+    public CompletableFuture<List<String>> suggestNames(String prefix, int count) {
+        return submitLatest(latestSuggestion, () -> controller.suggestNames(prefix, count));
+    }
+
+    /**
+     * Ranks a name higher in later suggestions, in the background.
+     *
+     * @param name the name
+     * @return a future completing once the use is recorded
+     */
+    public CompletableFuture<Void> recordNameUse(String name) {
+        return submit(() -> {
+            controller.recordNameUse(name);
+            return null;
+        });
+    }
+
+    /**
+     * Searches for the best teams in the background. Team searches are not superseded
+     * by queries, since their budget already bounds them.
+     *
+     * @param topN the number of teams to return
+     * @param timeBudgetMillis the time after which the best teams found so far are returned
+     * @return a future with the best teams found
+     */
+    public CompletableFuture<TeamOptimizer.Result> optimizeTeams(int topN, long timeBudgetMillis) {
+        return submit(() -> controller.optimizeTeams(topN, timeBudgetMillis));
+    }
+
+    /**
+     * Builds the matchup matrix of the current collection in the background.
+     *
+     * @param filename the name of the file to write
+     * @return a future with the written matrix, or null if writing failed
+     */
+    public CompletableFuture<MatchupMatrix> buildMatchupMatrix(String filename) {
+        return submit(() -> controller.buildMatchupMatrix(filename));
+    }
+
+    /**
+     * Shuts down the worker thread if this object created it. Calls already queued still run.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(future, task);
+        return future;
+    }
+
+    /**
+     * Submits a request that cancels the previous one of its kind. Cancelling does not
+     * interrupt a request that is already running, but its result is dropped.
+     */
+    private <T> CompletableFuture<T> submitLatest(AtomicReference<CompletableFuture<?>> latest, Supplier<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<?> previous = latest.getAndSet(future);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        execute(future, task);
+        return future;
+    }
+
+    private <T> void execute(CompletableFuture<T> future, Supplier<T> task) {
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return; // Cancelled before it started
+                }
+                try {
+                    future.complete(task.get());
+                } catch (Throwable e) {
+                    // Errors too, or the caller's future would never complete
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private static long versionOf(PokemonSnapshot snapshot) {
+        return snapshot == null ? -1 : snapshot.getVersion();
+    }
+
+    private static Thread newWorker(Runnable task) {
+        Thread worker = new Thread(task, "pokemon-async");
+        worker.setDaemon(true);
+        return worker;
+    }
+
+    /**
+     * One window of a query's results, read together with the result count at one
+     * version of the collection.
+     */
+    public static final class Page {
+        private final int offset;
+        private final List<Pokemon> pokemon;
+        private final int count;
+        private final long version;
+
+        Page(int offset, List<Pokemon> pokemon, int count, long version) {
+            this.offset = offset;
+            this.pokemon = pokemon;
+            this.count = count;
+            this.version = version;
+        }
+
+        /**
+         * Returns the position of the window's first result.
+         *
+         * @return the offset
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        /**
+         * Returns the Pokemon of the window.
+         *
+         * @return the Pokemon, in result order
+         */
+        public List<Pokemon> getPokemon() {
+            return pokemon;
+        }
+
+        /**
+         * Returns the number of results of the whole query.
+         *
+         * @return the result count
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the version of the collection the window and count were read at.
+         *
+         * @return the snapshot version, or -1 if the controller had none
+         */
+        public long getVersion() {
+            return version;
+        }
+    }
+}
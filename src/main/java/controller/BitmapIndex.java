@@ -0,0 +1,304 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+import model.PokemonType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bitmap index over a Pokemon list: one {@link RowBitmap} per type and one per stat bucket.
+ * <p>
+ * Each stat is split into buckets of {@value #BUCKET_WIDTH} values, the last one also
+ * holding anything above {@link PokemonStat#MAX_VALUE}. Boolean queries are written as
+ * bitmap expressions, for example
+ * {@code type(FIRE).or(type(DRAGON)).and(statRange(SPEED, 100, 255)).andNot(type(FLYING))},
+ * and {@link RowBitmap#cardinality()} counts the result without listing any rows.
+ * <p>
+ * A range that covers whole buckets is an OR of their bitmaps; a partly covered bucket
+ * at either end is narrowed by checking the stored stat values of its rows only.
+ * <p>
+ * Rows added, removed or replaced in the list afterwards are applied through
+ * {@link #rowAdded(Pokemon)}, {@link #rowRemoved(int)} and {@link #rowUpdated(int, Pokemon)},
+ * which rebuild only the chunks of the bitmaps holding the row, or for a removal the
+ * rows after it, instead of the whole index. This class is not thread-safe.
+ */
+public class BitmapIndex {
+    /**
+     * Number of stat values per bucket.
+     */
+    public static final int BUCKET_WIDTH = 16;
+
+    /**
+     * Number of buckets per stat.
+     */
+    public static final int BUCKETS = PokemonStat.MAX_VALUE / BUCKET_WIDTH + 1;
+
+    private static final PokemonStat[] STATS = PokemonStat.values();
+
+    private int size;
+    private RowBitmap all;
+    private final RowBitmap[] typeBitmaps;
+    private final RowBitmap[][] statBitmaps;
+    private final int[][] values; // Per stat, with room for more rows than size
+
+    /**
+     * Builds the index over a list of Pokemon.
+     *
+     * @param pokemonList the Pokemon to index, in row order
+     */
+    public BitmapIndex(List<Pokemon> pokemonList) {
+        this.size = pokemonList.size();
+        this.all = RowBitmap.range(0, size);
+        this.values = new int[STATS.length][size];
+
+        PokemonType[] types = PokemonType.values();
+        RowBitmap.Builder[] typeBuilders = new RowBitmap.Builder[types.length];
+        for (int t = 0; t < types.length; t++) {
+            typeBuilders[t] = new RowBitmap.Builder();
+        }
+        RowBitmap.Builder[][] statBuilders = new RowBitmap.Builder[STATS.length][BUCKETS];
+        for (RowBitmap.Builder[] buckets : statBuilders) {
+            for (int b = 0; b < BUCKETS; b++) {
+                buckets[b] = new RowBitmap.Builder();
+            }
+        }
+
+        // Rows are visited in order, so every builder receives ascending rows
+        for (int row = 0; row < size; row++) {
+            Pokemon pokemon = pokemonList.get(row);
+            int mask = PokemonType.maskOf(pokemon.getTypes());
+            for (int t = 0; t < types.length; t++) {
+                if ((mask & (1 << t)) != 0) {
+                    typeBuilders[t].add(row);
+                }
+            }
+            for (PokemonStat stat : STATS) {
+                int value = stat.of(pokemon.getStats());
+                values[stat.ordinal()][row] = value;
+                statBuilders[stat.ordinal()][bucketOf(value)].add(row);
+            }
+        }
+
+        this.typeBitmaps = new RowBitmap[types.length];
+        for (int t = 0; t < types.length; t++) {
+            typeBitmaps[t] = typeBuilders[t].build();
+        }
+        this.statBitmaps = new RowBitmap[STATS.length][BUCKETS];
+        for (int s = 0; s < STATS.length; s++) {
+            for (int b = 0; b < BUCKETS; b++) {
+                statBitmaps[s][b] = statBuilders[s][b].build();
+            }
+        }
+    }
+
+    /**
+     * Returns the bucket a stat value falls into.
+     *
+     * @param value the stat value
+     * @return the bucket, from 0 to {@link #BUCKETS} - 1
+     */
+    public static int bucketOf(int value) {
+        return Math.max(0, Math.min(BUCKETS - 1, value / BUCKET_WIDTH));
+    }
+
+    /**
+     * Returns every indexed row.
+     *
+     * @return the rows [0, size)
+     */
+    public RowBitmap all() {
+        return all;
+    }
+
+    /**
+     * Returns the rows having a type.
+     *
+     * @param type the type
+     * @return the rows with the type in either slot
+     */
+    public RowBitmap type(PokemonType type) {
+        return typeBitmaps[type.ordinal()];
+    }
+
+    /**
+     * Returns the rows having any type of a {@link PokemonType#maskOf(List)} mask.
+     *
+     * @param typeMask the accepted types
+     * @return the union of their bitmaps, or every row when the mask is 0
+     */
+    public RowBitmap anyType(int typeMask) {
+        if (typeMask == 0) {
+            return all;
+        }
+        RowBitmap result = RowBitmap.empty();
+        for (PokemonType type : PokemonType.fromMask(typeMask)) {
+            result = result.or(type(type));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rows in one bucket of a stat.
+     *
+     * @param stat the stat
+     * @param bucket the bucket, from 0 to {@link #BUCKETS} - 1
+     * @return the rows whose value falls into the bucket
+     */
+    public RowBitmap statBucket(PokemonStat stat, int bucket) {
+        return statBitmaps[stat.ordinal()][bucket];
+    }
+
+    /**
+     * Returns the rows whose stat lies in an inclusive range.
+     *
+     * @param stat the stat
+     * @param min the inclusive minimum
+     * @param max the inclusive maximum
+     * @return the matching rows
+     */
+    public RowBitmap statRange(PokemonStat stat, int min, int max) {
+        if (min > max) {
+            return RowBitmap.empty();
+        }
+        int first = bucketOf(min);
+        int last = bucketOf(max);
+        RowBitmap result = RowBitmap.empty();
+        for (int b = first; b <= last; b++) {
+            RowBitmap bucket = statBitmaps[stat.ordinal()][b];
+            if (min <= bucketMin(b) && max >= bucketMax(b)) {
+                result = result.or(bucket);
+            } else {
+                result = result.or(narrow(bucket, values[stat.ordinal()], min, max));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rows passing a query's type filter and stat ranges. The search term,
+     * sort keys and base stat total range are not bucketed and are ignored here.
+     *
+     * @param query the query
+     * @return the matching rows
+     */
+    public RowBitmap matching(PokemonQuery query) {
+        RowBitmap result = anyType(query.getTypeMask());
+        for (PokemonStat stat : STATS) {
+            if (query.hasStatRange(stat)) {
+                result = result.and(statRange(stat, query.getStatMin(stat), query.getStatMax(stat)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records that a Pokemon was appended to the end of the list.
+     *
+     * @param pokemon the new Pokemon
+     */
+    public void rowAdded(Pokemon pokemon) {
+        int row = size;
+        if (row == values[0].length) {
+            for (int s = 0; s < STATS.length; s++) {
+                values[s] = Arrays.copyOf(values[s], Math.max(16, row * 2));
+            }
+        }
+        RowBitmap added = RowBitmap.of(row);
+        int mask = PokemonType.maskOf(pokemon.getTypes());
+        for (int t = 0; t < typeBitmaps.length; t++) {
+            if ((mask & (1 << t)) != 0) {
+                typeBitmaps[t] = typeBitmaps[t].or(added);
+            }
+        }
+        for (PokemonStat stat : STATS) {
+            int value = stat.of(pokemon.getStats());
+            values[stat.ordinal()][row] = value;
+            RowBitmap[] buckets = statBitmaps[stat.ordinal()];
+            buckets[bucketOf(value)] = buckets[bucketOf(value)].or(added);
+        }
+        all = all.or(added);
+        size++;
+    }
+
+    /**
+     * Records that the Pokemon at a row was removed from the list, shifting every later
+     * row down by one.
+     *
+     * @param row the removed row
+     */
+    public void rowRemoved(int row) {
+        for (int t = 0; t < typeBitmaps.length; t++) {
+            typeBitmaps[t] = typeBitmaps[t].removeRow(row);
+        }
+        for (int s = 0; s < STATS.length; s++) {
+            for (int b = 0; b < BUCKETS; b++) {
+                statBitmaps[s][b] = statBitmaps[s][b].removeRow(row);
+            }
+            System.arraycopy(values[s], row + 1, values[s], row, size - row - 1);
+        }
+        all = all.removeRow(row);
+        size--;
+    }
+
+    /**
+     * Records that the Pokemon at a row was replaced. Only the bitmaps of the types and
+     * stat buckets the row leaves or joins change.
+     *
+     * @param row the updated row
+     * @param pokemon the new Pokemon
+     */
+    public void rowUpdated(int row, Pokemon pokemon) {
+        RowBitmap updated = RowBitmap.of(row);
+        int mask = PokemonType.maskOf(pokemon.getTypes());
+        for (int t = 0; t < typeBitmaps.length; t++) {
+            boolean had = typeBitmaps[t].contains(row);
+            boolean has = (mask & (1 << t)) != 0;
+            if (had && !has) {
+                typeBitmaps[t] = typeBitmaps[t].andNot(updated);
+            } else if (has && !had) {
+                typeBitmaps[t] = typeBitmaps[t].or(updated);
+            }
+        }
+        for (PokemonStat stat : STATS) {
+            int[] columnValues = values[stat.ordinal()];
+            int oldBucket = bucketOf(columnValues[row]);
+            int newBucket = bucketOf(stat.of(pokemon.getStats()));
+            columnValues[row] = stat.of(pokemon.getStats());
+            if (oldBucket != newBucket) {
+                RowBitmap[] buckets = statBitmaps[stat.ordinal()];
+                buckets[oldBucket] = buckets[oldBucket].andNot(updated);
+                buckets[newBucket] = buckets[newBucket].or(updated);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of indexed rows.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    private static int bucketMin(int bucket) {
+        return bucket == 0 ? Integer.MIN_VALUE : bucket * BUCKET_WIDTH;
+    }
+
+    private static int bucketMax(int bucket) {
+        return bucket == BUCKETS - 1 ? Integer.MAX_VALUE : (bucket + 1) * BUCKET_WIDTH - 1;
+    }
+
+    private static RowBitmap narrow(RowBitmap bucket, int[] columnValues, int min, int max) {
+        RowBitmap.Builder builder = new RowBitmap.Builder();
+        bucket.forEach(row -> {
+            int value = columnValues[row];
+            if (value >= min && value <= max) {
+                builder.add(row);
+            }
+        });
+        return builder.build();
+    }
+}
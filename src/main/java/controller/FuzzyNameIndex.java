@@ -0,0 +1,255 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BK-tree over normalized names for typo-tolerant search.
+ * <p>
+ * Each distinct name is a node, and a child hangs off its parent under the edit
+ * distance between the two. By the triangle inequality, a query within distance k of
+ * the term only has to descend into children whose edge lies in [d - k, d + k], where
+ * d is the distance from the term to the current node, so most of the tree is skipped.
+ * Nodes and edges live in parallel arrays (first child / next sibling) rather than
+ * one object per node. Results are row positions ranked by distance, then row order.
+ */
+public class FuzzyNameIndex {
+    /**
+     * Largest edit distance a search may ask for. Beyond this nearly every short
+     * name matches and the tree can no longer prune.
+     */
+    public static final int MAX_DISTANCE = 3;
+
+    private static final int NONE = -1;
+
+    private final String[] nodeNames;
+    private final int[][] nodeRows;
+    private final int[] edgeDistance;
+    private final int[] firstChild;
+    private final int[] nextSibling;
+    private final int[] maxChildEdge;
+    private int nodeCount;
+
+    /**
+     * Builds an index over a list of names.
+     *
+     * @param names the names to index, in row order; null names are skipped
+     */
+    public FuzzyNameIndex(List<String> names) {
+        Map<String, List<Integer>> rowsByName = new HashMap<>();
+        List<String> distinct = new ArrayList<>();
+        for (int row = 0; row < names.size(); row++) {
+            if (names.get(row) == null) {
+                continue;
+            }
+            String name = NGramIndex.normalize(names.get(row));
+            List<Integer> rows = rowsByName.get(name);
+            if (rows == null) {
+                rows = new ArrayList<>(1);
+                rowsByName.put(name, rows);
+                distinct.add(name);
+            }
+            rows.add(row);
+        }
+
+        int capacity = Math.max(1, distinct.size());
+        nodeNames = new String[capacity];
+        nodeRows = new int[capacity][];
+        edgeDistance = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        maxChildEdge = new int[capacity];
+        for (String name : distinct) {
+            insert(name, rowsByName.get(name).stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    /**
+     * Finds every row whose name is within an edit distance of the term, ignoring case.
+     *
+     * @param term the possibly misspelled name
+     * @param maxDistance the largest edit distance to accept, from 0 to {@link #MAX_DISTANCE}
+     * @return the matching rows, closest first, ties in row order
+     * @throws IllegalArgumentException if maxDistance is out of range
+     */
+    public int[] search(String term, int maxDistance) {
+        if (maxDistance < 0 || maxDistance > MAX_DISTANCE) {
+            throw new IllegalArgumentException("Max distance must be between 0 and " + MAX_DISTANCE);
+        }
+        if (nodeCount == 0) {
+            return new int[0];
+        }
+        String normalizedTerm = NGramIndex.normalize(term);
+        int[] previousRow = new int[normalizedTerm.length() + 1];
+        int[] currentRow = new int[normalizedTerm.length() + 1];
+
+        // One bucket of rows per distance so the result comes out ranked without a sort
+        int[][] buckets = new int[maxDistance + 1][];
+        int[] bucketSizes = new int[maxDistance + 1];
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            // Past this limit neither the node nor any child can match, so the exact distance is not needed
+            int limit = maxDistance + maxChildEdge[node];
+            int distance = boundedDistance(normalizedTerm, nodeNames[node], limit, previousRow, currentRow);
+            if (distance > limit) {
+                continue;
+            }
+            if (distance <= maxDistance) {
+                buckets[distance] = append(buckets[distance], bucketSizes[distance], nodeRows[node]);
+                bucketSizes[distance] += nodeRows[node].length;
+            }
+            for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                if (Math.abs(edgeDistance[child] - distance) <= maxDistance) {
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = child;
+                }
+            }
+        }
+
+        int total = 0;
+        for (int size : bucketSizes) {
+            total += size;
+        }
+        int[] result = new int[total];
+        int offset = 0;
+        for (int d = 0; d <= maxDistance; d++) {
+            if (bucketSizes[d] > 0) {
+                Arrays.sort(buckets[d], 0, bucketSizes[d]);
+                System.arraycopy(buckets[d], 0, result, offset, bucketSizes[d]);
+                offset += bucketSizes[d];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of distinct names in the tree.
+     *
+     * @return the node count
+     */
+    public int size() {
+        return nodeCount;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings with a two-row table.
+     *
+     * @param a the first string
+     * @param b the second string
+     * @return the number of single-character inserts, deletes and substitutions between them
+     */
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Computes the Levenshtein distance, giving up once it is known to exceed a limit.
+     * Only the band of the table within the limit of the diagonal can stay under it,
+     * and the scan stops as soon as a whole row is over the limit.
+     *
+     * @param term the search term
+     * @param name the node name
+     * @param limit the largest distance of interest
+     * @param previous scratch row of length term.length() + 1
+     * @param current scratch row of length term.length() + 1
+     * @return the distance, or limit + 1 if it is larger than the limit
+     */
+    private static int boundedDistance(String term, String name, int limit, int[] previous, int[] current) {
+        int n = term.length();
+        if (Math.abs(n - name.length()) > limit) {
+            return limit + 1;
+        }
+        int over = limit + 1;
+        for (int j = 0; j <= n; j++) {
+            previous[j] = Math.min(j, over);
+        }
+        for (int i = 1; i <= name.length(); i++) {
+            int from = Math.max(1, i - limit);
+            int to = Math.min(n, i + limit);
+            current[0] = Math.min(i, over);
+            if (from > 1) {
+                current[from - 1] = over;
+            }
+            int rowMin = current[0];
+            char c = name.charAt(i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = c == term.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                current[j] = Math.min(value, over);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (to < n) {
+                current[to + 1] = over;
+            }
+            if (rowMin > limit) {
+                return over;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[n];
+    }
+
+    private void insert(String name, int[] rows) {
+        int node = nodeCount++;
+        nodeNames[node] = name;
+        nodeRows[node] = rows;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        if (node == 0) {
+            return;
+        }
+
+        int parent = 0;
+        while (true) {
+            int distance = distance(name, nodeNames[parent]);
+            int child = firstChild[parent];
+            while (child != NONE && edgeDistance[child] != distance) {
+                child = nextSibling[child];
+            }
+            if (child == NONE) {
+                edgeDistance[node] = distance;
+                maxChildEdge[parent] = Math.max(maxChildEdge[parent], distance);
+                nextSibling[node] = firstChild[parent];
+                firstChild[parent] = node;
+                return;
+            }
+            parent = child;
+        }
+    }
+
+    private static int[] append(int[] bucket, int size, int[] rows) {
+        if (bucket == null) {
+            bucket = new int[Math.max(8, rows.length)];
+        } else if (size + rows.length > bucket.length) {
+            bucket = Arrays.copyOf(bucket, Math.max(bucket.length * 2, size + rows.length));
+        }
+        System.arraycopy(rows, 0, bucket, size, rows.length);
+        return bucket;
+    }
+}
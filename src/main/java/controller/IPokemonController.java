@@ -1,9 +1,11 @@
 package controller;
 
 import model.Pokemon;
+import model.PokemonStat;
 import model.PokemonType;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface for Pokemon Controller defining the contract for
@@ -25,13 +27,30 @@ public interface IPokemonController {
      */
     List<Pokemon> getPokemonCollection();
 
+    /**
+     * Returns the current immutable snapshot of the collection, whose version
+     * changes whenever the collection does.
+     *
+     * @return the latest snapshot
+     */
+    PokemonSnapshot getSnapshot();
+
     /**
      * Saves the current Pokemon collection to a file.
      *
      * @param filename the name of the file to save to
+     * @throws java.io.UncheckedIOException if the collection could not be written
      */
     void saveCollection(String filename);
 
+    /**
+     * Loads a Pokemon collection from a file and makes it the current collection.
+     *
+     * @param filename the name of the file to load from
+     * @return the loaded Pokemon collection
+     */
+    List<Pokemon> loadCollection(String filename);
+
     /**
      * Searches Pokemon by name.
      *
@@ -40,6 +59,15 @@ public interface IPokemonController {
      */
     List<Pokemon> searchPokemon(String searchTerm);
 
+    /**
+     * Searches Pokemon by name, tolerating typos.
+     *
+     * @param searchTerm the possibly misspelled name to search for
+     * @param maxDistance the largest edit distance to accept
+     * @return list of Pokemon within the edit distance, closest first
+     */
+    List<Pokemon> fuzzySearchPokemon(String searchTerm, int maxDistance);
+
     /**
      * Sorts Pokemon by name alphabetically.
      *
@@ -47,6 +75,15 @@ public interface IPokemonController {
      */
     List<Pokemon> sortPokemonByName();
 
+    /**
+     * Sorts Pokemon by a key.
+     *
+     * @param key the key to sort by
+     * @param descending true for descending order
+     * @return sorted list of Pokemon
+     */
+    List<Pokemon> sortPokemon(PokemonSortKey key, boolean descending);
+
     /**
      * Filters Pokemon by type.
      *
@@ -55,6 +92,132 @@ public interface IPokemonController {
      */
     List<Pokemon> filterPokemonByType(PokemonType type);
 
+    /**
+     * Filters Pokemon whose stat lies in an inclusive range.
+     *
+     * @param stat the stat to filter on
+     * @param min the inclusive minimum
+     * @param max the inclusive maximum
+     * @return list of Pokemon within the range
+     */
+    List<Pokemon> filterPokemonByStatRange(PokemonStat stat, int min, int max);
+
+    /**
+     * Filters Pokemon whose base stat total lies in an inclusive range.
+     *
+     * @param min the inclusive minimum
+     * @param max the inclusive maximum
+     * @return list of Pokemon within the range
+     */
+    List<Pokemon> filterPokemonByTotalRange(int min, int max);
+
+    /**
+     * Runs a combined search, filter, sort and page query.
+     *
+     * @param query the query to run
+     * @return the Pokemon of the requested page, in result order; the list may be read-only
+     */
+    List<Pokemon> query(PokemonQuery query);
+
+    /**
+     * Runs a query for one window of its results, so a view can fetch only the rows it shows.
+     * The query's own offset and limit are replaced by the window.
+     *
+     * @param query the query to run
+     * @param offset the number of results to skip
+     * @param limit the maximum number of results
+     * @return the Pokemon of the window, in result order
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    List<Pokemon> getPage(PokemonQuery query, int offset, int limit);
+
+    /**
+     * Counts every match of a query, ignoring its sort keys, offset and limit.
+     *
+     * @param query the query to count
+     * @return the number of matching Pokemon
+     */
+    int count(PokemonQuery query);
+
+    /**
+     * Suggests names from the current collection that start with a prefix.
+     *
+     * @param prefix the start of the name, ignoring case
+     * @param count the most suggestions to return
+     * @return the names, best ranked first
+     * @throws IllegalArgumentException if count is negative
+     */
+    List<String> suggestNames(String prefix, int count);
+
+    /**
+     * Ranks a name higher in later suggestions, for example after it was picked from them.
+     *
+     * @param name the name
+     */
+    void recordNameUse(String name);
+
+    /**
+     * Returns the hit, miss and memory statistics of the query result cache.
+     *
+     * @return the current cache statistics
+     */
+    QueryCache.Stats getQueryCacheStats();
+
+    /**
+     * Summarizes one base stat over the current collection or one type.
+     *
+     * @param type the type to restrict to, or null for the whole collection
+     * @param stat the stat
+     * @return the count, extremes, mean, histogram and percentiles of the stat
+     */
+    PokemonStatistics.Summary getStatSummary(PokemonType type, PokemonStat stat);
+
+    /**
+     * Summarizes the base stat total over the current collection or one type.
+     *
+     * @param type the type to restrict to, or null for the whole collection
+     * @return the count, extremes, mean, histogram and percentiles of the total
+     */
+    PokemonStatistics.Summary getTotalSummary(PokemonType type);
+
+    /**
+     * Ranks each base stat against the current collection.
+     *
+     * @param stats the stats to rank
+     * @return the percentile rank of each stat from 0 to 100, counting equal values as half
+     */
+    Map<PokemonStat, Double> getPercentileRanks(Pokemon.PokemonStats stats);
+
+    /**
+     * Finds the Pokemon in the current collection whose base stats are closest to a given
+     * Pokemon's.
+     *
+     * @param pokemon the Pokemon to compare with, which is left out of the result
+     * @param count the maximum number of Pokemon to return
+     * @param sameType true to only return Pokemon sharing a type with the given one
+     * @return the closest Pokemon, nearest first
+     */
+    List<Pokemon> findSimilarPokemon(Pokemon pokemon, int count, boolean sameType);
+
+    /**
+     * Searches the current collection for the teams of {@link TeamOptimizer#TEAM_SIZE}
+     * Pokemon with the best type coverage and base stats.
+     *
+     * @param topN the number of teams to return
+     * @param timeBudgetMillis the time after which the best teams found so far are returned
+     * @return the best teams found
+     */
+    TeamOptimizer.Result optimizeTeams(int topN, long timeBudgetMillis);
+
+    /**
+     * Scores every Pokemon of the current collection against every other and writes
+     * the scores to a file that can be queried by row.
+     *
+     * @param filename the name of the file to write
+     * @return the written matrix, open for reading, or null if writing failed
+     */
+    MatchupMatrix buildMatchupMatrix(String filename);
+
     /**
      * Gets a Pokemon by its ID.
      *
@@ -62,4 +225,41 @@ public interface IPokemonController {
      * @return the Pokemon with the specified ID, or null if not found
      */
     Pokemon getPokemonById(int id);
+
+    /**
+     * Adds a Pokemon to the current collection.
+     *
+     * @param pokemon the Pokemon to add
+     */
+    void addPokemon(Pokemon pokemon);
+
+    /**
+     * Replaces the Pokemon with the same ID in the current collection, keeping its position.
+     *
+     * @param pokemon the new version of the Pokemon
+     * @return true if a Pokemon was replaced
+     */
+    boolean updatePokemon(Pokemon pokemon);
+
+    /**
+     * Removes a Pokemon from the current collection.
+     *
+     * @param id the ID of the Pokemon to remove
+     * @return true if a Pokemon was removed
+     */
+    boolean removePokemon(int id);
+
+    /**
+     * Registers a listener that is told about every change to the collection.
+     *
+     * @param listener the listener to add
+     */
+    void addChangeListener(PokemonChangeListener listener);
+
+    /**
+     * Unregisters a change listener.
+     *
+     * @param listener the listener to remove
+     */
+    void removeChangeListener(PokemonChangeListener listener);
 }
\ No newline at end of file
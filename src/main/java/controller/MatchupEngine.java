@@ -0,0 +1,248 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+import model.PokemonType;
+import model.TypeChart;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores every Pokemon of a collection against every other and writes the scores as a
+ * {@link MatchupMatrix} file.
+ * <p>
+ * The score of an attacker against a defender compares how hard each hits the other:
+ * the best multiplier of the attacker's types against the defender's, times the better
+ * of its physical and special attack over the matching defense, over the defender's HP.
+ * The score is the base-2 logarithm of the attacker's pressure over the defender's, in
+ * {@link #SCALE}ths, so 0 is an even matchup, {@code SCALE} means the attacker does twice
+ * as well, and the matrix is antisymmetric. An immunity counts as a 1/256 multiplier so
+ * scores stay finite.
+ * <p>
+ * Scores are computed from primitive columns: the logarithms of each stat, and one
+ * type-combination number per Pokemon that indexes a small precomputed table of
+ * effectiveness logarithms, so a score is a handful of float additions with no lookups
+ * in the Pokemon objects. The matrix is filled in square tiles of {@link #TILE} rows
+ * and columns, so the defender columns of a tile stay in cache while every attacker row
+ * of the tile runs over them. Bands of rows are computed in parallel on the
+ * {@link QueryExecutor} pool and written to disk one band at a time, so memory stays
+ * bounded however large the collection.
+ */
+public class MatchupEngine {
+    /**
+     * Score units per doubling of the attacker's advantage.
+     */
+    public static final int SCALE = 256;
+
+    /**
+     * Rows and columns per tile.
+     */
+    public static final int TILE = 128;
+
+    private static final float IMMUNE_LOG = -8;
+    // Aim for bands of roughly 4 MB of scores
+    private static final int BAND_BYTES = 1 << 22;
+
+    private final int size;
+    private final int[] ids;
+    private final int[] combos;
+    private final int comboCount;
+    private final float[] effectiveness;
+    private final float[] logHp;
+    private final float[] logAttack;
+    private final float[] logDefense;
+    private final float[] logSpecialAttack;
+    private final float[] logSpecialDefense;
+
+    /**
+     * Extracts the columns of a collection.
+     *
+     * @param pokemonList the Pokemon to score, in row order
+     * @throws IllegalArgumentException if the list is null or contains null
+     */
+    public MatchupEngine(List<Pokemon> pokemonList) {
+        if (pokemonList == null) {
+            throw new IllegalArgumentException("Pokemon list cannot be null");
+        }
+        size = pokemonList.size();
+        ids = new int[size];
+        combos = new int[size];
+        logHp = new float[size];
+        logAttack = new float[size];
+        logDefense = new float[size];
+        logSpecialAttack = new float[size];
+        logSpecialDefense = new float[size];
+
+        Map<Integer, Integer> comboOfMask = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            Pokemon pokemon = pokemonList.get(row);
+            if (pokemon == null) {
+                throw new IllegalArgumentException("Pokemon list cannot contain null");
+            }
+            ids[row] = pokemon.getId();
+            combos[row] = comboOfMask.computeIfAbsent(PokemonType.maskOf(pokemon.getTypes()), mask -> comboOfMask.size());
+            Pokemon.PokemonStats stats = pokemon.getStats();
+            logHp[row] = logStat(stats, PokemonStat.HP);
+            logAttack[row] = logStat(stats, PokemonStat.ATTACK);
+            logDefense[row] = logStat(stats, PokemonStat.DEFENSE);
+            logSpecialAttack[row] = logStat(stats, PokemonStat.SPECIAL_ATTACK);
+            logSpecialDefense[row] = logStat(stats, PokemonStat.SPECIAL_DEFENSE);
+        }
+
+        comboCount = comboOfMask.size();
+        int[] masks = new int[comboCount];
+        comboOfMask.forEach((mask, combo) -> masks[combo] = mask);
+        effectiveness = new float[comboCount * comboCount];
+        for (int attacker = 0; attacker < comboCount; attacker++) {
+            for (int defender = 0; defender < comboCount; defender++) {
+                effectiveness[attacker * comboCount + defender] = bestLogMultiplier(masks[attacker], masks[defender]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of Pokemon, which is both dimensions of the matrix.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Scores one attacker against one defender.
+     *
+     * @param attacker the attacker's row
+     * @param defender the defender's row
+     * @return the score in {@link #SCALE}ths of a doubling
+     */
+    public short score(int attacker, int defender) {
+        float advantage = pressure(attacker, defender) - pressure(defender, attacker);
+        return (short) Math.max(-Short.MAX_VALUE, Math.min(Short.MAX_VALUE, Math.round(advantage * SCALE)));
+    }
+
+    /**
+     * Computes every score and writes the matrix to a file, replacing it if it exists.
+     *
+     * @param file the file to write
+     * @param executor the executor to compute bands of rows on
+     * @return the written matrix, open for reading
+     * @throws IOException if the file cannot be written
+     */
+    public MatchupMatrix writeMatrix(Path file, QueryExecutor executor) throws IOException {
+        int bandRows = Math.max(TILE, BAND_BYTES / Math.max(1, size * Short.BYTES) / TILE * TILE);
+        short[] band = new short[Math.min(bandRows, size) * size];
+        ByteBuffer bytes = ByteBuffer.allocateDirect(band.length * Short.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, MatchupMatrix.header(ids));
+            for (int from = 0; from < size; from += bandRows) {
+                int to = Math.min(size, from + bandRows);
+                fillBand(band, from, to, executor);
+                bytes.clear();
+                bytes.asShortBuffer().put(band, 0, (to - from) * size);
+                bytes.limit((to - from) * size * Short.BYTES);
+                writeFully(channel, bytes);
+            }
+        }
+        return MatchupMatrix.open(file);
+    }
+
+    /**
+     * Fills rows [from, to) of the matrix into a band, row-major from the band's start.
+     */
+    void fillBand(short[] band, int from, int to, QueryExecutor executor) {
+        int tiles = (to - from + TILE - 1) / TILE;
+        if (executor.getParallelism() == 1 || tiles == 1) {
+            fillTiles(band, from, from, to);
+        } else {
+            executor.invoke(new BandTask(band, from, from, to));
+        }
+    }
+
+    /**
+     * Fills rows [from, to) of a band starting at {@code bandStart}, one tile of defender
+     * columns at a time.
+     */
+    private void fillTiles(short[] band, int bandStart, int from, int to) {
+        for (int columnFrom = 0; columnFrom < size; columnFrom += TILE) {
+            int columnTo = Math.min(size, columnFrom + TILE);
+            for (int row = from; row < to; row++) {
+                int offset = (row - bandStart) * size;
+                for (int column = columnFrom; column < columnTo; column++) {
+                    band[offset + column] = score(row, column);
+                }
+            }
+        }
+    }
+
+    private float pressure(int attacker, int defender) {
+        return effectiveness[combos[attacker] * comboCount + combos[defender]]
+                + Math.max(logAttack[attacker] - logDefense[defender],
+                logSpecialAttack[attacker] - logSpecialDefense[defender])
+                - logHp[defender];
+    }
+
+    /**
+     * Returns the base-2 logarithm of the best multiplier any of the attacking types gets
+     * against the defending combination. An untyped attacker hits neutrally.
+     */
+    private static float bestLogMultiplier(int attackerMask, int defenderMask) {
+        if (attackerMask == 0) {
+            return 0;
+        }
+        List<PokemonType> defenderTypes = PokemonType.fromMask(defenderMask);
+        double best = 0;
+        for (PokemonType attacker : PokemonType.fromMask(attackerMask)) {
+            best = Math.max(best, TypeChart.multiplier(attacker, defenderTypes));
+        }
+        return best == 0 ? IMMUNE_LOG : (float) (Math.log(best) / Math.log(2));
+    }
+
+    private static float logStat(Pokemon.PokemonStats stats, PokemonStat stat) {
+        int value = stats == null ? 1 : Math.max(1, stat.of(stats));
+        return (float) (Math.log(value) / Math.log(2));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Splits a band's rows in halves down to one tile height.
+     */
+    private final class BandTask extends RecursiveAction {
+        private final short[] band;
+        private final int bandStart;
+        private final int from;
+        private final int to;
+
+        BandTask(short[] band, int bandStart, int from, int to) {
+            this.band = band;
+            this.bandStart = bandStart;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TILE) {
+                fillTiles(band, bandStart, from, to);
+                return;
+            }
+            int middle = from + (to - from + TILE - 1) / TILE / 2 * TILE;
+            invokeAll(new BandTask(band, bandStart, from, middle), new BandTask(band, bandStart, middle, to));
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read access to a matchup score matrix written by {@link MatchupEngine}.
+ * <p>
+ * Only the header and the Pokemon IDs are held in memory; each row is read from the
+ * file when asked for, so a matrix of a large collection can be queried without
+ * loading or recomputing it. Reads use positional channel reads, so one open matrix
+ * can be shared between threads.
+ * <p>
+ * File layout (little endian):
+ * <pre>
+ *  0  int      magic number, "PKMX"
+ *  4  int      format version
+ *  8  int      row count n
+ * 12  int      score units per doubling
+ * 16  int[n]   Pokemon ID of each row and column
+ * 16 + 4n      short[n * n] scores, row-major; row is the attacker, column the defender
+ * </pre>
+ */
+public class MatchupMatrix implements AutoCloseable {
+    private static final int MAGIC = 0x504B4D58;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private final FileChannel channel;
+    private final int size;
+    private final int scale;
+    private final int[] ids;
+    private final Map<Integer, Integer> rowOfId;
+
+    private MatchupMatrix(FileChannel channel, int size, int scale, int[] ids) {
+        this.channel = channel;
+        this.size = size;
+        this.scale = scale;
+        this.ids = ids;
+        this.rowOfId = new HashMap<>(size * 2);
+        for (int row = size - 1; row >= 0; row--) {
+            rowOfId.put(ids[row], row); // First row wins for duplicate IDs
+        }
+    }
+
+    /**
+     * Opens a matrix file.
+     *
+     * @param file the file written by {@link MatchupEngine#writeMatrix}
+     * @return the open matrix
+     * @throws IOException if the file cannot be read or is not a complete matrix
+     */
+    public static MatchupMatrix open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = readAt(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a matchup matrix: " + file);
+            }
+            int size = header.getInt();
+            int scale = header.getInt();
+            if (size < 0 || channel.size() != HEADER_SIZE + 4L * size + 2L * size * size) {
+                throw new IOException("Truncated matchup matrix: " + file);
+            }
+            int[] ids = new int[size];
+            readAt(channel, HEADER_SIZE, 4 * size).asIntBuffer().get(ids);
+            return new MatchupMatrix(channel, size, scale, ids);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static ByteBuffer header(int[] ids) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + 4 * ids.length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(ids.length).putInt(MatchupEngine.SCALE);
+        header.asIntBuffer().put(ids);
+        header.position(0);
+        return header;
+    }
+
+    /**
+     * Returns the number of Pokemon, which is both dimensions of the matrix.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the score units per doubling of the attacker's advantage.
+     *
+     * @return the scale the scores were written with
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Returns the Pokemon ID of a row, which is also the ID of the column with that index.
+     *
+     * @param row the row
+     * @return the Pokemon ID
+     */
+    public int getId(int row) {
+        checkIndex(row);
+        return ids[row];
+    }
+
+    /**
+     * Finds the row of a Pokemon.
+     *
+     * @param id the Pokemon ID
+     * @return the row, or -1 if the Pokemon is not in the matrix
+     */
+    public int rowOf(int id) {
+        Integer row = rowOfId.get(id);
+        return row == null ? -1 : row;
+    }
+
+    /**
+     * Reads one attacker's scores against every defender.
+     *
+     * @param row the attacker's row
+     * @return the scores, indexed by defender column
+     * @throws IOException if the file cannot be read
+     */
+    public short[] readRow(int row) throws IOException {
+        checkIndex(row);
+        short[] scores = new short[size];
+        readAt(channel, rowOffset(row), 2 * size).asShortBuffer().get(scores);
+        return scores;
+    }
+
+    /**
+     * Reads a single score.
+     *
+     * @param attacker the attacker's row
+     * @param defender the defender's column
+     * @return the score
+     * @throws IOException if the file cannot be read
+     */
+    public short getScore(int attacker, int defender) throws IOException {
+        checkIndex(attacker);
+        checkIndex(defender);
+        return readAt(channel, rowOffset(attacker) + 2L * defender, 2).getShort();
+    }
+
+    /**
+     * Ranks the defenders an attacker does best against.
+     *
+     * @param row the attacker's row
+     * @param count the maximum number of defenders to return
+     * @return the defender columns, best matchup first, ties in column order
+     * @throws IOException if the file cannot be read
+     */
+    public int[] bestMatchups(int row, int count) throws IOException {
+        short[] scores = readRow(row);
+        // Pack descending score and column into one sortable long
+        long[] keys = new long[size];
+        for (int column = 0; column < size; column++) {
+            keys[column] = ((long) -scores[column] << 32) | column;
+        }
+        Arrays.sort(keys);
+        int[] result = new int[Math.max(0, Math.min(count, size))];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (int) keys[i];
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long rowOffset(int row) {
+        return HEADER_SIZE + 4L * size + 2L * size * row;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Row " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private static ByteBuffer readAt(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of matchup matrix");
+            }
+        }
+        return buffer.flip();
+    }
+}
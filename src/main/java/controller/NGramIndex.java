@@ -0,0 +1,328 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram inverted index for case-insensitive substring search over a fixed list of keys.
+ * <p>
+ * Keys are normalized once when the index is built. Every distinct trigram maps to a
+ * sorted posting list of the rows that contain it, so a term of three or more characters
+ * is answered by intersecting the posting lists of its trigrams, smallest first, and then
+ * verifying the few surviving candidates. Shorter terms fall back to a scan over the
+ * pre-normalized keys, which still avoids lowercasing every key on every search.
+ * Results are row positions in ascending order, i.e. in the order of the original list.
+ * <p>
+ * Keys added, removed or replaced afterwards are applied through {@link #rowAdded(String)},
+ * {@link #rowRemoved(int)} and {@link #rowUpdated(int, String)}, which touch only the
+ * posting lists of the key's trigrams, plus a pass renumbering later rows after a
+ * removal. This class is not thread-safe.
+ */
+public class NGramIndex {
+    private static final int N = 3;
+    private static final int[] EMPTY = new int[0];
+
+    private String[] normalizedKeys; // With room for more rows than size
+    private int size;
+    private final Map<Long, int[]> postings;
+    private final QueryExecutor executor;
+
+    /**
+     * Builds an index over a list of keys, scanning short terms on the shared executor.
+     *
+     * @param keys the keys to index, in row order; null keys never match
+     */
+    public NGramIndex(List<String> keys) {
+        this(keys, QueryExecutor.shared());
+    }
+
+    /**
+     * Builds an index over a list of keys.
+     *
+     * @param keys the keys to index, in row order; null keys never match
+     * @param executor the executor for scans of terms too short for trigrams
+     */
+    public NGramIndex(List<String> keys, QueryExecutor executor) {
+        this.executor = executor;
+        this.normalizedKeys = new String[keys.size()];
+        this.size = keys.size();
+        Map<Long, PostingBuilder> builders = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            String key = normalizeKey(keys.get(row));
+            normalizedKeys[row] = key;
+            for (int i = 0; i + N <= key.length(); i++) {
+                builders.computeIfAbsent(gram(key, i), k -> new PostingBuilder()).add(row);
+            }
+        }
+
+        this.postings = new HashMap<>(builders.size() * 4 / 3 + 1);
+        for (Map.Entry<Long, PostingBuilder> entry : builders.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+    }
+
+    /**
+     * Normalizes a key or term the same way the index does.
+     *
+     * @param value the value to normalize
+     * @return the normalized value
+     */
+    public static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds every row whose key contains the term, ignoring case.
+     *
+     * @param term the substring to look for; an empty term matches every row
+     * @return the matching rows in ascending order
+     */
+    public int[] search(String term) {
+        String normalizedTerm = normalize(term);
+        if (normalizedTerm.length() < N) {
+            return scan(normalizedTerm);
+        }
+
+        int gramCount = normalizedTerm.length() - N + 1;
+        int[][] lists = new int[gramCount][];
+        for (int i = 0; i < gramCount; i++) {
+            int[] posting = postings.get(gram(normalizedTerm, i));
+            if (posting == null) {
+                return EMPTY;
+            }
+            lists[i] = posting;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+
+        // Intersect the smallest list with the others, dropping candidates as we go
+        int[] candidates = lists[0].clone();
+        int count = candidates.length;
+        for (int i = 1; i < lists.length && count > 0; i++) {
+            if (lists[i] != lists[i - 1]) {
+                count = intersect(candidates, count, lists[i]);
+            }
+        }
+
+        // Trigrams can match out of order, so confirm the actual substring
+        int matches = 0;
+        for (int i = 0; i < count; i++) {
+            if (normalizedKeys[candidates[i]].contains(normalizedTerm)) {
+                candidates[matches++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, matches);
+    }
+
+    /**
+     * Records that a key was appended to the end of the list.
+     *
+     * @param key the new key; null never matches
+     */
+    public void rowAdded(String key) {
+        int row = size;
+        if (row == normalizedKeys.length) {
+            normalizedKeys = Arrays.copyOf(normalizedKeys, Math.max(16, row * 2));
+        }
+        normalizedKeys[row] = normalizeKey(key);
+        size++;
+        for (long gram : grams(normalizedKeys[row])) {
+            postings.merge(gram, new int[] {row}, (posting, added) -> insert(posting, row));
+        }
+    }
+
+    /**
+     * Records that the key at a row was removed from the list, shifting every later row
+     * down by one.
+     *
+     * @param row the removed row
+     */
+    public void rowRemoved(int row) {
+        for (long gram : grams(normalizedKeys[row])) {
+            removeFromPosting(gram, row);
+        }
+        // Posting lists never leave the index, so they are renumbered in place
+        for (int[] posting : postings.values()) {
+            int from = -Arrays.binarySearch(posting, row) - 1;
+            for (int i = from; i < posting.length; i++) {
+                posting[i]--;
+            }
+        }
+        System.arraycopy(normalizedKeys, row + 1, normalizedKeys, row, size - row - 1);
+        normalizedKeys[--size] = null;
+    }
+
+    /**
+     * Records that the key at a row was replaced. Only the trigrams the row gains or
+     * loses have their posting lists changed.
+     *
+     * @param row the updated row
+     * @param key the new key; null never matches
+     */
+    public void rowUpdated(int row, String key) {
+        Set<Long> oldGrams = grams(normalizedKeys[row]);
+        Set<Long> newGrams = grams(normalizeKey(key));
+        normalizedKeys[row] = normalizeKey(key);
+        for (long gram : oldGrams) {
+            if (!newGrams.contains(gram)) {
+                removeFromPosting(gram, row);
+            }
+        }
+        for (long gram : newGrams) {
+            if (!oldGrams.contains(gram)) {
+                postings.merge(gram, new int[] {row}, (posting, added) -> insert(posting, row));
+            }
+        }
+    }
+
+    /**
+     * Returns the number of indexed rows.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Merges two ascending row arrays into their ascending union without duplicates.
+     *
+     * @param a the first rows
+     * @param b the second rows
+     * @return the union of both
+     */
+    public static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[k++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[k++] = b[j++];
+            } else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            result[k++] = a[i++];
+        }
+        while (j < b.length) {
+            result[k++] = b[j++];
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private int[] scan(String normalizedTerm) {
+        String[] keys = normalizedKeys;
+        return executor.filter(size, row -> keys[row].contains(normalizedTerm));
+    }
+
+    private static String normalizeKey(String key) {
+        return key == null ? "" : normalize(key);
+    }
+
+    private static Set<Long> grams(String normalizedKey) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + N <= normalizedKey.length(); i++) {
+            grams.add(gram(normalizedKey, i));
+        }
+        return grams;
+    }
+
+    private void removeFromPosting(long gram, int row) {
+        int[] posting = postings.get(gram);
+        int at = Arrays.binarySearch(posting, row);
+        if (posting.length == 1) {
+            postings.remove(gram);
+            return;
+        }
+        int[] shrunk = new int[posting.length - 1];
+        System.arraycopy(posting, 0, shrunk, 0, at);
+        System.arraycopy(posting, at + 1, shrunk, at, shrunk.length - at);
+        postings.put(gram, shrunk);
+    }
+
+    private static int[] insert(int[] posting, int row) {
+        int at = -Arrays.binarySearch(posting, row) - 1;
+        int[] grown = new int[posting.length + 1];
+        System.arraycopy(posting, 0, grown, 0, at);
+        grown[at] = row;
+        System.arraycopy(posting, at, grown, at + 1, posting.length - at);
+        return grown;
+    }
+
+    /**
+     * Keeps only the candidates that also appear in the posting list.
+     * Lists of similar length are merged linearly; when the posting list is much longer,
+     * each candidate gallops forward from the previous hit instead.
+     *
+     * @param candidates the candidate rows, compacted in place
+     * @param count the number of valid candidates
+     * @param posting the sorted posting list to intersect with
+     * @return the number of candidates kept
+     */
+    private static int intersect(int[] candidates, int count, int[] posting) {
+        int kept = 0;
+        int from = 0;
+        boolean gallop = posting.length > count * 16L;
+        for (int i = 0; i < count && from < posting.length; i++) {
+            int target = candidates[i];
+            if (gallop) {
+                int step = 1;
+                int hi = from;
+                while (hi < posting.length && posting[hi] < target) {
+                    from = hi + 1;
+                    hi += step;
+                    step <<= 1;
+                }
+                int found = Arrays.binarySearch(posting, from, Math.min(hi + 1, posting.length), target);
+                from = found >= 0 ? found : -found - 1;
+            } else {
+                while (from < posting.length && posting[from] < target) {
+                    from++;
+                }
+            }
+            if (from < posting.length && posting[from] == target) {
+                candidates[kept++] = target;
+                from++;
+            }
+        }
+        return kept;
+    }
+
+    private static long gram(String value, int start) {
+        return ((long) value.charAt(start) << 32)
+                | ((long) value.charAt(start + 1) << 16)
+                | value.charAt(start + 2);
+    }
+
+    /**
+     * Growable posting list used only while building the index.
+     */
+    private static final class PostingBuilder {
+        private int[] rows = new int[4];
+        private int size;
+
+        void add(int row) {
+            // A key can repeat a trigram; rows arrive in order so only check the last one
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+    }
+}
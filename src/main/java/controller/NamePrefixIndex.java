@@ -0,0 +1,492 @@
+package controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ternary search tree over normalized names for ranked prefix completion.
+ * <p>
+ * Each node holds one character and three links: to the names with a smaller or
+ * larger character at that position, and to the names continuing with it. Nodes live
+ * in parallel arrays rather than one object per node. Every distinct name carries a
+ * score: the number of times it was {@link #recordUse(String) used} first, then the
+ * number of rows having it. Every node also keeps the best score below it, so the top
+ * suggestions for a prefix are found best first: walk to the prefix, then repeatedly
+ * open the most promising subtree, ignoring every subtree that cannot beat the
+ * suggestions already found. Only the names returned and the handful of nodes on the
+ * way are touched, however many names share the prefix, and the search works in
+ * scratch arrays kept with the index, so a lookup allocates little beyond its result.
+ * <p>
+ * Suggestions with equal scores come in name order for the names the index was built
+ * with, then in the order names were added. This class is not thread-safe.
+ */
+public class NamePrefixIndex {
+    private static final int NONE = -1;
+    private static final long DEAD = -1; // Score of a name no row has any more
+
+    // Nodes
+    private char[] split;
+    private int[] low;
+    private int[] equal;
+    private int[] high;
+    private int[] nameAt; // Name ending at the node, or NONE
+    private long[] best; // Best score in the node's subtree, or DEAD
+    private int[] firstName; // Smallest name number in the node's subtree
+    private int nodeCount;
+    private int root = NONE;
+
+    // Names, numbered in name order at build, then in the order added
+    private final List<String> displayNames = new ArrayList<>();
+    private int[] rows;
+    private int[] uses;
+    private int liveNames;
+
+    // Scratch space for searches and updates
+    private long[] heapScores = new long[16];
+    private int[] heapNames = new int[16];
+    private int[] heapRefs = new int[16];
+    private int[] path = new int[16];
+
+    /**
+     * Builds an index over a list of names.
+     *
+     * @param names the names to index, one per row; null and empty names are skipped
+     */
+    public NamePrefixIndex(List<String> names) {
+        rows = new int[16];
+        uses = new int[16];
+        Map<String, Integer> numbers = new HashMap<>();
+        for (String name : names) {
+            if (name == null || name.isEmpty()) {
+                continue;
+            }
+            String key = NGramIndex.normalize(name);
+            Integer number = numbers.get(key);
+            if (number == null) {
+                number = newName(name);
+                numbers.put(key, number);
+            }
+            if (rows[number]++ == 0) {
+                liveNames++;
+            }
+        }
+
+        int capacity = Math.max(16, numbers.size() * 2);
+        split = new char[capacity];
+        low = new int[capacity];
+        equal = new int[capacity];
+        high = new int[capacity];
+        nameAt = new int[capacity];
+        best = new long[capacity];
+        firstName = new int[capacity];
+        // Hash order is unrelated to name order, so the tree comes out about as balanced
+        // as with random insertion, without sorting the names
+        for (Map.Entry<String, Integer> entry : numbers.entrySet()) {
+            insert(entry.getKey(), entry.getValue());
+        }
+        renumberInNameOrder();
+    }
+
+    /**
+     * Counts one more row with a name.
+     *
+     * @param name the name; null and empty names are skipped
+     */
+    public void add(String name) {
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+        String key = NGramIndex.normalize(name);
+        int node = find(key);
+        int number = node == NONE ? NONE : nameAt[node];
+        if (number == NONE) {
+            number = newName(name);
+            rows[number] = 1;
+            liveNames++;
+            insert(key, number);
+        } else {
+            if (rows[number]++ == 0) {
+                liveNames++;
+            }
+            raise(key, score(number));
+        }
+    }
+
+    /**
+     * Counts one row fewer with a name. Once no row has the name, it is no longer suggested.
+     *
+     * @param name the name
+     * @return true if a row with the name was counted
+     */
+    public boolean remove(String name) {
+        if (name == null) {
+            return false;
+        }
+        String key = NGramIndex.normalize(name);
+        int node = find(key);
+        if (node == NONE || nameAt[node] == NONE || rows[nameAt[node]] == 0) {
+            return false;
+        }
+        if (--rows[nameAt[node]] == 0) {
+            liveNames--;
+        }
+        recomputePath(key);
+        return true;
+    }
+
+    /**
+     * Ranks a name higher, for example after it was picked from the suggestions.
+     *
+     * @param name the name
+     * @return true if the name is in the index
+     */
+    public boolean recordUse(String name) {
+        if (name == null) {
+            return false;
+        }
+        String key = NGramIndex.normalize(name);
+        int node = find(key);
+        if (node == NONE || nameAt[node] == NONE || rows[nameAt[node]] == 0) {
+            return false;
+        }
+        uses[nameAt[node]]++;
+        raise(key, score(nameAt[node]));
+        return true;
+    }
+
+    /**
+     * Returns the number of distinct names that can be suggested.
+     *
+     * @return the number of names at least one row has
+     */
+    public int size() {
+        return liveNames;
+    }
+
+    /**
+     * Finds the best-ranked names starting with a prefix, ignoring case.
+     *
+     * @param prefix the start of the name; an empty prefix matches every name
+     * @param count the most suggestions to return
+     * @return the names as first added, most used first, then most common, then in name order
+     * @throws IllegalArgumentException if count is negative
+     */
+    public List<String> suggest(String prefix, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Suggestion count cannot be negative");
+        }
+        List<String> result = new ArrayList<>(Math.min(count, liveNames));
+        if (count == 0) {
+            return result;
+        }
+        String key = NGramIndex.normalize(prefix);
+        int heapSize = 0;
+        if (key.isEmpty()) {
+            heapSize = pushSubtree(heapSize, root);
+        } else {
+            int node = find(key);
+            if (node == NONE) {
+                return result;
+            }
+            heapSize = pushName(heapSize, nameAt[node]);
+            heapSize = pushSubtree(heapSize, equal[node]);
+        }
+
+        while (heapSize > 0 && result.size() < count) {
+            int ref = heapRefs[0];
+            heapSize = pop(heapSize);
+            if (ref < 0) {
+                result.add(displayNames.get(~ref));
+            } else {
+                heapSize = pushName(heapSize, nameAt[ref]);
+                heapSize = pushSubtree(heapSize, low[ref]);
+                heapSize = pushSubtree(heapSize, equal[ref]);
+                heapSize = pushSubtree(heapSize, high[ref]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Numbers the names in name order, which is the order of an in-order walk of the
+     * tree, so equal scores can be ranked by number.
+     */
+    private void renumberInNameOrder() {
+        int[] numbering = new int[displayNames.size()];
+        renumber(root, 0, numbering);
+        String[] renumberedNames = new String[numbering.length];
+        int[] renumberedRows = new int[rows.length];
+        for (int name = 0; name < numbering.length; name++) {
+            renumberedNames[numbering[name]] = displayNames.get(name);
+            renumberedRows[numbering[name]] = rows[name];
+        }
+        displayNames.clear();
+        displayNames.addAll(Arrays.asList(renumberedNames));
+        rows = renumberedRows;
+    }
+
+    /**
+     * Numbers the names below a node from {@code next} on, recording the new number of
+     * each old one, and returns the next free number.
+     */
+    private int renumber(int node, int next, int[] numbering) {
+        if (node == NONE) {
+            return next;
+        }
+        int first = next;
+        next = renumber(low[node], next, numbering);
+        if (nameAt[node] != NONE) {
+            numbering[nameAt[node]] = next;
+            nameAt[node] = next++;
+        }
+        next = renumber(equal[node], next, numbering);
+        next = renumber(high[node], next, numbering);
+        firstName[node] = first;
+        return next;
+    }
+
+    private int newName(String displayName) {
+        int number = displayNames.size();
+        displayNames.add(displayName);
+        if (number == rows.length) {
+            rows = Arrays.copyOf(rows, number * 3 / 2 + 1);
+            uses = Arrays.copyOf(uses, rows.length);
+        }
+        return number;
+    }
+
+    private long score(int name) {
+        return rows[name] == 0 ? DEAD : (long) uses[name] << 32 | rows[name];
+    }
+
+    /**
+     * Returns the node where a key ends, or NONE if no name starts with it. The key must
+     * not be empty.
+     */
+    private int find(String key) {
+        if (key.isEmpty()) {
+            return NONE;
+        }
+        int node = root;
+        int i = 0;
+        while (node != NONE) {
+            char c = key.charAt(i);
+            if (c < split[node]) {
+                node = low[node];
+            } else if (c > split[node]) {
+                node = high[node];
+            } else if (++i == key.length()) {
+                return node;
+            } else {
+                node = equal[node];
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Adds the nodes a key is missing and ends the key at the last one, raising the best
+     * score along the way.
+     */
+    private void insert(String key, int name) {
+        long score = score(name);
+        if (root == NONE) {
+            root = newNode(key.charAt(0), name);
+        }
+        int node = root;
+        int i = 0;
+        while (true) {
+            best[node] = Math.max(best[node], score);
+            firstName[node] = Math.min(firstName[node], name);
+            char c = key.charAt(i);
+            if (c < split[node]) {
+                if (low[node] == NONE) {
+                    int child = newNode(c, name); // May grow the arrays
+                    low[node] = child;
+                }
+                node = low[node];
+            } else if (c > split[node]) {
+                if (high[node] == NONE) {
+                    int child = newNode(c, name); // May grow the arrays
+                    high[node] = child;
+                }
+                node = high[node];
+            } else if (++i == key.length()) {
+                nameAt[node] = name;
+                return;
+            } else {
+                if (equal[node] == NONE) {
+                    int child = newNode(key.charAt(i), name); // May grow the arrays
+                    equal[node] = child;
+                }
+                node = equal[node];
+            }
+        }
+    }
+
+    private int newNode(char c, int name) {
+        if (nodeCount == split.length) {
+            int capacity = nodeCount * 3 / 2 + 1;
+            split = Arrays.copyOf(split, capacity);
+            low = Arrays.copyOf(low, capacity);
+            equal = Arrays.copyOf(equal, capacity);
+            high = Arrays.copyOf(high, capacity);
+            nameAt = Arrays.copyOf(nameAt, capacity);
+            best = Arrays.copyOf(best, capacity);
+            firstName = Arrays.copyOf(firstName, capacity);
+        }
+        int node = nodeCount++;
+        split[node] = c;
+        low[node] = NONE;
+        equal[node] = NONE;
+        high[node] = NONE;
+        nameAt[node] = NONE;
+        best[node] = DEAD;
+        firstName[node] = name;
+        return node;
+    }
+
+    /**
+     * Raises the best score on the path of a key in the tree after the key's score went up.
+     */
+    private void raise(String key, long score) {
+        int node = root;
+        int i = 0;
+        while (node != NONE) {
+            best[node] = Math.max(best[node], score);
+            char c = key.charAt(i);
+            if (c < split[node]) {
+                node = low[node];
+            } else if (c > split[node]) {
+                node = high[node];
+            } else if (++i == key.length()) {
+                return;
+            } else {
+                node = equal[node];
+            }
+        }
+    }
+
+    /**
+     * Recomputes the best score on the path of a key in the tree, from the bottom up,
+     * after the key's score went down.
+     */
+    private void recomputePath(String key) {
+        int depth = 0;
+        int node = root;
+        int i = 0;
+        while (node != NONE) {
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+            }
+            path[depth++] = node;
+            char c = key.charAt(i);
+            if (c < split[node]) {
+                node = low[node];
+            } else if (c > split[node]) {
+                node = high[node];
+            } else if (++i == key.length()) {
+                break;
+            } else {
+                node = equal[node];
+            }
+        }
+        while (depth > 0) {
+            node = path[--depth];
+            long score = nameAt[node] == NONE ? DEAD : score(nameAt[node]);
+            score = Math.max(score, bestOf(low[node]));
+            score = Math.max(score, bestOf(equal[node]));
+            best[node] = Math.max(score, bestOf(high[node]));
+        }
+    }
+
+    private long bestOf(int node) {
+        return node == NONE ? DEAD : best[node];
+    }
+
+    /**
+     * Pushes a name found as a result, if any row has it.
+     */
+    private int pushName(int heapSize, int name) {
+        if (name == NONE || rows[name] == 0) {
+            return heapSize;
+        }
+        return push(heapSize, score(name), name, ~name);
+    }
+
+    /**
+     * Pushes a subtree to open later, keyed by the best score and smallest name number
+     * in it, which no name in it can beat.
+     */
+    private int pushSubtree(int heapSize, int node) {
+        if (node == NONE || best[node] == DEAD) {
+            return heapSize;
+        }
+        return push(heapSize, best[node], firstName[node], node);
+    }
+
+    /**
+     * Adds an entry to the heap, which keeps the highest score, then the smallest name
+     * number, on top. A reference is a node to open, or the complement of a name.
+     */
+    private int push(int heapSize, long score, int name, int ref) {
+        if (heapSize == heapScores.length) {
+            heapScores = Arrays.copyOf(heapScores, heapSize * 2);
+            heapNames = Arrays.copyOf(heapNames, heapSize * 2);
+            heapRefs = Arrays.copyOf(heapRefs, heapSize * 2);
+        }
+        int i = heapSize;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(score, name, heapScores[parent], heapNames[parent])) {
+                break;
+            }
+            setEntry(i, heapScores[parent], heapNames[parent], heapRefs[parent]);
+            i = parent;
+        }
+        setEntry(i, score, name, ref);
+        return heapSize + 1;
+    }
+
+    /**
+     * Removes the top entry of the heap.
+     */
+    private int pop(int heapSize) {
+        int size = heapSize - 1;
+        long score = heapScores[size];
+        int name = heapNames[size];
+        int ref = heapRefs[size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && before(heapScores[child + 1], heapNames[child + 1], heapScores[child], heapNames[child])) {
+                child++;
+            }
+            if (!before(heapScores[child], heapNames[child], score, name)) {
+                break;
+            }
+            setEntry(i, heapScores[child], heapNames[child], heapRefs[child]);
+            i = child;
+        }
+        if (size > 0) {
+            setEntry(i, score, name, ref);
+        }
+        return size;
+    }
+
+    private void setEntry(int i, long score, int name, int ref) {
+        heapScores[i] = score;
+        heapNames[i] = name;
+        heapRefs[i] = ref;
+    }
+
+    private static boolean before(long score, int name, long otherScore, int otherName) {
+        return score != otherScore ? score > otherScore : name < otherName;
+    }
+}
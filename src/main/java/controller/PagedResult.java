@@ -0,0 +1,154 @@
+package controller;
+
+import model.Pokemon;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Every result row of one query, kept so that windows of it can be served without
+ * running the query again and patched in place when a single row changes.
+ * <p>
+ * The rows are in result order: by the query's sort keys and then by row, which is
+ * the order {@link QueryEngine} returns them in. That order lets a changed row be found
+ * and placed by binary search through {@link QueryEngine#search}, so a one-row change
+ * costs a search plus one array shift rather than a new query. The engine must be the
+ * one the rows were computed with, kept in step with the list. This class is not
+ * thread-safe.
+ */
+final class PagedResult {
+    private final PokemonQuery query;
+    // The first size entries are the result rows; the rest is room to insert into
+    private int[] rows;
+    private int size;
+
+    /**
+     * Takes over the full results of a query.
+     *
+     * @param query the query, as returned by {@link #unpaged(PokemonQuery)}
+     * @param rows every result row in result order; the array is modified in place afterwards
+     */
+    PagedResult(PokemonQuery query, int[] rows) {
+        this.query = query;
+        this.rows = rows;
+        this.size = rows.length;
+    }
+
+    /**
+     * Returns the canonical form of a query without its offset and limit, which is the
+     * query whose results are paged.
+     *
+     * @param query the query
+     * @return the same query over all of its results
+     */
+    static PokemonQuery unpaged(PokemonQuery query) {
+        PokemonQuery normalized = query.normalized();
+        if (normalized.getOffset() == 0 && normalized.getLimit() == PokemonQuery.NO_LIMIT) {
+            return normalized;
+        }
+        return normalized.toBuilder().offset(0).limit(PokemonQuery.NO_LIMIT).build();
+    }
+
+    /**
+     * Returns the canonical query, without offset and limit, whose results these are.
+     *
+     * @return the unpaged query
+     */
+    PokemonQuery query() {
+        return query;
+    }
+
+    /**
+     * Tells whether these are the results of a query, ignoring its offset and limit.
+     *
+     * @param other the query
+     * @return true if the query's results are these
+     */
+    boolean answers(PokemonQuery other) {
+        return query.equals(unpaged(other));
+    }
+
+    /**
+     * Returns the number of results.
+     *
+     * @return the result count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Maps a window of the results to Pokemon.
+     *
+     * @param engine the engine the results belong to
+     * @param offset the number of results to skip
+     * @param limit the maximum number of results
+     * @return the Pokemon of the window, in result order
+     */
+    List<Pokemon> window(QueryEngine engine, int offset, int limit) {
+        int from = Math.min(offset, size);
+        int to = (int) Math.min((long) from + limit, size);
+        return engine.toList(rows, from, to - from);
+    }
+
+    /**
+     * Finds a row among the results. Call it while the list still holds every result row
+     * where the results put it, that is before a removal or after an update in place.
+     *
+     * @param engine the engine the results belong to
+     * @param row the row
+     * @param pokemon the Pokemon the row held when the results were last patched
+     * @return the row's position, or -1 if it is not among the results
+     */
+    int positionOf(QueryEngine engine, int row, Pokemon pokemon) {
+        int position = engine.search(rows, size, query, row, pokemon);
+        return position < 0 ? -1 : position;
+    }
+
+    /**
+     * Drops the result at a position.
+     *
+     * @param position the position, as found by {@link #positionOf}
+     */
+    void removeAt(int position) {
+        System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+        size--;
+    }
+
+    /**
+     * Renumbers the results after a row was removed from the list, moving every later
+     * row up by one. The removed row itself must already be gone from the results.
+     *
+     * @param row the removed row
+     */
+    void rowRemoved(int row) {
+        for (int i = 0; i < size; i++) {
+            if (rows[i] > row) {
+                rows[i]--;
+            }
+        }
+    }
+
+    /**
+     * Adds a row to the results if it matches the query. Call it after the engine has
+     * recorded the change, with the row absent from the results.
+     *
+     * @param engine the engine the results belong to
+     * @param row the row
+     * @param pokemon the Pokemon now at the row
+     * @return the row's new position, or -1 if it does not match
+     */
+    int insert(QueryEngine engine, int row, Pokemon pokemon) {
+        if (!engine.matchesRow(query, row)) {
+            return -1;
+        }
+        int position = -engine.search(rows, size, query, row, pokemon) - 1;
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(16, size * 2));
+        }
+        System.arraycopy(rows, position, rows, position + 1, size - position);
+        rows[position] = row;
+        size++;
+        return position;
+    }
+}
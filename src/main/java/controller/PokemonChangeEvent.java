@@ -0,0 +1,185 @@
+package controller;
+
+import model.Pokemon;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes one change to the controller's collection: a range of rows inserted,
+ * removed or updated, or a reset when the whole collection was replaced.
+ * <p>
+ * Rows are positions in collection order, and the range is inclusive at both ends, as
+ * in {@link javax.swing.event.ListDataEvent}. Each event carries the snapshot published by
+ * the change, so its version is one more than the version of the previous event.
+ * A receiver that sees a gap, for example because events were delivered out of order,
+ * can fall back to reloading the snapshot.
+ * <p>
+ * When the controller was serving pages of a query through
+ * {@link IPokemonController#getPage(PokemonQuery, int, int)}, the event also tells where
+ * the changed row was and now is in that query's results, so a view showing them can
+ * patch its rows instead of running the query again.
+ */
+public final class PokemonChangeEvent {
+    /**
+     * Kind of change.
+     */
+    public enum Type {
+        /** Rows were inserted; they are in the snapshot at the event's range. */
+        INSERTED,
+        /** Rows were removed; the range gives their positions before removal. */
+        REMOVED,
+        /** Rows were replaced in place. */
+        UPDATED,
+        /** The whole collection was replaced; the range is empty. */
+        RESET
+    }
+
+    private final Type type;
+    private final int firstRow;
+    private final int lastRow;
+    private final PokemonSnapshot snapshot;
+    private final List<Pokemon> pokemon;
+    private final List<Pokemon> previousPokemon;
+    private final PokemonQuery pagedQuery;
+    private final int oldPosition;
+    private final int newPosition;
+
+    private PokemonChangeEvent(Type type, int firstRow, PokemonSnapshot snapshot,
+                               List<Pokemon> pokemon, List<Pokemon> previousPokemon) {
+        this(type, firstRow, firstRow + Math.max(pokemon.size(), previousPokemon.size()) - 1, snapshot,
+                Collections.unmodifiableList(pokemon), Collections.unmodifiableList(previousPokemon),
+                null, -1, -1);
+    }
+
+    private PokemonChangeEvent(Type type, int firstRow, int lastRow, PokemonSnapshot snapshot,
+                               List<Pokemon> pokemon, List<Pokemon> previousPokemon,
+                               PokemonQuery pagedQuery, int oldPosition, int newPosition) {
+        this.type = type;
+        this.firstRow = firstRow;
+        this.lastRow = lastRow;
+        this.snapshot = snapshot;
+        this.pokemon = pokemon;
+        this.previousPokemon = previousPokemon;
+        this.pagedQuery = pagedQuery;
+        this.oldPosition = oldPosition;
+        this.newPosition = newPosition;
+    }
+
+    static PokemonChangeEvent inserted(PokemonSnapshot snapshot, int firstRow, List<Pokemon> inserted) {
+        return new PokemonChangeEvent(Type.INSERTED, firstRow, snapshot, inserted, List.of());
+    }
+
+    static PokemonChangeEvent removed(PokemonSnapshot snapshot, int firstRow, List<Pokemon> removed) {
+        return new PokemonChangeEvent(Type.REMOVED, firstRow, snapshot, List.of(), removed);
+    }
+
+    static PokemonChangeEvent updated(PokemonSnapshot snapshot, int firstRow,
+                                      List<Pokemon> current, List<Pokemon> previous) {
+        return new PokemonChangeEvent(Type.UPDATED, firstRow, snapshot, current, previous);
+    }
+
+    static PokemonChangeEvent reset(PokemonSnapshot snapshot) {
+        return new PokemonChangeEvent(Type.RESET, 0, snapshot, List.of(), List.of());
+    }
+
+    /**
+     * Returns a copy of this event that also gives the changed row's positions in the
+     * results of the query the controller was paging.
+     */
+    PokemonChangeEvent withPositions(PokemonQuery query, int oldPosition, int newPosition) {
+        return new PokemonChangeEvent(type, firstRow, lastRow, snapshot, pokemon, previousPokemon,
+                query, oldPosition, newPosition);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the first changed row.
+     *
+     * @return the first row, inclusive
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * Returns the last changed row.
+     *
+     * @return the last row, inclusive; less than the first row for a reset
+     */
+    public int getLastRow() {
+        return lastRow;
+    }
+
+    /**
+     * Returns the version of the collection after the change.
+     *
+     * @return the snapshot version
+     */
+    public long getVersion() {
+        return snapshot.getVersion();
+    }
+
+    /**
+     * Returns the collection as it is after the change.
+     *
+     * @return the published snapshot
+     */
+    public PokemonSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the Pokemon now in the changed rows.
+     *
+     * @return the inserted or updated Pokemon; empty for removals and resets
+     */
+    public List<Pokemon> getPokemon() {
+        return pokemon;
+    }
+
+    /**
+     * Returns the Pokemon that were in the changed rows before the change.
+     *
+     * @return the removed or replaced Pokemon; empty for insertions and resets
+     */
+    public List<Pokemon> getPreviousPokemon() {
+        return previousPokemon;
+    }
+
+    /**
+     * Returns the query, without offset and limit, whose result positions the event gives.
+     *
+     * @return the paged query, or null if the controller was not paging one
+     */
+    public PokemonQuery getPagedQuery() {
+        return pagedQuery;
+    }
+
+    /**
+     * Returns where the changed row was in the paged query's results before the change.
+     *
+     * @return the old position, or -1 if the row was not among the results
+     */
+    public int getOldPosition() {
+        return oldPosition;
+    }
+
+    /**
+     * Returns where the changed row is in the paged query's results after the change.
+     *
+     * @return the new position, or -1 if the row is not among the results
+     */
+    public int getNewPosition() {
+        return newPosition;
+    }
+
+    @Override
+    public String toString() {
+        return "PokemonChangeEvent{type=" + type + ", rows=[" + firstRow + ", " + lastRow + "]"
+                + ", version=" + getVersion() + '}';
+    }
+}
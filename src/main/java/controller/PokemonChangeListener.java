@@ -0,0 +1,15 @@
+package controller;
+
+/**
+ * Receives the changes made to a controller's collection.
+ */
+@FunctionalInterface
+public interface PokemonChangeListener {
+    /**
+     * Called after a change has been published, on the thread that made it.
+     * Swing listeners should hop to the event dispatch thread before touching components.
+     *
+     * @param event the change
+     */
+    void pokemonChanged(PokemonChangeEvent event);
+}
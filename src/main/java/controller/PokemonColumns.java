@@ -0,0 +1,124 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The fields a {@link QueryExpression} can test, copied out of a Pokemon list into one
+ * primitive array per field, indexed by row.
+ * <p>
+ * Reading a field from a column is one array access, where reading it from a Pokemon
+ * goes through the list, the Pokemon and its stats object.
+ * <p>
+ * Rows added, removed or replaced in the list afterwards are applied through
+ * {@link #rowAdded(Pokemon)}, {@link #rowRemoved(int)} and {@link #rowUpdated(int, Pokemon)},
+ * which write the arrays in place. Compiled expressions read the arrays they were compiled
+ * over, so they stay current unless an append moves the columns to larger arrays.
+ * This class is not thread-safe.
+ */
+public class PokemonColumns {
+    private static final QueryExpression.Field[] FIELDS = QueryExpression.Field.values();
+
+    private int size;
+    // With room for more rows than size
+    private final int[][] columns;
+    private int[] typeMasks;
+
+    /**
+     * Copies the fields of every Pokemon in a list.
+     *
+     * @param pokemonList the Pokemon, in row order
+     */
+    public PokemonColumns(List<Pokemon> pokemonList) {
+        this.size = pokemonList.size();
+        this.columns = new int[FIELDS.length][size];
+        this.typeMasks = new int[size];
+        for (int row = 0; row < size; row++) {
+            set(row, pokemonList.get(row));
+        }
+    }
+
+    /**
+     * Records that a Pokemon was appended to the end of the list.
+     *
+     * @param pokemon the new Pokemon
+     * @return true if the columns moved to larger arrays, so expressions compiled over
+     *         them must be compiled again
+     */
+    public boolean rowAdded(Pokemon pokemon) {
+        boolean grown = size == typeMasks.length;
+        if (grown) {
+            int capacity = Math.max(16, size * 2);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = Arrays.copyOf(columns[i], capacity);
+            }
+            typeMasks = Arrays.copyOf(typeMasks, capacity);
+        }
+        set(size++, pokemon);
+        return grown;
+    }
+
+    /**
+     * Records that the Pokemon at a row was removed from the list, shifting every later
+     * row down by one.
+     *
+     * @param row the removed row
+     */
+    public void rowRemoved(int row) {
+        for (int[] column : columns) {
+            System.arraycopy(column, row + 1, column, row, size - row - 1);
+        }
+        System.arraycopy(typeMasks, row + 1, typeMasks, row, size - row - 1);
+        size--;
+    }
+
+    /**
+     * Records that the Pokemon at a row was replaced.
+     *
+     * @param row the updated row
+     * @param pokemon the new Pokemon
+     */
+    public void rowUpdated(int row, Pokemon pokemon) {
+        set(row, pokemon);
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    private void set(int row, Pokemon pokemon) {
+        for (QueryExpression.Field field : FIELDS) {
+            columns[field.ordinal()][row] = field.of(pokemon);
+        }
+        typeMasks[row] = PokemonType.maskOf(pokemon.getTypes());
+    }
+
+    /**
+     * Returns the column of a field. The array is shared and must not be modified, and
+     * may have room past the last row.
+     *
+     * @param field the field
+     * @return the field's value for each row
+     */
+    int[] column(QueryExpression.Field field) {
+        return columns[field.ordinal()];
+    }
+
+    /**
+     * Returns the {@link PokemonType#maskOf(List) type masks} of the rows. The array is
+     * shared and must not be modified, and may have room past the last row.
+     *
+     * @return the type mask of each row
+     */
+    int[] typeMasks() {
+        return typeMasks;
+    }
+}
@@ -2,23 +2,56 @@ package controller;
 
 import model.IPokemonModel;
 import model.Pokemon;
+import model.PokemonStat;
 import model.PokemonType;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * Controller class that mediates between the Pokemon Model and View.
  * Implements IPokemonController interface and manages the business logic.
+ * <p>
+ * The collection is published as immutable {@link PokemonSnapshot}s through an atomic
+ * reference, so a collection swapped on a background thread is safely visible to the
+ * EDT, and readers get it without copying. The query indexes are guarded by a lock
+ * that every query and change takes.
+ * <p>
+ * Query results are kept in a {@link QueryCache} keyed by the snapshot version, so
+ * switching back to a recent search or filter costs a lookup and a copy, and any change
+ * to the collection makes the old results unreachable.
+ * <p>
+ * Every change is announced to {@link PokemonChangeListener}s as a
+ * {@link PokemonChangeEvent} naming the rows that changed, so views can update only
+ * those rows. Listeners are called after the lock is released.
  */
 public class PokemonController implements IPokemonController {
 
     // Instance variables as per UML
     private final IPokemonModel model;
-    private List<Pokemon> currentPokemonList;
+    private final QueryExecutor executor;
+    private final AtomicReference<PokemonSnapshot> snapshot = new AtomicReference<>(PokemonSnapshot.empty());
+    private final Object indexLock = new Object();
+    private List<Pokemon> currentPokemonList; // Working copy the query engine reads, guarded by indexLock
+    private FuzzyNameIndex fuzzyNameIndex;
+    private QueryEngine queryEngine;
+    private final QueryCache queryCache = new QueryCache(); // Guarded by indexLock
+    private PokemonStatistics statistics; // Guarded by indexLock
+    private StatNeighborIndex neighborIndex; // Guarded by indexLock
+    private SearchSession searchSession; // Over queryEngine, guarded by indexLock
+    private PagedResult pagedResult; // Results of the query last paged, guarded by indexLock
+    private NamePrefixIndex namePrefixIndex; // Built on first use, guarded by indexLock
+    private final List<PokemonChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    private final TeamOptimizer teamOptimizer;
 
     /**
      * Constructor initializes the controller with a reference to the model.
@@ -26,8 +59,21 @@ public class PokemonController implements IPokemonController {
      * @param model the Pokemon data model
      */
     public PokemonController(IPokemonModel model) {
+        this(model, QueryExecutor.shared());
+    }
+
+    /**
+     * Constructor initializes the controller with a model and the executor that large
+     * queries and index builds are split across.
+     *
+     * @param model the Pokemon data model
+     * @param executor the executor for parallel query work
+     */
+    public PokemonController(IPokemonModel model, QueryExecutor executor) {
         this.model = model;
-        this.currentPokemonList = new ArrayList<>();
+        this.executor = executor;
+        this.teamOptimizer = new TeamOptimizer(executor, TeamOptimizer.DEFAULT_COVERAGE_WEIGHT);
+        setCurrentPokemonList(new ArrayList<>());
     }
 
     /**
@@ -38,49 +84,70 @@ public class PokemonController implements IPokemonController {
     @Override
     public void fetchInitialPokemon(int count) {
         try {
-            currentPokemonList = model.fetchMultiplePokemon(count);
+            setCurrentPokemonList(model.fetchMultiplePokemon(count));
         } catch (Exception e) {
             System.err.println("Error fetching initial Pokemon: " + e.getMessage());
             e.printStackTrace();
-            currentPokemonList = new ArrayList<>(); // Initialize with empty list if fetch fails
+            setCurrentPokemonList(new ArrayList<>()); // Initialize with empty list if fetch fails
         }
     }
 
     /**
      * Returns the current Pokemon collection.
      *
-     * @return the current list of Pokemon
+     * @return a view of the current snapshot; changes to it copy it first and never reach the controller
      */
     @Override
     public List<Pokemon> getPokemonCollection() {
-        return new ArrayList<>(currentPokemonList); // Return a copy to avoid external modification
+        return snapshot.get().asList();
+    }
+
+    /**
+     * Returns the current immutable snapshot of the collection.
+     *
+     * @return the latest published snapshot
+     */
+    @Override
+    public PokemonSnapshot getSnapshot() {
+        return snapshot.get();
     }
 
     /**
      * Saves the current Pokemon collection to a file.
      *
      * @param filename the name of the file to save to
+     * @throws UncheckedIOException if the collection could not be written
      */
     @Override
     public void saveCollection(String filename) {
         try {
-            model.saveCollection(currentPokemonList, filename);
+            model.saveCollection(getPokemonCollection(), filename);
         } catch (IOException e) {
-            System.err.println("Error saving Pokemon collection: " + e.getMessage());
-            e.printStackTrace();
+            throw new UncheckedIOException(e.getMessage(), e);
         }
     }
 
     /**
-     * Loads a Pokemon collection from a file.
+     * Loads a Pokemon collection from a file and makes it the current collection.
      *
      * @param filename the name of the file to load from
-     * @return the loaded Pokemon collection
+     * @return the loaded Pokemon collection, or an empty list if loading failed
      */
-
+    @Override
+    public List<Pokemon> loadCollection(String filename) {
+        try {
+            setCurrentPokemonList(model.loadCollection(filename));
+            return getPokemonCollection();
+        } catch (IOException e) {
+            System.err.println("Error loading Pokemon collection: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
 
     /**
-     * Searches Pokemon by name.
+     * Searches Pokemon by name. The term is used as given: surrounding spaces are not
+     * trimmed, so a blank term matches no Pokemon.
      *
      * @param searchTerm the name to search for
      * @return list of Pokemon matching the search term
@@ -88,13 +155,42 @@ public class PokemonController implements IPokemonController {
     @Override
     public List<Pokemon> searchPokemon(String searchTerm) {
         if (searchTerm == null || searchTerm.isEmpty()) {
-            return new ArrayList<>(currentPokemonList);
+            return getPokemonCollection();
+        }
+        if (!searchTerm.equals(searchTerm.trim())) {
+            // Queries trim their term, so one with spaces is matched here as given
+            String lowerCaseSearchTerm = searchTerm.toLowerCase();
+            return getPokemonCollection().stream()
+                    .filter(pokemon -> pokemon.getName().toLowerCase().contains(lowerCaseSearchTerm))
+                    .collect(Collectors.toList());
+        }
+
+        return new ArrayList<>(query(PokemonQuery.builder().nameContains(searchTerm).build()));
+    }
+
+    /**
+     * Searches Pokemon by name, tolerating typos such as "pikachoo" or "charizrd".
+     *
+     * @param searchTerm the possibly misspelled name to search for
+     * @param maxDistance the largest edit distance to accept, at most {@link FuzzyNameIndex#MAX_DISTANCE}
+     * @return list of Pokemon within the edit distance, closest first
+     * @throws IllegalArgumentException if maxDistance is out of range
+     */
+    @Override
+    public List<Pokemon> fuzzySearchPokemon(String searchTerm, int maxDistance) {
+        if (searchTerm == null || searchTerm.isEmpty()) {
+            return getPokemonCollection();
         }
 
-        String lowerCaseSearchTerm = searchTerm.toLowerCase();
-        return currentPokemonList.stream()
-                .filter(pokemon -> pokemon.getName().toLowerCase().contains(lowerCaseSearchTerm))
-                .collect(Collectors.toList());
+        synchronized (indexLock) {
+            // Built on first use, since most sessions never fall back to fuzzy search
+            if (fuzzyNameIndex == null) {
+                fuzzyNameIndex = new FuzzyNameIndex(currentPokemonList.stream()
+                        .map(Pokemon::getName)
+                        .collect(Collectors.toList()));
+            }
+            return toPokemonList(fuzzyNameIndex.search(searchTerm, maxDistance));
+        }
     }
 
     /**
@@ -104,9 +200,19 @@ public class PokemonController implements IPokemonController {
      */
     @Override
     public List<Pokemon> sortPokemonByName() {
-        List<Pokemon> sortedList = new ArrayList<>(currentPokemonList);
-        sortedList.sort(Comparator.comparing(Pokemon::getName));
-        return sortedList;
+        return sortPokemon(PokemonSortKey.NAME, false);
+    }
+
+    /**
+     * Sorts Pokemon by a key using the cached sort permutation, without comparing Pokemon.
+     *
+     * @param key the key to sort by
+     * @param descending true for descending order; ties keep collection order
+     * @return sorted list of Pokemon
+     */
+    @Override
+    public List<Pokemon> sortPokemon(PokemonSortKey key, boolean descending) {
+        return new ArrayList<>(query(PokemonQuery.builder().sortBy(key, descending).build()));
     }
 
     /**
@@ -118,12 +224,247 @@ public class PokemonController implements IPokemonController {
     @Override
     public List<Pokemon> filterPokemonByType(PokemonType type) {
         if (type == null) {
-            return new ArrayList<>(currentPokemonList);
+            return getPokemonCollection();
         }
 
-        return currentPokemonList.stream()
-                .filter(pokemon -> pokemon.getTypes().contains(type))
-                .collect(Collectors.toList());
+        return new ArrayList<>(query(PokemonQuery.builder().types(type).build()));
+    }
+
+    /**
+     * Filters Pokemon whose stat lies in an inclusive range, answered from the stat range index.
+     * Several ranges at once can be combined with {@link #query(PokemonQuery)}.
+     *
+     * @param stat the stat to filter on
+     * @param min the inclusive minimum
+     * @param max the inclusive maximum
+     * @return list of Pokemon within the range, in collection order
+     * @throws IllegalArgumentException if min is greater than max
+     */
+    @Override
+    public List<Pokemon> filterPokemonByStatRange(PokemonStat stat, int min, int max) {
+        return new ArrayList<>(query(PokemonQuery.builder().statRange(stat, min, max).build()));
+    }
+
+    /**
+     * Filters Pokemon whose base stat total lies in an inclusive range.
+     *
+     * @param min the inclusive minimum
+     * @param max the inclusive maximum
+     * @return list of Pokemon within the range, in collection order
+     * @throws IllegalArgumentException if min is greater than max
+     */
+    @Override
+    public List<Pokemon> filterPokemonByTotalRange(int min, int max) {
+        return new ArrayList<>(query(PokemonQuery.builder().totalRange(min, max).build()));
+    }
+
+    /**
+     * Runs a combined search, filter, sort and page query in a single pass over the
+     * current collection. Only the rows of the requested page are turned into a list.
+     * A query already answered since the last change is served from the cache.
+     *
+     * @param query the query to run
+     * @return the Pokemon of the requested page, in result order, as an unmodifiable list
+     */
+    @Override
+    public List<Pokemon> query(PokemonQuery query) {
+        synchronized (indexLock) {
+            long version = snapshot.get().getVersion();
+            List<Pokemon> cached = queryCache.get(version, query);
+            if (cached != null) {
+                return cached;
+            }
+            List<Pokemon> result = queryEngine.executeToList(query);
+            queryCache.put(version, query, result);
+            return Collections.unmodifiableList(result);
+        }
+    }
+
+    /**
+     * Runs a query for one window of its results. The full results of the query last
+     * paged are kept and patched as rows change, so scrolling through them maps only the
+     * rows of each window and a one-row change does not run the query again. A new query
+     * goes through a {@link SearchSession}, so typing into a search narrows the previous
+     * results instead of searching the whole collection.
+     *
+     * @param query the query to run; its offset and limit are ignored
+     * @param offset the number of results to skip
+     * @param limit the maximum number of results
+     * @return the Pokemon of the window, in result order, as an unmodifiable list
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    @Override
+    public List<Pokemon> getPage(PokemonQuery query, int offset, int limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset cannot be negative");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative");
+        }
+        synchronized (indexLock) {
+            if (pagedResult == null || !pagedResult.answers(query)) {
+                PokemonQuery unpaged = PagedResult.unpaged(query);
+                // The session shares its results with its history, and these are patched in place
+                pagedResult = new PagedResult(unpaged, searchSession.search(unpaged).clone());
+            }
+            return Collections.unmodifiableList(pagedResult.window(queryEngine, offset, limit));
+        }
+    }
+
+    /**
+     * Counts every match of a query without listing the matches.
+     *
+     * @param query the query to count
+     * @return the number of matching Pokemon
+     */
+    @Override
+    public int count(PokemonQuery query) {
+        synchronized (indexLock) {
+            if (pagedResult != null && pagedResult.answers(query)) {
+                return pagedResult.size();
+            }
+            return queryEngine.count(query);
+        }
+    }
+
+    /**
+     * Suggests names from the current collection that start with a prefix. The names are
+     * indexed on first use and kept up to date as rows change.
+     *
+     * @param prefix the start of the name, ignoring case
+     * @param count the most suggestions to return
+     * @return the names, most used first, then most common
+     * @throws IllegalArgumentException if count is negative
+     */
+    @Override
+    public List<String> suggestNames(String prefix, int count) {
+        synchronized (indexLock) {
+            return namePrefixIndex().suggest(prefix, count);
+        }
+    }
+
+    /**
+     * Ranks a name higher in later suggestions, for example after it was picked from them.
+     *
+     * @param name the name
+     */
+    @Override
+    public void recordNameUse(String name) {
+        synchronized (indexLock) {
+            namePrefixIndex().recordUse(name);
+        }
+    }
+
+    /**
+     * Returns the hit, miss and memory statistics of the query result cache.
+     *
+     * @return the current cache statistics
+     */
+    @Override
+    public QueryCache.Stats getQueryCacheStats() {
+        synchronized (indexLock) {
+            return queryCache.getStats();
+        }
+    }
+
+    /**
+     * Summarizes one stat from the statistics kept up to date with every change.
+     *
+     * @param type the type to restrict to, or null for the whole collection
+     * @param stat the stat
+     * @return the count, extremes, mean, histogram and percentiles of the stat
+     */
+    @Override
+    public PokemonStatistics.Summary getStatSummary(PokemonType type, PokemonStat stat) {
+        if (stat == null) {
+            throw new IllegalArgumentException("Stat cannot be null");
+        }
+        synchronized (indexLock) {
+            return statistics.summarize(type, stat);
+        }
+    }
+
+    /**
+     * Summarizes the base stat total from the statistics kept up to date with every change.
+     *
+     * @param type the type to restrict to, or null for the whole collection
+     * @return the count, extremes, mean, histogram and percentiles of the total
+     */
+    @Override
+    public PokemonStatistics.Summary getTotalSummary(PokemonType type) {
+        synchronized (indexLock) {
+            return statistics.summarizeTotal(type);
+        }
+    }
+
+    /**
+     * Ranks each base stat against the whole collection, through the running totals of
+     * the statistics kept up to date with every change.
+     *
+     * @param stats the stats to rank
+     * @return the percentile rank of each stat from 0 to 100, counting equal values as half
+     * @throws IllegalArgumentException if the stats are null
+     */
+    @Override
+    public Map<PokemonStat, Double> getPercentileRanks(Pokemon.PokemonStats stats) {
+        if (stats == null) {
+            throw new IllegalArgumentException("Stats cannot be null");
+        }
+        Map<PokemonStat, Double> ranks = new EnumMap<>(PokemonStat.class);
+        synchronized (indexLock) {
+            for (PokemonStat stat : PokemonStat.values()) {
+                ranks.put(stat, statistics.percentileRank(null, stat, stat.of(stats)));
+            }
+        }
+        return ranks;
+    }
+
+    /**
+     * Finds the Pokemon whose base stats are closest to a given Pokemon's, through a
+     * nearest-neighbour index built with the collection and kept up to date with every
+     * change, so a lookup never has to build it.
+     *
+     * @param pokemon the Pokemon to compare with, which is left out of the result
+     * @param count the maximum number of Pokemon to return
+     * @param sameType true to only return Pokemon sharing a type with the given one
+     * @return the closest Pokemon, nearest first
+     * @throws IllegalArgumentException if the Pokemon is null or the count is negative
+     */
+    @Override
+    public List<Pokemon> findSimilarPokemon(Pokemon pokemon, int count, boolean sameType) {
+        synchronized (indexLock) {
+            return neighborIndex.nearest(pokemon, count, sameType);
+        }
+    }
+
+    /**
+     * Searches the current snapshot for the best teams. Runs without the index lock,
+     * so queries and changes are not held up by a long search.
+     *
+     * @param topN the number of teams to return
+     * @param timeBudgetMillis the time after which the best teams found so far are returned
+     * @return the best teams found
+     */
+    @Override
+    public TeamOptimizer.Result optimizeTeams(int topN, long timeBudgetMillis) {
+        return teamOptimizer.optimize(snapshot.get().asList(), topN, timeBudgetMillis);
+    }
+
+    /**
+     * Writes the matchup matrix of the current snapshot, computed on the query executor.
+     *
+     * @param filename the name of the file to write
+     * @return the written matrix, open for reading, or null if writing failed
+     */
+    @Override
+    public MatchupMatrix buildMatchupMatrix(String filename) {
+        try {
+            return new MatchupEngine(snapshot.get().asList()).writeMatrix(Paths.get(filename), executor);
+        } catch (IOException e) {
+            System.err.println("Error building matchup matrix: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
     }
 
     /**
@@ -134,9 +475,276 @@ public class PokemonController implements IPokemonController {
      */
     @Override
     public Pokemon getPokemonById(int id) {
-        return currentPokemonList.stream()
-                .filter(pokemon -> pokemon.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return snapshot.get().getById(id);
+    }
+
+    /**
+     * Adds a Pokemon to the end of the current collection and publishes a new snapshot.
+     * The query engine is updated in place rather than rebuilt.
+     *
+     * @param pokemon the Pokemon to add
+     * @throws IllegalArgumentException if the Pokemon is null
+     */
+    @Override
+    public void addPokemon(Pokemon pokemon) {
+        if (pokemon == null) {
+            throw new IllegalArgumentException("Cannot add a null Pokemon");
+        }
+        PokemonChangeEvent event;
+        synchronized (indexLock) {
+            int row = currentPokemonList.size();
+            currentPokemonList.add(pokemon);
+            statistics.add(pokemon);
+            neighborIndex.add(pokemon);
+            PokemonSnapshot previous = snapshot.get();
+            PokemonPages rows;
+            PokemonIdIndex idIndex;
+            if (previous.rows().canAppend()) {
+                rows = previous.rows().append(pokemon);
+                idIndex = new PokemonIdIndex(previous.idIndex());
+                idIndex.putIfAbsent(pokemon, rows.keyAt(row));
+            } else {
+                // Row keys used up after billions of appends: renumber from the list
+                rows = PokemonPages.of(currentPokemonList);
+                idIndex = new PokemonIdIndex(currentPokemonList);
+            }
+            queryEngine.rowAdded();
+            fuzzyNameIndex = null;
+            if (namePrefixIndex != null) {
+                namePrefixIndex.add(pokemon.getName());
+            }
+            event = PokemonChangeEvent.inserted(publish(rows, idIndex), row, List.of(pokemon));
+            if (pagedResult != null) {
+                event = event.withPositions(pagedResult.query(), -1, pagedResult.insert(queryEngine, row, pokemon));
+            }
+        }
+        fireChange(event);
+    }
+
+    /**
+     * Replaces the first Pokemon with the same ID as the given one, keeping its row,
+     * and publishes a new snapshot. The query engine is updated in place rather than rebuilt.
+     *
+     * @param pokemon the new version of the Pokemon
+     * @return true if a Pokemon with the ID was found and replaced
+     * @throws IllegalArgumentException if the Pokemon is null
+     */
+    @Override
+    public boolean updatePokemon(Pokemon pokemon) {
+        if (pokemon == null) {
+            throw new IllegalArgumentException("Cannot update to a null Pokemon");
+        }
+        PokemonChangeEvent event;
+        synchronized (indexLock) {
+            int row = indexOfId(pokemon.getId());
+            if (row < 0) {
+                return false;
+            }
+            Pokemon previous = currentPokemonList.set(row, pokemon);
+            // The search skips the changed row itself, so it can run after the set
+            int oldPosition = pagedResult == null ? -1 : pagedResult.positionOf(queryEngine, row, previous);
+            statistics.remove(previous);
+            statistics.add(pokemon);
+            neighborIndex.remove(previous);
+            neighborIndex.add(pokemon);
+            PokemonSnapshot current = snapshot.get();
+            PokemonPages rows = current.rows().set(row, pokemon);
+            PokemonIdIndex idIndex = new PokemonIdIndex(current.idIndex());
+            idIndex.put(pokemon, rows.keyAt(row));
+            queryEngine.rowUpdated(row);
+            fuzzyNameIndex = null;
+            if (namePrefixIndex != null) {
+                namePrefixIndex.remove(previous.getName());
+                namePrefixIndex.add(pokemon.getName());
+            }
+            event = PokemonChangeEvent.updated(publish(rows, idIndex), row, List.of(pokemon), List.of(previous));
+            if (pagedResult != null) {
+                if (oldPosition >= 0) {
+                    pagedResult.removeAt(oldPosition);
+                }
+                event = event.withPositions(pagedResult.query(), oldPosition,
+                        pagedResult.insert(queryEngine, row, pokemon));
+            }
+        }
+        fireChange(event);
+        return true;
+    }
+
+    /**
+     * Removes the first Pokemon with an ID from the current collection and publishes a
+     * new snapshot. The query engine is updated in place rather than rebuilt.
+     *
+     * @param id the Pokemon ID
+     * @return true if a Pokemon was removed
+     */
+    @Override
+    public boolean removePokemon(int id) {
+        PokemonChangeEvent event;
+        synchronized (indexLock) {
+            event = removeFirst(id);
+        }
+        if (event == null) {
+            return false;
+        }
+        fireChange(event);
+        return true;
+    }
+
+    /**
+     * Registers a listener for changes to the collection.
+     *
+     * @param listener the listener to add
+     */
+    @Override
+    public void addChangeListener(PokemonChangeListener listener) {
+        if (listener != null) {
+            changeListeners.add(listener);
+        }
+    }
+
+    /**
+     * Unregisters a change listener.
+     *
+     * @param listener the listener to remove
+     */
+    @Override
+    public void removeChangeListener(PokemonChangeListener listener) {
+        changeListeners.remove(listener);
+    }
+
+    private PokemonChangeEvent removeFirst(int id) {
+        int row = indexOfId(id);
+        if (row < 0) {
+            return null;
+        }
+
+        PokemonSnapshot current = snapshot.get();
+        // Fewer distinct IDs than rows means some ID repeats, possibly this one
+        boolean idsRepeat = current.idIndex().size() < currentPokemonList.size();
+        int oldPosition = pagedResult == null ? -1
+                : pagedResult.positionOf(queryEngine, row, currentPokemonList.get(row));
+        Pokemon removed = currentPokemonList.remove(row);
+        statistics.remove(removed);
+        neighborIndex.remove(removed);
+        PokemonPages rows = current.rows().remove(row);
+        PokemonIdIndex idIndex = new PokemonIdIndex(current.idIndex());
+        idIndex.remove(id);
+        if (idsRepeat) {
+            // Another Pokemon may share the ID; the next one in list order now owns it
+            for (int i = row; i < currentPokemonList.size(); i++) {
+                if (currentPokemonList.get(i).getId() == id) {
+                    idIndex.put(currentPokemonList.get(i), rows.keyAt(i));
+                    break;
+                }
+            }
+        }
+        queryEngine.rowRemoved(row);
+        fuzzyNameIndex = null;
+        if (namePrefixIndex != null) {
+            namePrefixIndex.remove(removed.getName());
+        }
+        PokemonChangeEvent event = PokemonChangeEvent.removed(publish(rows, idIndex), row, List.of(removed));
+        if (pagedResult == null) {
+            return event;
+        }
+        if (oldPosition >= 0) {
+            pagedResult.removeAt(oldPosition);
+        }
+        pagedResult.rowRemoved(row);
+        return event.withPositions(pagedResult.query(), oldPosition, -1);
+    }
+
+    /**
+     * Finds the row of the first Pokemon with an ID from the latest snapshot, which is
+     * always in step with the working list while indexLock is held.
+     *
+     * @param id the Pokemon ID
+     * @return the row, or -1 if not found
+     */
+    private int indexOfId(int id) {
+        return snapshot.get().rowOf(id);
+    }
+
+    /**
+     * Returns the name suggestion index, building it on first use. Called with indexLock held.
+     *
+     * @return the index over the names of the working list
+     */
+    private NamePrefixIndex namePrefixIndex() {
+        if (namePrefixIndex == null) {
+            namePrefixIndex = new NamePrefixIndex(currentPokemonList.stream()
+                    .map(Pokemon::getName)
+                    .collect(Collectors.toList()));
+        }
+        return namePrefixIndex;
+    }
+
+    /**
+     * Tells every listener about a change. A failing listener does not stop the others.
+     *
+     * @param event the change
+     */
+    private void fireChange(PokemonChangeEvent event) {
+        for (PokemonChangeListener listener : changeListeners) {
+            try {
+                listener.pokemonChanged(event);
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying change listener: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Maps row positions of the current collection to a new list of Pokemon.
+     *
+     * @param rows the rows to include, in order
+     * @return the Pokemon at those rows
+     */
+    private List<Pokemon> toPokemonList(int[] rows) {
+        List<Pokemon> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(currentPokemonList.get(row));
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the current collection, rebuilds the indexes over it and publishes it.
+     * Every path that swaps the collection (fetch, load) goes through here.
+     *
+     * @param pokemonList the new collection
+     */
+    private void setCurrentPokemonList(List<Pokemon> pokemonList) {
+        PokemonChangeEvent event;
+        synchronized (indexLock) {
+            currentPokemonList = pokemonList == null ? new ArrayList<>() : new ArrayList<>(pokemonList);
+            queryEngine = new QueryEngine(currentPokemonList, executor);
+            searchSession = new SearchSession(queryEngine);
+            statistics = new PokemonStatistics(currentPokemonList);
+            neighborIndex = new StatNeighborIndex(currentPokemonList);
+            fuzzyNameIndex = null;
+            pagedResult = null;
+            namePrefixIndex = null;
+            event = PokemonChangeEvent.reset(publish(PokemonPages.of(currentPokemonList),
+                    new PokemonIdIndex(currentPokemonList)));
+        }
+        fireChange(event);
+    }
+
+    /**
+     * Publishes the next snapshot, whose rows must match the working list. The ID index
+     * must not be modified afterwards, so changes always start from a copy of the previous
+     * one; the copy and the rows share everything the change did not touch.
+     * Called with indexLock held, which keeps versions in publication order.
+     *
+     * @param rows the rows of the working list
+     * @param idIndex the ID index over the rows
+     * @return the published snapshot
+     */
+    private PokemonSnapshot publish(PokemonPages rows, PokemonIdIndex idIndex) {
+        long version = snapshot.get().getVersion() + 1;
+        PokemonSnapshot published = new PokemonSnapshot(version, rows, idIndex);
+        snapshot.set(published);
+        return published;
     }
 }
\ No newline at end of file
@@ -0,0 +1,353 @@
+package controller;
+
+import model.Pokemon;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Primitive hash index from Pokemon ID to Pokemon and the key of its row.
+ * <p>
+ * Uses open addressing with linear probing over parallel {@code int[]} key,
+ * {@code Pokemon[]} value and {@code int[]} row key arrays, so lookups neither box
+ * the ID nor allocate. A null value marks an empty slot, which lets any int
+ * (including 0) be a key.
+ * <p>
+ * The table is split into segments of about {@value #SEGMENT_ENTRIES} entries,
+ * picked by the high bits of the hash. Copying an index shares every segment, and
+ * each segment is copied only the first time either index modifies it, so a copy
+ * followed by a one-entry change costs a segment rather than the whole table.
+ * <p>
+ * A row key is a caller-chosen number that stays with a row while rows before it
+ * are added or removed; {@link PokemonPages} maps it back to the row. Indexes built
+ * from a list use the list positions as row keys. This class is not thread-safe.
+ */
+public class PokemonIdIndex {
+    /**
+     * Row key of an entry added without one.
+     */
+    public static final int NO_ROW_KEY = -1;
+
+    private static final int SEGMENT_ENTRIES = 1024;
+    private static final int MIN_CAPACITY = 16;
+
+    private Segment[] segments;
+    // Segments this index may modify in place; the others are shared with a copy
+    private boolean[] owned;
+    private int segmentShift;
+    private int size;
+
+    /**
+     * Creates an empty index.
+     */
+    public PokemonIdIndex() {
+        allocate(1, MIN_CAPACITY);
+    }
+
+    /**
+     * Creates an index over a list of Pokemon, keyed by list position.
+     * When IDs repeat, the first Pokemon in list order wins.
+     *
+     * @param pokemonList the Pokemon to index
+     */
+    public PokemonIdIndex(List<Pokemon> pokemonList) {
+        int segmentCount = segmentCountFor(pokemonList.size());
+        allocate(segmentCount, capacityFor(pokemonList.size() / segmentCount));
+        for (int row = 0; row < pokemonList.size(); row++) {
+            putIfAbsent(pokemonList.get(row), row);
+        }
+    }
+
+    /**
+     * Creates an independent copy of another index. The two share their segments
+     * until either modifies one, so the copy costs one reference per segment.
+     *
+     * @param other the index to copy
+     */
+    public PokemonIdIndex(PokemonIdIndex other) {
+        segments = other.segments.clone();
+        owned = new boolean[segments.length];
+        // The other index must stop writing in place too, now that the segments are shared
+        Arrays.fill(other.owned, false);
+        segmentShift = other.segmentShift;
+        size = other.size;
+    }
+
+    /**
+     * Looks up a Pokemon by ID.
+     *
+     * @param id the Pokemon ID
+     * @return the Pokemon with the specified ID, or null if not found
+     */
+    public Pokemon get(int id) {
+        int hash = hash(id);
+        Segment segment = segments[segmentOf(hash)];
+        int slot = segment.find(id, hash);
+        return slot < 0 ? null : segment.values[slot];
+    }
+
+    /**
+     * Looks up the row key stored with an ID.
+     *
+     * @param id the Pokemon ID
+     * @return the row key, or {@link #NO_ROW_KEY} if the ID is not indexed or has no row key
+     */
+    public int getRowKey(int id) {
+        int hash = hash(id);
+        Segment segment = segments[segmentOf(hash)];
+        int slot = segment.find(id, hash);
+        return slot < 0 ? NO_ROW_KEY : segment.rowKeys[slot];
+    }
+
+    /**
+     * Adds or replaces the entry for a Pokemon's ID, without a row key.
+     *
+     * @param pokemon the Pokemon to index
+     */
+    public void put(Pokemon pokemon) {
+        insert(pokemon, NO_ROW_KEY, true);
+    }
+
+    /**
+     * Adds or replaces the entry for a Pokemon's ID.
+     *
+     * @param pokemon the Pokemon to index
+     * @param rowKey the key of the Pokemon's row
+     */
+    public void put(Pokemon pokemon, int rowKey) {
+        insert(pokemon, rowKey, true);
+    }
+
+    /**
+     * Adds an entry for a Pokemon's ID, without a row key, unless one already exists.
+     *
+     * @param pokemon the Pokemon to index
+     * @return true if the Pokemon was added
+     */
+    public boolean putIfAbsent(Pokemon pokemon) {
+        return insert(pokemon, NO_ROW_KEY, false);
+    }
+
+    /**
+     * Adds an entry for a Pokemon's ID unless one already exists.
+     *
+     * @param pokemon the Pokemon to index
+     * @param rowKey the key of the Pokemon's row
+     * @return true if the Pokemon was added
+     */
+    public boolean putIfAbsent(Pokemon pokemon, int rowKey) {
+        return insert(pokemon, rowKey, false);
+    }
+
+    /**
+     * Removes the entry for an ID.
+     *
+     * @param id the Pokemon ID
+     * @return the removed Pokemon, or null if the ID was not indexed
+     */
+    public Pokemon remove(int id) {
+        int hash = hash(id);
+        int index = segmentOf(hash);
+        int slot = segments[index].find(id, hash);
+        if (slot < 0) {
+            return null;
+        }
+        Segment segment = writable(index);
+        Pokemon removed = segment.values[slot];
+        segment.closeGap(slot);
+        size--;
+        return removed;
+    }
+
+    /**
+     * Returns the number of indexed IDs.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    private boolean insert(Pokemon pokemon, int rowKey, boolean replace) {
+        int id = pokemon.getId();
+        int hash = hash(id);
+        int index = segmentOf(hash);
+        int slot = segments[index].find(id, hash);
+        if (slot >= 0) {
+            if (replace) {
+                Segment segment = writable(index);
+                segment.values[slot] = pokemon;
+                segment.rowKeys[slot] = rowKey;
+            }
+            return replace;
+        }
+        if (size + 1 > segments.length * SEGMENT_ENTRIES) {
+            split();
+            index = segmentOf(hash);
+        }
+        writable(index).add(id, hash, pokemon, rowKey);
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns a segment this index may modify, copying it first if it is shared.
+     *
+     * @param index the segment index
+     * @return the writable segment
+     */
+    private Segment writable(int index) {
+        if (!owned[index]) {
+            segments[index] = new Segment(segments[index]);
+            owned[index] = true;
+        }
+        return segments[index];
+    }
+
+    /**
+     * Doubles the number of segments so each keeps about {@value #SEGMENT_ENTRIES} entries.
+     */
+    private void split() {
+        Segment[] oldSegments = segments;
+        allocate(oldSegments.length * 2, capacityFor(SEGMENT_ENTRIES / 2));
+        for (Segment segment : oldSegments) {
+            for (int slot = 0; slot < segment.keys.length; slot++) {
+                if (segment.values[slot] != null) {
+                    int hash = hash(segment.keys[slot]);
+                    segments[segmentOf(hash)].add(segment.keys[slot], hash,
+                            segment.values[slot], segment.rowKeys[slot]);
+                }
+            }
+        }
+    }
+
+    private void allocate(int segmentCount, int capacity) {
+        segments = new Segment[segmentCount];
+        owned = new boolean[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(capacity);
+            owned[i] = true;
+        }
+        // Shifting an int by 32 is a no-op, so a single segment is special-cased in segmentOf
+        segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+    }
+
+    private int segmentOf(int hash) {
+        return segments.length == 1 ? 0 : hash >>> segmentShift;
+    }
+
+    private static int segmentCountFor(int expected) {
+        int count = 1;
+        while (count * SEGMENT_ENTRIES < expected) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    private static int capacityFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expected * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static int hash(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * One open-addressing table of the index, kept at most half full.
+     */
+    private static final class Segment {
+        private int[] keys;
+        private Pokemon[] values;
+        private int[] rowKeys;
+        private int mask;
+        private int size;
+
+        Segment(int capacity) {
+            keys = new int[capacity];
+            values = new Pokemon[capacity];
+            rowKeys = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        Segment(Segment other) {
+            keys = other.keys.clone();
+            values = other.values.clone();
+            rowKeys = other.rowKeys.clone();
+            mask = other.mask;
+            size = other.size;
+        }
+
+        int find(int id, int hash) {
+            int slot = hash & mask;
+            while (values[slot] != null) {
+                if (keys[slot] == id) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Adds an ID known to be absent.
+         */
+        void add(int id, int hash, Pokemon pokemon, int rowKey) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            int slot = hash & mask;
+            while (values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = id;
+            values[slot] = pokemon;
+            rowKeys[slot] = rowKey;
+            size++;
+        }
+
+        /**
+         * Backward-shift deletion: moves later entries of the probe run into the freed
+         * slot so lookups never stop early at a hole.
+         *
+         * @param freed the slot being emptied
+         */
+        void closeGap(int freed) {
+            int gap = freed;
+            int slot = (gap + 1) & mask;
+            while (values[slot] != null) {
+                int home = hash(keys[slot]) & mask;
+                // Move the entry if its home slot is not cyclically within (gap, slot]
+                if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                    keys[gap] = keys[slot];
+                    values[gap] = values[slot];
+                    rowKeys[gap] = rowKeys[slot];
+                    gap = slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            values[gap] = null;
+            size--;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            Pokemon[] oldValues = values;
+            int[] oldRowKeys = rowKeys;
+            keys = new int[capacity];
+            values = new Pokemon[capacity];
+            rowKeys = new int[capacity];
+            mask = capacity - 1;
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    add(oldKeys[i], hash(oldKeys[i]), oldValues[i], oldRowKeys[i]);
+                }
+            }
+        }
+    }
+}
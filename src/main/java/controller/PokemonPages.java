@@ -0,0 +1,299 @@
+package controller;
+
+import model.Pokemon;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable list of Pokemon split into pages of at most {@value #PAGE_SIZE} rows.
+ * <p>
+ * Adding, replacing or removing one row returns a new instance that copies only the
+ * page holding the row and the page directory, and shares every other page with this
+ * one. That keeps the cost of publishing a snapshot after a one-row edit proportional
+ * to the page size plus the number of pages, rather than to the collection.
+ * <p>
+ * Every row also carries a row key: keys increase along the rows and a row keeps its
+ * key while rows before it are added or removed, so {@link #rowOf(int)} can find a row
+ * again by binary search after the rows have shifted. Rows built from a list are keyed
+ * by their position in it and appended rows take the next key after the last one.
+ */
+final class PokemonPages {
+    static final int PAGE_SIZE = 1024;
+    // A page this small after a removal is merged into its neighbour when they fit in one
+    private static final int MERGE_SIZE = PAGE_SIZE / 4;
+
+    private static final PokemonPages EMPTY = new PokemonPages(new Pokemon[0][], new int[0][], new int[] {0});
+
+    private final Pokemon[][] pages;
+    private final int[][] keys;
+    // starts[p] is the first row of page p; the extra last entry is the size
+    private final int[] starts;
+
+    private PokemonPages(Pokemon[][] pages, int[][] keys, int[] starts) {
+        this.pages = pages;
+        this.keys = keys;
+        this.starts = starts;
+    }
+
+    /**
+     * Returns the empty instance.
+     *
+     * @return pages with no rows
+     */
+    static PokemonPages empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Copies a list into pages, keying each row by its position.
+     *
+     * @param pokemonList the Pokemon in row order
+     * @return the pages
+     */
+    static PokemonPages of(List<Pokemon> pokemonList) {
+        int size = pokemonList.size();
+        int pageCount = (size + PAGE_SIZE - 1) / PAGE_SIZE;
+        Pokemon[][] pages = new Pokemon[pageCount][];
+        int[][] keys = new int[pageCount][];
+        int[] starts = new int[pageCount + 1];
+        for (int page = 0; page < pageCount; page++) {
+            int from = page * PAGE_SIZE;
+            int to = Math.min(from + PAGE_SIZE, size);
+            pages[page] = pokemonList.subList(from, to).toArray(new Pokemon[0]);
+            keys[page] = new int[to - from];
+            for (int i = 0; i < keys[page].length; i++) {
+                keys[page][i] = from + i;
+            }
+            starts[page] = from;
+        }
+        starts[pageCount] = size;
+        return new PokemonPages(pages, keys, starts);
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the size
+     */
+    int size() {
+        return starts[pages.length];
+    }
+
+    /**
+     * Returns the Pokemon at a row.
+     *
+     * @param row the row
+     * @return the Pokemon
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    Pokemon get(int row) {
+        int page = pageOf(row);
+        return pages[page][row - starts[page]];
+    }
+
+    /**
+     * Returns the key of a row.
+     *
+     * @param row the row
+     * @return the row key
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    int keyAt(int row) {
+        int page = pageOf(row);
+        return keys[page][row - starts[page]];
+    }
+
+    /**
+     * Finds the row that currently has a key.
+     *
+     * @param key the row key
+     * @return the row, or -1 if no row has the key
+     */
+    int rowOf(int key) {
+        int low = 0;
+        int high = pages.length - 1;
+        // Last page whose first key is at most the key
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle][0] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (high < 0) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(keys[high], key);
+        return index < 0 ? -1 : starts[high] + index;
+    }
+
+    /**
+     * Tells whether another row can be appended without running out of row keys.
+     *
+     * @return false once the last row key is {@link Integer#MAX_VALUE}
+     */
+    boolean canAppend() {
+        return pages.length == 0 || lastKey() < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns new pages with a Pokemon appended under the next row key.
+     *
+     * @param pokemon the Pokemon to append
+     * @return the new pages
+     * @throws IllegalStateException if the row keys are used up
+     */
+    PokemonPages append(Pokemon pokemon) {
+        if (!canAppend()) {
+            throw new IllegalStateException("No row keys left to append with");
+        }
+        int key = pages.length == 0 ? 0 : lastKey() + 1;
+        int last = pages.length - 1;
+        if (last >= 0 && pages[last].length < PAGE_SIZE) {
+            Pokemon[][] newPages = pages.clone();
+            int[][] newKeys = keys.clone();
+            newPages[last] = Arrays.copyOf(pages[last], pages[last].length + 1);
+            newPages[last][pages[last].length] = pokemon;
+            newKeys[last] = Arrays.copyOf(keys[last], keys[last].length + 1);
+            newKeys[last][keys[last].length] = key;
+            int[] newStarts = starts.clone();
+            newStarts[pages.length]++;
+            return new PokemonPages(newPages, newKeys, newStarts);
+        }
+        Pokemon[][] newPages = Arrays.copyOf(pages, pages.length + 1);
+        int[][] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        newPages[pages.length] = new Pokemon[] {pokemon};
+        newKeys[pages.length] = new int[] {key};
+        int[] newStarts = Arrays.copyOf(starts, starts.length + 1);
+        newStarts[pages.length + 1] = size() + 1;
+        return new PokemonPages(newPages, newKeys, newStarts);
+    }
+
+    /**
+     * Returns new pages with the Pokemon at a row replaced. The row keeps its key.
+     *
+     * @param row the row
+     * @param pokemon the new Pokemon
+     * @return the new pages
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    PokemonPages set(int row, Pokemon pokemon) {
+        int page = pageOf(row);
+        Pokemon[][] newPages = pages.clone();
+        newPages[page] = pages[page].clone();
+        newPages[page][row - starts[page]] = pokemon;
+        return new PokemonPages(newPages, keys, starts);
+    }
+
+    /**
+     * Returns new pages without a row. Later rows move up by one and keep their keys.
+     * An emptied page is dropped and a page left very small is merged with a neighbour.
+     *
+     * @param row the row
+     * @return the new pages
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    PokemonPages remove(int row) {
+        int page = pageOf(row);
+        int index = row - starts[page];
+        Pokemon[] shrunkPage = without(pages[page], index);
+        int[] shrunkKeys = without(keys[page], index);
+
+        int first = page;
+        int count = 1;
+        if (shrunkPage.length > 0 && shrunkPage.length < MERGE_SIZE) {
+            if (page + 1 < pages.length && shrunkPage.length + pages[page + 1].length <= PAGE_SIZE) {
+                count = 2;
+            } else if (page > 0 && shrunkPage.length + pages[page - 1].length <= PAGE_SIZE) {
+                first = page - 1;
+                count = 2;
+            }
+        }
+
+        // Replace pages [first, first + count) with zero or one page
+        Pokemon[] merged = shrunkPage;
+        int[] mergedKeys = shrunkKeys;
+        if (count == 2) {
+            Pokemon[] before = first == page ? shrunkPage : pages[first];
+            Pokemon[] after = first == page ? pages[page + 1] : shrunkPage;
+            int[] keysBefore = first == page ? shrunkKeys : keys[first];
+            int[] keysAfter = first == page ? keys[page + 1] : shrunkKeys;
+            merged = concat(before, after);
+            mergedKeys = concat(keysBefore, keysAfter);
+        }
+        int replacement = merged.length == 0 ? 0 : 1;
+        int pageCount = pages.length - count + replacement;
+
+        Pokemon[][] newPages = new Pokemon[pageCount][];
+        int[][] newKeys = new int[pageCount][];
+        int[] newStarts = new int[pageCount + 1];
+        System.arraycopy(pages, 0, newPages, 0, first);
+        System.arraycopy(keys, 0, newKeys, 0, first);
+        System.arraycopy(starts, 0, newStarts, 0, first + 1);
+        if (replacement == 1) {
+            newPages[first] = merged;
+            newKeys[first] = mergedKeys;
+        }
+        int tail = pages.length - first - count;
+        System.arraycopy(pages, first + count, newPages, first + replacement, tail);
+        System.arraycopy(keys, first + count, newKeys, first + replacement, tail);
+        for (int p = first + replacement; p <= pageCount; p++) {
+            newStarts[p] = starts[p - replacement + count] - 1;
+        }
+        return new PokemonPages(newPages, newKeys, newStarts);
+    }
+
+    /**
+     * Copies the rows into a new array.
+     *
+     * @return the Pokemon in row order
+     */
+    Pokemon[] toArray() {
+        Pokemon[] result = new Pokemon[size()];
+        for (int page = 0; page < pages.length; page++) {
+            System.arraycopy(pages[page], 0, result, starts[page], pages[page].length);
+        }
+        return result;
+    }
+
+    private int pageOf(int row) {
+        if (row < 0 || row >= size()) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size());
+        }
+        int page = Arrays.binarySearch(starts, 0, pages.length, row);
+        return page >= 0 ? page : -page - 2;
+    }
+
+    private int lastKey() {
+        int[] lastKeys = keys[keys.length - 1];
+        return lastKeys[lastKeys.length - 1];
+    }
+
+    private static Pokemon[] without(Pokemon[] page, int index) {
+        Pokemon[] result = new Pokemon[page.length - 1];
+        System.arraycopy(page, 0, result, 0, index);
+        System.arraycopy(page, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    private static int[] without(int[] page, int index) {
+        int[] result = new int[page.length - 1];
+        System.arraycopy(page, 0, result, 0, index);
+        System.arraycopy(page, index + 1, result, index, result.length - index);
+        return result;
+    }
+
+    private static Pokemon[] concat(Pokemon[] first, Pokemon[] second) {
+        Pokemon[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
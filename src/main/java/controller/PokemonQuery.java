@@ -0,0 +1,558 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+import model.PokemonType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable description of a query over a Pokemon collection: a search term, a type
+ * filter, stat ranges, a filter expression, sort keys and a page window. Built with
+ * {@link #builder()}.
+ * <p>
+ * All criteria are combined with AND. The type filter matches Pokemon having any of the
+ * selected types. Sort keys are applied in order, and remaining ties keep collection order.
+ */
+public final class PokemonQuery {
+    /**
+     * Limit meaning "no limit".
+     */
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private static final int STAT_COUNT = PokemonStat.values().length;
+
+    private final String searchTerm;
+    private final boolean matchIds;
+    private final int typeMask;
+    private final int[] statMin;
+    private final int[] statMax;
+    private final int totalMin;
+    private final int totalMax;
+    private final QueryExpression expression;
+    private final List<SortOrder> sortOrders;
+    private final int offset;
+    private final int limit;
+    // Computed on first use; racing threads compute equal values, as with String.hashCode
+    private PokemonQuery normalized;
+    private int hash;
+
+    private PokemonQuery(Builder builder) {
+        this.searchTerm = builder.searchTerm;
+        this.matchIds = builder.matchIds;
+        this.typeMask = builder.typeMask;
+        this.statMin = builder.statMin.clone();
+        this.statMax = builder.statMax.clone();
+        this.totalMin = builder.totalMin;
+        this.totalMax = builder.totalMax;
+        this.expression = builder.expression;
+        this.sortOrders = Collections.unmodifiableList(new ArrayList<>(builder.sortOrders));
+        this.offset = builder.offset;
+        this.limit = builder.limit;
+    }
+
+    /**
+     * Creates a builder for a query that matches everything in collection order.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a builder initialized with this query, for deriving a similar query.
+     *
+     * @return a new builder with this query's settings
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.searchTerm = searchTerm;
+        builder.matchIds = matchIds;
+        builder.typeMask = typeMask;
+        builder.statMin = statMin.clone();
+        builder.statMax = statMax.clone();
+        builder.totalMin = totalMin;
+        builder.totalMax = totalMax;
+        builder.expression = expression;
+        builder.sortOrders.addAll(sortOrders);
+        builder.offset = offset;
+        builder.limit = limit;
+        return builder;
+    }
+
+    /**
+     * Returns the search term, or an empty string when there is none.
+     *
+     * @return the search term, trimmed
+     */
+    public String getSearchTerm() {
+        return searchTerm;
+    }
+
+    /**
+     * Tells whether the search term also matches against Pokemon IDs.
+     *
+     * @return true if IDs are searched as well as names
+     */
+    public boolean isMatchIds() {
+        return matchIds;
+    }
+
+    /**
+     * Returns the selected types as a {@link PokemonType#maskOf(List)} bit mask.
+     *
+     * @return the type mask, or 0 when any type matches
+     */
+    public int getTypeMask() {
+        return typeMask;
+    }
+
+    /**
+     * Returns the lower bound of a stat range.
+     *
+     * @param stat the stat
+     * @return the inclusive minimum
+     */
+    public int getStatMin(PokemonStat stat) {
+        return statMin[stat.ordinal()];
+    }
+
+    /**
+     * Returns the upper bound of a stat range.
+     *
+     * @param stat the stat
+     * @return the inclusive maximum
+     */
+    public int getStatMax(PokemonStat stat) {
+        return statMax[stat.ordinal()];
+    }
+
+    /**
+     * Tells whether a stat has a range narrower than its full domain.
+     *
+     * @param stat the stat
+     * @return true if the stat is constrained
+     */
+    public boolean hasStatRange(PokemonStat stat) {
+        return statMin[stat.ordinal()] > 0 || statMax[stat.ordinal()] < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the lower bound of the base stat total range.
+     *
+     * @return the inclusive minimum
+     */
+    public int getTotalMin() {
+        return totalMin;
+    }
+
+    /**
+     * Returns the upper bound of the base stat total range.
+     *
+     * @return the inclusive maximum
+     */
+    public int getTotalMax() {
+        return totalMax;
+    }
+
+    /**
+     * Tells whether the base stat total is constrained.
+     *
+     * @return true if the base stat total has a range
+     */
+    public boolean hasTotalRange() {
+        return totalMin > 0 || totalMax < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the filter expression.
+     *
+     * @return the expression, or null when there is none
+     */
+    public QueryExpression getExpression() {
+        return expression;
+    }
+
+    /**
+     * Returns the sort keys in priority order.
+     *
+     * @return an unmodifiable list of sort orders, empty for collection order
+     */
+    public List<SortOrder> getSortOrders() {
+        return sortOrders;
+    }
+
+    /**
+     * Returns the number of leading results to skip.
+     *
+     * @return the offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the maximum number of results to return.
+     *
+     * @return the limit, or {@link #NO_LIMIT}
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Tells whether any stat or the base stat total has a range.
+     *
+     * @return true if the query constrains stats
+     */
+    public boolean hasStatRanges() {
+        if (hasTotalRange()) {
+            return true;
+        }
+        for (PokemonStat stat : PokemonStat.values()) {
+            if (hasStatRange(stat)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns an equivalent query in canonical form, for use as a cache key: the search
+     * term is lower-cased the way the search indexes compare it, and ID matching is
+     * dropped when there is no term to match. The canonical form is computed once and
+     * kept, so repeated cache lookups with the same query do not rebuild it.
+     *
+     * @return this query if it is already canonical, otherwise a canonical copy
+     */
+    public PokemonQuery normalized() {
+        PokemonQuery result = normalized;
+        if (result == null) {
+            String term = NGramIndex.normalize(searchTerm);
+            boolean ids = matchIds && !term.isEmpty();
+            if (term.equals(searchTerm) && ids == matchIds) {
+                result = this;
+            } else {
+                Builder builder = toBuilder();
+                builder.searchTerm = term;
+                builder.matchIds = ids;
+                result = builder.build();
+                result.normalized = result;
+            }
+            normalized = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PokemonQuery)) {
+            return false;
+        }
+        PokemonQuery other = (PokemonQuery) o;
+        return matchIds == other.matchIds
+                && typeMask == other.typeMask
+                && totalMin == other.totalMin
+                && totalMax == other.totalMax
+                && offset == other.offset
+                && limit == other.limit
+                && searchTerm.equals(other.searchTerm)
+                && Arrays.equals(statMin, other.statMin)
+                && Arrays.equals(statMax, other.statMax)
+                && Objects.equals(expression, other.expression)
+                && sortOrders.equals(other.sortOrders);
+    }
+
+    @Override
+    public int hashCode() {
+        if (hash != 0) {
+            return hash;
+        }
+        int result = searchTerm.hashCode();
+        result = 31 * result + (matchIds ? 1 : 0);
+        result = 31 * result + typeMask;
+        result = 31 * result + Arrays.hashCode(statMin);
+        result = 31 * result + Arrays.hashCode(statMax);
+        result = 31 * result + totalMin;
+        result = 31 * result + totalMax;
+        result = 31 * result + Objects.hashCode(expression);
+        result = 31 * result + sortOrders.hashCode();
+        result = 31 * result + offset;
+        result = 31 * result + limit;
+        hash = result;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "PokemonQuery{"
+                + "searchTerm='" + searchTerm + '\''
+                + ", matchIds=" + matchIds
+                + ", types=" + PokemonType.fromMask(typeMask)
+                + ", statMin=" + Arrays.toString(statMin)
+                + ", statMax=" + Arrays.toString(statMax)
+                + ", total=[" + totalMin + ", " + totalMax + ']'
+                + ", where=" + expression
+                + ", sortOrders=" + sortOrders
+                + ", offset=" + offset
+                + ", limit=" + limit
+                + '}';
+    }
+
+    /**
+     * One sort key of a query with its direction.
+     */
+    public static final class SortOrder {
+        private final PokemonSortKey key;
+        private final boolean descending;
+
+        /**
+         * Creates a sort order.
+         *
+         * @param key the key to sort by
+         * @param descending true for descending order
+         */
+        public SortOrder(PokemonSortKey key, boolean descending) {
+            if (key == null) {
+                throw new IllegalArgumentException("Sort key cannot be null");
+            }
+            this.key = key;
+            this.descending = descending;
+        }
+
+        public PokemonSortKey getKey() { return key; }
+
+        public boolean isDescending() { return descending; }
+
+        /**
+         * Compares two Pokemon by this key in this direction.
+         *
+         * @param a the first Pokemon
+         * @param b the second Pokemon
+         * @return a negative, zero or positive value as a sorts before, with or after b
+         */
+        public int compare(Pokemon a, Pokemon b) {
+            int result = key.comparator().compare(a, b);
+            return descending ? -result : result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SortOrder)) {
+                return false;
+            }
+            SortOrder other = (SortOrder) o;
+            return key == other.key && descending == other.descending;
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() * 31 + (descending ? 1 : 0);
+        }
+
+        @Override
+        public String toString() {
+            return key + (descending ? " DESC" : " ASC");
+        }
+    }
+
+    /**
+     * Builder for {@link PokemonQuery}.
+     */
+    public static final class Builder {
+        private String searchTerm = "";
+        private boolean matchIds;
+        private int typeMask;
+        private int[] statMin = new int[STAT_COUNT];
+        private int[] statMax = filled(Integer.MAX_VALUE);
+        private int totalMin;
+        private int totalMax = Integer.MAX_VALUE;
+        private QueryExpression expression;
+        private final List<SortOrder> sortOrders = new ArrayList<>();
+        private int offset;
+        private int limit = NO_LIMIT;
+
+        private Builder() {
+        }
+
+        /**
+         * Matches Pokemon whose name contains the term, ignoring case.
+         *
+         * @param term the term, or null or blank for no search
+         * @return this builder
+         */
+        public Builder nameContains(String term) {
+            this.searchTerm = term == null ? "" : term.trim();
+            this.matchIds = false;
+            return this;
+        }
+
+        /**
+         * Matches Pokemon whose name or ID contains the term, ignoring case.
+         *
+         * @param term the term, or null or blank for no search
+         * @return this builder
+         */
+        public Builder nameOrIdContains(String term) {
+            nameContains(term);
+            this.matchIds = true;
+            return this;
+        }
+
+        /**
+         * Matches Pokemon having any of the given types. A null type is ignored,
+         * so passing the "all types" selection of a combo box clears the filter.
+         *
+         * @param types the accepted types
+         * @return this builder
+         */
+        public Builder types(PokemonType... types) {
+            typeMask = 0;
+            for (PokemonType type : types) {
+                if (type != null) {
+                    typeMask |= type.mask();
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Restricts a stat to an inclusive range.
+         *
+         * @param stat the stat
+         * @param min the inclusive minimum
+         * @param max the inclusive maximum
+         * @return this builder
+         * @throws IllegalArgumentException if min is greater than max
+         */
+        public Builder statRange(PokemonStat stat, int min, int max) {
+            checkRange(min, max);
+            statMin[stat.ordinal()] = min;
+            statMax[stat.ordinal()] = max;
+            return this;
+        }
+
+        /**
+         * Restricts the base stat total to an inclusive range.
+         *
+         * @param min the inclusive minimum
+         * @param max the inclusive maximum
+         * @return this builder
+         * @throws IllegalArgumentException if min is greater than max
+         */
+        public Builder totalRange(int min, int max) {
+            checkRange(min, max);
+            totalMin = min;
+            totalMax = max;
+            return this;
+        }
+
+        /**
+         * Matches Pokemon for which an expression holds, such as
+         * {@code "attack > defense and type in (fire, dragon)"}.
+         *
+         * @param expression the {@link QueryExpression} text, or null or blank for none
+         * @return this builder
+         * @throws IllegalArgumentException if the expression does not parse
+         */
+        public Builder where(String expression) {
+            this.expression = expression == null || expression.isBlank() ? null : QueryExpression.parse(expression);
+            return this;
+        }
+
+        /**
+         * Matches Pokemon for which a parsed expression holds.
+         *
+         * @param expression the expression, or null for none
+         * @return this builder
+         */
+        public Builder where(QueryExpression expression) {
+            this.expression = expression;
+            return this;
+        }
+
+        /**
+         * Adds a sort key after any already added.
+         *
+         * @param key the key to sort by
+         * @param descending true for descending order
+         * @return this builder
+         */
+        public Builder sortBy(PokemonSortKey key, boolean descending) {
+            sortOrders.add(new SortOrder(key, descending));
+            return this;
+        }
+
+        /**
+         * Removes all sort keys, going back to collection order.
+         *
+         * @return this builder
+         */
+        public Builder clearSort() {
+            sortOrders.clear();
+            return this;
+        }
+
+        /**
+         * Skips leading results.
+         *
+         * @param offset the number of results to skip
+         * @return this builder
+         * @throws IllegalArgumentException if offset is negative
+         */
+        public Builder offset(int offset) {
+            if (offset < 0) {
+                throw new IllegalArgumentException("Offset cannot be negative");
+            }
+            this.offset = offset;
+            return this;
+        }
+
+        /**
+         * Caps the number of results.
+         *
+         * @param limit the maximum number of results, or {@link #NO_LIMIT}
+         * @return this builder
+         * @throws IllegalArgumentException if limit is negative
+         */
+        public Builder limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit cannot be negative");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Builds the query.
+         *
+         * @return the immutable query
+         */
+        public PokemonQuery build() {
+            return new PokemonQuery(this);
+        }
+
+        private static void checkRange(int min, int max) {
+            if (min > max) {
+                throw new IllegalArgumentException("Range minimum cannot be greater than maximum");
+            }
+        }
+
+        private static int[] filled(int value) {
+            int[] values = new int[STAT_COUNT];
+            Arrays.fill(values, value);
+            return values;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package controller;
+
+import model.Pokemon;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable, versioned view of a Pokemon collection at one point in time.
+ * <p>
+ * The controller publishes a new snapshot after every change, each with a higher
+ * version, so a cache can key on the version and know its entries are stale once it
+ * changes. A snapshot never changes after it is published and can be shared freely
+ * between threads. {@link #asList()} hands out views over the same rows without
+ * copying; a view only copies the rows if its holder modifies it.
+ * <p>
+ * The rows are kept in {@link PokemonPages} and the ID index is copied segment by
+ * segment, so the snapshot after a one-row edit shares almost everything with the one
+ * before it.
+ */
+public final class PokemonSnapshot {
+    private static final PokemonSnapshot EMPTY = new PokemonSnapshot(0, PokemonPages.empty(), new PokemonIdIndex());
+
+    private final long version;
+    private final PokemonPages rows;
+    private final PokemonIdIndex idIndex;
+
+    /**
+     * Creates a snapshot. The index is taken over and must not be modified afterwards.
+     *
+     * @param version the version of the collection
+     * @param rows the Pokemon in collection order
+     * @param idIndex the ID index over the rows, with their row keys
+     */
+    PokemonSnapshot(long version, PokemonPages rows, PokemonIdIndex idIndex) {
+        this.version = version;
+        this.rows = rows;
+        this.idIndex = idIndex;
+    }
+
+    /**
+     * Returns the empty snapshot with version 0.
+     *
+     * @return the initial snapshot
+     */
+    public static PokemonSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the version of the collection this snapshot was taken from.
+     *
+     * @return the version, increasing with every change
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the number of Pokemon in the snapshot.
+     *
+     * @return the size
+     */
+    public int size() {
+        return rows.size();
+    }
+
+    /**
+     * Returns the Pokemon at a row.
+     *
+     * @param row the row
+     * @return the Pokemon
+     * @throws IndexOutOfBoundsException if the row is out of range
+     */
+    public Pokemon get(int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * Looks up a Pokemon by ID.
+     *
+     * @param id the Pokemon ID
+     * @return the first Pokemon with the ID in collection order, or null if not found
+     */
+    public Pokemon getById(int id) {
+        return idIndex.get(id);
+    }
+
+    /**
+     * Returns a list view of the snapshot without copying it.
+     * Modifying the view copies its rows first, so the snapshot itself never changes.
+     *
+     * @return a new view over the snapshot
+     */
+    public List<Pokemon> asList() {
+        return new View(rows);
+    }
+
+    /**
+     * Finds the row of the first Pokemon with an ID through the ID index and row keys.
+     *
+     * @param id the Pokemon ID
+     * @return the row, or -1 if not found
+     */
+    int rowOf(int id) {
+        int key = idIndex.getRowKey(id);
+        return key == PokemonIdIndex.NO_ROW_KEY ? -1 : rows.rowOf(key);
+    }
+
+    PokemonPages rows() {
+        return rows;
+    }
+
+    PokemonIdIndex idIndex() {
+        return idIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "PokemonSnapshot{version=" + version + ", size=" + rows.size() + '}';
+    }
+
+    /**
+     * Copy-on-write list over a snapshot's rows: reads go to the shared pages until the
+     * first modification, which moves the view onto its own copy.
+     */
+    private static final class View extends AbstractList<Pokemon> implements RandomAccess {
+        private PokemonPages shared;
+        private List<Pokemon> own;
+
+        View(PokemonPages shared) {
+            this.shared = shared;
+        }
+
+        @Override
+        public Pokemon get(int index) {
+            if (own != null) {
+                return own.get(index);
+            }
+            return shared.get(index);
+        }
+
+        @Override
+        public int size() {
+            return own != null ? own.size() : shared.size();
+        }
+
+        @Override
+        public Pokemon set(int index, Pokemon element) {
+            return own().set(index, element);
+        }
+
+        @Override
+        public void add(int index, Pokemon element) {
+            own().add(index, element);
+            modCount++;
+        }
+
+        @Override
+        public Pokemon remove(int index) {
+            Pokemon removed = own().remove(index);
+            modCount++;
+            return removed;
+        }
+
+        @Override
+        public void clear() {
+            if (size() > 0) {
+                own = new ArrayList<>();
+                shared = null;
+                modCount++;
+            }
+        }
+
+        @Override
+        public Object[] toArray() {
+            return own != null ? own.toArray() : shared.toArray();
+        }
+
+        private List<Pokemon> own() {
+            if (own == null) {
+                own = new ArrayList<>(Arrays.asList(shared.toArray()));
+                shared = null;
+            }
+            return own;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package controller;
+
+import model.NameSortKey;
+import model.Pokemon;
+import model.PokemonStat;
+
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keys the controller can sort a Pokemon collection by. Names sort by their cached
+ * {@link NameSortKey}, so the order ignores case and accents first.
+ */
+public enum PokemonSortKey {
+    NAME(null),
+    ID(Pokemon::getId),
+    HP(pokemon -> pokemon.getStats().getHp()),
+    BASE_STAT_TOTAL(pokemon -> PokemonStat.total(pokemon.getStats())),
+    /** The first listed type, in type order; untyped Pokemon sort first. */
+    TYPE(pokemon -> pokemon.getTypes() == null || pokemon.getTypes().isEmpty()
+            ? -1 : pokemon.getTypes().get(0).ordinal()),
+    ATTACK(pokemon -> pokemon.getStats().getAttack()),
+    DEFENSE(pokemon -> pokemon.getStats().getDefense()),
+    SPECIAL_ATTACK(pokemon -> pokemon.getStats().getSpecialAttack()),
+    SPECIAL_DEFENSE(pokemon -> pokemon.getStats().getSpecialDefense()),
+    SPEED(pokemon -> pokemon.getStats().getSpeed());
+
+    private final ToIntFunction<Pokemon> intKey;
+    private final Comparator<Pokemon> comparator;
+
+    PokemonSortKey(ToIntFunction<Pokemon> intKey) {
+        this.intKey = intKey;
+        this.comparator = intKey == null
+                ? (a, b) -> NameSortKey.compare(a.nameSortKey(), b.nameSortKey())
+                : Comparator.comparingInt(intKey);
+    }
+
+    /**
+     * Tells whether this key is a plain int, which lets sorts work on primitive arrays.
+     *
+     * @return true for int keys, false for name
+     */
+    public boolean isNumeric() {
+        return intKey != null;
+    }
+
+    /**
+     * Reads the int value of a numeric key.
+     *
+     * @param pokemon the Pokemon to read from
+     * @return the key value
+     * @throws UnsupportedOperationException if this key is not numeric
+     */
+    public int intValue(Pokemon pokemon) {
+        if (intKey == null) {
+            throw new UnsupportedOperationException(name() + " is not a numeric sort key");
+        }
+        return intKey.applyAsInt(pokemon);
+    }
+
+    /**
+     * Returns the ascending comparator for this key.
+     *
+     * @return the comparator
+     */
+    public Comparator<Pokemon> comparator() {
+        return comparator;
+    }
+}
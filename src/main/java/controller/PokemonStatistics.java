@@ -0,0 +1,351 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+import model.PokemonType;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts, extremes, means, histograms and percentiles of the base stats of a collection,
+ * for the whole collection and for each type.
+ * <p>
+ * Base stats are small bounded integers, so every stat is kept as an exact histogram with
+ * one bucket per value from 0 to {@link PokemonStat#MAX_VALUE}, and the base stat total
+ * with one bucket per value up to six times that; values outside are counted in the end
+ * buckets. Adding or removing a Pokemon touches one bucket and one running sum per
+ * column in the whole-collection group and in each of its types' groups, so the
+ * statistics follow changes without another pass over the collection. Minimum, maximum
+ * and percentiles are read off the histograms and are exact.
+ * <p>
+ * Percentile ranks come from running totals of the histograms, kept per column and
+ * recomputed only when the column has changed since the last lookup, so ranking the
+ * stats of one Pokemon against an unchanged collection is a few array reads.
+ * <p>
+ * Pokemon must not be modified in place while counted, since removal subtracts the
+ * stats they have at that time. This class is not thread-safe.
+ */
+public class PokemonStatistics {
+    /**
+     * Highest base stat total a histogram bucket is kept for.
+     */
+    public static final int MAX_TOTAL = PokemonStat.MAX_VALUE * PokemonStat.values().length;
+
+    private static final PokemonStat[] STATS = PokemonStat.values();
+    private static final PokemonType[] TYPES = PokemonType.values();
+    private static final int TOTAL = STATS.length;
+    private static final int COLUMNS = TOTAL + 1;
+    private static final int ALL = 0;
+
+    private final int[] counts = new int[TYPES.length + 1];
+    private final long[] sums = new long[counts.length * COLUMNS];
+    private final int[][] histograms = new int[counts.length * COLUMNS][];
+    // Number of values below each bucket, valid for the columns not marked stale
+    private final int[][] cumulative = new int[histograms.length][];
+    private final boolean[] stale = new boolean[histograms.length];
+
+    /**
+     * Creates empty statistics.
+     */
+    public PokemonStatistics() {
+        for (int group = 0; group < counts.length; group++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                int buckets = (column == TOTAL ? MAX_TOTAL : PokemonStat.MAX_VALUE) + 1;
+                histograms[group * COLUMNS + column] = new int[buckets];
+                cumulative[group * COLUMNS + column] = new int[buckets + 1];
+            }
+        }
+    }
+
+    /**
+     * Computes the statistics of a collection in one pass.
+     *
+     * @param pokemonList the collection
+     */
+    public PokemonStatistics(List<Pokemon> pokemonList) {
+        this();
+        for (Pokemon pokemon : pokemonList) {
+            add(pokemon);
+        }
+    }
+
+    /**
+     * Counts a Pokemon.
+     *
+     * @param pokemon the Pokemon to count
+     */
+    public void add(Pokemon pokemon) {
+        update(pokemon, 1);
+    }
+
+    /**
+     * Stops counting a Pokemon that was added before.
+     *
+     * @param pokemon the Pokemon to remove
+     */
+    public void remove(Pokemon pokemon) {
+        update(pokemon, -1);
+    }
+
+    /**
+     * Returns the number of Pokemon counted.
+     *
+     * @return the collection size
+     */
+    public int getCount() {
+        return counts[ALL];
+    }
+
+    /**
+     * Returns the number of Pokemon of a type.
+     *
+     * @param type the type
+     * @return the number of Pokemon having the type
+     */
+    public int getCount(PokemonType type) {
+        return counts[group(type)];
+    }
+
+    /**
+     * Summarizes one stat.
+     *
+     * @param type the type to restrict to, or null for the whole collection
+     * @param stat the stat
+     * @return the summary
+     */
+    public Summary summarize(PokemonType type, PokemonStat stat) {
+        return summary(group(type), stat.ordinal());
+    }
+
+    /**
+     * Summarizes the base stat total.
+     *
+     * @param type the type to restrict to, or null for the whole collection
+     * @return the summary
+     */
+    public Summary summarizeTotal(PokemonType type) {
+        return summary(group(type), TOTAL);
+    }
+
+    /**
+     * Summarizes one stat for every type that has at least one Pokemon.
+     *
+     * @param stat the stat
+     * @return the summaries by type, in type order
+     */
+    public Map<PokemonType, Summary> summarizeByType(PokemonStat stat) {
+        Map<PokemonType, Summary> result = new EnumMap<>(PokemonType.class);
+        for (PokemonType type : TYPES) {
+            if (getCount(type) > 0) {
+                result.put(type, summarize(type, stat));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the share of a group with a stat below a value, counting values equal to it
+     * as half, the same as {@link Summary#getPercentileRank(int)} without copying the
+     * histogram.
+     *
+     * @param type the type to restrict to, or null for the whole collection
+     * @param stat the stat
+     * @param value the value to rank
+     * @return the percentile rank from 0 to 100, or 0 for an empty group
+     */
+    public double percentileRank(PokemonType type, PokemonStat stat, int value) {
+        int group = group(type);
+        int index = group * COLUMNS + stat.ordinal();
+        if (stale[index]) {
+            accumulate(histograms[index], cumulative[index]);
+            stale[index] = false;
+        }
+        return rank(cumulative[index], counts[group], value);
+    }
+
+    private void update(Pokemon pokemon, int delta) {
+        int[] values = new int[COLUMNS];
+        Pokemon.PokemonStats stats = pokemon.getStats();
+        for (PokemonStat stat : STATS) {
+            values[stat.ordinal()] = stat.of(stats);
+        }
+        values[TOTAL] = PokemonStat.total(stats);
+
+        updateGroup(ALL, values, delta);
+        // Through the mask, so a type listed twice counts once
+        for (int types = PokemonType.maskOf(pokemon.getTypes()); types != 0; types &= types - 1) {
+            updateGroup(Integer.numberOfTrailingZeros(types) + 1, values, delta);
+        }
+    }
+
+    private void updateGroup(int group, int[] values, int delta) {
+        counts[group] += delta;
+        for (int column = 0; column < COLUMNS; column++) {
+            int[] histogram = histograms[group * COLUMNS + column];
+            histogram[Math.max(0, Math.min(histogram.length - 1, values[column]))] += delta;
+            sums[group * COLUMNS + column] += (long) delta * values[column];
+            stale[group * COLUMNS + column] = true;
+        }
+    }
+
+    private Summary summary(int group, int column) {
+        return new Summary(counts[group], sums[group * COLUMNS + column], histograms[group * COLUMNS + column].clone());
+    }
+
+    private static int group(PokemonType type) {
+        return type == null ? ALL : type.ordinal() + 1;
+    }
+
+    /**
+     * Fills {@code cumulative[v]} with the number of values below v, for v up to the
+     * histogram length.
+     */
+    private static void accumulate(int[] histogram, int[] cumulative) {
+        int total = 0;
+        for (int value = 0; value < histogram.length; value++) {
+            cumulative[value] = total;
+            total += histogram[value];
+        }
+        cumulative[histogram.length] = total;
+    }
+
+    private static double rank(int[] cumulative, int count, int value) {
+        if (count == 0) {
+            return 0;
+        }
+        int buckets = cumulative.length - 1;
+        if (value < 0) {
+            return 0;
+        }
+        if (value >= buckets) {
+            return 100;
+        }
+        double equal = cumulative[value + 1] - cumulative[value];
+        return 100 * (cumulative[value] + equal / 2) / count;
+    }
+
+    /**
+     * Point-in-time distribution of one stat over a group of Pokemon.
+     */
+    public static final class Summary {
+        private final int count;
+        private final long sum;
+        private final int[] histogram;
+        private final int[] cumulative;
+        private final int min;
+        private final int max;
+
+        Summary(int count, long sum, int[] histogram) {
+            this.count = count;
+            this.sum = sum;
+            this.histogram = histogram;
+            this.cumulative = new int[histogram.length + 1];
+            accumulate(histogram, cumulative);
+            int low = 0;
+            while (low < histogram.length && histogram[low] == 0) {
+                low++;
+            }
+            int high = histogram.length - 1;
+            while (high >= 0 && histogram[high] == 0) {
+                high--;
+            }
+            this.min = count == 0 ? 0 : low;
+            this.max = count == 0 ? 0 : high;
+        }
+
+        public int getCount() { return count; }
+
+        /**
+         * Returns the lowest value.
+         *
+         * @return the minimum, or 0 for an empty group
+         */
+        public int getMin() { return min; }
+
+        /**
+         * Returns the highest value.
+         *
+         * @return the maximum, or 0 for an empty group
+         */
+        public int getMax() { return max; }
+
+        /**
+         * Returns the mean value.
+         *
+         * @return the mean, or 0 for an empty group
+         */
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Returns the number of Pokemon with each value.
+         *
+         * @return a copy of the histogram, indexed by value
+         */
+        public int[] getHistogram() {
+            return histogram.clone();
+        }
+
+        /**
+         * Returns the histogram with neighbouring values merged into wider buckets.
+         *
+         * @param bucketWidth the number of values per bucket
+         * @return the counts of the buckets, the first starting at 0
+         * @throws IllegalArgumentException if the width is less than 1
+         */
+        public int[] getHistogram(int bucketWidth) {
+            if (bucketWidth < 1) {
+                throw new IllegalArgumentException("Bucket width must be at least 1");
+            }
+            int[] buckets = new int[(histogram.length + bucketWidth - 1) / bucketWidth];
+            for (int value = 0; value < histogram.length; value++) {
+                buckets[value / bucketWidth] += histogram[value];
+            }
+            return buckets;
+        }
+
+        /**
+         * Returns the smallest value that at least the given share of the group is at or below.
+         *
+         * @param percentile the share, from 0 to 100
+         * @return the value at the percentile, or 0 for an empty group
+         * @throws IllegalArgumentException if the percentile is outside 0 to 100
+         */
+        public int getPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 100");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int value = min; value <= max; value++) {
+                seen += histogram[value];
+                if (seen >= rank) {
+                    return value;
+                }
+            }
+            return max;
+        }
+
+        /**
+         * Returns the share of the group below a value, counting values equal to it as half.
+         *
+         * @param value the value to rank
+         * @return the percentile rank from 0 to 100, or 0 for an empty group
+         */
+        public double getPercentileRank(int value) {
+            return rank(cumulative, count, value);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Summary{count=%d, min=%d, max=%d, mean=%.1f, median=%d}",
+                    count, min, max, getMean(), getPercentile(50));
+        }
+    }
+}
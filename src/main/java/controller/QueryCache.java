@@ -0,0 +1,226 @@
+package controller;
+
+import model.Pokemon;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded least-recently-used cache of query results for one collection.
+ * <p>
+ * Entries are keyed by the {@link PokemonQuery#normalized() normalized} query and
+ * belong to one collection version: the first lookup or store with a newer
+ * {@link PokemonSnapshot#getVersion() version} drops every entry, so a result computed
+ * before a change is never returned after it. The cache is bounded both by entry count
+ * and by the estimated size of the stored results, evicting the least recently used
+ * entries first.
+ * <p>
+ * Results are stored as arrays, which cost one reference per Pokemon. A hit returns a
+ * read-only view of the stored array rather than a copy, so it costs the same whatever
+ * the size of the result; callers must not modify it. The cache is not
+ * thread-safe; the controller only touches it while holding its index lock.
+ */
+public class QueryCache {
+    /**
+     * Default maximum number of cached results.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    /**
+     * Default maximum estimated size of the cached results, in bytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+
+    // Rough per-entry overhead: map node, key query with its arrays, result array header
+    private static final long ENTRY_OVERHEAD = 256;
+    private static final long BYTES_PER_ROW = 4;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final LinkedHashMap<PokemonQuery, Pokemon[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long version = -1;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Creates a cache with the default bounds.
+     */
+    public QueryCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxEntries the maximum number of cached results
+     * @param maxBytes the maximum estimated size of the cached results
+     * @throws IllegalArgumentException if either bound is less than 1
+     */
+    public QueryCache(int maxEntries, long maxBytes) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be at least 1");
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Max bytes must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Looks up the result of a query against a collection version.
+     *
+     * @param version the version of the collection the query runs against
+     * @param query the query
+     * @return an unmodifiable view of the cached result, or null on a miss
+     */
+    public List<Pokemon> get(long version, PokemonQuery query) {
+        advanceTo(version);
+        Pokemon[] result = entries.get(query.normalized());
+        if (result == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return Collections.unmodifiableList(Arrays.asList(result));
+    }
+
+    /**
+     * Stores the result of a query against a collection version. A result larger than
+     * the whole cache is not stored.
+     *
+     * @param version the version of the collection the result was computed from
+     * @param query the query
+     * @param result the result, which is copied
+     */
+    public void put(long version, PokemonQuery query, List<Pokemon> result) {
+        advanceTo(version);
+        if (version != this.version) {
+            // Computed from an older collection than the cache now holds
+            return;
+        }
+        long size = sizeOf(result.size());
+        if (size > maxBytes) {
+            return;
+        }
+        Pokemon[] previous = entries.put(query.normalized(), result.toArray(new Pokemon[0]));
+        if (previous != null) {
+            bytes -= sizeOf(previous.length);
+        }
+        bytes += size;
+        evictOverflow();
+    }
+
+    /**
+     * Drops every entry. Statistics are kept.
+     */
+    public void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns a snapshot of the cache's statistics.
+     *
+     * @return the current statistics
+     */
+    public Stats getStats() {
+        return new Stats(hits, misses, evictions, invalidations, entries.size(), bytes);
+    }
+
+    private void advanceTo(long newVersion) {
+        if (newVersion > version) {
+            if (!entries.isEmpty()) {
+                invalidations++;
+                clear();
+            }
+            version = newVersion;
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<PokemonQuery, Pokemon[]>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            Map.Entry<PokemonQuery, Pokemon[]> entry = eldest.next();
+            bytes -= sizeOf(entry.getValue().length);
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static long sizeOf(int rows) {
+        return ENTRY_OVERHEAD + rows * BYTES_PER_ROW;
+    }
+
+    /**
+     * Point-in-time statistics of a {@link QueryCache}.
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long invalidations;
+        private final int entries;
+        private final long bytes;
+
+        Stats(long hits, long misses, long evictions, long invalidations, int entries, long bytes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.invalidations = invalidations;
+            this.entries = entries;
+            this.bytes = bytes;
+        }
+
+        public long getHits() { return hits; }
+
+        public long getMisses() { return misses; }
+
+        /**
+         * Returns the number of entries dropped to stay within the bounds.
+         *
+         * @return the eviction count
+         */
+        public long getEvictions() { return evictions; }
+
+        /**
+         * Returns the number of times the cache was emptied because the collection changed.
+         *
+         * @return the invalidation count
+         */
+        public long getInvalidations() { return invalidations; }
+
+        public int getEntries() { return entries; }
+
+        /**
+         * Returns the estimated memory held by the cached results.
+         *
+         * @return the estimated size in bytes
+         */
+        public long getEstimatedBytes() { return bytes; }
+
+        /**
+         * Returns the share of lookups that were hits.
+         *
+         * @return the hit rate from 0 to 1, or 0 before any lookup
+         */
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("QueryCache.Stats{hits=%d, misses=%d, hitRate=%.2f, evictions=%d, "
+                            + "invalidations=%d, entries=%d, bytes=%d}",
+                    hits, misses, getHitRate(), evictions, invalidations, entries, bytes);
+        }
+    }
+}
@@ -0,0 +1,659 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Runs {@link PokemonQuery} queries over a Pokemon list in a single pass.
+ * <p>
+ * The search term is answered from trigram indexes and the stat ranges from a
+ * {@link StatRangeIndex}, both as ascending row positions that are intersected; the type
+ * filter is a membership test in a {@link BitmapIndex} bitmap as each candidate is visited,
+ * and a filter expression is {@link QueryExpression#compile(PokemonColumns) compiled}
+ * over the primitive {@link PokemonColumns} of the list. What happens next depends on
+ * the sort keys:
+ * <ul>
+ *   <li>no sort key: candidates are emitted in list order, stopping once the page is full;</li>
+ *   <li>one sort key: the cached {@link SortPermutations} order is walked, again stopping
+ *       once the page is full, or for a small candidate set its rows are sorted by rank;</li>
+ *   <li>several sort keys: a bounded heap keeps only the best {@code offset + limit} rows,
+ *       or, when the page reaches deep into the results, every match is radix sorted
+ *       by each key in turn.</li>
+ * </ul>
+ * Only row positions are collected along the way, never intermediate lists of Pokemon.
+ * <p>
+ * The engine reads from the list it was built over, so that list must be updated first
+ * and then reported through {@link #rowAdded()}, {@link #rowRemoved(int)} or
+ * {@link #rowUpdated(int)}, which update the sort permutations and every index built so
+ * far in place rather than dropping them.
+ * Large scans and sorts are split across a {@link QueryExecutor}; the engine itself is
+ * still not thread-safe and must be called from one thread at a time.
+ */
+public class QueryEngine {
+    private static final int[] EMPTY = new int[0];
+    // Pages deeper than 1/16 of the candidates are sorted in full rather than heap-selected
+    private static final int RADIX_SORT_SHARE = 16;
+
+    private final List<Pokemon> pokemonList;
+    private final QueryExecutor executor;
+    private final SortPermutations sortPermutations;
+    private NGramIndex nameIndex;
+    private NGramIndex idIndex;
+    private StatRangeIndex statIndex;
+    private BitmapIndex bitmapIndex;
+    private PokemonColumns columns;
+    private QueryExpression compiledExpression; // Expression compiledFilter was compiled from
+    private IntPredicate compiledFilter;
+    private int modificationCount;
+
+    /**
+     * Creates an engine over a list of Pokemon that runs on the shared executor.
+     *
+     * @param pokemonList the list to query; kept by reference
+     */
+    public QueryEngine(List<Pokemon> pokemonList) {
+        this(pokemonList, QueryExecutor.shared());
+    }
+
+    /**
+     * Creates an engine over a list of Pokemon and builds its sort permutations.
+     * The search indexes are built on first use.
+     *
+     * @param pokemonList the list to query; kept by reference
+     * @param executor the executor for scans and sorts over large lists
+     */
+    public QueryEngine(List<Pokemon> pokemonList, QueryExecutor executor) {
+        this.pokemonList = pokemonList;
+        this.executor = executor;
+        this.sortPermutations = new SortPermutations(pokemonList, executor);
+    }
+
+    /**
+     * Runs a query and returns the rows of its page.
+     *
+     * @param query the query to run
+     * @return the matching row positions of the requested page, in result order
+     */
+    public int[] execute(PokemonQuery query) {
+        if (query.getLimit() == 0 || pokemonList.isEmpty()) {
+            return EMPTY;
+        }
+        return executeWithin(query, searchRows(query));
+    }
+
+    /**
+     * Runs a query whose search term is already known to match exactly the given rows,
+     * so the search indexes are not consulted.
+     *
+     * @param query the query to run
+     * @param termRows the rows matching the query's search term in ascending order, or
+     *                 null if the query has no search term
+     * @return the matching row positions of the requested page, in result order
+     */
+    public int[] executeWithin(PokemonQuery query, int[] termRows) {
+        int limit = query.getLimit();
+        if (limit == 0 || pokemonList.isEmpty()) {
+            return EMPTY;
+        }
+        int[] candidates = intersect(termRows, statRows(query));
+        if (candidates != null && candidates.length == 0) {
+            return EMPTY;
+        }
+        IntPredicate accept = rowFilter(query);
+
+        List<PokemonQuery.SortOrder> sortOrders = query.getSortOrders();
+        if (sortOrders.isEmpty()) {
+            return scanInListOrder(candidates, accept, query);
+        }
+        if (sortOrders.size() > 1) {
+            return topK(candidates, accept, query);
+        }
+
+        PokemonQuery.SortOrder sortOrder = sortOrders.get(0);
+        int size = pokemonList.size();
+        if (candidates != null
+                && (long) candidates.length * (32 - Integer.numberOfLeadingZeros(candidates.length)) < size) {
+            // Few candidates: filter them, then sort by cached rank rather than walking every row
+            int[] matches = filter(candidates, accept);
+            int[] sorted = sortPermutations.sort(matches, sortOrder.getKey(), sortOrder.isDescending());
+            return window(sorted, query.getOffset(), limit);
+        }
+        if (candidates != null) {
+            boolean[] selected = new boolean[size];
+            for (int row : candidates) {
+                selected[row] = true;
+            }
+            IntPredicate types = accept;
+            accept = row -> selected[row] && types.test(row);
+        }
+        return sortPermutations.scan(sortOrder.getKey(), sortOrder.isDescending(), accept,
+                query.getOffset(), limit);
+    }
+
+    /**
+     * Counts every match of a query, ignoring its sort keys, offset and limit.
+     * Without a search term, base stat total range or expression the count is the
+     * cardinality of the type and stat bitmaps, so no row is listed.
+     *
+     * @param query the query to count
+     * @return the number of matching Pokemon
+     */
+    public int count(PokemonQuery query) {
+        if (query.getSearchTerm().isEmpty() && !query.hasTotalRange() && query.getExpression() == null) {
+            return bitmapIndex().matching(query).cardinality();
+        }
+        int[] candidates = intersect(searchRows(query), statRows(query));
+        if (candidates == null) {
+            return executor.filter(pokemonList.size(), rowFilter(query)).length;
+        }
+        if (query.getTypeMask() == 0 && query.getExpression() == null) {
+            return candidates.length;
+        }
+        return filter(candidates, rowFilter(query)).length;
+    }
+
+    /**
+     * Runs a query and maps its page to Pokemon.
+     *
+     * @param query the query to run
+     * @return the Pokemon of the requested page, in result order
+     */
+    public List<Pokemon> executeToList(PokemonQuery query) {
+        int[] rows = execute(query);
+        return toList(rows, 0, rows.length);
+    }
+
+    /**
+     * Maps a window of result rows to Pokemon.
+     *
+     * @param rows the rows, as returned by a query
+     * @param offset the number of rows to skip
+     * @param limit the maximum number of rows to map
+     * @return the Pokemon of the window, in row order
+     */
+    public List<Pokemon> toList(int[] rows, int offset, int limit) {
+        int from = Math.min(offset, rows.length);
+        int to = (int) Math.min((long) from + limit, rows.length);
+        List<Pokemon> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(pokemonList.get(rows[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Keeps the rows whose name, or ID if the query matches IDs, contains the query's
+     * search term, checking each row directly. A search extending an earlier term can
+     * narrow the earlier results this way at a cost proportional to their number.
+     *
+     * @param rows the rows to check, in any order
+     * @param query the query whose search term to apply
+     * @return the matching rows, in the order given
+     */
+    public int[] narrowSearch(int[] rows, PokemonQuery query) {
+        String term = NGramIndex.normalize(query.getSearchTerm());
+        if (term.isEmpty()) {
+            return rows.clone();
+        }
+        boolean ids = query.isMatchIds();
+        return filter(rows, row -> {
+            Pokemon pokemon = pokemonList.get(row);
+            return (pokemon.getName() != null && NGramIndex.normalize(pokemon.getName()).contains(term))
+                    || (ids && String.valueOf(pokemon.getId()).contains(term));
+        });
+    }
+
+    /**
+     * Returns a number that changes whenever a row is added, removed or updated, so
+     * results kept from earlier queries can be recognized as stale.
+     *
+     * @return the number of row changes recorded so far
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Runs a query for one window of its results, replacing the query's own offset and limit.
+     *
+     * @param query the query to run
+     * @param offset the number of results to skip
+     * @param limit the maximum number of results
+     * @return the Pokemon of the window, in result order
+     * @throws IllegalArgumentException if offset or limit is negative
+     */
+    public List<Pokemon> page(PokemonQuery query, int offset, int limit) {
+        return executeToList(query.toBuilder().offset(offset).limit(limit).build());
+    }
+
+    /**
+     * Records that a Pokemon was appended to the end of the list. Every index built so
+     * far takes the new row in place.
+     */
+    public void rowAdded() {
+        sortPermutations.rowAdded();
+        modificationCount++;
+        Pokemon pokemon = pokemonList.get(pokemonList.size() - 1);
+        if (nameIndex != null) {
+            nameIndex.rowAdded(pokemon.getName());
+        }
+        if (idIndex != null) {
+            idIndex.rowAdded(String.valueOf(pokemon.getId()));
+        }
+        if (statIndex != null) {
+            statIndex.rowAdded(pokemon);
+        }
+        if (bitmapIndex != null) {
+            bitmapIndex.rowAdded(pokemon);
+        }
+        if (columns != null && columns.rowAdded(pokemon)) {
+            // The compiled expression reads the old arrays
+            compiledExpression = null;
+            compiledFilter = null;
+        }
+    }
+
+    /**
+     * Records that the Pokemon at a row was removed from the list. Every index built so
+     * far drops the row and renumbers the rows after it in place.
+     *
+     * @param row the removed row
+     */
+    public void rowRemoved(int row) {
+        sortPermutations.rowRemoved(row);
+        modificationCount++;
+        if (nameIndex != null) {
+            nameIndex.rowRemoved(row);
+        }
+        if (idIndex != null) {
+            idIndex.rowRemoved(row);
+        }
+        if (statIndex != null) {
+            statIndex.rowRemoved(row);
+        }
+        if (bitmapIndex != null) {
+            bitmapIndex.rowRemoved(row);
+        }
+        if (columns != null) {
+            columns.rowRemoved(row);
+        }
+    }
+
+    /**
+     * Records that the Pokemon at a row was replaced in the list. Every index built so
+     * far moves the row in place.
+     *
+     * @param row the updated row
+     */
+    public void rowUpdated(int row) {
+        sortPermutations.rowUpdated(row);
+        modificationCount++;
+        Pokemon pokemon = pokemonList.get(row);
+        if (nameIndex != null) {
+            nameIndex.rowUpdated(row, pokemon.getName());
+        }
+        if (idIndex != null) {
+            idIndex.rowUpdated(row, String.valueOf(pokemon.getId()));
+        }
+        if (statIndex != null) {
+            statIndex.rowUpdated(row, pokemon);
+        }
+        if (bitmapIndex != null) {
+            bitmapIndex.rowUpdated(row, pokemon);
+        }
+        if (columns != null) {
+            columns.rowUpdated(row, pokemon);
+        }
+    }
+
+    /**
+     * Finds a Pokemon in the full results of a query by binary search, comparing by the
+     * query's sort keys and then by row, which is the order the results come in.
+     * The other result rows are read from the list, so they must still be the rows
+     * the results were computed over.
+     *
+     * @param results every result row of the query, in result order
+     * @param size the number of result rows in the array
+     * @param query the query the results belong to
+     * @param row the Pokemon's row
+     * @param pokemon the Pokemon to look for, which need not be the one the list holds at the row
+     * @return the Pokemon's position if its row is in the results, otherwise
+     *         {@code (-(insertion point) - 1)} as from {@link Arrays#binarySearch(int[], int)}
+     */
+    public int search(int[] results, int size, PokemonQuery query, int row, Pokemon pokemon) {
+        List<PokemonQuery.SortOrder> sortOrders = query.getSortOrders();
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int other = results[middle];
+            int result = 0;
+            if (other != row) {
+                Pokemon otherPokemon = pokemonList.get(other);
+                for (PokemonQuery.SortOrder sortOrder : sortOrders) {
+                    result = sortOrder.compare(otherPokemon, pokemon);
+                    if (result != 0) {
+                        break;
+                    }
+                }
+                if (result == 0) {
+                    result = Integer.compare(other, row);
+                }
+            }
+            if (result < 0) {
+                low = middle + 1;
+            } else if (result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Tells whether the Pokemon now at a row matches a query, checking that row alone.
+     *
+     * @param query the query
+     * @param row the row
+     * @return true if the row is among the query's results
+     */
+    public boolean matchesRow(PokemonQuery query, int row) {
+        Pokemon pokemon = pokemonList.get(row);
+        if (!query.getSearchTerm().isEmpty() && narrowSearch(new int[] {row}, query).length == 0) {
+            return false;
+        }
+        for (PokemonStat stat : PokemonStat.values()) {
+            if (query.hasStatRange(stat)) {
+                int value = stat.of(pokemon.getStats());
+                if (value < query.getStatMin(stat) || value > query.getStatMax(stat)) {
+                    return false;
+                }
+            }
+        }
+        if (query.hasTotalRange()) {
+            int total = PokemonStat.total(pokemon.getStats());
+            if (total < query.getTotalMin() || total > query.getTotalMax()) {
+                return false;
+            }
+        }
+        return rowFilter(query).test(row);
+    }
+
+    /**
+     * Returns the number of rows the engine covers.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return sortPermutations.size();
+    }
+
+    /**
+     * Finds the rows matching the query's search term through the search indexes.
+     *
+     * @param query the query
+     * @return the matching rows in ascending order, or null when there is no search term
+     */
+    int[] searchRows(PokemonQuery query) {
+        String term = query.getSearchTerm();
+        if (term.isEmpty()) {
+            return null;
+        }
+        // Built on first use and kept up to date by the row hooks from then on
+        if (nameIndex == null) {
+            nameIndex = new NGramIndex(pokemonList.stream()
+                    .map(Pokemon::getName)
+                    .collect(Collectors.toList()), executor);
+        }
+        int[] rows = nameIndex.search(term);
+        if (query.isMatchIds()) {
+            if (idIndex == null) {
+                idIndex = new NGramIndex(pokemonList.stream()
+                        .map(pokemon -> String.valueOf(pokemon.getId()))
+                        .collect(Collectors.toList()), executor);
+            }
+            rows = NGramIndex.union(rows, idIndex.search(term));
+        }
+        return rows;
+    }
+
+    /**
+     * Finds the rows within the query's stat and base stat total ranges.
+     *
+     * @param query the query
+     * @return the matching rows in ascending order, or null when there are no ranges
+     */
+    private int[] statRows(PokemonQuery query) {
+        if (!query.hasStatRanges()) {
+            return null;
+        }
+        if (statIndex == null) {
+            statIndex = new StatRangeIndex(pokemonList);
+        }
+        return statIndex.rows(query);
+    }
+
+    /**
+     * Intersects two ascending row sets, where null stands for every row.
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Returns the per-row check left after the indexes: stat ranges are already applied
+     * by {@link #statRows(PokemonQuery)}, so only the type filter and the expression
+     * remain, answered by membership in the bitmap of the selected types and by the
+     * compiled expression.
+     */
+    private IntPredicate rowFilter(PokemonQuery query) {
+        IntPredicate expression = query.getExpression() == null ? null : compiledFilter(query.getExpression());
+        if (query.getTypeMask() == 0) {
+            return expression == null ? row -> true : expression;
+        }
+        RowBitmap types = bitmapIndex().anyType(query.getTypeMask());
+        return expression == null ? types::contains : row -> types.contains(row) && expression.test(row);
+    }
+
+    /**
+     * Returns an expression compiled over the columns of the list, reusing the last
+     * compilation while the expression and the list stay the same, so the JVM keeps the
+     * code it specialized for it.
+     */
+    private IntPredicate compiledFilter(QueryExpression expression) {
+        if (!expression.equals(compiledExpression)) {
+            if (columns == null) {
+                columns = new PokemonColumns(pokemonList);
+            }
+            compiledFilter = expression.compile(columns);
+            compiledExpression = expression;
+        }
+        return compiledFilter;
+    }
+
+    private BitmapIndex bitmapIndex() {
+        if (bitmapIndex == null) {
+            bitmapIndex = new BitmapIndex(pokemonList);
+        }
+        return bitmapIndex;
+    }
+
+    private int[] scanInListOrder(int[] candidates, IntPredicate accept, PokemonQuery query) {
+        int total = candidates == null ? pokemonList.size() : candidates.length;
+        int skip = query.getOffset();
+        if (executor.isParallel(total) && (long) skip + query.getLimit() >= total) {
+            // The page needs every match anyway, so no early exit is lost by splitting
+            int[] positions = executor.filter(total, i -> accept.test(candidates == null ? i : candidates[i]));
+            if (candidates != null) {
+                for (int i = 0; i < positions.length; i++) {
+                    positions[i] = candidates[positions[i]];
+                }
+            }
+            return window(positions, skip, query.getLimit());
+        }
+        int[] result = new int[Math.min(query.getLimit(), total)];
+        int count = 0;
+        int skipped = 0;
+        for (int i = 0; i < total && count < result.length; i++) {
+            int row = candidates == null ? i : candidates[i];
+            if (accept.test(row)) {
+                if (skipped < skip) {
+                    skipped++;
+                } else {
+                    result[count++] = row;
+                }
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    private static int[] filter(int[] candidates, IntPredicate accept) {
+        int[] matches = new int[candidates.length];
+        int count = 0;
+        for (int row : candidates) {
+            if (accept.test(row)) {
+                matches[count++] = row;
+            }
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    /**
+     * Keeps the best offset + limit rows under a multi-key comparison and cuts out the page.
+     * Large inputs are split into chunks that each keep their own best rows in parallel,
+     * and the chunk winners then go through one more bounded selection. A page that
+     * reaches past a sixteenth of the candidates would make the heaps nearly as large as
+     * the input, so the matches are radix sorted in full instead.
+     */
+    private int[] topK(int[] candidates, IntPredicate accept, PokemonQuery query) {
+        List<PokemonQuery.SortOrder> sortOrders = query.getSortOrders();
+        int total = candidates == null ? pokemonList.size() : candidates.length;
+        int capacity = (int) Math.min((long) query.getOffset() + query.getLimit(), total);
+        if ((long) capacity * RADIX_SORT_SHARE >= total) {
+            int[] matches = candidates == null ? executor.filter(total, accept) : filter(candidates, accept);
+            return window(sortPermutations.sort(matches, sortOrders), query.getOffset(), query.getLimit());
+        }
+        int[] best = executor.collect(total,
+                (from, to) -> selectTop(candidates, accept, sortOrders, from, to, capacity));
+        if (best.length > capacity) {
+            best = selectTop(best, row -> true, sortOrders, 0, best.length, capacity);
+        }
+        return window(best, query.getOffset(), query.getLimit());
+    }
+
+    /**
+     * Selects the best rows among the positions [from, to) in a bounded max-heap whose
+     * root is the worst row kept, then heap-sorts them.
+     *
+     * @return at most capacity rows, best first
+     */
+    private int[] selectTop(int[] candidates, IntPredicate accept, List<PokemonQuery.SortOrder> sortOrders,
+                            int from, int to, int capacity) {
+        int[] heap = new int[Math.min(capacity, to - from)];
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            int row = candidates == null ? i : candidates[i];
+            if (!accept.test(row)) {
+                continue;
+            }
+            if (size < heap.length) {
+                heap[size] = row;
+                siftUp(heap, size++, sortOrders);
+            } else if (heap.length > 0 && compare(sortOrders, row, heap[0]) < 0) {
+                heap[0] = row;
+                siftDown(heap, 0, size, sortOrders);
+            }
+        }
+        // Heap sort: repeatedly move the worst remaining row to the end
+        for (int end = size - 1; end > 0; end--) {
+            int swap = heap[0];
+            heap[0] = heap[end];
+            heap[end] = swap;
+            siftDown(heap, 0, end, sortOrders);
+        }
+        return size == heap.length ? heap : Arrays.copyOf(heap, size);
+    }
+
+    private void siftUp(int[] heap, int index, List<PokemonQuery.SortOrder> sortOrders) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (compare(sortOrders, heap[parent], row) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private void siftDown(int[] heap, int index, int size, List<PokemonQuery.SortOrder> sortOrders) {
+        int row = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && compare(sortOrders, heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (compare(sortOrders, heap[child], row) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    private int compare(List<PokemonQuery.SortOrder> sortOrders, int rowA, int rowB) {
+        Pokemon a = pokemonList.get(rowA);
+        Pokemon b = pokemonList.get(rowB);
+        for (PokemonQuery.SortOrder sortOrder : sortOrders) {
+            int result = sortOrder.compare(a, b);
+            if (result != 0) {
+                return result;
+            }
+        }
+        // Rows are unique, so this makes the order total and keeps ties in list order
+        return Integer.compare(rowA, rowB);
+    }
+
+    private static int[] window(int[] rows, int offset, int limit) {
+        if (offset == 0 && limit >= rows.length) {
+            return rows;
+        }
+        if (offset >= rows.length) {
+            return EMPTY;
+        }
+        return Arrays.copyOfRange(rows, offset, (int) Math.min((long) offset + limit, rows.length));
+    }
+}
@@ -0,0 +1,238 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+
+/**
+ * Runs the row-parallel parts of queries and index builds on a dedicated {@link ForkJoinPool}.
+ * <p>
+ * Work over fewer rows than the threshold stays on the calling thread, since splitting
+ * small inputs costs more than it saves. Larger inputs are split into chunks that run
+ * on the pool and whose results are concatenated in row order, so parallel and
+ * sequential runs give identical results.
+ * <p>
+ * The pool is separate from {@link ForkJoinPool#commonPool()}, which parallel streams
+ * and other libraries share, and its workers run one step below normal priority, so
+ * a large query cannot starve the event dispatch thread or I/O threads. Even
+ * {@code Arrays.parallelSort}, which normally forks into the common pool, runs here
+ * because it is invoked from one of this pool's workers.
+ */
+public class QueryExecutor implements AutoCloseable {
+    /**
+     * Default number of rows below which work stays sequential.
+     */
+    public static final int DEFAULT_THRESHOLD = 1 << 15;
+
+    private static final QueryExecutor SEQUENTIAL = new QueryExecutor(1, Integer.MAX_VALUE);
+    private static volatile QueryExecutor shared;
+
+    private final int parallelism;
+    private final int threshold;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an executor with its own pool.
+     *
+     * @param parallelism the number of worker threads; 1 runs everything on the caller
+     * @param threshold the number of rows below which work stays sequential
+     * @throws IllegalArgumentException if parallelism or threshold is less than 1
+     */
+    public QueryExecutor(int parallelism, int threshold) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be at least 1");
+        }
+        this.parallelism = parallelism;
+        this.threshold = threshold;
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism, QueryExecutor::newWorker, null, false);
+    }
+
+    /**
+     * Returns an executor that never leaves the calling thread.
+     *
+     * @return the sequential executor
+     */
+    public static QueryExecutor sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Returns the executor shared by controllers and views that were not given one.
+     * It uses one worker less than the available processors, leaving a core for the UI.
+     *
+     * @return the shared executor, created on first use
+     */
+    public static QueryExecutor shared() {
+        QueryExecutor executor = shared;
+        if (executor == null) {
+            synchronized (QueryExecutor.class) {
+                executor = shared;
+                if (executor == null) {
+                    int processors = Runtime.getRuntime().availableProcessors();
+                    executor = new QueryExecutor(Math.max(1, processors - 1), DEFAULT_THRESHOLD);
+                    shared = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the number of rows below which work stays sequential.
+     *
+     * @return the threshold
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Tells whether work over a number of rows would be split across the pool.
+     *
+     * @param size the number of rows
+     * @return true if the work runs in parallel
+     */
+    public boolean isParallel(int size) {
+        return pool != null && size >= threshold;
+    }
+
+    /**
+     * Runs a collector over [0, size), in parallel chunks for large sizes.
+     *
+     * @param size the number of positions
+     * @param collector collects the results of one chunk of positions
+     * @return the chunk results concatenated in position order
+     */
+    public int[] collect(int size, RangeCollector collector) {
+        if (!isParallel(size)) {
+            return collector.collect(0, size);
+        }
+        // A few chunks per worker so uneven chunks still balance out
+        int grain = Math.max(1024, (size + parallelism * 4 - 1) / (parallelism * 4));
+        return pool.invoke(new CollectTask(collector, 0, size, grain));
+    }
+
+    /**
+     * Finds every position in [0, size) that passes a predicate.
+     *
+     * @param size the number of positions
+     * @param accept the predicate; must be safe to call from several threads
+     * @return the accepted positions in ascending order
+     */
+    public int[] filter(int size, IntPredicate accept) {
+        return collect(size, (from, to) -> {
+            int[] result = new int[to - from];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (accept.test(i)) {
+                    result[count++] = i;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        });
+    }
+
+    /**
+     * Sorts primitive keys, with {@link Arrays#parallelSort(long[])} on the pool for large arrays.
+     *
+     * @param values the values to sort in place
+     */
+    public void sort(long[] values) {
+        if (isParallel(values.length)) {
+            pool.submit(() -> Arrays.parallelSort(values)).join();
+        } else {
+            Arrays.sort(values);
+        }
+    }
+
+    /**
+     * Runs a fork/join task on the pool. Without a pool the task runs on the calling
+     * thread and should not fork; check {@link #getParallelism()} before splitting.
+     *
+     * @param task the task to run
+     * @param <T> the result type
+     * @return the task's result
+     */
+    public <T> T invoke(ForkJoinTask<T> task) {
+        return pool == null ? task.invoke() : pool.invoke(task);
+    }
+
+    /**
+     * Shuts the pool down. The shared and sequential executors cannot be closed.
+     */
+    @Override
+    public void close() {
+        if (pool != null && this != shared) {
+            pool.shutdown();
+        }
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("pokemon-query-" + worker.getPoolIndex());
+        worker.setPriority(Thread.NORM_PRIORITY - 1);
+        return worker;
+    }
+
+    /**
+     * Collects the results for one chunk of positions.
+     */
+    @FunctionalInterface
+    public interface RangeCollector {
+        /**
+         * Collects the results for the positions [from, to).
+         *
+         * @param from the first position, inclusive
+         * @param to the last position, exclusive
+         * @return the results of the chunk, in position order
+         */
+        int[] collect(int from, int to);
+    }
+
+    /**
+     * Splits a range in halves down to the grain, then concatenates the halves' results.
+     */
+    private static final class CollectTask extends RecursiveTask<int[]> {
+        private final RangeCollector collector;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        CollectTask(RangeCollector collector, int from, int to, int grain) {
+            this.collector = collector;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= grain) {
+                return collector.collect(from, to);
+            }
+            int middle = (from + to) >>> 1;
+            CollectTask right = new CollectTask(collector, middle, to, grain);
+            right.fork();
+            int[] leftResult = new CollectTask(collector, from, middle, grain).compute();
+            int[] rightResult = right.join();
+            int[] result = Arrays.copyOf(leftResult, leftResult.length + rightResult.length);
+            System.arraycopy(rightResult, 0, result, leftResult.length, rightResult.length);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,705 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+import model.PokemonType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Parsed filter expression over the ID, base stats and types of a Pokemon, such as
+ * <pre>
+ * attack &gt;= 100 and (type = fire or type in (dragon, flying)) and not speed &lt; defense
+ * </pre>
+ * A comparison relates two operands, each a field or an integer, with {@code <},
+ * {@code <=}, {@code >}, {@code >=}, {@code =} or {@code !=}. The fields are
+ * {@code id}, {@code hp}, {@code attack}, {@code defense}, {@code special_attack},
+ * {@code special_defense}, {@code speed} and {@code total}, the base stat total. A type
+ * test is {@code type = t}, {@code type != t} or {@code type in (t, ...)}, matching
+ * Pokemon having any of the types. Tests combine with {@code not}, {@code and} and
+ * {@code or}, in decreasing precedence, and parentheses. Keywords, fields and types
+ * ignore case.
+ * <p>
+ * An expression can be run two ways. {@link #toPredicate()} is the plain interpreter: a
+ * tree of lambdas, one per node, each calling its children and reading Pokemon through
+ * their getters. {@link #compile(PokemonColumns)} instead turns the tree into one
+ * {@link MethodHandle} over the primitive columns of a collection: every field read is
+ * an array element getter bound to its column, every comparison with a constant has
+ * the constant bound in, and {@code and}/{@code or} become short-circuiting guards. The
+ * JVM specializes the combined handle as a whole once it is hot, so each row costs
+ * one call into straight-line code over int arrays, rather than a chain of calls through
+ * call sites shared by every query shape, each chasing pointers into a Pokemon.
+ * <p>
+ * Expressions are immutable and compare equal when they parse to the same tree.
+ */
+public final class QueryExpression {
+
+    /**
+     * A numeric field an expression can compare.
+     */
+    public enum Field {
+        ID("id"),
+        HP("hp"),
+        ATTACK("attack"),
+        DEFENSE("defense"),
+        SPECIAL_ATTACK("special_attack"),
+        SPECIAL_DEFENSE("special_defense"),
+        SPEED("speed"),
+        TOTAL("total");
+
+        private final String keyword;
+
+        Field(String keyword) {
+            this.keyword = keyword;
+        }
+
+        /**
+         * Reads this field from a Pokemon.
+         *
+         * @param pokemon the Pokemon
+         * @return the value of the field
+         */
+        public int of(Pokemon pokemon) {
+            switch (this) {
+                case ID:
+                    return pokemon.getId();
+                case TOTAL:
+                    return PokemonStat.total(pokemon.getStats());
+                default:
+                    return PokemonStat.values()[ordinal() - HP.ordinal()].of(pokemon.getStats());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return keyword;
+        }
+    }
+
+    private static final MethodHandle COLUMN_GETTER = MethodHandles.arrayElementGetter(int[].class);
+    private static final MethodHandle[] COMPARISONS = new MethodHandle[Operator.values().length];
+    private static final MethodHandle HAS_ANY_TYPE;
+    private static final MethodHandle NOT;
+    private static final MethodHandle ALWAYS_TRUE =
+            MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0, int.class);
+    private static final MethodHandle ALWAYS_FALSE =
+            MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0, int.class);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodType comparison = MethodType.methodType(boolean.class, int.class, int.class);
+            for (Operator operator : Operator.values()) {
+                COMPARISONS[operator.ordinal()] = lookup.findStatic(QueryExpression.class, operator.method, comparison);
+            }
+            HAS_ANY_TYPE = lookup.findStatic(QueryExpression.class, "hasAnyType", comparison);
+            NOT = lookup.findStatic(QueryExpression.class, "not", MethodType.methodType(boolean.class, boolean.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Node root;
+    private final Predicate<Pokemon> interpreted;
+
+    private QueryExpression(Node root) {
+        this.root = root;
+        this.interpreted = root.interpret();
+    }
+
+    /**
+     * Parses an expression.
+     *
+     * @param text the expression
+     * @return the parsed expression
+     * @throws IllegalArgumentException if the text is null or not a valid expression
+     */
+    public static QueryExpression parse(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Expression cannot be null");
+        }
+        return new QueryExpression(new Parser(text).parse());
+    }
+
+    /**
+     * Checks a Pokemon through the interpreted form, without any columns.
+     *
+     * @param pokemon the Pokemon to check
+     * @return true if the Pokemon matches
+     */
+    public boolean test(Pokemon pokemon) {
+        return interpreted.test(pokemon);
+    }
+
+    /**
+     * Builds the interpreted form: a chain of lambdas calling Pokemon getters.
+     *
+     * @return a predicate over Pokemon
+     */
+    public Predicate<Pokemon> toPredicate() {
+        return interpreted;
+    }
+
+    /**
+     * Compiles the expression into a method handle over the columns of a collection.
+     *
+     * @param columns the columns to read
+     * @return a predicate over the collection's rows; it reads the columns as they are
+     *         now, so compile again after rebuilding them
+     */
+    public IntPredicate compile(PokemonColumns columns) {
+        return new CompiledPredicate(compileHandle(columns));
+    }
+
+    /**
+     * Compiles the expression into a method handle of type {@code (int)boolean} that
+     * tests a row of the columns.
+     *
+     * @param columns the columns to read
+     * @return the handle
+     */
+    public MethodHandle compileHandle(PokemonColumns columns) {
+        return root.compile(Objects.requireNonNull(columns, "columns"));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof QueryExpression && root.equals(((QueryExpression) o).root));
+    }
+
+    @Override
+    public int hashCode() {
+        return root.hashCode();
+    }
+
+    /**
+     * Returns the expression in canonical form, fully parenthesized, which parses back
+     * to an equal expression.
+     */
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+
+    private static boolean lessThan(int a, int b) { return a < b; }
+
+    private static boolean atMost(int a, int b) { return a <= b; }
+
+    private static boolean greaterThan(int a, int b) { return a > b; }
+
+    private static boolean atLeast(int a, int b) { return a >= b; }
+
+    private static boolean equalTo(int a, int b) { return a == b; }
+
+    private static boolean notEqualTo(int a, int b) { return a != b; }
+
+    private static boolean hasAnyType(int typeMask, int selected) {
+        return (typeMask & selected) != 0;
+    }
+
+    private static boolean not(boolean value) {
+        return !value;
+    }
+
+    /**
+     * Comparison operators, with the static method each compiles to.
+     */
+    private enum Operator {
+        LESS("<", "lessThan"),
+        LESS_EQUAL("<=", "atMost"),
+        GREATER(">", "greaterThan"),
+        GREATER_EQUAL(">=", "atLeast"),
+        EQUAL("=", "equalTo"),
+        NOT_EQUAL("!=", "notEqualTo");
+
+        private final String symbol;
+        private final String method;
+
+        Operator(String symbol, String method) {
+            this.symbol = symbol;
+            this.method = method;
+        }
+
+        boolean apply(int a, int b) {
+            switch (this) {
+                case LESS:
+                    return a < b;
+                case LESS_EQUAL:
+                    return a <= b;
+                case GREATER:
+                    return a > b;
+                case GREATER_EQUAL:
+                    return a >= b;
+                case EQUAL:
+                    return a == b;
+                default:
+                    return a != b;
+            }
+        }
+
+        /**
+         * Returns the operator that gives the same result with the operands swapped.
+         */
+        Operator swapped() {
+            switch (this) {
+                case LESS:
+                    return GREATER;
+                case LESS_EQUAL:
+                    return GREATER_EQUAL;
+                case GREATER:
+                    return LESS;
+                case GREATER_EQUAL:
+                    return LESS_EQUAL;
+                default:
+                    return this;
+            }
+        }
+
+        MethodHandle handle() {
+            return COMPARISONS[ordinal()];
+        }
+    }
+
+    /**
+     * Node of the parsed expression tree.
+     */
+    private abstract static class Node {
+        abstract Predicate<Pokemon> interpret();
+
+        abstract MethodHandle compile(PokemonColumns columns);
+    }
+
+    /**
+     * A field or an integer constant.
+     */
+    private static final class Operand {
+        private final Field field; // Null for a constant
+        private final int value;
+
+        Operand(Field field, int value) {
+            this.field = field;
+            this.value = value;
+        }
+
+        /**
+         * Returns a handle of type {@code (int)int} reading this operand for a row.
+         */
+        MethodHandle compile(PokemonColumns columns) {
+            if (field == null) {
+                return MethodHandles.dropArguments(MethodHandles.constant(int.class, value), 0, int.class);
+            }
+            return COLUMN_GETTER.bindTo(columns.column(field));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Operand)) {
+                return false;
+            }
+            Operand other = (Operand) o;
+            return field == other.field && value == other.value;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(field) * 31 + value;
+        }
+
+        @Override
+        public String toString() {
+            return field == null ? Integer.toString(value) : field.toString();
+        }
+    }
+
+    private static final class Comparison extends Node {
+        private final Operand left;
+        private final Operator operator;
+        private final Operand right;
+
+        Comparison(Operand left, Operator operator, Operand right) {
+            // Constants go on the right, so they can be bound into the comparison
+            boolean swap = left.field == null && right.field != null;
+            this.left = swap ? right : left;
+            this.operator = swap ? operator.swapped() : operator;
+            this.right = swap ? left : right;
+        }
+
+        @Override
+        Predicate<Pokemon> interpret() {
+            Field leftField = left.field;
+            Field rightField = right.field;
+            int constant = right.value;
+            Operator op = operator;
+            if (leftField == null) {
+                boolean result = op.apply(left.value, constant);
+                return pokemon -> result;
+            }
+            if (rightField == null) {
+                return pokemon -> op.apply(leftField.of(pokemon), constant);
+            }
+            return pokemon -> op.apply(leftField.of(pokemon), rightField.of(pokemon));
+        }
+
+        @Override
+        MethodHandle compile(PokemonColumns columns) {
+            if (left.field == null) {
+                return operator.apply(left.value, right.value) ? ALWAYS_TRUE : ALWAYS_FALSE;
+            }
+            MethodHandle leftValue = left.compile(columns);
+            if (right.field == null) {
+                // (row) -> op(column[row], constant)
+                return MethodHandles.filterArguments(
+                        MethodHandles.insertArguments(operator.handle(), 1, right.value), 0, leftValue);
+            }
+            // (row, row) -> op(leftColumn[row], rightColumn[row]), then both from one row
+            MethodHandle both = MethodHandles.filterArguments(operator.handle(), 0, leftValue, right.compile(columns));
+            return MethodHandles.permuteArguments(both, MethodType.methodType(boolean.class, int.class), 0, 0);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Comparison)) {
+                return false;
+            }
+            Comparison other = (Comparison) o;
+            return left.equals(other.left) && operator == other.operator && right.equals(other.right);
+        }
+
+        @Override
+        public int hashCode() {
+            return (left.hashCode() * 31 + operator.hashCode()) * 31 + right.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return left + " " + operator.symbol + " " + right;
+        }
+    }
+
+    private static final class TypeTest extends Node {
+        private final int typeMask;
+
+        TypeTest(int typeMask) {
+            this.typeMask = typeMask;
+        }
+
+        @Override
+        Predicate<Pokemon> interpret() {
+            int selected = typeMask;
+            return pokemon -> (PokemonType.maskOf(pokemon.getTypes()) & selected) != 0;
+        }
+
+        @Override
+        MethodHandle compile(PokemonColumns columns) {
+            return MethodHandles.filterArguments(
+                    MethodHandles.insertArguments(HAS_ANY_TYPE, 1, typeMask), 0,
+                    COLUMN_GETTER.bindTo(columns.typeMasks()));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TypeTest && typeMask == ((TypeTest) o).typeMask;
+        }
+
+        @Override
+        public int hashCode() {
+            return typeMask;
+        }
+
+        @Override
+        public String toString() {
+            List<PokemonType> types = PokemonType.fromMask(typeMask);
+            if (types.size() == 1) {
+                return "type = " + types.get(0).name().toLowerCase(Locale.ROOT);
+            }
+            StringBuilder text = new StringBuilder("type in (");
+            for (int i = 0; i < types.size(); i++) {
+                text.append(i == 0 ? "" : ", ").append(types.get(i).name().toLowerCase(Locale.ROOT));
+            }
+            return text.append(')').toString();
+        }
+    }
+
+    private static final class Not extends Node {
+        private final Node operand;
+
+        Not(Node operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        Predicate<Pokemon> interpret() {
+            return operand.interpret().negate();
+        }
+
+        @Override
+        MethodHandle compile(PokemonColumns columns) {
+            return MethodHandles.filterReturnValue(operand.compile(columns), NOT);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Not && operand.equals(((Not) o).operand);
+        }
+
+        @Override
+        public int hashCode() {
+            return ~operand.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "not (" + operand + ")";
+        }
+    }
+
+    /**
+     * {@code and} or {@code or} of two nodes, evaluated left to right with short circuit.
+     */
+    private static final class Junction extends Node {
+        private final boolean and;
+        private final Node left;
+        private final Node right;
+
+        Junction(boolean and, Node left, Node right) {
+            this.and = and;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Predicate<Pokemon> interpret() {
+            return and ? left.interpret().and(right.interpret()) : left.interpret().or(right.interpret());
+        }
+
+        @Override
+        MethodHandle compile(PokemonColumns columns) {
+            MethodHandle test = left.compile(columns);
+            MethodHandle next = right.compile(columns);
+            return and
+                    ? MethodHandles.guardWithTest(test, next, ALWAYS_FALSE)
+                    : MethodHandles.guardWithTest(test, ALWAYS_TRUE, next);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Junction)) {
+                return false;
+            }
+            Junction other = (Junction) o;
+            return and == other.and && left.equals(other.left) && right.equals(other.right);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((and ? 1 : 2) * 31 + left.hashCode()) * 31 + right.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + ") " + (and ? "and" : "or") + " (" + right + ")";
+        }
+    }
+
+    /**
+     * Tests rows through a compiled handle.
+     */
+    private static final class CompiledPredicate implements IntPredicate {
+        private final MethodHandle handle;
+
+        CompiledPredicate(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public boolean test(int row) {
+            try {
+                return (boolean) handle.invokeExact(row);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Compiled expression failed", e); // Nothing in it throws checked exceptions
+            }
+        }
+    }
+
+    /**
+     * Recursive descent parser over the expression text.
+     */
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Node parse() {
+            Node node = parseOr();
+            skipSpaces();
+            if (position < text.length()) {
+                throw error("Unexpected '" + text.charAt(position) + "'");
+            }
+            return node;
+        }
+
+        private Node parseOr() {
+            Node node = parseAnd();
+            while (acceptWord("or")) {
+                node = new Junction(false, node, parseAnd());
+            }
+            return node;
+        }
+
+        private Node parseAnd() {
+            Node node = parseUnary();
+            while (acceptWord("and")) {
+                node = new Junction(true, node, parseUnary());
+            }
+            return node;
+        }
+
+        private Node parseUnary() {
+            if (acceptWord("not")) {
+                return new Not(parseUnary());
+            }
+            if (accept("(")) {
+                Node node = parseOr();
+                expect(")");
+                return node;
+            }
+            if (acceptWord("type")) {
+                return parseTypeTest();
+            }
+            Operand left = parseOperand();
+            Operator operator = parseOperator();
+            return new Comparison(left, operator, parseOperand());
+        }
+
+        private Node parseTypeTest() {
+            if (acceptWord("in")) {
+                expect("(");
+                int mask = parseType().mask();
+                while (accept(",")) {
+                    mask |= parseType().mask();
+                }
+                expect(")");
+                return new TypeTest(mask);
+            }
+            if (accept("!=")) {
+                return new Not(new TypeTest(parseType().mask()));
+            }
+            if (accept("=")) {
+                return new TypeTest(parseType().mask());
+            }
+            throw error("Expected '=', '!=' or 'in' after 'type'");
+        }
+
+        private PokemonType parseType() {
+            int start = position;
+            String word = readWord();
+            for (PokemonType type : PokemonType.values()) {
+                if (type.name().equalsIgnoreCase(word)) {
+                    return type;
+                }
+            }
+            position = start;
+            throw error("Unknown type '" + word + "'");
+        }
+
+        private Operand parseOperand() {
+            skipSpaces();
+            int start = position;
+            if (position < text.length() && (text.charAt(position) == '-' || Character.isDigit(text.charAt(position)))) {
+                position++;
+                while (position < text.length() && Character.isDigit(text.charAt(position))) {
+                    position++;
+                }
+                try {
+                    return new Operand(null, Integer.parseInt(text.substring(start, position)));
+                } catch (NumberFormatException e) {
+                    position = start;
+                    throw error("Invalid number");
+                }
+            }
+            String word = readWord();
+            for (Field field : Field.values()) {
+                if (field.keyword.equalsIgnoreCase(word)) {
+                    return new Operand(field, 0);
+                }
+            }
+            position = start;
+            throw error(word.isEmpty() ? "Expected a field or number" : "Unknown field '" + word + "'");
+        }
+
+        private Operator parseOperator() {
+            skipSpaces();
+            // Two-character operators first, so "<=" is not read as "<"
+            Operator found = null;
+            for (Operator operator : Operator.values()) {
+                if (text.startsWith(operator.symbol, position)
+                        && (found == null || operator.symbol.length() > found.symbol.length())) {
+                    found = operator;
+                }
+            }
+            if (found == null) {
+                throw error("Expected a comparison operator");
+            }
+            position += found.symbol.length();
+            return found;
+        }
+
+        private String readWord() {
+            skipSpaces();
+            int start = position;
+            while (position < text.length()
+                    && (Character.isLetterOrDigit(text.charAt(position)) || text.charAt(position) == '_')) {
+                position++;
+            }
+            return text.substring(start, position);
+        }
+
+        private boolean acceptWord(String word) {
+            skipSpaces();
+            int end = position + word.length();
+            if (text.regionMatches(true, position, word, 0, word.length())
+                    && (end == text.length() || !(Character.isLetterOrDigit(text.charAt(end)) || text.charAt(end) == '_'))) {
+                position = end;
+                return true;
+            }
+            return false;
+        }
+
+        private boolean accept(String symbol) {
+            skipSpaces();
+            if (text.startsWith(symbol, position)) {
+                position += symbol.length();
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(String symbol) {
+            if (!accept(symbol)) {
+                throw error("Expected '" + symbol + "'");
+            }
+        }
+
+        private void skipSpaces() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + position + " in: " + text);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Stable linear-time sorts of row numbers by int keys.
+ * <p>
+ * Sort keys of Pokemon are small bounded integers: stats lie in 0..255, IDs in a dense
+ * range, and any key can be replaced by the rank of its value. When the range of the
+ * keys is no larger than a few times the number of rows, rows are placed by one
+ * counting sort over the range; otherwise by an LSD radix sort over 8-bit digits of the
+ * key minus its minimum, with only as many passes as the range needs. Both keep rows
+ * with equal keys in input order, so a sort by several keys is a sort by each key in
+ * turn, from the least significant to the most.
+ */
+public final class RadixSort {
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    // Counting over a range this many times the row count still beats radix passes
+    private static final int COUNTING_FACTOR = 4;
+
+    private RadixSort() {
+    }
+
+    /**
+     * Sorts rows by their keys, keeping rows with equal keys in input order.
+     *
+     * @param rows the rows to sort; not modified
+     * @param keys the key of each row, at the row's position in {@code rows}
+     * @param descending true for descending keys; equal keys still keep input order
+     * @return the sorted rows
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static int[] sort(int[] rows, int[] keys, boolean descending) {
+        if (rows.length != keys.length) {
+            throw new IllegalArgumentException("Every row needs exactly one key");
+        }
+        int n = rows.length;
+        if (n < 2) {
+            return rows.clone();
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+        // Offsets from the low end, or from the high end for descending order, as unsigned ints
+        int[] offsets = new int[n];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = descending ? max - keys[i] : keys[i] - min;
+        }
+        long range = (long) max - min + 1;
+        if (range <= (long) COUNTING_FACTOR * n + RADIX) {
+            return countingSort(rows, offsets, (int) range);
+        }
+        return radixSort(rows, offsets, 64 - Long.numberOfLeadingZeros(range - 1));
+    }
+
+    /**
+     * Returns the rows 0 to n - 1 sorted by their keys.
+     *
+     * @param keys the key of each row, indexed by row
+     * @param descending true for descending keys; equal keys still keep row order
+     * @return the sorted rows
+     */
+    public static int[] order(int[] keys, boolean descending) {
+        int[] rows = new int[keys.length];
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = row;
+        }
+        return sort(rows, keys, descending);
+    }
+
+    private static int[] countingSort(int[] rows, int[] offsets, int range) {
+        int[] starts = new int[range + 1];
+        for (int offset : offsets) {
+            starts[offset + 1]++;
+        }
+        for (int i = 1; i <= range; i++) {
+            starts[i] += starts[i - 1];
+        }
+        int[] sorted = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            sorted[starts[offsets[i]]++] = rows[i];
+        }
+        return sorted;
+    }
+
+    private static int[] radixSort(int[] rows, int[] offsets, int bits) {
+        int n = rows.length;
+        int[] sourceRows = rows;
+        int[] sourceOffsets = offsets;
+        int[] targetRows = new int[n];
+        int[] targetOffsets = new int[n];
+        int[] starts = new int[RADIX];
+        for (int shift = 0; shift < bits; shift += DIGIT_BITS) {
+            Arrays.fill(starts, 0);
+            for (int i = 0; i < n; i++) {
+                starts[(sourceOffsets[i] >>> shift) & (RADIX - 1)]++;
+            }
+            int total = 0;
+            for (int digit = 0; digit < RADIX; digit++) {
+                int count = starts[digit];
+                starts[digit] = total;
+                total += count;
+            }
+            for (int i = 0; i < n; i++) {
+                int position = starts[(sourceOffsets[i] >>> shift) & (RADIX - 1)]++;
+                targetRows[position] = sourceRows[i];
+                targetOffsets[position] = sourceOffsets[i];
+            }
+            int[] swap = sourceRows == rows ? new int[n] : sourceRows;
+            sourceRows = targetRows;
+            targetRows = swap;
+            swap = sourceOffsets;
+            sourceOffsets = targetOffsets;
+            targetOffsets = swap;
+        }
+        return sourceRows;
+    }
+}
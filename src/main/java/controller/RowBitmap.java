@@ -0,0 +1,552 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable compressed set of row positions, laid out like a Roaring bitmap.
+ * <p>
+ * Rows are split by their high 16 bits into chunks of 65536. Each chunk is stored in
+ * the cheaper of two containers: a sorted {@code char[]} of low bits while it holds at
+ * most {@value #ARRAY_MAX} rows, or a 1024-word {@code long[]} bitmap above that. Sparse
+ * sets stay small, dense ones get word-level AND, OR and AND NOT with
+ * {@link Long#bitCount(long)} for cardinality, and every operation only visits chunks
+ * present in its operands.
+ */
+public final class RowBitmap {
+    /**
+     * Largest chunk kept as a sorted array; 4096 chars take the same 8 KB as a bitmap.
+     */
+    static final int ARRAY_MAX = 4096;
+
+    private static final int WORDS = 1024;
+    private static final RowBitmap EMPTY = new RowBitmap(new char[0], new Container[0], 0);
+
+    private final char[] keys;
+    private final Container[] containers;
+    private final int cardinality;
+
+    private RowBitmap(char[] keys, Container[] containers, int size) {
+        this.keys = keys;
+        this.containers = containers;
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality;
+        }
+        this.cardinality = total;
+    }
+
+    /**
+     * Returns the empty bitmap.
+     *
+     * @return a bitmap with no rows
+     */
+    public static RowBitmap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a bitmap from rows.
+     *
+     * @param rows the rows, in any order; each must be non-negative
+     * @return a bitmap holding exactly those rows
+     */
+    public static RowBitmap of(int... rows) {
+        int[] sorted = rows.clone();
+        Arrays.sort(sorted);
+        Builder builder = new Builder();
+        for (int row : sorted) {
+            builder.add(row);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Creates a bitmap of every row in [from, to).
+     *
+     * @param from the first row, inclusive
+     * @param to the last row, exclusive
+     * @return a bitmap holding the range
+     */
+    public static RowBitmap range(int from, int to) {
+        Builder builder = new Builder();
+        int row = Math.max(0, from);
+        while (row < to) {
+            int key = row >>> 16;
+            int chunkEnd = (int) Math.min(to, ((long) key + 1) << 16);
+            int count = chunkEnd - row;
+            Container container;
+            if (count > ARRAY_MAX) {
+                // Fill whole words, then trim the first and last word to the range
+                int low = row & 0xFFFF;
+                int high = (chunkEnd - 1) & 0xFFFF;
+                long[] words = new long[WORDS];
+                Arrays.fill(words, low >>> 6, (high >>> 6) + 1, -1L);
+                words[low >>> 6] &= -1L << low;
+                words[high >>> 6] &= -1L >>> (63 - (high & 63));
+                container = new Container(null, words, count);
+            } else {
+                char[] array = new char[count];
+                for (int i = 0; i < count; i++) {
+                    array[i] = (char) (row + i);
+                }
+                container = new Container(array, null, count);
+            }
+            builder.append((char) key, container);
+            row = chunkEnd;
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of rows in the set without materializing them.
+     *
+     * @return the cardinality
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * Tells whether the set is empty.
+     *
+     * @return true if there are no rows
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Tells whether a row is in the set.
+     *
+     * @param row the row
+     * @return true if the row is present
+     */
+    public boolean contains(int row) {
+        int index = Arrays.binarySearch(keys, (char) (row >>> 16));
+        return row >= 0 && index >= 0 && containers[index].contains((char) row);
+    }
+
+    /**
+     * Intersects this set with another.
+     *
+     * @param other the other set
+     * @return the rows present in both
+     */
+    public RowBitmap and(RowBitmap other) {
+        Builder result = new Builder();
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                result.append(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result.build();
+    }
+
+    /**
+     * Unites this set with another.
+     *
+     * @param other the other set
+     * @return the rows present in either
+     */
+    public RowBitmap or(RowBitmap other) {
+        Builder result = new Builder();
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || i < keys.length && keys[i] < other.keys[j]) {
+                result.append(keys[i], containers[i]);
+                i++;
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                result.append(other.keys[j], other.containers[j]);
+                j++;
+            } else {
+                result.append(keys[i], containers[i].or(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result.build();
+    }
+
+    /**
+     * Removes another set's rows from this set.
+     *
+     * @param other the rows to remove
+     * @return the rows present in this set but not the other
+     */
+    public RowBitmap andNot(RowBitmap other) {
+        Builder result = new Builder();
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.keys.length && other.keys[j] == keys[i]) {
+                result.append(keys[i], containers[i].andNot(other.containers[j]));
+            } else {
+                result.append(keys[i], containers[i]);
+            }
+        }
+        return result.build();
+    }
+
+    /**
+     * Removes a row the way removing it from a list would: the row leaves the set and
+     * every higher row moves down by one. Chunks below the row are shared with this set.
+     *
+     * @param row the removed row
+     * @return the rows after the removal
+     */
+    public RowBitmap removeRow(int row) {
+        int first = Arrays.binarySearch(keys, (char) (row >>> 16));
+        if (first < 0) {
+            first = -first - 1;
+        }
+        if (first == keys.length) {
+            return this; // Nothing at or above the row
+        }
+        Builder result = new Builder();
+        for (int i = 0; i < first; i++) {
+            result.append(keys[i], containers[i]);
+        }
+        // A chunk's first row can move into the chunk below, which the builder handles
+        for (int i = first; i < keys.length; i++) {
+            containers[i].forEach(keys[i] << 16, current -> {
+                if (current < row) {
+                    result.add(current);
+                } else if (current > row) {
+                    result.add(current - 1);
+                }
+            });
+        }
+        return result.build();
+    }
+
+    /**
+     * Complements this set within the rows [0, size).
+     *
+     * @param size the number of rows in the universe
+     * @return the rows below size that are not in this set
+     */
+    public RowBitmap not(int size) {
+        return range(0, size).andNot(this);
+    }
+
+    /**
+     * Visits every row in ascending order.
+     *
+     * @param action the action to run per row
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * Materializes the rows.
+     *
+     * @return the rows in ascending order
+     */
+    public int[] toArray() {
+        int[] rows = new int[cardinality];
+        int[] next = new int[1];
+        forEach(row -> rows[next[0]++] = row);
+        return rows;
+    }
+
+    /**
+     * Estimates the memory held by the containers.
+     *
+     * @return the approximate size in bytes
+     */
+    public long sizeInBytes() {
+        long bytes = keys.length * 2L;
+        for (Container container : containers) {
+            bytes += container.bits != null ? WORDS * 8L : container.array.length * 2L;
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RowBitmap)) {
+            return false;
+        }
+        RowBitmap other = (RowBitmap) o;
+        return cardinality == other.cardinality && Arrays.equals(toArray(), other.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return "RowBitmap{cardinality=" + cardinality + ", chunks=" + keys.length + '}';
+    }
+
+    /**
+     * Builds a bitmap from rows added in ascending order.
+     */
+    public static final class Builder {
+        private char[] keys = new char[4];
+        private Container[] containers = new Container[4];
+        private int size;
+        private char[] pending = new char[16];
+        private int pendingSize;
+        private long[] pendingBits;
+        private int pendingKey = -1;
+        private int lastRow = -1;
+
+        /**
+         * Adds a row.
+         *
+         * @param row the row, greater than any row added before
+         * @return this builder
+         * @throws IllegalArgumentException if the row is negative or not ascending
+         */
+        public Builder add(int row) {
+            if (row <= lastRow) {
+                throw new IllegalArgumentException("Rows must be non-negative and added in ascending order");
+            }
+            lastRow = row;
+            int key = row >>> 16;
+            if (key != pendingKey) {
+                flush();
+                pendingKey = key;
+            }
+            char low = (char) row;
+            if (pendingBits != null) {
+                pendingBits[low >>> 6] |= 1L << low;
+            } else if (pendingSize < ARRAY_MAX) {
+                if (pendingSize == pending.length) {
+                    pending = Arrays.copyOf(pending, pendingSize * 2);
+                }
+                pending[pendingSize] = low;
+            } else {
+                // The chunk outgrew the array form; switch it to a bitmap
+                pendingBits = new long[WORDS];
+                for (int i = 0; i < pendingSize; i++) {
+                    pendingBits[pending[i] >>> 6] |= 1L << pending[i];
+                }
+                pendingBits[low >>> 6] |= 1L << low;
+            }
+            pendingSize++;
+            return this;
+        }
+
+        /**
+         * Builds the bitmap.
+         *
+         * @return the immutable bitmap
+         */
+        public RowBitmap build() {
+            flush();
+            if (size == 0) {
+                return EMPTY;
+            }
+            return new RowBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size), size);
+        }
+
+        private void flush() {
+            if (pendingSize > 0) {
+                Container container = pendingBits != null
+                        ? new Container(null, pendingBits, pendingSize)
+                        : new Container(Arrays.copyOf(pending, pendingSize), null, pendingSize);
+                append((char) pendingKey, container);
+            }
+            pendingSize = 0;
+            pendingBits = null;
+            pendingKey = -1;
+        }
+
+        private void append(char key, Container container) {
+            if (container.cardinality == 0) {
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+            }
+            keys[size] = key;
+            containers[size] = container;
+            size++;
+        }
+    }
+
+    /**
+     * One 65536-row chunk, holding either a sorted array or a bitmap of the low 16 bits.
+     * Operations return the cheaper form for their result.
+     */
+    private static final class Container {
+        private final char[] array;
+        private final long[] bits;
+        private final int cardinality;
+
+        Container(char[] array, long[] bits, int cardinality) {
+            this.array = array;
+            this.bits = bits;
+            this.cardinality = cardinality;
+        }
+
+        boolean contains(char low) {
+            if (bits != null) {
+                return (bits[low >>> 6] & (1L << low)) != 0;
+            }
+            return Arrays.binarySearch(array, low) >= 0;
+        }
+
+        Container and(Container other) {
+            if (bits != null && other.bits != null) {
+                long[] result = new long[WORDS];
+                int count = 0;
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] = bits[w] & other.bits[w];
+                    count += Long.bitCount(result[w]);
+                }
+                return fromBits(result, count);
+            }
+            // At least one side is a small array: probe its values in the other side
+            Container small = bits == null ? this : other;
+            Container large = small == this ? other : this;
+            if (large.bits == null && small.cardinality > large.cardinality) {
+                Container swap = small;
+                small = large;
+                large = swap;
+            }
+            char[] result = new char[small.cardinality];
+            int count = 0;
+            for (char low : small.array) {
+                if (large.contains(low)) {
+                    result[count++] = low;
+                }
+            }
+            return new Container(Arrays.copyOf(result, count), null, count);
+        }
+
+        Container or(Container other) {
+            if (bits == null && other.bits == null && cardinality + other.cardinality <= ARRAY_MAX) {
+                char[] result = new char[cardinality + other.cardinality];
+                int i = 0;
+                int j = 0;
+                int count = 0;
+                while (i < array.length || j < other.array.length) {
+                    if (j == other.array.length || i < array.length && array[i] < other.array[j]) {
+                        result[count++] = array[i++];
+                    } else if (i == array.length || array[i] > other.array[j]) {
+                        result[count++] = other.array[j++];
+                    } else {
+                        result[count++] = array[i++];
+                        j++;
+                    }
+                }
+                return new Container(Arrays.copyOf(result, count), null, count);
+            }
+            long[] result = toBits();
+            other.orInto(result);
+            int count = 0;
+            for (long word : result) {
+                count += Long.bitCount(word);
+            }
+            return fromBits(result, count);
+        }
+
+        Container andNot(Container other) {
+            if (bits == null) {
+                char[] result = new char[cardinality];
+                int count = 0;
+                for (char low : array) {
+                    if (!other.contains(low)) {
+                        result[count++] = low;
+                    }
+                }
+                return new Container(Arrays.copyOf(result, count), null, count);
+            }
+            long[] result = bits.clone();
+            if (other.bits != null) {
+                for (int w = 0; w < WORDS; w++) {
+                    result[w] &= ~other.bits[w];
+                }
+            } else {
+                for (char low : other.array) {
+                    result[low >>> 6] &= ~(1L << low);
+                }
+            }
+            int count = 0;
+            for (long word : result) {
+                count += Long.bitCount(word);
+            }
+            return fromBits(result, count);
+        }
+
+        void forEach(int base, IntConsumer action) {
+            if (bits == null) {
+                for (char low : array) {
+                    action.accept(base | low);
+                }
+                return;
+            }
+            for (int w = 0; w < WORDS; w++) {
+                long word = bits[w];
+                while (word != 0) {
+                    action.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        private long[] toBits() {
+            if (bits != null) {
+                return bits.clone();
+            }
+            long[] result = new long[WORDS];
+            orInto(result);
+            return result;
+        }
+
+        private void orInto(long[] target) {
+            if (bits != null) {
+                for (int w = 0; w < WORDS; w++) {
+                    target[w] |= bits[w];
+                }
+            } else {
+                for (char low : array) {
+                    target[low >>> 6] |= 1L << low;
+                }
+            }
+        }
+
+        /**
+         * Wraps a bitmap result, converting it back to an array if it became sparse.
+         */
+        private static Container fromBits(long[] words, int count) {
+            if (count > ARRAY_MAX) {
+                return new Container(null, words, count);
+            }
+            char[] result = new char[count];
+            int next = 0;
+            for (int w = 0; w < WORDS; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    result[next++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new Container(result, null, count);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package controller;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Runs the successive queries of someone typing into a search field, reusing each
+ * result for the next.
+ * <p>
+ * The session keeps a short history of the terms searched, each with the rows matching
+ * the term alone and the full sorted result. When the new term contains the previous
+ * one, as it does after typing a character, every match of the new term is among the
+ * previous matches, so the previous rows are checked directly instead of asking the
+ * search indexes, and the previous result is narrowed in place, which keeps its sort
+ * order. A keystroke then costs time proportional to the current result, not to the
+ * collection. When characters are deleted, the history is unwound to the longest
+ * earlier term the new one still contains; going back to that exact term returns its
+ * result unchanged, and anything else is searched through the indexes. A change of the
+ * type filter, stat ranges or sort keeps the term's rows and only refilters and re-sorts
+ * them.
+ * <p>
+ * Results depend on the rows of the engine, so the history is dropped whenever the
+ * engine records a change. Like the engine, a session must be used from one thread at
+ * a time.
+ */
+public class SearchSession {
+    // Deepest history kept; older terms are searched through the indexes again
+    private static final int MAX_HISTORY = 32;
+
+    private final QueryEngine engine;
+    private final Deque<Step> history = new ArrayDeque<>();
+    private int modificationCount;
+
+    /**
+     * Creates a session over a query engine.
+     *
+     * @param engine the engine to query
+     * @throws IllegalArgumentException if the engine is null
+     */
+    public SearchSession(QueryEngine engine) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Query engine cannot be null");
+        }
+        this.engine = engine;
+        this.modificationCount = engine.getModificationCount();
+    }
+
+    /**
+     * Returns the engine the session queries.
+     *
+     * @return the query engine
+     */
+    public QueryEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Runs a query, ignoring its offset and limit.
+     *
+     * @param query the query
+     * @return every matching row, in result order; shared with the session, so it must
+     *         not be modified
+     */
+    public int[] search(PokemonQuery query) {
+        if (engine.getModificationCount() != modificationCount) {
+            history.clear();
+            modificationCount = engine.getModificationCount();
+        }
+        PokemonQuery full = query.normalized().toBuilder().offset(0).limit(PokemonQuery.NO_LIMIT).build();
+        String term = full.getSearchTerm();
+        PokemonQuery view = viewOf(full);
+
+        while (!history.isEmpty() && !history.peekLast().isContainedIn(term, full.isMatchIds())) {
+            history.removeLast();
+        }
+        Step base = history.peekLast();
+        Step step;
+        if (base != null && base.term.equals(term)) {
+            if (base.view.equals(view)) {
+                return base.result;
+            }
+            history.removeLast();
+            step = new Step(term, full.isMatchIds(), view, base.termRows, engine.executeWithin(full, base.termRows));
+        } else if (base != null && !base.term.isEmpty()) {
+            int[] termRows = engine.narrowSearch(base.termRows, full);
+            int[] result = base.view.equals(view)
+                    ? engine.narrowSearch(base.result, full)
+                    : engine.executeWithin(full, termRows);
+            step = new Step(term, full.isMatchIds(), view, termRows, result);
+        } else {
+            int[] termRows = engine.searchRows(full);
+            step = new Step(term, full.isMatchIds(), view, termRows, engine.executeWithin(full, termRows));
+        }
+
+        history.addLast(step);
+        if (history.size() > MAX_HISTORY) {
+            history.removeFirst();
+        }
+        return step.result;
+    }
+
+    /**
+     * Returns the number of earlier searches the session can build on.
+     *
+     * @return the history depth
+     */
+    public int getHistorySize() {
+        return history.size();
+    }
+
+    /**
+     * Returns the query without its search term, which is what must match for a
+     * result to be narrowed rather than recomputed.
+     */
+    private static PokemonQuery viewOf(PokemonQuery query) {
+        return query.toBuilder().nameContains("").build();
+    }
+
+    /**
+     * One searched term with its matches.
+     */
+    private static final class Step {
+        private final String term;
+        private final boolean matchIds;
+        private final PokemonQuery view;
+        private final int[] termRows; // Ascending, or null for no term
+        private final int[] result;
+
+        Step(String term, boolean matchIds, PokemonQuery view, int[] termRows, int[] result) {
+            this.term = term;
+            this.matchIds = matchIds;
+            this.view = view;
+            this.termRows = termRows;
+            this.result = result;
+        }
+
+        /**
+         * Tells whether every match of a term is also a match of this step's term.
+         */
+        boolean isContainedIn(String otherTerm, boolean otherMatchIds) {
+            return term.isEmpty() || (matchIds == otherMatchIds && otherTerm.contains(term));
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package controller;
+
+import model.Pokemon;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Precomputed sort orders over a Pokemon list, one per {@link PokemonSortKey}.
+ * <p>
+ * For each key it keeps the permutation of row indexes in ascending key order
+ * ({@code order}) and its inverse ({@code rank}). Ties keep list order, the same as a
+ * stable {@code List.sort}. Sorting any subset of rows then needs no comparator:
+ * large subsets are emitted by one linear walk of the cached order, small ones by a
+ * primitive sort on their ranks.
+ * <p>
+ * Numeric keys are bounded integers and are sorted in linear time by {@link RadixSort}.
+ * Names are sorted by their
+ * {@link model.NameSortKey} bytes, most significant first: rows are packed with the first
+ * four bytes of their key and sorted as longs, and each run that ties on those bytes is
+ * repacked with the next four and sorted again, so no comparator runs and most rows are
+ * placed by the first pass.
+ * <p>
+ * Each key's permutation is built the first time that key is used and kept up to date
+ * from then on, so keys nobody sorts by cost nothing. Sorts by several keys go through
+ * {@link #sort(int[], List)}, which radix sorts by each key in turn.
+ * <p>
+ * The permutations read from the list they were built over, so that list must be
+ * updated first and then reported through {@link #rowAdded()} or {@link #rowRemoved(int)}.
+ * This class is not thread-safe.
+ */
+public class SortPermutations {
+    private static final PokemonSortKey[] KEYS = PokemonSortKey.values();
+
+    private final List<Pokemon> pokemonList;
+    private final QueryExecutor executor;
+    private final int[][] orders;
+    private final int[][] ranks;
+    // For keys that are not numeric, the position in the order where each row's run of
+    // equal keys starts; built when needed and dropped on every change
+    private final int[][] groups;
+    private int size;
+
+    /**
+     * Creates the permutations over a list, using the shared executor to build them.
+     *
+     * @param pokemonList the list to sort; kept by reference
+     */
+    public SortPermutations(List<Pokemon> pokemonList) {
+        this(pokemonList, QueryExecutor.shared());
+    }
+
+    /**
+     * Creates the permutations over a list. Each is built on first use, sorting large
+     * lists in parallel where the key needs comparisons.
+     *
+     * @param pokemonList the list to sort; kept by reference
+     * @param executor the executor for the initial sorts
+     */
+    public SortPermutations(List<Pokemon> pokemonList, QueryExecutor executor) {
+        this.pokemonList = pokemonList;
+        this.executor = executor;
+        this.size = pokemonList.size();
+        this.orders = new int[KEYS.length][];
+        this.ranks = new int[KEYS.length][];
+        this.groups = new int[KEYS.length][];
+    }
+
+    /**
+     * Returns the rows in ascending order of a key.
+     *
+     * @param key the sort key
+     * @return a copy of the cached permutation
+     */
+    public int[] order(PokemonSortKey key) {
+        return Arrays.copyOf(orderOf(key), size);
+    }
+
+    /**
+     * Returns every row sorted by a key.
+     *
+     * @param key the sort key
+     * @param descending true for descending order; ties still keep list order
+     * @return the sorted rows
+     */
+    public int[] sortAll(PokemonSortKey key, boolean descending) {
+        int[] sorted = order(key);
+        return descending ? reverseKeepingTies(sorted, key) : sorted;
+    }
+
+    /**
+     * Sorts a subset of rows by a key using the cached permutation.
+     *
+     * @param rows the rows to sort, each in [0, size); not modified
+     * @param key the sort key
+     * @param descending true for descending order; ties still keep list order
+     * @return the sorted rows
+     */
+    public int[] sort(int[] rows, PokemonSortKey key, boolean descending) {
+        orderOf(key);
+        int[] sorted;
+        int k = rows.length;
+        // A k log k sort on ranks beats the linear walk only for fairly small subsets
+        if ((long) k * (32 - Integer.numberOfLeadingZeros(k)) < size) {
+            sorted = sortByRank(rows, key);
+        } else {
+            sorted = mergeWithOrder(rows, key);
+        }
+        return descending ? reverseKeepingTies(sorted, key) : sorted;
+    }
+
+    /**
+     * Walks the cached order of a key and collects accepted rows, stopping as soon as
+     * enough have been found. Nothing is sorted, so a page near the top of a large
+     * collection costs only as many predicate checks as it takes to fill it.
+     *
+     * @param key the sort key
+     * @param descending true for descending order; ties still keep list order
+     * @param accept the filter rows must pass
+     * @param skip the number of accepted rows to skip
+     * @param limit the maximum number of rows to return after skipping
+     * @return the accepted rows of the window, in sorted order
+     */
+    public int[] scan(PokemonSortKey key, boolean descending, IntPredicate accept, int skip, int limit) {
+        int[] order = orderOf(key);
+        int[] result = new int[Math.min(limit, size)];
+        int count = 0;
+        int skipped = 0;
+        if (!descending) {
+            for (int i = 0; i < size && count < result.length; i++) {
+                if (accept.test(order[i])) {
+                    if (skipped < skip) {
+                        skipped++;
+                    } else {
+                        result[count++] = order[i];
+                    }
+                }
+            }
+        } else {
+            // Walk runs of equal keys from the end, each run forwards, to keep ties in list order
+            int end = size;
+            while (end > 0 && count < result.length) {
+                int start = end - 1;
+                while (start > 0 && compareKeys(key, order[start - 1], order[end - 1]) == 0) {
+                    start--;
+                }
+                for (int i = start; i < end && count < result.length; i++) {
+                    if (accept.test(order[i])) {
+                        if (skipped < skip) {
+                            skipped++;
+                        } else {
+                            result[count++] = order[i];
+                        }
+                    }
+                }
+                end = start;
+            }
+        }
+        return count == result.length ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Sorts rows by several keys: by the first, then rows with equal first keys by the
+     * second, and so on, with rows that tie on every key in input order. Each key is one
+     * stable radix sort, from the last key to the first, so the cost is linear in the
+     * number of rows for every key.
+     *
+     * @param rows the rows to sort, each in [0, size); not modified
+     * @param sortOrders the keys and their directions, most significant first
+     * @return the sorted rows
+     */
+    public int[] sort(int[] rows, List<PokemonQuery.SortOrder> sortOrders) {
+        int[] sorted = rows;
+        for (int i = sortOrders.size() - 1; i >= 0; i--) {
+            PokemonQuery.SortOrder sortOrder = sortOrders.get(i);
+            sorted = RadixSort.sort(sorted, sortValues(sorted, sortOrder.getKey()), sortOrder.isDescending());
+        }
+        return sorted == rows ? rows.clone() : sorted;
+    }
+
+    /**
+     * Records that a Pokemon was appended to the end of the list.
+     * Each permutation gets the new row inserted at its binary-searched position.
+     */
+    public void rowAdded() {
+        int row = size;
+        int[] insertedAt = new int[KEYS.length];
+        for (PokemonSortKey key : KEYS) {
+            int[] order = orders[key.ordinal()];
+            if (order == null) {
+                continue;
+            }
+            if (row == order.length) {
+                order = Arrays.copyOf(order, Math.max(16, row * 2));
+                orders[key.ordinal()] = order;
+                ranks[key.ordinal()] = Arrays.copyOf(ranks[key.ordinal()], order.length);
+            }
+            // Insert after all equal keys, since the new row is last in list order
+            int low = 0;
+            int high = row;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(key, order[mid], row) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            System.arraycopy(order, low, order, low + 1, row - low);
+            order[low] = row;
+            insertedAt[key.ordinal()] = low;
+        }
+        size++;
+        for (PokemonSortKey key : KEYS) {
+            if (orders[key.ordinal()] != null) {
+                updateRanks(key, insertedAt[key.ordinal()]);
+            }
+        }
+        Arrays.fill(groups, null);
+    }
+
+    /**
+     * Records that the Pokemon at a row was removed from the list,
+     * shifting every later row down by one.
+     *
+     * @param row the removed row
+     */
+    public void rowRemoved(int row) {
+        for (PokemonSortKey key : KEYS) {
+            int[] order = orders[key.ordinal()];
+            if (order == null) {
+                continue;
+            }
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int current = order[i];
+                if (current != row) {
+                    order[kept++] = current > row ? current - 1 : current;
+                }
+            }
+        }
+        size--;
+        for (PokemonSortKey key : KEYS) {
+            if (orders[key.ordinal()] != null) {
+                updateRanks(key, 0);
+            }
+        }
+        Arrays.fill(groups, null);
+    }
+
+    /**
+     * Records that the Pokemon at a row was replaced. The list must already hold the
+     * new Pokemon; each permutation moves the row to its new binary-searched position.
+     *
+     * @param row the updated row
+     */
+    public void rowUpdated(int row) {
+        for (PokemonSortKey key : KEYS) {
+            int[] order = orders[key.ordinal()];
+            if (order == null) {
+                continue;
+            }
+            int from = ranks[key.ordinal()][row];
+            System.arraycopy(order, from + 1, order, from, size - from - 1);
+            // Ties are broken by row, so no other row compares equal to this one
+            int low = 0;
+            int high = size - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (compare(key, order[mid], row) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            System.arraycopy(order, low, order, low + 1, size - 1 - low);
+            order[low] = row;
+            updateRanks(key, Math.min(from, low));
+        }
+        Arrays.fill(groups, null);
+    }
+
+    /**
+     * Returns the number of rows covered by the permutations.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the permutation of a key, building it on first use.
+     */
+    private int[] orderOf(PokemonSortKey key) {
+        if (orders[key.ordinal()] == null) {
+            orders[key.ordinal()] = buildOrder(key);
+            ranks[key.ordinal()] = new int[orders[key.ordinal()].length];
+            updateRanks(key, 0);
+        }
+        return orders[key.ordinal()];
+    }
+
+    /**
+     * Returns an int for each row that orders the rows the same way the key does:
+     * the key itself if it is numeric, otherwise the start of the row's run of equal keys.
+     */
+    private int[] sortValues(int[] rows, PokemonSortKey key) {
+        int[] values = new int[rows.length];
+        if (key.isNumeric()) {
+            for (int i = 0; i < rows.length; i++) {
+                values[i] = key.intValue(pokemonList.get(rows[i]));
+            }
+            return values;
+        }
+        int[] group = groups[key.ordinal()];
+        if (group == null) {
+            int[] order = orderOf(key);
+            group = new int[size];
+            for (int i = 0; i < size; i++) {
+                group[order[i]] = i > 0 && compareKeys(key, order[i - 1], order[i]) == 0 ? group[order[i - 1]] : i;
+            }
+            groups[key.ordinal()] = group;
+        }
+        for (int i = 0; i < rows.length; i++) {
+            values[i] = group[rows[i]];
+        }
+        return values;
+    }
+
+    private int[] buildOrder(PokemonSortKey key) {
+        int[] order = new int[Math.max(16, size)];
+        if (key.isNumeric()) {
+            int[] values = new int[size];
+            for (int row = 0; row < size; row++) {
+                values[row] = key.intValue(pokemonList.get(row));
+            }
+            System.arraycopy(RadixSort.order(values, false), 0, order, 0, size);
+        } else {
+            byte[][] names = new byte[size][];
+            long[] packed = new long[size];
+            for (int row = 0; row < size; row++) {
+                names[row] = pokemonList.get(row).nameSortKey();
+                packed[row] = pack(names[row], 0, row);
+            }
+            executor.sort(packed);
+            refineTies(packed, 0, size, names, 0);
+            for (int i = 0; i < size; i++) {
+                order[i] = (int) packed[i];
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Sorts each run of packed rows that ties on the key bytes at {@code offset} by the
+     * next four bytes, down to the end of the longest key in the run. Rows stay in the
+     * low half of each long, so fully equal names keep list order.
+     */
+    private static void refineTies(long[] packed, int from, int to, byte[][] names, int offset) {
+        int start = from;
+        while (start < to) {
+            int end = start + 1;
+            while (end < to && packed[end] >>> 32 == packed[start] >>> 32) {
+                end++;
+            }
+            if (end - start > 1) {
+                int next = offset + 4;
+                boolean longer = false;
+                for (int i = start; i < end; i++) {
+                    int row = (int) packed[i];
+                    longer |= names[row].length > next;
+                    packed[i] = pack(names[row], next, row);
+                }
+                if (longer) {
+                    Arrays.sort(packed, start, end);
+                    refineTies(packed, start, end, names, next);
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Packs four key bytes from an offset, zero-padded past the end, above a row. The
+     * sign bit is flipped so that signed long order is unsigned byte order.
+     */
+    private static long pack(byte[] name, int offset, int row) {
+        int chunk = 0;
+        for (int i = offset; i < offset + 4; i++) {
+            chunk = chunk << 8 | (i < name.length ? name[i] & 0xFF : 0);
+        }
+        return (long) (chunk ^ Integer.MIN_VALUE) << 32 | row;
+    }
+
+    private void updateRanks(PokemonSortKey key, int from) {
+        int[] order = orders[key.ordinal()];
+        int[] rank = ranks[key.ordinal()];
+        for (int i = from; i < size; i++) {
+            rank[order[i]] = i;
+        }
+    }
+
+    private int[] sortByRank(int[] rows, PokemonSortKey key) {
+        int[] rank = ranks[key.ordinal()];
+        long[] packed = new long[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            packed[i] = ((long) rank[rows[i]] << 32) | rows[i];
+        }
+        Arrays.sort(packed);
+        int[] sorted = new int[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            sorted[i] = (int) packed[i];
+        }
+        return sorted;
+    }
+
+    private int[] mergeWithOrder(int[] rows, PokemonSortKey key) {
+        boolean[] selected = new boolean[size];
+        for (int row : rows) {
+            selected[row] = true;
+        }
+        int[] order = orders[key.ordinal()];
+        int[] sorted = new int[rows.length];
+        int count = 0;
+        for (int i = 0; i < size && count < sorted.length; i++) {
+            if (selected[order[i]]) {
+                sorted[count++] = order[i];
+            }
+        }
+        return count == sorted.length ? sorted : Arrays.copyOf(sorted, count);
+    }
+
+    /**
+     * Reverses an ascending row order while keeping each run of equal keys in list order,
+     * matching a stable sort with a reversed comparator.
+     *
+     * @param sorted the rows in ascending order, reversed in place
+     * @param key the sort key
+     * @return the same array in descending order
+     */
+    private int[] reverseKeepingTies(int[] sorted, PokemonSortKey key) {
+        reverse(sorted, 0, sorted.length);
+        int start = 0;
+        for (int i = 1; i <= sorted.length; i++) {
+            if (i == sorted.length || compareKeys(key, sorted[start], sorted[i]) != 0) {
+                reverse(sorted, start, i);
+                start = i;
+            }
+        }
+        return sorted;
+    }
+
+    private static void reverse(int[] values, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    private int compare(PokemonSortKey key, int rowA, int rowB) {
+        int result = compareKeys(key, rowA, rowB);
+        return result != 0 ? result : Integer.compare(rowA, rowB);
+    }
+
+    private int compareKeys(PokemonSortKey key, int rowA, int rowB) {
+        return key.comparator().compare(pokemonList.get(rowA), pokemonList.get(rowB));
+    }
+}
@@ -0,0 +1,460 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+import model.PokemonType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nearest-neighbour index over the six base stats of a collection, for finding Pokemon
+ * with a similar stat spread.
+ * <p>
+ * Pokemon are points in six dimensions, compared by squared Euclidean distance, and kept
+ * in a k-d tree stored implicitly in one array: a node is a range of it, its median
+ * element splits the range on the dimension with the widest spread, and its two halves
+ * are the children. Each node also records the union of the types below it, so a search
+ * restricted to some types skips whole subtrees without them. A k-nearest query descends
+ * towards the target first and only visits the far side of a split when it could still
+ * hold a closer point, which takes logarithmic time on typical data.
+ * <p>
+ * Changes do not rebuild the tree at once: added Pokemon go to a pending list that
+ * queries scan, and removed ones are marked and skipped. Once pending and removed
+ * entries reach an eighth of the index, the tree is rebuilt over the live entries, so
+ * each change costs amortized O(log n). Pokemon are tracked by identity and must not be
+ * modified in place while indexed. This class is not thread-safe.
+ */
+public class StatNeighborIndex {
+    /**
+     * Number of dimensions of the stat vectors.
+     */
+    public static final int DIMENSIONS = PokemonStat.values().length;
+
+    private static final PokemonStat[] STATS = PokemonStat.values();
+    // Ranges this small are scanned rather than split
+    private static final int LEAF_SIZE = 8;
+    private static final int MIN_REBUILD = 256;
+    private static final int SPREAD_SAMPLE = 256;
+
+    // By slot, the number an entry keeps until the next rebuild
+    private Pokemon[] pokemon;
+    private int[] nextSameSlot;
+    private final Map<Pokemon, Integer> firstSlot = new IdentityHashMap<>();
+    private BitSet removed;
+    private int slots;
+    private int removedCount;
+
+    // By position: the tree, then pending entries. Stats and types move with their
+    // entry, so a subtree's points are contiguous in memory.
+    private int[] tree;
+    private int[] coordinates;
+    private int[] typeMasks;
+    private byte[] splitDimensions;
+    private int[] subtreeTypes;
+    private int treeSize;
+
+    /**
+     * Builds the index over a collection.
+     *
+     * @param pokemonList the Pokemon to index
+     */
+    public StatNeighborIndex(List<Pokemon> pokemonList) {
+        allocate(Math.max(16, pokemonList.size()));
+        for (Pokemon entry : pokemonList) {
+            append(entry);
+        }
+        buildTree();
+    }
+
+    /**
+     * Returns the number of Pokemon in the index.
+     *
+     * @return the live entry count
+     */
+    public int size() {
+        return slots - removedCount;
+    }
+
+    /**
+     * Adds a Pokemon.
+     *
+     * @param entry the Pokemon to add
+     * @throws IllegalArgumentException if the Pokemon is null
+     */
+    public void add(Pokemon entry) {
+        if (entry == null) {
+            throw new IllegalArgumentException("Cannot index a null Pokemon");
+        }
+        if (slots == pokemon.length) {
+            grow();
+        }
+        append(entry);
+        rebuildIfStale();
+    }
+
+    /**
+     * Removes a Pokemon added before. If the same object was added several times, one
+     * of its entries is removed.
+     *
+     * @param entry the Pokemon to remove
+     * @return true if the Pokemon was in the index
+     */
+    public boolean remove(Pokemon entry) {
+        Integer slot = firstSlot.get(entry);
+        if (slot == null) {
+            return false;
+        }
+        if (nextSameSlot[slot] < 0) {
+            firstSlot.remove(entry);
+        } else {
+            firstSlot.put(entry, nextSameSlot[slot]);
+        }
+        removed.set(slot);
+        removedCount++;
+        rebuildIfStale();
+        return true;
+    }
+
+    /**
+     * Finds the Pokemon whose stats are closest to a given Pokemon's, leaving out the
+     * Pokemon itself.
+     *
+     * @param target the Pokemon to compare with
+     * @param count the maximum number of Pokemon to return
+     * @param sameType true to only return Pokemon sharing a type with the target
+     * @return the closest Pokemon, nearest first
+     * @throws IllegalArgumentException if the target is null or the count is negative
+     */
+    public List<Pokemon> nearest(Pokemon target, int count, boolean sameType) {
+        if (target == null) {
+            throw new IllegalArgumentException("Target cannot be null");
+        }
+        int types = sameType ? PokemonType.maskOf(target.getTypes()) : 0;
+        return search(vector(target.getStats()), count, types, target);
+    }
+
+    /**
+     * Finds the Pokemon whose stats are closest to a stat vector.
+     *
+     * @param stats the stats to compare with
+     * @param count the maximum number of Pokemon to return
+     * @param typeMask the types to restrict to, as a {@link PokemonType#maskOf(List)} mask;
+     *                 a Pokemon qualifies if it has any of them, and 0 allows every Pokemon
+     * @return the closest Pokemon, nearest first
+     * @throws IllegalArgumentException if the stats are null or the count is negative
+     */
+    public List<Pokemon> nearest(Pokemon.PokemonStats stats, int count, int typeMask) {
+        if (stats == null) {
+            throw new IllegalArgumentException("Stats cannot be null");
+        }
+        return search(vector(stats), count, typeMask, null);
+    }
+
+    private List<Pokemon> search(int[] target, int count, int typeMask, Pokemon excluded) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+        Search search = new Search(target, count, typeMask, excluded);
+        if (count > 0) {
+            search.visit(0, treeSize);
+            for (int i = treeSize; i < slots; i++) {
+                search.consider(i);
+            }
+        }
+        return search.result();
+    }
+
+    private void append(Pokemon entry) {
+        int slot = slots++;
+        pokemon[slot] = entry;
+        int[] vector = vector(entry.getStats());
+        System.arraycopy(vector, 0, coordinates, slot * DIMENSIONS, DIMENSIONS);
+        typeMasks[slot] = PokemonType.maskOf(entry.getTypes());
+        Integer previous = firstSlot.put(entry, slot);
+        nextSameSlot[slot] = previous == null ? -1 : previous;
+        // Pending entries sit after the tree, at the position of their slot
+        tree[slot] = slot;
+    }
+
+    private void rebuildIfStale() {
+        int stale = (slots - treeSize) + removedCount;
+        if (stale >= Math.max(MIN_REBUILD, size() / 8)) {
+            compact();
+            buildTree();
+        }
+    }
+
+    /**
+     * Drops removed entries, renumbering the live ones in position order.
+     */
+    private void compact() {
+        Pokemon[] oldPokemon = pokemon;
+        int[] oldTree = tree;
+        int[] oldCoordinates = coordinates;
+        int[] oldTypeMasks = typeMasks;
+        BitSet oldRemoved = removed;
+        int oldSlots = slots;
+        allocate(Math.max(16, size() + size() / 4));
+        firstSlot.clear();
+        slots = 0;
+        removedCount = 0;
+        for (int position = 0; position < oldSlots; position++) {
+            int slot = oldTree[position];
+            if (!oldRemoved.get(slot)) {
+                int copy = slots++;
+                pokemon[copy] = oldPokemon[slot];
+                System.arraycopy(oldCoordinates, position * DIMENSIONS, coordinates, copy * DIMENSIONS, DIMENSIONS);
+                typeMasks[copy] = oldTypeMasks[position];
+                Integer previous = firstSlot.put(pokemon[copy], copy);
+                nextSameSlot[copy] = previous == null ? -1 : previous;
+                tree[copy] = copy;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        pokemon = new Pokemon[capacity];
+        coordinates = new int[capacity * DIMENSIONS];
+        typeMasks = new int[capacity];
+        nextSameSlot = new int[capacity];
+        removed = new BitSet(capacity);
+        tree = new int[capacity];
+        splitDimensions = new byte[capacity];
+        subtreeTypes = new int[capacity];
+    }
+
+    private void grow() {
+        int capacity = pokemon.length * 2;
+        pokemon = Arrays.copyOf(pokemon, capacity);
+        coordinates = Arrays.copyOf(coordinates, capacity * DIMENSIONS);
+        typeMasks = Arrays.copyOf(typeMasks, capacity);
+        nextSameSlot = Arrays.copyOf(nextSameSlot, capacity);
+        tree = Arrays.copyOf(tree, capacity);
+        splitDimensions = Arrays.copyOf(splitDimensions, capacity);
+        subtreeTypes = Arrays.copyOf(subtreeTypes, capacity);
+    }
+
+    private void buildTree() {
+        treeSize = slots;
+        build(0, treeSize);
+    }
+
+    /**
+     * Arranges tree[from, to) so that its middle element splits the range, and returns
+     * the union of the range's types.
+     */
+    private int build(int from, int to) {
+        if (to - from <= LEAF_SIZE) {
+            int types = 0;
+            for (int i = from; i < to; i++) {
+                types |= typeMasks[i];
+            }
+            return types;
+        }
+        int dimension = widestDimension(from, to);
+        int middle = (from + to) >>> 1;
+        select(from, to - 1, middle, dimension);
+        splitDimensions[middle] = (byte) dimension;
+        int types = build(from, middle) | build(middle + 1, to) | typeMasks[middle];
+        subtreeTypes[middle] = types;
+        return types;
+    }
+
+    private int widestDimension(int from, int to) {
+        int best = 0;
+        int bestSpread = -1;
+        // A sample is enough to pick a good split on large ranges
+        int step = Math.max(1, (to - from) / SPREAD_SAMPLE);
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int i = from; i < to; i += step) {
+                int value = coordinates[i * DIMENSIONS + dimension];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > bestSpread) {
+                best = dimension;
+                bestSpread = max - min;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Quickselect: moves the element of rank k in tree[low, high] along one dimension to
+     * position k, with smaller or equal values before it and greater or equal after.
+     */
+    private void select(int low, int high, int k, int dimension) {
+        while (low < high) {
+            int pivot = coordinates[((low + high) >>> 1) * DIMENSIONS + dimension];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (coordinates[i * DIMENSIONS + dimension] < pivot) {
+                    i++;
+                }
+                while (coordinates[j * DIMENSIONS + dimension] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swapPositions(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swapPositions(int a, int b) {
+        int swap = tree[a];
+        tree[a] = tree[b];
+        tree[b] = swap;
+        swap = typeMasks[a];
+        typeMasks[a] = typeMasks[b];
+        typeMasks[b] = swap;
+        for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+            swap = coordinates[a * DIMENSIONS + dimension];
+            coordinates[a * DIMENSIONS + dimension] = coordinates[b * DIMENSIONS + dimension];
+            coordinates[b * DIMENSIONS + dimension] = swap;
+        }
+    }
+
+    private static int[] vector(Pokemon.PokemonStats stats) {
+        int[] vector = new int[DIMENSIONS];
+        for (PokemonStat stat : STATS) {
+            vector[stat.ordinal()] = stat.of(stats);
+        }
+        return vector;
+    }
+
+    /**
+     * One k-nearest query, keeping the best candidates in a bounded max-heap of
+     * distance and slot packed into longs.
+     */
+    private final class Search {
+        private final int[] target;
+        private final int count;
+        private final int typeMask;
+        private final Pokemon excluded;
+        private final long[] heap;
+        private int heapSize;
+
+        Search(int[] target, int count, int typeMask, Pokemon excluded) {
+            this.target = target;
+            this.count = count;
+            this.typeMask = typeMask;
+            this.excluded = excluded;
+            this.heap = new long[count];
+        }
+
+        void visit(int from, int to) {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    consider(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            if (typeMask != 0 && (subtreeTypes[middle] & typeMask) == 0) {
+                return;
+            }
+            int dimension = splitDimensions[middle];
+            long offset = target[dimension] - coordinates[middle * DIMENSIONS + dimension];
+            consider(middle);
+            if (offset < 0) {
+                visit(from, middle);
+                if (offset * offset <= worstDistance()) {
+                    visit(middle + 1, to);
+                }
+            } else {
+                visit(middle + 1, to);
+                if (offset * offset <= worstDistance()) {
+                    visit(from, middle);
+                }
+            }
+        }
+
+        void consider(int position) {
+            int slot = tree[position];
+            if ((typeMask != 0 && (typeMasks[position] & typeMask) == 0)
+                    || removed.get(slot) || pokemon[slot] == excluded) {
+                return;
+            }
+            long distance = 0;
+            for (int dimension = 0; dimension < DIMENSIONS; dimension++) {
+                long difference = target[dimension] - coordinates[position * DIMENSIONS + dimension];
+                distance += difference * difference;
+            }
+            long key = distance << 32 | slot;
+            if (heapSize < count) {
+                heap[heapSize] = key;
+                siftUp(heapSize++);
+            } else if (key < heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        long worstDistance() {
+            return heapSize < count ? Long.MAX_VALUE : heap[0] >>> 32;
+        }
+
+        List<Pokemon> result() {
+            long[] keys = Arrays.copyOf(heap, heapSize);
+            Arrays.sort(keys);
+            List<Pokemon> result = new ArrayList<>(keys.length);
+            for (long key : keys) {
+                result.add(pokemon[(int) key]);
+            }
+            return result;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[parent] >= heap[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                int left = 2 * index + 1;
+                if (left < heapSize && heap[left] > heap[largest]) {
+                    largest = left;
+                }
+                if (left + 1 < heapSize && heap[left + 1] > heap[largest]) {
+                    largest = left + 1;
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long value = heap[a];
+            heap[a] = heap[b];
+            heap[b] = value;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Range index over the six base stats and the base stat total of a Pokemon list.
+ * <p>
+ * Stats are small bounded integers, so each column is bucketed with a counting sort
+ * instead of a comparison sort: {@code rowsByValue} holds the rows ordered by value
+ * (ties in row order) and {@code bucketStart[v]} is where value v begins. A range
+ * [min, max] is then the contiguous slice between two bucket offsets, found in O(1),
+ * and its size is known before any row is touched.
+ * <p>
+ * Queries over several ranges start from the most selective one and check the rest
+ * against the stored columns, so the work is proportional to the smallest range.
+ * <p>
+ * Rows added, removed or replaced in the list afterwards are applied through
+ * {@link #rowAdded(Pokemon)}, {@link #rowRemoved(int)} and {@link #rowUpdated(int, Pokemon)}:
+ * the row is moved within each column's order and the bucket offsets after it are
+ * adjusted, so no column is sorted again unless a value falls outside its current range.
+ * This class is not thread-safe.
+ */
+public class StatRangeIndex {
+    private static final PokemonStat[] STATS = PokemonStat.values();
+    private static final int TOTAL = STATS.length;
+    private static final int[] EMPTY = new int[0];
+
+    private int size;
+    // Per column, with room for more rows than size
+    private final int[][] values;
+    private final int[] minValue;
+    private final int[][] bucketStart;
+    private final int[][] rowsByValue;
+
+    /**
+     * Builds the index over a list of Pokemon.
+     *
+     * @param pokemonList the Pokemon to index, in row order
+     */
+    public StatRangeIndex(List<Pokemon> pokemonList) {
+        this.size = pokemonList.size();
+        this.values = new int[TOTAL + 1][size];
+        for (int row = 0; row < size; row++) {
+            Pokemon.PokemonStats stats = pokemonList.get(row).getStats();
+            int total = 0;
+            for (PokemonStat stat : STATS) {
+                int value = stat.of(stats);
+                values[stat.ordinal()][row] = value;
+                total += value;
+            }
+            values[TOTAL][row] = total;
+        }
+
+        this.minValue = new int[TOTAL + 1];
+        this.bucketStart = new int[TOTAL + 1][];
+        this.rowsByValue = new int[TOTAL + 1][];
+        for (int column = 0; column <= TOTAL; column++) {
+            buildColumn(column);
+        }
+    }
+
+    /**
+     * Finds the rows whose stat lies in an inclusive range.
+     *
+     * @param stat the stat
+     * @param min the inclusive minimum
+     * @param max the inclusive maximum
+     * @return the matching rows, ordered by stat value and then row
+     */
+    public int[] rows(PokemonStat stat, int min, int max) {
+        return slice(stat.ordinal(), min, max);
+    }
+
+    /**
+     * Finds the rows whose base stat total lies in an inclusive range.
+     *
+     * @param min the inclusive minimum
+     * @param max the inclusive maximum
+     * @return the matching rows, ordered by total and then row
+     */
+    public int[] totalRows(int min, int max) {
+        return slice(TOTAL, min, max);
+    }
+
+    /**
+     * Counts the rows whose stat lies in an inclusive range without collecting them.
+     *
+     * @param stat the stat
+     * @param min the inclusive minimum
+     * @param max the inclusive maximum
+     * @return the number of matching rows
+     */
+    public int count(PokemonStat stat, int min, int max) {
+        return count(stat.ordinal(), min, max);
+    }
+
+    /**
+     * Counts the rows whose base stat total lies in an inclusive range.
+     *
+     * @param min the inclusive minimum
+     * @param max the inclusive maximum
+     * @return the number of matching rows
+     */
+    public int countTotal(int min, int max) {
+        return count(TOTAL, min, max);
+    }
+
+    /**
+     * Finds the rows that satisfy every stat and base stat total range of a query.
+     * The narrowest range supplies the candidates and the others are checked per row.
+     *
+     * @param query the query whose ranges to apply; other criteria are ignored
+     * @return the matching rows in ascending order, or null if the query has no ranges
+     */
+    public int[] rows(PokemonQuery query) {
+        int[] mins = new int[TOTAL + 1];
+        int[] maxs = new int[TOTAL + 1];
+        boolean[] constrained = new boolean[TOTAL + 1];
+        int narrowest = -1;
+        int narrowestCount = Integer.MAX_VALUE;
+        for (int column = 0; column <= TOTAL; column++) {
+            if (column == TOTAL ? query.hasTotalRange() : query.hasStatRange(STATS[column])) {
+                mins[column] = column == TOTAL ? query.getTotalMin() : query.getStatMin(STATS[column]);
+                maxs[column] = column == TOTAL ? query.getTotalMax() : query.getStatMax(STATS[column]);
+                constrained[column] = true;
+                int count = count(column, mins[column], maxs[column]);
+                if (count < narrowestCount) {
+                    narrowest = column;
+                    narrowestCount = count;
+                }
+            }
+        }
+        if (narrowest < 0) {
+            return null;
+        }
+
+        int from = offsetOf(narrowest, mins[narrowest]);
+        int[] candidates = rowsByValue[narrowest];
+        int[] result = new int[narrowestCount];
+        int kept = 0;
+        for (int i = from; i < from + narrowestCount; i++) {
+            int row = candidates[i];
+            if (inRanges(row, constrained, mins, maxs, narrowest)) {
+                result[kept++] = row;
+            }
+        }
+        return toRowOrder(result, kept);
+    }
+
+    /**
+     * Records that a Pokemon was appended to the end of the list.
+     *
+     * @param pokemon the new Pokemon
+     */
+    public void rowAdded(Pokemon pokemon) {
+        int row = size;
+        if (row == values[0].length) {
+            int capacity = Math.max(16, row * 2);
+            for (int column = 0; column <= TOTAL; column++) {
+                values[column] = Arrays.copyOf(values[column], capacity);
+                rowsByValue[column] = Arrays.copyOf(rowsByValue[column], capacity);
+            }
+        }
+        setValues(row, pokemon);
+        size++;
+        for (int column = 0; column <= TOTAL; column++) {
+            insert(column, row);
+        }
+    }
+
+    /**
+     * Records that the Pokemon at a row was removed from the list, shifting every later
+     * row down by one.
+     *
+     * @param row the removed row
+     */
+    public void rowRemoved(int row) {
+        for (int column = 0; column <= TOTAL; column++) {
+            delete(column, row);
+            int[] rows = rowsByValue[column];
+            for (int i = 0; i < size - 1; i++) {
+                if (rows[i] > row) {
+                    rows[i]--;
+                }
+            }
+            System.arraycopy(values[column], row + 1, values[column], row, size - row - 1);
+        }
+        size--;
+    }
+
+    /**
+     * Records that the Pokemon at a row was replaced.
+     *
+     * @param row the updated row
+     * @param pokemon the new Pokemon
+     */
+    public void rowUpdated(int row, Pokemon pokemon) {
+        for (int column = 0; column <= TOTAL; column++) {
+            delete(column, row);
+        }
+        setValues(row, pokemon);
+        for (int column = 0; column <= TOTAL; column++) {
+            insert(column, row);
+        }
+    }
+
+    /**
+     * Returns the number of indexed rows.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    private void setValues(int row, Pokemon pokemon) {
+        Pokemon.PokemonStats stats = pokemon.getStats();
+        int total = 0;
+        for (PokemonStat stat : STATS) {
+            int value = stat.of(stats);
+            values[stat.ordinal()][row] = value;
+            total += value;
+        }
+        values[TOTAL][row] = total;
+    }
+
+    /**
+     * Puts a row into its column's order, after the rows with smaller values and among
+     * equal values by row. A value outside the column's range rebuilds the column instead.
+     * The row must be counted in size but not yet placed.
+     */
+    private void insert(int column, int row) {
+        int[] start = bucketStart[column];
+        int bucket = values[column][row] - minValue[column];
+        if (bucket < 0 || bucket >= start.length - 1) {
+            buildColumn(column);
+            return;
+        }
+        int[] rows = rowsByValue[column];
+        int placed = start[start.length - 1];
+        int at = -Arrays.binarySearch(rows, start[bucket], start[bucket + 1], row) - 1;
+        System.arraycopy(rows, at, rows, at + 1, placed - at);
+        rows[at] = row;
+        for (int i = bucket + 1; i < start.length; i++) {
+            start[i]++;
+        }
+    }
+
+    /**
+     * Takes a row out of its column's order, closing the gap.
+     */
+    private void delete(int column, int row) {
+        int[] start = bucketStart[column];
+        int bucket = values[column][row] - minValue[column];
+        int[] rows = rowsByValue[column];
+        int placed = start[start.length - 1];
+        int at = Arrays.binarySearch(rows, start[bucket], start[bucket + 1], row);
+        System.arraycopy(rows, at + 1, rows, at, placed - at - 1);
+        for (int i = bucket + 1; i < start.length; i++) {
+            start[i]--;
+        }
+    }
+
+    /**
+     * Puts matching rows back in row order: a primitive sort for a few rows,
+     * a mark-and-sweep over all rows once that would be cheaper.
+     */
+    private int[] toRowOrder(int[] rows, int count) {
+        if ((long) count * (32 - Integer.numberOfLeadingZeros(count)) < size) {
+            int[] sorted = Arrays.copyOf(rows, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+        boolean[] selected = new boolean[size];
+        for (int i = 0; i < count; i++) {
+            selected[rows[i]] = true;
+        }
+        int[] sorted = new int[count];
+        int next = 0;
+        for (int row = 0; row < size && next < count; row++) {
+            if (selected[row]) {
+                sorted[next++] = row;
+            }
+        }
+        return sorted;
+    }
+
+    private boolean inRanges(int row, boolean[] constrained, int[] mins, int[] maxs, int skip) {
+        for (int column = 0; column <= TOTAL; column++) {
+            if (constrained[column] && column != skip) {
+                int value = values[column][row];
+                if (value < mins[column] || value > maxs[column]) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void buildColumn(int column) {
+        int[] columnValues = values[column];
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int row = 0; row < size; row++) {
+            min = Math.min(min, columnValues[row]);
+            max = Math.max(max, columnValues[row]);
+        }
+        if (size == 0) {
+            min = 0;
+            max = -1;
+        }
+
+        // Counting sort: histogram, prefix sums, then a stable placement pass
+        int[] start = new int[max - min + 2];
+        for (int row = 0; row < size; row++) {
+            start[columnValues[row] - min + 1]++;
+        }
+        for (int i = 1; i < start.length; i++) {
+            start[i] += start[i - 1];
+        }
+        int[] next = Arrays.copyOf(start, start.length);
+        int[] rows = new int[columnValues.length];
+        for (int row = 0; row < size; row++) {
+            rows[next[columnValues[row] - min]++] = row;
+        }
+
+        minValue[column] = min;
+        bucketStart[column] = start;
+        rowsByValue[column] = rows;
+    }
+
+    /**
+     * Returns the position in {@code rowsByValue} of the first row with at least a value.
+     */
+    private int offsetOf(int column, int value) {
+        long bucket = (long) value - minValue[column];
+        int[] start = bucketStart[column];
+        if (bucket <= 0) {
+            return 0;
+        }
+        return bucket >= start.length ? size : start[(int) bucket];
+    }
+
+    private int count(int column, int min, int max) {
+        if (min > max) {
+            return 0;
+        }
+        // Clamp max + 1 so a range up to Integer.MAX_VALUE does not overflow
+        int end = max == Integer.MAX_VALUE ? size : offsetOf(column, max + 1);
+        return Math.max(0, end - offsetOf(column, min));
+    }
+
+    private int[] slice(int column, int min, int max) {
+        int count = count(column, min, max);
+        if (count == 0) {
+            return EMPTY;
+        }
+        int from = offsetOf(column, min);
+        return Arrays.copyOfRange(rowsByValue[column], from, from + count);
+    }
+}
@@ -0,0 +1,520 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+import model.PokemonType;
+import model.TypeChart;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Searches a collection for the teams with the best type coverage and base stats.
+ * <p>
+ * A team scores {@code coverageWeight} points for every type that at least one member's
+ * own types hit super effectively, the same for every attacking type that at least one
+ * member resists, plus the members' base stat totals. Each candidate's coverage is
+ * computed once from the {@link TypeChart} as two bit masks, so a team's coverage costs
+ * a few ORs and bit counts.
+ * <p>
+ * The search is branch-and-bound over the candidates sorted by stat total: a partial
+ * team is abandoned once an upper bound on every way of completing it, the coverage
+ * still reachable from the remaining candidates plus their best stat totals, falls below
+ * the worst of the top teams found so far. Candidates sharing a type combination with
+ * enough stronger ones can never make the top teams and are dropped up front, which
+ * keeps the search to a few hundred candidates however large the collection. Subtrees
+ * are split by first member across the {@link QueryExecutor} pool and share one pruning
+ * threshold, and a greedy team seeds that threshold before the search starts.
+ * <p>
+ * A time budget bounds the search. When it runs out, the best teams found so far are
+ * returned and the result reports that they may not be optimal.
+ */
+public class TeamOptimizer {
+    /**
+     * Number of Pokemon in a team.
+     */
+    public static final int TEAM_SIZE = 6;
+
+    /**
+     * Default points per covered type, comparable to a sixth of a typical stat total.
+     */
+    public static final int DEFAULT_COVERAGE_WEIGHT = 100;
+
+    // Nodes visited between looks at the clock
+    private static final int CHECK_INTERVAL = 1 << 12;
+
+    private final QueryExecutor executor;
+    private final int coverageWeight;
+
+    /**
+     * Creates an optimizer on the shared executor with the default coverage weight.
+     */
+    public TeamOptimizer() {
+        this(QueryExecutor.shared(), DEFAULT_COVERAGE_WEIGHT);
+    }
+
+    /**
+     * Creates an optimizer.
+     *
+     * @param executor the executor to split the search across
+     * @param coverageWeight the points per covered type
+     * @throws IllegalArgumentException if the executor is null or the weight is negative
+     */
+    public TeamOptimizer(QueryExecutor executor, int coverageWeight) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null");
+        }
+        if (coverageWeight < 0) {
+            throw new IllegalArgumentException("Coverage weight cannot be negative");
+        }
+        this.executor = executor;
+        this.coverageWeight = coverageWeight;
+    }
+
+    /**
+     * Finds the best teams of {@link #TEAM_SIZE} Pokemon.
+     *
+     * @param candidates the Pokemon to choose from
+     * @param topN the number of teams to return
+     * @param timeBudgetMillis the time after which the best teams found so far are returned
+     * @return the best teams found
+     */
+    public Result optimize(List<Pokemon> candidates, int topN, long timeBudgetMillis) {
+        return optimize(candidates, TEAM_SIZE, topN, timeBudgetMillis);
+    }
+
+    /**
+     * Finds the best teams of a given size. With fewer candidates than the team size,
+     * the only team holds all of them.
+     *
+     * @param candidates the Pokemon to choose from
+     * @param teamSize the number of Pokemon per team
+     * @param topN the number of teams to return
+     * @param timeBudgetMillis the time after which the best teams found so far are returned
+     * @return the best teams found, best first
+     * @throws IllegalArgumentException if candidates is null, team size or top N is less
+     *         than 1, or the time budget is negative
+     */
+    public Result optimize(List<Pokemon> candidates, int teamSize, int topN, long timeBudgetMillis) {
+        if (candidates == null) {
+            throw new IllegalArgumentException("Candidates cannot be null");
+        }
+        if (teamSize < 1 || topN < 1) {
+            throw new IllegalArgumentException("Team size and top N must be at least 1");
+        }
+        if (timeBudgetMillis < 0) {
+            throw new IllegalArgumentException("Time budget cannot be negative");
+        }
+        long start = System.nanoTime();
+        List<Pokemon> pruned = dropDominated(candidates, teamSize + topN - 1);
+        if (pruned.isEmpty()) {
+            return new Result(Collections.emptyList(), true, 0, 0);
+        }
+        Search search = new Search(pruned, Math.min(teamSize, pruned.size()), topN,
+                start + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis));
+        search.run();
+        return search.result();
+    }
+
+    /**
+     * Keeps the strongest Pokemon of every type combination, sorted by stat total.
+     * A team holding a weaker one can always swap it for one of at least {@code keep}
+     * stronger ones with the same types, so it is beaten by enough other teams not to
+     * matter.
+     */
+    private static List<Pokemon> dropDominated(List<Pokemon> candidates, int keep) {
+        List<Pokemon> sorted = new ArrayList<>(candidates);
+        sorted.removeIf(pokemon -> pokemon == null);
+        sorted.sort(Comparator.comparingInt(TeamOptimizer::statTotal).reversed());
+        Map<Integer, Integer> kept = new HashMap<>();
+        List<Pokemon> result = new ArrayList<>();
+        for (Pokemon pokemon : sorted) {
+            if (kept.merge(PokemonType.maskOf(pokemon.getTypes()), 1, Integer::sum) <= keep) {
+                result.add(pokemon);
+            }
+        }
+        return result;
+    }
+
+    private static int statTotal(Pokemon pokemon) {
+        return pokemon.getStats() == null ? 0 : PokemonStat.total(pokemon.getStats());
+    }
+
+    /**
+     * State of one search: the candidates as parallel arrays, the bounds derived from
+     * them, and the top teams shared by all workers.
+     */
+    private final class Search {
+        private final Pokemon[] pokemon;
+        private final int[] offense;
+        private final int[] defense;
+        private final int[] stats;
+        private final int[] suffixOffense;
+        private final int[] suffixDefense;
+        private final int[] maxOffenseBits;
+        private final int[] maxDefenseBits;
+        private final long[] statPrefix;
+        private final int size;
+        private final TopTeams top;
+        private final long deadline;
+        private final LongAdder nodes = new LongAdder();
+        private volatile boolean expired;
+
+        Search(List<Pokemon> candidates, int size, int topN, long deadline) {
+            int n = candidates.size();
+            this.pokemon = candidates.toArray(new Pokemon[0]);
+            this.offense = new int[n];
+            this.defense = new int[n];
+            this.stats = new int[n];
+            this.suffixOffense = new int[n + 1];
+            this.suffixDefense = new int[n + 1];
+            this.maxOffenseBits = new int[n + 1];
+            this.maxDefenseBits = new int[n + 1];
+            this.statPrefix = new long[n + 1];
+            this.size = size;
+            this.top = new TopTeams(topN);
+            this.deadline = deadline;
+            for (int i = 0; i < n; i++) {
+                int types = PokemonType.maskOf(pokemon[i].getTypes());
+                offense[i] = TypeChart.superEffectiveMask(types);
+                defense[i] = TypeChart.resistedMask(types);
+                stats[i] = statTotal(pokemon[i]);
+                statPrefix[i + 1] = statPrefix[i] + stats[i];
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                suffixOffense[i] = suffixOffense[i + 1] | offense[i];
+                suffixDefense[i] = suffixDefense[i + 1] | defense[i];
+                maxOffenseBits[i] = Math.max(maxOffenseBits[i + 1], Integer.bitCount(offense[i]));
+                maxDefenseBits[i] = Math.max(maxDefenseBits[i + 1], Integer.bitCount(defense[i]));
+            }
+        }
+
+        void run() {
+            seedGreedy();
+            int firstMembers = pokemon.length - size + 1;
+            if (executor.getParallelism() == 1 || firstMembers == 1) {
+                Walker walker = new Walker();
+                walker.walk(0, 0, 0, 0, 0);
+                nodes.add(walker.nodes);
+            } else {
+                executor.invoke(new FirstMemberTask(this, 0, firstMembers));
+            }
+        }
+
+        Result result() {
+            List<Team> teams = new ArrayList<>();
+            for (TopTeams.Entry entry : top.best()) {
+                List<Pokemon> members = new ArrayList<>(size);
+                int teamOffense = 0;
+                int teamDefense = 0;
+                int teamStats = 0;
+                for (int member : entry.members) {
+                    members.add(pokemon[member]);
+                    teamOffense |= offense[member];
+                    teamDefense |= defense[member];
+                    teamStats += stats[member];
+                }
+                teams.add(new Team(members, entry.score, teamOffense, teamDefense, teamStats));
+            }
+            return new Result(teams, !expired, nodes.sum(), pokemon.length);
+        }
+
+        long score(int teamOffense, int teamDefense, long teamStats) {
+            return (long) coverageWeight * (Integer.bitCount(teamOffense) + Integer.bitCount(teamDefense))
+                    + teamStats;
+        }
+
+        /**
+         * Bounds the score of any team completing a partial one with {@code remaining}
+         * candidates from {@code from} on. Never increases with {@code from}, since the
+         * candidates are sorted by stat total.
+         */
+        long bound(int from, int teamOffense, int teamDefense, long teamStats, int remaining) {
+            int offenseBits = Math.min(Integer.bitCount(teamOffense | suffixOffense[from]),
+                    Integer.bitCount(teamOffense) + remaining * maxOffenseBits[from]);
+            int defenseBits = Math.min(Integer.bitCount(teamDefense | suffixDefense[from]),
+                    Integer.bitCount(teamDefense) + remaining * maxDefenseBits[from]);
+            return (long) coverageWeight * (offenseBits + defenseBits)
+                    + teamStats + statPrefix[from + remaining] - statPrefix[from];
+        }
+
+        /**
+         * Builds a team by repeatedly adding the candidate that raises the score most.
+         */
+        private void seedGreedy() {
+            int[] members = new int[size];
+            boolean[] used = new boolean[pokemon.length];
+            int teamOffense = 0;
+            int teamDefense = 0;
+            long teamStats = 0;
+            for (int depth = 0; depth < size; depth++) {
+                int best = -1;
+                long bestScore = Long.MIN_VALUE;
+                for (int i = 0; i < pokemon.length; i++) {
+                    long score = score(teamOffense | offense[i], teamDefense | defense[i], teamStats + stats[i]);
+                    if (!used[i] && score > bestScore) {
+                        best = i;
+                        bestScore = score;
+                    }
+                }
+                used[best] = true;
+                members[depth] = best;
+                teamOffense |= offense[best];
+                teamDefense |= defense[best];
+                teamStats += stats[best];
+            }
+            Arrays.sort(members);
+            top.offer(score(teamOffense, teamDefense, teamStats), members);
+        }
+
+        /**
+         * Depth-first walk over teams in ascending candidate order. Not thread-safe; each
+         * worker has its own.
+         */
+        private final class Walker {
+            private final int[] members = new int[size];
+            private long nodes;
+            private boolean stopped;
+
+            void walk(int depth, int from, int teamOffense, int teamDefense, long teamStats) {
+                if (depth == size) {
+                    top.offer(score(teamOffense, teamDefense, teamStats), members);
+                    return;
+                }
+                int remaining = size - depth;
+                for (int i = from; i <= pokemon.length - remaining && !stopped; i++) {
+                    if ((++nodes & (CHECK_INTERVAL - 1)) == 0 && isExpired()) {
+                        stopped = true;
+                        return;
+                    }
+                    if (bound(i, teamOffense, teamDefense, teamStats, remaining) < top.threshold()) {
+                        break; // Later candidates bound no higher
+                    }
+                    members[depth] = i;
+                    walk(depth + 1, i + 1, teamOffense | offense[i], teamDefense | defense[i], teamStats + stats[i]);
+                }
+            }
+
+            void walkFrom(int first) {
+                if (isExpired() || bound(first, 0, 0, 0, size) < top.threshold()) {
+                    return;
+                }
+                members[0] = first;
+                nodes++;
+                walk(1, first + 1, offense[first], defense[first], stats[first]);
+            }
+
+            private boolean isExpired() {
+                if (!expired && System.nanoTime() - deadline > 0) {
+                    expired = true;
+                }
+                return expired;
+            }
+        }
+    }
+
+    /**
+     * Splits the range of first members in halves, walking each first member's subtree
+     * as one leaf task.
+     */
+    private static final class FirstMemberTask extends RecursiveAction {
+        private final Search search;
+        private final int from;
+        private final int to;
+
+        FirstMemberTask(Search search, int from, int to) {
+            this.search = search;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                Search.Walker walker = search.new Walker();
+                walker.walkFrom(from);
+                search.nodes.add(walker.nodes);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new FirstMemberTask(search, from, middle), new FirstMemberTask(search, middle, to));
+        }
+    }
+
+    /**
+     * The best teams found so far, shared by all workers. Offers below the threshold are
+     * rejected without locking.
+     */
+    private static final class TopTeams {
+        // Worst first: lowest score, then the later team in candidate order
+        private static final Comparator<Entry> WORST_FIRST = (a, b) -> {
+            int byScore = Long.compare(a.score, b.score);
+            return byScore != 0 ? byScore : Arrays.compare(b.members, a.members);
+        };
+
+        private final int capacity;
+        private final PriorityQueue<Entry> heap = new PriorityQueue<>(WORST_FIRST);
+        private volatile long threshold = Long.MIN_VALUE;
+
+        TopTeams(int capacity) {
+            this.capacity = capacity;
+        }
+
+        long threshold() {
+            return threshold;
+        }
+
+        void offer(long score, int[] members) {
+            if (score < threshold) {
+                return;
+            }
+            synchronized (this) {
+                Entry entry = new Entry(score, members.clone());
+                if (heap.size() == capacity && WORST_FIRST.compare(entry, heap.peek()) <= 0) {
+                    return;
+                }
+                for (Entry existing : heap) {
+                    if (Arrays.equals(existing.members, entry.members)) {
+                        return; // The greedy seed, found again by the walk
+                    }
+                }
+                heap.add(entry);
+                if (heap.size() > capacity) {
+                    heap.poll();
+                }
+                if (heap.size() == capacity) {
+                    threshold = heap.peek().score;
+                }
+            }
+        }
+
+        synchronized List<Entry> best() {
+            List<Entry> entries = new ArrayList<>(heap);
+            entries.sort(WORST_FIRST.reversed());
+            return entries;
+        }
+
+        private static final class Entry {
+            private final long score;
+            private final int[] members;
+
+            Entry(long score, int[] members) {
+                this.score = score;
+                this.members = members;
+            }
+        }
+    }
+
+    /**
+     * One team found by the optimizer.
+     */
+    public static final class Team {
+        private final List<Pokemon> members;
+        private final long score;
+        private final int offenseMask;
+        private final int defenseMask;
+        private final int statTotal;
+
+        Team(List<Pokemon> members, long score, int offenseMask, int defenseMask, int statTotal) {
+            this.members = Collections.unmodifiableList(members);
+            this.score = score;
+            this.offenseMask = offenseMask;
+            this.defenseMask = defenseMask;
+            this.statTotal = statTotal;
+        }
+
+        /**
+         * Returns the members, strongest first.
+         *
+         * @return the team's Pokemon
+         */
+        public List<Pokemon> getMembers() { return members; }
+
+        public long getScore() { return score; }
+
+        public int getStatTotal() { return statTotal; }
+
+        /**
+         * Returns the types at least one member's own types hit super effectively.
+         *
+         * @return the covered defending types in ordinal order
+         */
+        public List<PokemonType> getOffensiveCoverage() {
+            return PokemonType.fromMask(offenseMask);
+        }
+
+        /**
+         * Returns the attacking types at least one member resists or is immune to.
+         *
+         * @return the resisted attacking types in ordinal order
+         */
+        public List<PokemonType> getDefensiveCoverage() {
+            return PokemonType.fromMask(defenseMask);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder names = new StringBuilder();
+            for (Pokemon member : members) {
+                names.append(names.length() == 0 ? "" : ", ").append(member.getName());
+            }
+            return "Team{score=" + score + ", members=[" + names + "]}";
+        }
+    }
+
+    /**
+     * Outcome of one search.
+     */
+    public static final class Result {
+        private final List<Team> teams;
+        private final boolean complete;
+        private final long nodesVisited;
+        private final int candidates;
+
+        Result(List<Team> teams, boolean complete, long nodesVisited, int candidates) {
+            this.teams = Collections.unmodifiableList(teams);
+            this.complete = complete;
+            this.nodesVisited = nodesVisited;
+            this.candidates = candidates;
+        }
+
+        /**
+         * Returns the teams found, best first.
+         *
+         * @return the teams, at most the requested number
+         */
+        public List<Team> getTeams() { return teams; }
+
+        /**
+         * Tells whether the search finished within its time budget, so the teams are the
+         * best possible.
+         *
+         * @return false if the budget ran out first
+         */
+        public boolean isComplete() { return complete; }
+
+        public long getNodesVisited() { return nodesVisited; }
+
+        /**
+         * Returns the number of candidates left after dropping dominated ones.
+         *
+         * @return the number of candidates searched
+         */
+        public int getCandidates() { return candidates; }
+
+        @Override
+        public String toString() {
+            return "TeamOptimizer.Result{teams=" + teams.size() + ", complete=" + complete
+                    + ", nodes=" + nodesVisited + ", candidates=" + candidates + '}';
+        }
+    }
+}
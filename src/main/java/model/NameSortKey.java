@@ -0,0 +1,82 @@
+package model;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Builds byte-comparable sort keys for Pokemon names.
+ * <p>
+ * Comparing raw strings orders by UTF-16 code unit, which puts every capital before
+ * every lowercase letter, accented letters after "z", and "Nidoran♀" after "Nidorina".
+ * A sort key instead has three levels, like a collation key, compared one after the other:
+ * <ol>
+ *   <li>the letters and digits of the name, lowercased and without accents, so
+ *       "Flabébé" sorts with "flabebe" and "Type: Null" with "typenull";</li>
+ *   <li>the whole name lowercased, so accents, spaces and punctuation break ties;</li>
+ *   <li>the name itself, so case breaks the remaining ties.</li>
+ * </ol>
+ * Each level is UTF-8 encoded, which keeps code point order, and levels are separated by
+ * a zero byte, which no encoded character contains. Two keys therefore compare by
+ * {@link Arrays#compareUnsigned(byte[], byte[])} in name order, and equal keys mean equal
+ * names. Keys are computed once per name, after which a comparison is a byte array
+ * comparison that usually ends within the first few bytes.
+ */
+public final class NameSortKey {
+    private static final byte[] EMPTY = new byte[]{0, 0};
+
+    private NameSortKey() {
+    }
+
+    /**
+     * Computes the sort key of a name.
+     *
+     * @param name the name, or null, which sorts like an empty name
+     * @return the sort key
+     */
+    public static byte[] of(String name) {
+        if (name == null || name.isEmpty()) {
+            return EMPTY.clone();
+        }
+        String lowercase = name.toLowerCase(Locale.ROOT);
+        String decomposed = isAscii(lowercase) ? lowercase : Normalizer.normalize(lowercase, Normalizer.Form.NFD);
+        StringBuilder primary = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); ) {
+            int codePoint = decomposed.codePointAt(i);
+            if (Character.isLetterOrDigit(codePoint)) {
+                primary.appendCodePoint(codePoint);
+            }
+            i += Character.charCount(codePoint);
+        }
+
+        byte[] first = primary.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] second = lowercase.getBytes(StandardCharsets.UTF_8);
+        byte[] third = name.getBytes(StandardCharsets.UTF_8);
+        byte[] key = new byte[first.length + second.length + third.length + 2];
+        System.arraycopy(first, 0, key, 0, first.length);
+        System.arraycopy(second, 0, key, first.length + 1, second.length);
+        System.arraycopy(third, 0, key, first.length + second.length + 2, third.length);
+        return key;
+    }
+
+    /**
+     * Compares two sort keys.
+     *
+     * @param a the first key
+     * @param b the second key
+     * @return a negative, zero or positive value as a sorts before, with or after b
+     */
+    public static int compare(byte[] a, byte[] b) {
+        return Arrays.compareUnsigned(a, b);
+    }
+
+    private static boolean isAscii(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,467 @@
+package model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stores a Pokemon collection outside the Java heap so very large collections
+ * do not add millions of small objects for the garbage collector to trace.
+ * <p>
+ * Each Pokemon is packed into a fixed-width 32 byte record in a record area,
+ * while its name and image URL go into a separate variable-length area.
+ * Both areas are split into direct {@link ByteBuffer} chunks so the store can
+ * grow past the 2 GB limit of a single buffer. A primitive hash table from ID
+ * to row, two {@code int[]} arrays on the heap, makes ID lookups constant time.
+ * <p>
+ * Record layout (little endian):
+ * <pre>
+ *  0  int    id
+ *  4  byte   primary type ordinal
+ *  5  byte   secondary type ordinal, or -1 for none
+ *  6  short  name length in bytes, or -1 for a null name
+ *  8  short  hp, attack, defense, special attack, special defense, speed
+ * 20  short  image URL length in bytes, or -1 for a null URL
+ * 22  short  unused
+ * 24  long   offset of the name in the variable area, image URL follows it
+ * </pre>
+ * This class is not thread-safe.
+ */
+public class OffHeapPokemonStore {
+    static final int RECORD_SIZE = 32;
+    private static final int ID_OFFSET = 0;
+    private static final int TYPE1_OFFSET = 4;
+    private static final int TYPE2_OFFSET = 5;
+    private static final int NAME_LENGTH_OFFSET = 6;
+    private static final int STATS_OFFSET = 8;
+    private static final int URL_LENGTH_OFFSET = 20;
+    private static final int VAR_OFFSET = 24;
+
+    private static final int RECORDS_PER_CHUNK = 1 << 16;
+    private static final int MIN_ID_CAPACITY = 16;
+    private static final int VAR_CHUNK_SIZE = 1 << 22;
+    private static final byte NO_TYPE = -1;
+    private static final PokemonType[] TYPES = PokemonType.values();
+
+    private final List<ByteBuffer> recordChunks;
+    private final List<ByteBuffer> varChunks;
+    private int size;
+    private long varUsed;
+    private int[] idKeys;
+    private int[] idRows;
+    private int idMask;
+
+    /**
+     * Creates an empty store. Memory is allocated lazily as Pokemon are added.
+     */
+    public OffHeapPokemonStore() {
+        this.recordChunks = new ArrayList<>();
+        this.varChunks = new ArrayList<>();
+        allocateIds(MIN_ID_CAPACITY);
+    }
+
+    /**
+     * Appends a Pokemon to the store.
+     *
+     * @param pokemon the Pokemon to add
+     * @return the row index the Pokemon was stored at
+     * @throws IllegalArgumentException if the Pokemon is null, has no stats, more than two types
+     *         or a stat that does not fit in a short
+     */
+    public int add(Pokemon pokemon) {
+        if (pokemon == null || pokemon.getStats() == null) {
+            throw new IllegalArgumentException("Cannot store a null Pokemon or a Pokemon without stats");
+        }
+        List<PokemonType> types = pokemon.getTypes() == null ? List.of() : pokemon.getTypes();
+        if (types.size() > 2) {
+            throw new IllegalArgumentException("A stored Pokemon can have at most two types");
+        }
+        Pokemon.PokemonStats stats = pokemon.getStats();
+        for (PokemonStat stat : PokemonStat.values()) {
+            int value = stat.of(stats);
+            if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                throw new IllegalArgumentException(stat + " " + value + " is out of range to store");
+            }
+        }
+
+        byte[] name = encode(pokemon.getName());
+        byte[] url = encode(pokemon.getImageUrl());
+        long varOffset = appendVariable(name, url);
+
+        int row = size;
+        if (row / RECORDS_PER_CHUNK == recordChunks.size()) {
+            recordChunks.add(allocate(RECORDS_PER_CHUNK * RECORD_SIZE));
+        }
+        ByteBuffer chunk = recordChunks.get(row / RECORDS_PER_CHUNK);
+        int base = (row % RECORDS_PER_CHUNK) * RECORD_SIZE;
+
+        chunk.putInt(base + ID_OFFSET, pokemon.getId());
+        chunk.put(base + TYPE1_OFFSET, types.isEmpty() ? NO_TYPE : (byte) types.get(0).ordinal());
+        chunk.put(base + TYPE2_OFFSET, types.size() < 2 ? NO_TYPE : (byte) types.get(1).ordinal());
+        chunk.putShort(base + NAME_LENGTH_OFFSET, storedLength(pokemon.getName(), name));
+        for (PokemonStat stat : PokemonStat.values()) {
+            chunk.putShort(base + STATS_OFFSET + stat.ordinal() * 2, (short) stat.of(stats));
+        }
+        chunk.putShort(base + URL_LENGTH_OFFSET, storedLength(pokemon.getImageUrl(), url));
+        chunk.putLong(base + VAR_OFFSET, varOffset);
+
+        indexId(pokemon.getId(), row);
+        size++;
+        return row;
+    }
+
+    /**
+     * Appends every Pokemon in a collection to the store.
+     *
+     * @param collection the Pokemon to add
+     */
+    public void addAll(Collection<Pokemon> collection) {
+        for (Pokemon pokemon : collection) {
+            add(pokemon);
+        }
+    }
+
+    /**
+     * Returns the number of stored Pokemon.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Reads the ID of a row without materializing the Pokemon.
+     *
+     * @param row the row index
+     * @return the Pokemon ID
+     */
+    public int getId(int row) {
+        checkRow(row);
+        return recordChunk(row).getInt(recordBase(row) + ID_OFFSET);
+    }
+
+    /**
+     * Reads a single stat of a row without materializing the Pokemon.
+     *
+     * @param row the row index
+     * @param stat the stat to read
+     * @return the stat value
+     */
+    public int getStat(int row, PokemonStat stat) {
+        checkRow(row);
+        return recordChunk(row).getShort(recordBase(row) + STATS_OFFSET + stat.ordinal() * 2);
+    }
+
+    /**
+     * Checks whether a row has the given type without materializing the Pokemon.
+     *
+     * @param row the row index
+     * @param type the type to check
+     * @return true if the Pokemon at that row has the type
+     */
+    public boolean hasType(int row, PokemonType type) {
+        checkRow(row);
+        ByteBuffer chunk = recordChunk(row);
+        int base = recordBase(row);
+        byte ordinal = (byte) type.ordinal();
+        return chunk.get(base + TYPE1_OFFSET) == ordinal || chunk.get(base + TYPE2_OFFSET) == ordinal;
+    }
+
+    /**
+     * Materializes the Pokemon stored at a row as a regular heap object.
+     *
+     * @param row the row index
+     * @return a new Pokemon with the stored values
+     */
+    public Pokemon get(int row) {
+        checkRow(row);
+        ByteBuffer chunk = recordChunk(row);
+        int base = recordBase(row);
+
+        List<PokemonType> types = new ArrayList<>(2);
+        byte type1 = chunk.get(base + TYPE1_OFFSET);
+        byte type2 = chunk.get(base + TYPE2_OFFSET);
+        if (type1 != NO_TYPE) {
+            types.add(TYPES[type1]);
+        }
+        if (type2 != NO_TYPE) {
+            types.add(TYPES[type2]);
+        }
+
+        int[] values = new int[PokemonStat.values().length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = chunk.getShort(base + STATS_OFFSET + i * 2);
+        }
+        Pokemon.PokemonStats stats = new Pokemon.PokemonStats(
+                values[0], values[1], values[2], values[3], values[4], values[5]);
+
+        int nameLength = chunk.getShort(base + NAME_LENGTH_OFFSET);
+        int urlLength = chunk.getShort(base + URL_LENGTH_OFFSET);
+        long varOffset = chunk.getLong(base + VAR_OFFSET);
+        String name = decode(varOffset, nameLength);
+        String url = decode(varOffset + Math.max(0, nameLength), urlLength);
+
+        return new Pokemon(chunk.getInt(base + ID_OFFSET), name, url, types, stats);
+    }
+
+    /**
+     * Finds a Pokemon by its ID.
+     *
+     * @param id the Pokemon ID
+     * @return the Pokemon with the specified ID, or null if not found
+     */
+    public Pokemon findById(int id) {
+        int row = indexOfId(id);
+        return row < 0 ? null : get(row);
+    }
+
+    /**
+     * Finds the row holding a Pokemon ID. When IDs repeat, the first row wins.
+     *
+     * @param id the Pokemon ID
+     * @return the row index, or -1 if not found
+     */
+    public int indexOfId(int id) {
+        int slot = hashId(id) & idMask;
+        while (idRows[slot] != 0) {
+            if (idKeys[slot] == id) {
+                return idRows[slot] - 1;
+            }
+            slot = (slot + 1) & idMask;
+        }
+        return -1;
+    }
+
+    /**
+     * Searches Pokemon by name, case-insensitively for ASCII letters.
+     * Names are compared in place as bytes, so only matching rows are materialized.
+     *
+     * @param searchTerm the name fragment to search for
+     * @return list of Pokemon whose name contains the search term
+     */
+    public List<Pokemon> searchByName(String searchTerm) {
+        if (searchTerm == null || searchTerm.isEmpty()) {
+            return toList();
+        }
+        byte[] term = encode(searchTerm);
+        for (int i = 0; i < term.length; i++) {
+            term[i] = lowerAscii(term[i]);
+        }
+
+        List<Pokemon> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            ByteBuffer chunk = recordChunk(row);
+            int base = recordBase(row);
+            int nameLength = Math.max(0, chunk.getShort(base + NAME_LENGTH_OFFSET));
+            if (nameContains(chunk.getLong(base + VAR_OFFSET), nameLength, term)) {
+                result.add(get(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Filters Pokemon by type by scanning the type columns.
+     *
+     * @param type the type to filter by, or null for all Pokemon
+     * @return list of Pokemon of the specified type
+     */
+    public List<Pokemon> filterByType(PokemonType type) {
+        if (type == null) {
+            return toList();
+        }
+        List<Pokemon> result = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            if (hasType(row, type)) {
+                result.add(get(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Materializes the whole store as a heap list.
+     *
+     * @return list of all stored Pokemon in row order
+     */
+    public List<Pokemon> toList() {
+        List<Pokemon> result = new ArrayList<>(size);
+        for (int row = 0; row < size; row++) {
+            result.add(get(row));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of off-heap bytes reserved by the store.
+     *
+     * @return the reserved capacity in bytes
+     */
+    public long getReservedBytes() {
+        return (long) recordChunks.size() * RECORDS_PER_CHUNK * RECORD_SIZE
+                + (long) varChunks.size() * VAR_CHUNK_SIZE;
+    }
+
+    /**
+     * Drops all rows and releases the buffers to the garbage collector.
+     */
+    public void clear() {
+        recordChunks.clear();
+        varChunks.clear();
+        size = 0;
+        varUsed = 0;
+        allocateIds(MIN_ID_CAPACITY);
+    }
+
+    /**
+     * Appends a name and URL to the variable area, starting a new chunk if they do not fit.
+     *
+     * @param name the encoded name
+     * @param url the encoded image URL
+     * @return the offset of the name in the variable area
+     */
+    private long appendVariable(byte[] name, byte[] url) {
+        int length = name.length + url.length;
+        if (length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Name and image URL are too long to store");
+        }
+        long chunkStart = varChunks.size() * (long) VAR_CHUNK_SIZE;
+        if (varChunks.isEmpty() || varUsed + length > chunkStart) {
+            varChunks.add(allocate(VAR_CHUNK_SIZE));
+            varUsed = chunkStart;
+        }
+        ByteBuffer chunk = varChunks.get(varChunks.size() - 1);
+        int position = (int) (varUsed % VAR_CHUNK_SIZE);
+        chunk.put(position, name);
+        chunk.put(position + name.length, url);
+        long offset = varUsed;
+        varUsed += length;
+        return offset;
+    }
+
+    /**
+     * Compares the term against every position of a stored name.
+     *
+     * @param offset the offset of the name in the variable area
+     * @param length the name length in bytes
+     * @param term the lowercase term bytes
+     * @return true if the name contains the term
+     */
+    private boolean nameContains(long offset, int length, byte[] term) {
+        ByteBuffer chunk = varChunks.get((int) (offset / VAR_CHUNK_SIZE));
+        int start = (int) (offset % VAR_CHUNK_SIZE);
+        for (int i = 0; i <= length - term.length; i++) {
+            int j = 0;
+            while (j < term.length && lowerAscii(chunk.get(start + i + j)) == term[j]) {
+                j++;
+            }
+            if (j == term.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads a string back from the variable area.
+     *
+     * @param offset the offset of the string in the variable area
+     * @param length the stored length, -1 for a null string
+     * @return the decoded string, or null if it was stored as null
+     */
+    private String decode(long offset, int length) {
+        if (length < 0) {
+            return null;
+        }
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        varChunks.get((int) (offset / VAR_CHUNK_SIZE)).get((int) (offset % VAR_CHUNK_SIZE), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps an ID to its row unless the ID is already indexed, growing the table
+     * to keep it at most half full.
+     *
+     * @param id the Pokemon ID
+     * @param row the row the Pokemon was stored at
+     */
+    private void indexId(int id, int row) {
+        if ((size + 1) * 2 > idKeys.length) {
+            int[] oldKeys = idKeys;
+            int[] oldRows = idRows;
+            allocateIds(idKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldRows[i] != 0) {
+                    insertId(oldKeys[i], oldRows[i]);
+                }
+            }
+        }
+        insertId(id, row + 1);
+    }
+
+    /**
+     * Inserts an ID with linear probing. Rows are stored plus one so zero marks an empty slot.
+     *
+     * @param id the Pokemon ID
+     * @param storedRow the row plus one
+     */
+    private void insertId(int id, int storedRow) {
+        int slot = hashId(id) & idMask;
+        while (idRows[slot] != 0) {
+            if (idKeys[slot] == id) {
+                return;
+            }
+            slot = (slot + 1) & idMask;
+        }
+        idKeys[slot] = id;
+        idRows[slot] = storedRow;
+    }
+
+    private void allocateIds(int capacity) {
+        idKeys = new int[capacity];
+        idRows = new int[capacity];
+        idMask = capacity - 1;
+    }
+
+    private static int hashId(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private ByteBuffer recordChunk(int row) {
+        return recordChunks.get(row / RECORDS_PER_CHUNK);
+    }
+
+    private static int recordBase(int row) {
+        return (row % RECORDS_PER_CHUNK) * RECORD_SIZE;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " out of bounds for size " + size);
+        }
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static short storedLength(String value, byte[] bytes) {
+        return value == null ? -1 : (short) bytes.length;
+    }
+
+    private static byte[] encode(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte lowerAscii(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+}
@@ -13,6 +13,7 @@ public class Pokemon implements IPokemon, Serializable {
     private String imageUrl;
     private List<PokemonType> types;
     private PokemonStats stats;
+    private transient volatile byte[] nameSortKey; // Computed on first use, reset by setName
 
     /**
      * Nested Stats Class to represent Pokemon's base stats
@@ -122,11 +123,29 @@ public class Pokemon implements IPokemon, Serializable {
 
     // Setters for Jackson deserialization
     public void setId(int id) { this.id = id; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) {
+        this.name = name;
+        this.nameSortKey = null;
+    }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
     public void setTypes(List<PokemonType> types) { this.types = types; }
     public void setStats(PokemonStats stats) { this.stats = stats; }
 
+    /**
+     * Returns the key this Pokemon sorts by when sorting by name, computed once and cached.
+     * Not a bean property, so it is not serialized.
+     *
+     * @return the {@link NameSortKey} of the name; must not be modified
+     */
+    public byte[] nameSortKey() {
+        byte[] key = nameSortKey;
+        if (key == null) {
+            key = NameSortKey.of(name);
+            nameSortKey = key;
+        }
+        return key;
+    }
+
     /**
      * Returns a formatted string representation of the Pokemon.
      * Used for display in UI components.
@@ -0,0 +1,268 @@
+package model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic generator of synthetic Pokemon for scale testing.
+ * <p>
+ * Every Pokemon is derived only from the seed and its ID, so the same seed always
+ * produces the same dex whether it is built in memory, streamed or written to disk.
+ * Names are built from syllables with a skewed (Zipf-like) distribution, types follow
+ * the rough frequencies of the real games with common dual-type pairs, and stats are
+ * spread around a normally distributed base stat total.
+ */
+public class PokemonGenerator {
+    private static final String SPRITE_BASE_URL =
+            "https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/";
+    private static final int REAL_SPRITE_COUNT = 1025;
+
+    private static final String[] SYLLABLES = {
+        "char", "bul", "pi", "saur", "ka", "chu", "mander", "squir", "tle", "eon",
+        "mon", "ra", "zu", "dra", "gon", "lo", "ti", "mew", "bat", "gar",
+        "dos", "ly", "x", "pid", "gey", "rat", "tata", "spear", "row", "ek",
+        "an", "sand", "shrew", "ni", "do", "ran", "cle", "fa", "ry", "vul",
+        "pix", "jig", "puff", "bell", "gol", "odd", "ish", "pa", "ras", "ven",
+        "nat", "dig", "lett", "meo", "wth", "psy", "duck", "mank", "ey", "grow"
+    };
+
+    // Relative weights for primary types, roughly following the real games
+    private static final PokemonType[] TYPES = PokemonType.values();
+    private static final int[] PRIMARY_TYPE_WEIGHTS = {
+        // NORMAL FIRE WATER ELECTRIC GRASS ICE FIGHTING POISON GROUND
+        11, 6, 13, 5, 9, 3, 4, 4, 4,
+        // FLYING PSYCHIC BUG ROCK GHOST DRAGON DARK STEEL FAIRY
+        1, 6, 8, 5, 3, 3, 4, 3, 3
+    };
+
+    // Common dual-type pairings, picked as a whole for most dual-type Pokemon
+    private static final PokemonType[][] COMMON_PAIRS = {
+        {PokemonType.NORMAL, PokemonType.FLYING},
+        {PokemonType.GRASS, PokemonType.POISON},
+        {PokemonType.BUG, PokemonType.FLYING},
+        {PokemonType.BUG, PokemonType.POISON},
+        {PokemonType.WATER, PokemonType.GROUND},
+        {PokemonType.ROCK, PokemonType.GROUND},
+        {PokemonType.PSYCHIC, PokemonType.FAIRY},
+        {PokemonType.STEEL, PokemonType.PSYCHIC},
+        {PokemonType.FIRE, PokemonType.FLYING},
+        {PokemonType.DRAGON, PokemonType.FLYING},
+        {PokemonType.WATER, PokemonType.FLYING},
+        {PokemonType.GHOST, PokemonType.POISON}
+    };
+
+    private static final double DUAL_TYPE_CHANCE = 0.5;
+    private static final double COMMON_PAIR_CHANCE = 0.6;
+    private static final double MEAN_BASE_STAT_TOTAL = 420;
+    private static final double BASE_STAT_TOTAL_DEVIATION = 100;
+    private static final int MIN_BASE_STAT_TOTAL = 180;
+    private static final int MAX_BASE_STAT_TOTAL = 720;
+
+    private final long seed;
+    private final int primaryWeightTotal;
+
+    /**
+     * Creates a generator with the given seed.
+     *
+     * @param seed the seed that determines the whole generated dex
+     */
+    public PokemonGenerator(long seed) {
+        this.seed = seed;
+        int total = 0;
+        for (int weight : PRIMARY_TYPE_WEIGHTS) {
+            total += weight;
+        }
+        this.primaryWeightTotal = total;
+    }
+
+    /**
+     * Generates the Pokemon with the given ID. The result depends only on the seed and the ID.
+     *
+     * @param id the Pokemon ID
+     * @return the generated Pokemon
+     */
+    public Pokemon generatePokemon(int id) {
+        SplittableRandom random = new SplittableRandom(mix(seed, id));
+        String name = generateName(random);
+        List<PokemonType> types = generateTypes(random);
+        Pokemon.PokemonStats stats = generateStats(random);
+        String imageUrl = SPRITE_BASE_URL + ((id - 1) % REAL_SPRITE_COUNT + 1) + ".png";
+        return new Pokemon(id, name, imageUrl, types, stats);
+    }
+
+    /**
+     * Generates a dex of Pokemon with IDs 1 to count in memory.
+     *
+     * @param count the number of Pokemon to generate
+     * @return list of generated Pokemon
+     * @throws IllegalArgumentException if count is negative
+     */
+    public List<Pokemon> generate(int count) {
+        checkCount(count);
+        List<Pokemon> result = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            result.add(generatePokemon(id));
+        }
+        return result;
+    }
+
+    /**
+     * Lazily streams a dex of Pokemon with IDs 1 to count without holding them all in memory.
+     *
+     * @param count the number of Pokemon to generate
+     * @return a sequential stream of generated Pokemon
+     * @throws IllegalArgumentException if count is negative
+     */
+    public Stream<Pokemon> stream(int count) {
+        checkCount(count);
+        return IntStream.rangeClosed(1, count).mapToObj(this::generatePokemon);
+    }
+
+    /**
+     * Streams a generated dex straight to a JSON collection file, one Pokemon at a time.
+     * The file has the same format as {@link IPokemonModel#saveCollection(List, String)},
+     * so it can be read back with {@link IPokemonModel#loadCollection(String)}.
+     *
+     * @param count the number of Pokemon to generate
+     * @param filename the file to write to; ".json" is appended if missing
+     * @throws IOException if an I/O error occurs
+     * @throws IllegalArgumentException if count is negative or the filename is invalid
+     */
+    public void writeCollection(int count, String filename) throws IOException {
+        checkCount(count);
+        if (filename == null || filename.trim().isEmpty()) {
+            throw new IllegalArgumentException("Filename cannot be null or empty");
+        }
+        String formattedFilename = filename.endsWith(".json") ? filename : filename + ".json";
+
+        // Flushing after every value would turn each Pokemon into its own write call;
+        // the sequence writer flushes once when it closes the array
+        ObjectWriter writer = new ObjectMapper().writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (SequenceWriter sequence = writer.writeValuesAsArray(new File(formattedFilename))) {
+            for (int id = 1; id <= count; id++) {
+                sequence.write(generatePokemon(id));
+            }
+        }
+    }
+
+    /**
+     * Builds a name from two to four syllables picked with a skewed distribution,
+     * so a few syllables are very common and most are rare, as in real names.
+     *
+     * @param random the per-Pokemon random source
+     * @return the generated lowercase name
+     */
+    private String generateName(SplittableRandom random) {
+        int syllableCount = 2 + random.nextInt(3);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < syllableCount; i++) {
+            // Squaring a uniform value biases the index toward the front of the table
+            double skewed = random.nextDouble();
+            name.append(SYLLABLES[(int) (skewed * skewed * SYLLABLES.length)]);
+        }
+        return name.toString();
+    }
+
+    /**
+     * Picks either one of the common dual-type pairings, or a weighted primary type
+     * with an optional random secondary type.
+     *
+     * @param random the per-Pokemon random source
+     * @return one or two distinct types
+     */
+    private List<PokemonType> generateTypes(SplittableRandom random) {
+        List<PokemonType> types = new ArrayList<>(2);
+        if (random.nextDouble() < DUAL_TYPE_CHANCE && random.nextDouble() < COMMON_PAIR_CHANCE) {
+            PokemonType[] pair = COMMON_PAIRS[random.nextInt(COMMON_PAIRS.length)];
+            types.add(pair[0]);
+            types.add(pair[1]);
+            return types;
+        }
+
+        int pick = random.nextInt(primaryWeightTotal);
+        int index = 0;
+        while (pick >= PRIMARY_TYPE_WEIGHTS[index]) {
+            pick -= PRIMARY_TYPE_WEIGHTS[index];
+            index++;
+        }
+        types.add(TYPES[index]);
+
+        if (random.nextDouble() < DUAL_TYPE_CHANCE) {
+            PokemonType secondary = TYPES[random.nextInt(TYPES.length)];
+            if (secondary != types.get(0)) {
+                types.add(secondary);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Draws a base stat total from a clamped normal distribution and splits it
+     * across the six stats with random weights.
+     *
+     * @param random the per-Pokemon random source
+     * @return the generated stats, each between 1 and 255
+     */
+    private Pokemon.PokemonStats generateStats(SplittableRandom random) {
+        double gaussian = nextGaussian(random);
+        int total = (int) Math.round(MEAN_BASE_STAT_TOTAL + gaussian * BASE_STAT_TOTAL_DEVIATION);
+        total = Math.max(MIN_BASE_STAT_TOTAL, Math.min(MAX_BASE_STAT_TOTAL, total));
+
+        double[] weights = new double[6];
+        double weightSum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = 0.5 + random.nextDouble();
+            weightSum += weights[i];
+        }
+
+        int[] values = new int[6];
+        for (int i = 0; i < values.length; i++) {
+            int value = (int) Math.round(total * weights[i] / weightSum);
+            values[i] = Math.max(1, Math.min(PokemonStat.MAX_VALUE, value));
+        }
+        return new Pokemon.PokemonStats(values[0], values[1], values[2], values[3], values[4], values[5]);
+    }
+
+    /**
+     * Draws a standard normal value using the Box-Muller transform.
+     *
+     * @param random the per-Pokemon random source
+     * @return a normally distributed value
+     */
+    private static double nextGaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    /**
+     * Mixes the seed and ID into a well-distributed per-Pokemon seed.
+     *
+     * @param seed the generator seed
+     * @param id the Pokemon ID
+     * @return the mixed seed
+     */
+    private static long mix(long seed, int id) {
+        long z = seed + id * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static void checkCount(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count cannot be negative");
+        }
+    }
+}
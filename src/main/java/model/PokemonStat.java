@@ -0,0 +1,64 @@
+package model;
+
+/**
+ * Enumerates the six base stats of a Pokemon in the same order as {@link Pokemon.PokemonStats}.
+ * Lets indexes, stores and queries address a stat column without a getter lambda per stat.
+ */
+public enum PokemonStat {
+    HP("HP"),
+    ATTACK("Attack"),
+    DEFENSE("Defense"),
+    SPECIAL_ATTACK("Special Attack"),
+    SPECIAL_DEFENSE("Special Defense"),
+    SPEED("Speed");
+
+    /**
+     * Highest value a single base stat can take in the games.
+     */
+    public static final int MAX_VALUE = 255;
+
+    private final String label;
+
+    PokemonStat(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Reads this stat from a stats object.
+     *
+     * @param stats the stats to read from
+     * @return the value of this stat
+     */
+    public int of(Pokemon.PokemonStats stats) {
+        switch (this) {
+            case HP:
+                return stats.getHp();
+            case ATTACK:
+                return stats.getAttack();
+            case DEFENSE:
+                return stats.getDefense();
+            case SPECIAL_ATTACK:
+                return stats.getSpecialAttack();
+            case SPECIAL_DEFENSE:
+                return stats.getSpecialDefense();
+            default:
+                return stats.getSpeed();
+        }
+    }
+
+    /**
+     * Computes the base stat total of a stats object.
+     *
+     * @param stats the stats to sum
+     * @return the sum of all six base stats
+     */
+    public static int total(Pokemon.PokemonStats stats) {
+        return stats.getHp() + stats.getAttack() + stats.getDefense()
+                + stats.getSpecialAttack() + stats.getSpecialDefense() + stats.getSpeed();
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -1,5 +1,8 @@
 package model;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public enum PokemonType {
     NORMAL, FIRE, WATER, ELECTRIC, GRASS, ICE, FIGHTING, POISON, GROUND,
     FLYING, PSYCHIC, BUG, ROCK, GHOST, DRAGON, DARK, STEEL, FAIRY;
@@ -7,4 +10,46 @@ public enum PokemonType {
     public static PokemonType fromApiName(String apiName) {
         return valueOf(apiName.toUpperCase());
     }
+
+    /**
+     * Returns the single-bit mask of this type, keyed by ordinal.
+     *
+     * @return the bit mask of this type
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Packs a list of types into a bit mask keyed by ordinal.
+     *
+     * @param types the types to pack, may be null
+     * @return the combined bit mask
+     */
+    public static int maskOf(List<PokemonType> types) {
+        int mask = 0;
+        if (types != null) {
+            for (PokemonType type : types) {
+                mask |= type.mask();
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Unpacks a bit mask produced by {@link #maskOf(List)} back into a list of types.
+     *
+     * @param mask the bit mask
+     * @return the types in ordinal order
+     */
+    public static List<PokemonType> fromMask(int mask) {
+        PokemonType[] all = values();
+        List<PokemonType> types = new ArrayList<>(Integer.bitCount(mask));
+        for (int i = 0; i < all.length; i++) {
+            if ((mask & (1 << i)) != 0) {
+                types.add(all[i]);
+            }
+        }
+        return types;
+    }
 }
@@ -0,0 +1,169 @@
+package model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Type effectiveness chart of the current games, stored as an 18x18 byte matrix keyed by
+ * {@link PokemonType} ordinals, attacker first.
+ * <p>
+ * Multipliers are kept doubled so they fit in a byte: 0 for no effect, 1 for not very
+ * effective, 2 for neutral and 4 for super effective. Against a dual-typed defender the
+ * two entries multiply, so a doubled pair compares against {@code NEUTRAL * NEUTRAL}.
+ * The per-type super effective sets are also precomputed as bit masks in the format of
+ * {@link PokemonType#maskOf(List)}, so coverage of a whole team is a handful of ORs.
+ */
+public final class TypeChart {
+    /** Doubled multiplier of an attack with no effect. */
+    public static final byte NO_EFFECT = 0;
+    /** Doubled multiplier of a not very effective attack. */
+    public static final byte NOT_VERY_EFFECTIVE = 1;
+    /** Doubled multiplier of a neutral attack. */
+    public static final byte NEUTRAL = 2;
+    /** Doubled multiplier of a super effective attack. */
+    public static final byte SUPER_EFFECTIVE = 4;
+
+    private static final int SIZE = PokemonType.values().length;
+    private static final byte[] CHART = new byte[SIZE * SIZE];
+    private static final int[] SUPER_EFFECTIVE_MASKS = new int[SIZE];
+
+    static {
+        Arrays.fill(CHART, NEUTRAL);
+        set(PokemonType.NORMAL, NOT_VERY_EFFECTIVE, PokemonType.ROCK, PokemonType.STEEL);
+        set(PokemonType.NORMAL, NO_EFFECT, PokemonType.GHOST);
+        set(PokemonType.FIRE, SUPER_EFFECTIVE, PokemonType.GRASS, PokemonType.ICE, PokemonType.BUG, PokemonType.STEEL);
+        set(PokemonType.FIRE, NOT_VERY_EFFECTIVE,
+                PokemonType.FIRE, PokemonType.WATER, PokemonType.ROCK, PokemonType.DRAGON);
+        set(PokemonType.WATER, SUPER_EFFECTIVE, PokemonType.FIRE, PokemonType.GROUND, PokemonType.ROCK);
+        set(PokemonType.WATER, NOT_VERY_EFFECTIVE, PokemonType.WATER, PokemonType.GRASS, PokemonType.DRAGON);
+        set(PokemonType.ELECTRIC, SUPER_EFFECTIVE, PokemonType.WATER, PokemonType.FLYING);
+        set(PokemonType.ELECTRIC, NOT_VERY_EFFECTIVE, PokemonType.ELECTRIC, PokemonType.GRASS, PokemonType.DRAGON);
+        set(PokemonType.ELECTRIC, NO_EFFECT, PokemonType.GROUND);
+        set(PokemonType.GRASS, SUPER_EFFECTIVE, PokemonType.WATER, PokemonType.GROUND, PokemonType.ROCK);
+        set(PokemonType.GRASS, NOT_VERY_EFFECTIVE, PokemonType.FIRE, PokemonType.GRASS, PokemonType.POISON,
+                PokemonType.FLYING, PokemonType.BUG, PokemonType.DRAGON, PokemonType.STEEL);
+        set(PokemonType.ICE, SUPER_EFFECTIVE,
+                PokemonType.GRASS, PokemonType.GROUND, PokemonType.FLYING, PokemonType.DRAGON);
+        set(PokemonType.ICE, NOT_VERY_EFFECTIVE,
+                PokemonType.FIRE, PokemonType.WATER, PokemonType.ICE, PokemonType.STEEL);
+        set(PokemonType.FIGHTING, SUPER_EFFECTIVE, PokemonType.NORMAL, PokemonType.ICE, PokemonType.ROCK,
+                PokemonType.DARK, PokemonType.STEEL);
+        set(PokemonType.FIGHTING, NOT_VERY_EFFECTIVE, PokemonType.POISON, PokemonType.FLYING,
+                PokemonType.PSYCHIC, PokemonType.BUG, PokemonType.FAIRY);
+        set(PokemonType.FIGHTING, NO_EFFECT, PokemonType.GHOST);
+        set(PokemonType.POISON, SUPER_EFFECTIVE, PokemonType.GRASS, PokemonType.FAIRY);
+        set(PokemonType.POISON, NOT_VERY_EFFECTIVE,
+                PokemonType.POISON, PokemonType.GROUND, PokemonType.ROCK, PokemonType.GHOST);
+        set(PokemonType.POISON, NO_EFFECT, PokemonType.STEEL);
+        set(PokemonType.GROUND, SUPER_EFFECTIVE, PokemonType.FIRE, PokemonType.ELECTRIC, PokemonType.POISON,
+                PokemonType.ROCK, PokemonType.STEEL);
+        set(PokemonType.GROUND, NOT_VERY_EFFECTIVE, PokemonType.GRASS, PokemonType.BUG);
+        set(PokemonType.GROUND, NO_EFFECT, PokemonType.FLYING);
+        set(PokemonType.FLYING, SUPER_EFFECTIVE, PokemonType.GRASS, PokemonType.FIGHTING, PokemonType.BUG);
+        set(PokemonType.FLYING, NOT_VERY_EFFECTIVE, PokemonType.ELECTRIC, PokemonType.ROCK, PokemonType.STEEL);
+        set(PokemonType.PSYCHIC, SUPER_EFFECTIVE, PokemonType.FIGHTING, PokemonType.POISON);
+        set(PokemonType.PSYCHIC, NOT_VERY_EFFECTIVE, PokemonType.PSYCHIC, PokemonType.STEEL);
+        set(PokemonType.PSYCHIC, NO_EFFECT, PokemonType.DARK);
+        set(PokemonType.BUG, SUPER_EFFECTIVE, PokemonType.GRASS, PokemonType.PSYCHIC, PokemonType.DARK);
+        set(PokemonType.BUG, NOT_VERY_EFFECTIVE, PokemonType.FIRE, PokemonType.FIGHTING, PokemonType.POISON,
+                PokemonType.FLYING, PokemonType.GHOST, PokemonType.STEEL, PokemonType.FAIRY);
+        set(PokemonType.ROCK, SUPER_EFFECTIVE, PokemonType.FIRE, PokemonType.ICE, PokemonType.FLYING, PokemonType.BUG);
+        set(PokemonType.ROCK, NOT_VERY_EFFECTIVE, PokemonType.FIGHTING, PokemonType.GROUND, PokemonType.STEEL);
+        set(PokemonType.GHOST, SUPER_EFFECTIVE, PokemonType.PSYCHIC, PokemonType.GHOST);
+        set(PokemonType.GHOST, NOT_VERY_EFFECTIVE, PokemonType.DARK);
+        set(PokemonType.GHOST, NO_EFFECT, PokemonType.NORMAL);
+        set(PokemonType.DRAGON, SUPER_EFFECTIVE, PokemonType.DRAGON);
+        set(PokemonType.DRAGON, NOT_VERY_EFFECTIVE, PokemonType.STEEL);
+        set(PokemonType.DRAGON, NO_EFFECT, PokemonType.FAIRY);
+        set(PokemonType.DARK, SUPER_EFFECTIVE, PokemonType.PSYCHIC, PokemonType.GHOST);
+        set(PokemonType.DARK, NOT_VERY_EFFECTIVE, PokemonType.FIGHTING, PokemonType.DARK, PokemonType.FAIRY);
+        set(PokemonType.STEEL, SUPER_EFFECTIVE, PokemonType.ICE, PokemonType.ROCK, PokemonType.FAIRY);
+        set(PokemonType.STEEL, NOT_VERY_EFFECTIVE,
+                PokemonType.FIRE, PokemonType.WATER, PokemonType.ELECTRIC, PokemonType.STEEL);
+        set(PokemonType.FAIRY, SUPER_EFFECTIVE, PokemonType.FIGHTING, PokemonType.DRAGON, PokemonType.DARK);
+        set(PokemonType.FAIRY, NOT_VERY_EFFECTIVE, PokemonType.FIRE, PokemonType.POISON, PokemonType.STEEL);
+
+        for (int attacker = 0; attacker < SIZE; attacker++) {
+            for (int defender = 0; defender < SIZE; defender++) {
+                if (CHART[attacker * SIZE + defender] == SUPER_EFFECTIVE) {
+                    SUPER_EFFECTIVE_MASKS[attacker] |= 1 << defender;
+                }
+            }
+        }
+    }
+
+    private TypeChart() {
+    }
+
+    private static void set(PokemonType attacker, byte multiplier, PokemonType... defenders) {
+        for (PokemonType defender : defenders) {
+            CHART[attacker.ordinal() * SIZE + defender.ordinal()] = multiplier;
+        }
+    }
+
+    /**
+     * Looks up the doubled multiplier of an attack against a single type.
+     *
+     * @param attacker the type of the attack
+     * @param defender the type of the defender
+     * @return one of {@link #NO_EFFECT}, {@link #NOT_VERY_EFFECTIVE}, {@link #NEUTRAL}
+     *         or {@link #SUPER_EFFECTIVE}
+     */
+    public static byte effectiveness(PokemonType attacker, PokemonType defender) {
+        return CHART[attacker.ordinal() * SIZE + defender.ordinal()];
+    }
+
+    /**
+     * Computes the multiplier of an attack against a Pokemon with the given types.
+     *
+     * @param attacker the type of the attack
+     * @param defenderTypes the defender's types; an untyped defender takes neutral damage
+     * @return the damage multiplier, from 0 to 4
+     */
+    public static double multiplier(PokemonType attacker, List<PokemonType> defenderTypes) {
+        double multiplier = 1;
+        if (defenderTypes != null) {
+            for (PokemonType defender : defenderTypes) {
+                multiplier *= effectiveness(attacker, defender) / (double) NEUTRAL;
+            }
+        }
+        return multiplier;
+    }
+
+    /**
+     * Returns the types that at least one of the attacking types hits super effectively.
+     *
+     * @param attackerMask the attacking types as a bit mask
+     * @return the defending types hit super effectively, as a bit mask
+     */
+    public static int superEffectiveMask(int attackerMask) {
+        int mask = 0;
+        for (int remaining = attackerMask; remaining != 0; remaining &= remaining - 1) {
+            mask |= SUPER_EFFECTIVE_MASKS[Integer.numberOfTrailingZeros(remaining)];
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the attacking types that a Pokemon with the given types resists or is
+     * immune to, combining the multipliers of both its types.
+     *
+     * @param defenderMask the defending types as a bit mask
+     * @return the attacking types doing less than neutral damage, as a bit mask
+     */
+    public static int resistedMask(int defenderMask) {
+        int mask = 0;
+        for (int attacker = 0; attacker < SIZE; attacker++) {
+            int product = 1;
+            int neutral = 1;
+            for (int remaining = defenderMask; remaining != 0; remaining &= remaining - 1) {
+                product *= CHART[attacker * SIZE + Integer.numberOfTrailingZeros(remaining)];
+                neutral *= NEUTRAL;
+            }
+            if (product < neutral) {
+                mask |= 1 << attacker;
+            }
+        }
+        return mask;
+    }
+}
@@ -1,5 +1,6 @@
 package view;
 
+import controller.PokemonChangeEvent;
 import model.Pokemon;
 
 import java.util.List;
@@ -21,6 +22,13 @@ public interface IPokemonView {
      */
     void updatePokemonList(List<Pokemon> pokemonList);
 
+    /**
+     * Applies an incremental change to the displayed collection.
+     *
+     * @param event the change published by the controller
+     */
+    void applyPokemonChange(PokemonChangeEvent event);
+
     /**
      * Shows detailed information about a specific Pokemon.
      *
@@ -1,7 +1,9 @@
 package view;
 
 import model.Pokemon;
+import controller.AsyncPokemonController;
 import controller.IPokemonController;
+import controller.PokemonChangeEvent;
 
 import javax.swing.*;
 import java.awt.*;
@@ -14,6 +16,7 @@ import java.util.List;
 public class MainPokemonFrame extends JFrame implements IPokemonView {
 
     private IPokemonController controller;
+    private AsyncPokemonController asyncController;
     private PokemonListPanel listPanel;
     private PokemonDetailPanel detailPanel;
 
@@ -23,8 +26,22 @@ public class MainPokemonFrame extends JFrame implements IPokemonView {
      * @param controller the Pokemon controller
      */
     public MainPokemonFrame(IPokemonController controller) {
+        this(controller, new AsyncPokemonController(controller));
+    }
+
+    /**
+     * Constructor that initializes the frame with a controller and its asynchronous front,
+     * which runs the list's queries off the EDT.
+     *
+     * @param controller the Pokemon controller
+     * @param asyncController the asynchronous front of the same controller
+     */
+    public MainPokemonFrame(IPokemonController controller, AsyncPokemonController asyncController) {
         this.controller = controller;
+        this.asyncController = asyncController;
         initComponents();
+        // Changes may come from any thread; apply them on the EDT
+        controller.addChangeListener(event -> SwingUtilities.invokeLater(() -> applyPokemonChange(event)));
     }
 
     /**
@@ -70,8 +87,8 @@ public class MainPokemonFrame extends JFrame implements IPokemonView {
         splitPane.setDividerLocation(500); // Set initial divider position
 
         // Initialize panels
-        listPanel = new PokemonListPanel(controller);
-        detailPanel = new PokemonDetailPanel();
+        listPanel = new PokemonListPanel(asyncController);
+        detailPanel = new PokemonDetailPanel(controller);
 
         // Add panels to split pane
         splitPane.setLeftComponent(listPanel);
@@ -118,6 +135,16 @@ public class MainPokemonFrame extends JFrame implements IPokemonView {
         listPanel.updatePokemonList(pokemonList);
     }
 
+    /**
+     * Applies an incremental change to the Pokemon list, updating only the affected rows.
+     *
+     * @param event the change published by the controller
+     */
+    @Override
+    public void applyPokemonChange(PokemonChangeEvent event) {
+        listPanel.applyChange(event);
+    }
+
     /**
      * Shows detailed information about a specific Pokemon.
      *
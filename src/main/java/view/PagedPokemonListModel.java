@@ -0,0 +1,418 @@
+package view;
+
+import model.Pokemon;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * List model that holds only a window of rows around the visible part of a list.
+ * <p>
+ * Rows come from a {@link PageSource}, typically the controller's paged queries. The
+ * model knows the total row count up front, and an element read outside the current
+ * window replaces the window with the page around it, plus a prefetch margin on either
+ * side, so memory and update cost follow the viewport instead of the collection.
+ * <p>
+ * Pages may arrive later than they are asked for. A page that is ready at once is used
+ * right away; otherwise rows still being fetched read as a placeholder item whose
+ * Pokemon is null, and the page is installed on the EDT when it arrives, with an event
+ * for its rows so the list repaints them. A page that arrives after the rows changed or
+ * after a newer page was asked for is dropped.
+ * <p>
+ * When a few rows of the source change, {@link #rowsInserted}, {@link #rowsRemoved},
+ * {@link #rowsChanged} and {@link #rowMoved} patch the loaded window with the rows given and fire interval
+ * events for just those rows, so the list only repaints and re-measures what changed.
+ * <p>
+ * Items checked by the user survive the window moving away from them. Must be used on the EDT.
+ */
+public class PagedPokemonListModel extends AbstractListModel<CheckBoxListItem> {
+    /**
+     * Default number of rows fetched beyond each end of the requested rows.
+     */
+    public static final int DEFAULT_PREFETCH = 50;
+
+    private static final PageSource EMPTY_SOURCE = new PageSource() {
+        @Override
+        public int count() {
+            return 0;
+        }
+
+        @Override
+        public CompletableFuture<List<Pokemon>> page(int offset, int limit) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+    };
+
+    private final int prefetch;
+    private final Map<Pokemon, CheckBoxListItem> checkedOutsideWindow = new IdentityHashMap<>();
+    private final CheckBoxListItem loading = new CheckBoxListItem(null);
+    private PageSource source = EMPTY_SOURCE;
+    private int size;
+    private int windowStart;
+    private List<CheckBoxListItem> window = new ArrayList<>();
+    private int pendingStart; // Rows [pendingStart, pendingEnd) are being fetched
+    private int pendingEnd;
+    private int latestRequest; // Pages of older requests are dropped
+
+    /**
+     * Creates an empty model with the default prefetch margin.
+     */
+    public PagedPokemonListModel() {
+        this(DEFAULT_PREFETCH);
+    }
+
+    /**
+     * Creates an empty model.
+     *
+     * @param prefetch the number of rows fetched beyond each end of the requested rows
+     * @throws IllegalArgumentException if prefetch is negative
+     */
+    public PagedPokemonListModel(int prefetch) {
+        if (prefetch < 0) {
+            throw new IllegalArgumentException("Prefetch must not be negative");
+        }
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Shows the rows of a new source. The window and checked items of the previous
+     * source are dropped, and listeners see the old rows removed and the new ones added.
+     *
+     * @param source the source of the rows, or null for none
+     */
+    public void setSource(PageSource source) {
+        setSource(source, List.of());
+    }
+
+    /**
+     * Shows the rows of a new source whose first rows were already fetched, so they are
+     * not asked for again.
+     *
+     * @param source the source of the rows, or null for none
+     * @param firstRows the rows from the start of the source
+     */
+    public void setSource(PageSource source, List<Pokemon> firstRows) {
+        int oldSize = size;
+        this.source = source != null ? source : EMPTY_SOURCE;
+        this.size = this.source.count();
+        checkedOutsideWindow.clear();
+        cancelPending();
+        this.windowStart = 0;
+        this.window = newItems(firstRows.subList(0, Math.min(size, firstRows.size())));
+        if (oldSize > 0) {
+            fireIntervalRemoved(this, 0, oldSize - 1);
+        }
+        if (size > 0) {
+            fireIntervalAdded(this, 0, size - 1);
+        }
+    }
+
+    /**
+     * Records that rows were inserted into the source. Loaded rows after the insertion
+     * point shift down, and an insertion inside the window is added to it.
+     *
+     * @param source the source, which already contains the new rows
+     * @param first the position of the first new row
+     * @param last the position of the last new row, inclusive
+     * @param inserted the inserted Pokemon
+     */
+    public void rowsInserted(PageSource source, int first, int last, List<Pokemon> inserted) {
+        int count = last - first + 1;
+        this.source = source;
+        cancelPending();
+        if (first <= windowStart) {
+            windowStart += count;
+        } else if (first < windowStart + window.size()) {
+            window.addAll(first - windowStart, newItems(inserted));
+        }
+        size += count;
+        fireIntervalAdded(this, first, last);
+    }
+
+    /**
+     * Records that rows were removed from the source. Their check marks are forgotten.
+     *
+     * @param source the source, which no longer contains the rows
+     * @param first the position of the first removed row
+     * @param last the position of the last removed row, inclusive
+     * @param removed the removed Pokemon
+     */
+    public void rowsRemoved(PageSource source, int first, int last, List<Pokemon> removed) {
+        int count = last - first + 1;
+        int windowEnd = windowStart + window.size();
+        this.source = source;
+        cancelPending();
+        if (last < windowStart) {
+            windowStart -= count;
+        } else if (first < windowEnd) {
+            window.subList(Math.max(first, windowStart) - windowStart, Math.min(last + 1, windowEnd) - windowStart)
+                    .clear();
+            windowStart = Math.min(windowStart, first);
+        }
+        for (Pokemon pokemon : removed) {
+            checkedOutsideWindow.remove(pokemon);
+        }
+        size -= count;
+        fireIntervalRemoved(this, first, last);
+    }
+
+    /**
+     * Records that rows of the source were replaced in place. The new Pokemon keep the
+     * check marks of the ones they replace.
+     *
+     * @param source the source, which already contains the new Pokemon
+     * @param first the position of the first changed row
+     * @param last the position of the last changed row, inclusive
+     * @param current the Pokemon now in the rows
+     * @param previous the Pokemon that were in the rows before
+     */
+    public void rowsChanged(PageSource source, int first, int last, List<Pokemon> current, List<Pokemon> previous) {
+        this.source = source;
+        cancelPending();
+        for (int i = 0; i < current.size(); i++) {
+            int row = first + i;
+            boolean loaded = row >= windowStart && row < windowStart + window.size();
+            CheckBoxListItem replaced = loaded ? window.get(row - windowStart)
+                    : i < previous.size() ? checkedOutsideWindow.remove(previous.get(i)) : null;
+            CheckBoxListItem item = new CheckBoxListItem(current.get(i));
+            item.setSelected(replaced != null && replaced.isSelected());
+            if (loaded) {
+                window.set(row - windowStart, item);
+            } else if (item.isSelected()) {
+                checkedOutsideWindow.put(item.getPokemon(), item);
+            }
+        }
+        fireContentsChanged(this, first, last);
+    }
+
+    /**
+     * Records that a row of the source was replaced and moved to another position, as
+     * when a change alters its sort position. The new Pokemon keeps the check mark of the
+     * one it replaces; listeners see the old row removed and the new one added.
+     *
+     * @param source the source, which already has the new Pokemon at its new position
+     * @param from the position the row was at
+     * @param to the position the row is at now
+     * @param current the Pokemon now in the row
+     * @param previous the Pokemon that was in the row before
+     */
+    public void rowMoved(PageSource source, int from, int to, Pokemon current, Pokemon previous) {
+        CheckBoxListItem replaced = from >= windowStart && from < windowStart + window.size()
+                ? window.get(from - windowStart) : checkedOutsideWindow.get(previous);
+        boolean checked = replaced != null && replaced.isSelected();
+        rowsRemoved(source, from, from, List.of(previous));
+        if (checked) {
+            // Set aside so the insertion picks it up, or keeps it if the row is not loaded
+            CheckBoxListItem item = new CheckBoxListItem(current);
+            item.setSelected(true);
+            checkedOutsideWindow.put(current, item);
+        }
+        rowsInserted(source, to, to, List.of(current));
+    }
+
+    /**
+     * Makes sure a range of rows, plus the prefetch margin, is loaded or being fetched.
+     * Does nothing if the range is already inside the window or the pending fetch.
+     *
+     * @param first the first row, inclusive
+     * @param last the last row, inclusive
+     */
+    public void prefetch(int first, int last) {
+        first = Math.max(0, first);
+        last = Math.min(size - 1, last);
+        if (first > last || (first >= windowStart && last < windowStart + window.size())
+                || (first >= pendingStart && last < pendingEnd)) {
+            return;
+        }
+        load(first, last);
+    }
+
+    /**
+     * Returns the Pokemon whose items are checked, inside or outside the window.
+     *
+     * @return the checked Pokemon
+     */
+    public List<Pokemon> getCheckedPokemon() {
+        List<Pokemon> checked = new ArrayList<>();
+        for (CheckBoxListItem item : checkedOutsideWindow.values()) {
+            if (item.isSelected()) {
+                checked.add(item.getPokemon());
+            }
+        }
+        for (CheckBoxListItem item : window) {
+            if (item.isSelected()) {
+                checked.add(item.getPokemon());
+            }
+        }
+        return checked;
+    }
+
+    /**
+     * Returns the number of rows currently loaded.
+     *
+     * @return the window size
+     */
+    public int getWindowSize() {
+        return window.size();
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tells whether the model has no rows.
+     *
+     * @return true if there are no rows
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes every row, as showing no source does.
+     */
+    public void clear() {
+        setSource(null);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the item at a row, fetching the page around it if it is not loaded.
+     *
+     * @param index the row
+     * @return the item, or a placeholder whose Pokemon is null while the row is fetched
+     * @throws ArrayIndexOutOfBoundsException if the row is out of range
+     */
+    @Override
+    public CheckBoxListItem getElementAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index + " >= " + size);
+        }
+        if (index < windowStart || index >= windowStart + window.size()) {
+            if (index >= pendingStart && index < pendingEnd) {
+                return loading;
+            }
+            load(index, index);
+            if (index < windowStart || index >= windowStart + window.size()) {
+                return loading;
+            }
+        }
+        return window.get(index - windowStart);
+    }
+
+    @Override
+    public String toString() {
+        return "PagedPokemonListModel{size=" + size + ", windowStart=" + windowStart
+                + ", windowSize=" + window.size() + '}';
+    }
+
+    /**
+     * Asks the source for the rows [first - prefetch, last + prefetch]. A page that is
+     * ready at once replaces the window right away; otherwise it does so when it arrives.
+     */
+    private void load(int first, int last) {
+        int start = Math.max(0, first - prefetch);
+        int end = (int) Math.min(size, (long) last + prefetch + 1);
+        int request = ++latestRequest;
+        CompletableFuture<List<Pokemon>> page = source.page(start, end - start);
+        if (page.isDone()) {
+            install(request, start, page, false);
+            return;
+        }
+        pendingStart = start;
+        pendingEnd = end;
+        page.whenComplete((rows, error) -> SwingUtilities.invokeLater(() -> install(request, start, page, true)));
+    }
+
+    /**
+     * Replaces the window with a fetched page if no later request or change superseded
+     * it. Checked items are set aside before the old window is dropped and reused when
+     * their Pokemon come back, so their check marks are kept.
+     */
+    private void install(int request, int start, CompletableFuture<List<Pokemon>> page, boolean notify) {
+        if (request != latestRequest) {
+            return;
+        }
+        pendingStart = 0;
+        pendingEnd = 0;
+        List<Pokemon> rows;
+        try {
+            rows = page.join();
+        } catch (CancellationException e) {
+            return;
+        } catch (CompletionException e) {
+            System.err.println("Error loading Pokemon rows: " + e.getCause().getMessage());
+            return;
+        }
+        for (CheckBoxListItem item : window) {
+            if (item.isSelected()) {
+                checkedOutsideWindow.put(item.getPokemon(), item);
+            }
+        }
+        windowStart = start;
+        window = newItems(rows);
+        int last = Math.min(size, start + rows.size()) - 1;
+        if (notify && last >= start) {
+            fireContentsChanged(this, start, last);
+        }
+    }
+
+    /**
+     * Drops the pending fetch, whose rows may no longer be at the positions asked for.
+     */
+    private void cancelPending() {
+        latestRequest++;
+        pendingStart = 0;
+        pendingEnd = 0;
+    }
+
+    /**
+     * Creates the items for newly loaded rows, reusing set-aside checked items.
+     */
+    private List<CheckBoxListItem> newItems(List<Pokemon> rows) {
+        List<CheckBoxListItem> items = new ArrayList<>(rows.size());
+        for (Pokemon pokemon : rows) {
+            CheckBoxListItem item = checkedOutsideWindow.remove(pokemon);
+            items.add(item != null ? item : new CheckBoxListItem(pokemon));
+        }
+        return items;
+    }
+
+    /**
+     * Supplies the rows of a paged list.
+     */
+    public interface PageSource {
+        /**
+         * Returns the total number of rows.
+         *
+         * @return the row count
+         */
+        int count();
+
+        /**
+         * Fetches a window of rows. The future may complete on any thread; a cancelled
+         * future leaves the rows unloaded.
+         *
+         * @param offset the first row
+         * @param limit the maximum number of rows
+         * @return a future with the rows in display order
+         */
+        CompletableFuture<List<Pokemon>> page(int offset, int limit);
+    }
+}
@@ -14,6 +14,7 @@ import model.PokemonType;
  * - Display checkbox based on selection
  * - Apply background color based on Pokemon type
  * - Highlight when item is selected
+ * - Show a loading note for rows whose Pokemon is still being fetched
  */
 public class PokemonCheckBoxListRenderer extends JCheckBox implements ListCellRenderer<CheckBoxListItem> {
 
@@ -44,7 +45,7 @@ public class PokemonCheckBoxListRenderer extends JCheckBox implements ListCellRe
             boolean cellHasFocus) {
 
         Pokemon pokemon = value.getPokemon();
-        setText(pokemon.toString());
+        setText(pokemon != null ? pokemon.toString() : "Loading…");
         setSelected(value.isSelected());
 
         if (isSelected) {
@@ -55,13 +56,15 @@ public class PokemonCheckBoxListRenderer extends JCheckBox implements ListCellRe
             setForeground(list.getForeground());
 
             // Apply type-based color tint with transparency
-            Color typeColor = getTypeColor(pokemon.getTypes().get(0));
-            setBackground(new Color(
-                    typeColor.getRed(),
-                    typeColor.getGreen(),
-                    typeColor.getBlue(),
-                    30 // Transparency
-            ));
+            if (pokemon != null) {
+                Color typeColor = getTypeColor(pokemon.getTypes().get(0));
+                setBackground(new Color(
+                        typeColor.getRed(),
+                        typeColor.getGreen(),
+                        typeColor.getBlue(),
+                        30 // Transparency
+                ));
+            }
         }
 
         return this;
@@ -1,6 +1,8 @@
 package view;
 
+import controller.IPokemonController;
 import model.Pokemon;
+import model.PokemonStat;
 import model.PokemonType;
 
 import javax.imageio.ImageIO;
@@ -10,6 +12,7 @@ import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.net.URL;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
@@ -21,6 +24,18 @@ import java.util.HashMap;
  */
 public class PokemonDetailPanel extends JPanel {
 
+    // Number of Pokemon listed as having similar stats
+    private static final int SIMILAR_COUNT = 5;
+
+    // Controller to look up similar Pokemon in, or null to leave them out
+    private final IPokemonController controller;
+
+    // Latest lookup of percentile ranks and similar Pokemon; results of any other lookup are dropped
+    private SwingWorker<StatComparison, Void> comparisonWorker;
+
+    // Value label of each stat bar shown, filled in with the percentile rank once it is known
+    private final Map<PokemonStat, JLabel> statValueLabels = new EnumMap<>(PokemonStat.class);
+
     // UI Components as per UML
     private JLabel nameLabel;
     private JLabel imageLabel;
@@ -34,9 +49,19 @@ public class PokemonDetailPanel extends JPanel {
     private final Map<PokemonType, Color> typeColors = new HashMap<>();
 
     /**
-     * Constructor initializes the panel with a reference to the controller.
+     * Constructor initializes the panel without a controller, so no similar Pokemon are shown.
      */
     public PokemonDetailPanel() {
+        this(null);
+    }
+
+    /**
+     * Constructor initializes the panel with a reference to the controller.
+     *
+     * @param controller the controller to look up similar Pokemon in, or null to leave them out
+     */
+    public PokemonDetailPanel(IPokemonController controller) {
+        this.controller = controller;
         initTypeColors();
         initComponents();
     }
@@ -131,6 +156,11 @@ public class PokemonDetailPanel extends JPanel {
      * @param pokemon the Pokemon to display
      */
     public void displayPokemonDetails(Pokemon pokemon) {
+        if (comparisonWorker != null) {
+            // Not interrupted: the lookup may be waiting for the controller's lock
+            comparisonWorker.cancel(false);
+            comparisonWorker = null;
+        }
         if (pokemon == null) {
             clearDisplay();
             return;
@@ -150,13 +180,19 @@ public class PokemonDetailPanel extends JPanel {
         JPanel statsChart = createStatsChart(pokemon.getStats());
         statsPanel.add(statsChart);
 
+        // Add the percentile ranks and the Pokemon with the closest stat spread once they are found
+        if (controller != null) {
+            loadStatComparison(pokemon);
+        }
+
         // Refresh UI
         revalidate();
         repaint();
     }
 
     /**
-     * Creates a graphical representation of Pokemon stats.
+     * Creates a graphical representation of Pokemon stats. The percentile ranks are added
+     * to the value labels later, once they are looked up.
      *
      * @param stats the Pokemon's stats
      * @return a panel containing the stats chart
@@ -167,15 +203,16 @@ public class PokemonDetailPanel extends JPanel {
         chartPanel.setBackground(new Color(245, 245, 255));
 
         // Max stat value for scaling (255 is the max possible in Pokemon games)
-        final int MAX_STAT = 255;
+        final int MAX_STAT = PokemonStat.MAX_VALUE;
 
         // Create bar for each stat
-        addStatBar(chartPanel, "HP", stats.getHp(), MAX_STAT, new Color(255, 50, 50));
-        addStatBar(chartPanel, "Attack", stats.getAttack(), MAX_STAT, new Color(240, 128, 48));
-        addStatBar(chartPanel, "Defense", stats.getDefense(), MAX_STAT, new Color(120, 200, 88));
-        addStatBar(chartPanel, "Special Attack", stats.getSpecialAttack(), MAX_STAT, new Color(170, 85, 170));
-        addStatBar(chartPanel, "Special Defense", stats.getSpecialDefense(), MAX_STAT, new Color(248, 208, 48));
-        addStatBar(chartPanel, "Speed", stats.getSpeed(), MAX_STAT, new Color(104, 144, 240));
+        statValueLabels.clear();
+        addStatBar(chartPanel, "HP", PokemonStat.HP, stats.getHp(), MAX_STAT, new Color(255, 50, 50));
+        addStatBar(chartPanel, "Attack", PokemonStat.ATTACK, stats.getAttack(), MAX_STAT, new Color(240, 128, 48));
+        addStatBar(chartPanel, "Defense", PokemonStat.DEFENSE, stats.getDefense(), MAX_STAT, new Color(120, 200, 88));
+        addStatBar(chartPanel, "Special Attack", PokemonStat.SPECIAL_ATTACK, stats.getSpecialAttack(), MAX_STAT, new Color(170, 85, 170));
+        addStatBar(chartPanel, "Special Defense", PokemonStat.SPECIAL_DEFENSE, stats.getSpecialDefense(), MAX_STAT, new Color(248, 208, 48));
+        addStatBar(chartPanel, "Speed", PokemonStat.SPEED, stats.getSpeed(), MAX_STAT, new Color(104, 144, 240));
 
         return chartPanel;
     }
@@ -185,11 +222,12 @@ public class PokemonDetailPanel extends JPanel {
      *
      * @param panel     the panel to add the bar to
      * @param statName  the name of the stat
+     * @param stat      the stat, whose value label is kept to add the percentile rank to
      * @param statValue the value of the stat
      * @param maxValue  the maximum value for scaling
      * @param barColor  the color of the bar
      */
-    private void addStatBar(JPanel panel, String statName, int statValue, int maxValue, Color barColor) {
+    private void addStatBar(JPanel panel, String statName, PokemonStat stat, int statValue, int maxValue, Color barColor) {
         JPanel statPanel = new JPanel(new BorderLayout(10, 0));
         statPanel.setBackground(new Color(245, 245, 255));
         statPanel.setOpaque(true);
@@ -201,12 +239,13 @@ public class PokemonDetailPanel extends JPanel {
         nameLabel.setOpaque(true);
         statPanel.add(nameLabel, BorderLayout.WEST);
 
-        // Add stat value label
+        // Add stat value label; the percentile rank is added when it is known
         JLabel valueLabel = new JLabel(String.valueOf(statValue));
         valueLabel.setPreferredSize(new Dimension(30, 20));
         valueLabel.setOpaque(true);
         valueLabel.setBackground(new Color(245, 245, 255));
         statPanel.add(valueLabel, BorderLayout.EAST);
+        statValueLabels.put(stat, valueLabel);
 
         // Draw bar for visualization
         JPanel barPanel = new JPanel() {
@@ -263,14 +302,95 @@ public class PokemonDetailPanel extends JPanel {
 
         // Add basic stats summary
         Pokemon.PokemonStats stats = pokemon.getStats();
-        JLabel statsSummaryLabel = new JLabel("Base Stats Total: " +
-                (stats.getHp() + stats.getAttack() + stats.getDefense() +
-                        stats.getSpecialAttack() + stats.getSpecialDefense() + stats.getSpeed()));
+        JLabel statsSummaryLabel = new JLabel("Base Stats Total: " + PokemonStat.total(stats));
         statsSummaryLabel.setFont(new Font("SansSerif", Font.BOLD, 14));
         statsSummaryLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
         infoPanel.add(statsSummaryLabel);
     }
 
+    /**
+     * Shows the percentile rank of each stat next to its value.
+     *
+     * @param stats the stats shown
+     * @param ranks the percentile rank of each stat in the collection
+     */
+    private void showPercentileRanks(Pokemon.PokemonStats stats, Map<PokemonStat, Double> ranks) {
+        for (Map.Entry<PokemonStat, JLabel> entry : statValueLabels.entrySet()) {
+            Double rank = ranks.get(entry.getKey());
+            if (rank == null) {
+                continue;
+            }
+            JLabel valueLabel = entry.getValue();
+            valueLabel.setText(String.format("%d (%.0f%%)", entry.getKey().of(stats), rank));
+            valueLabel.setPreferredSize(new Dimension(80, 20));
+            valueLabel.setToolTipText(String.format("Higher than about %.0f%% of the collection", rank));
+        }
+        statsPanel.revalidate();
+        statsPanel.repaint();
+    }
+
+    /**
+     * Looks up the percentile ranks of the stats and the Pokemon with the closest stat
+     * spread asynchronously, since both wait for the controller's indexes, and shows them
+     * if no later lookup was started meanwhile. Displaying the same Pokemon twice starts
+     * a second lookup, so only the latest one may add its results.
+     *
+     * @param pokemon the Pokemon to compare with the collection
+     */
+    private void loadStatComparison(Pokemon pokemon) {
+        SwingWorker<StatComparison, Void> worker = new SwingWorker<>() {
+            @Override
+            protected StatComparison doInBackground() {
+                return new StatComparison(controller.getPercentileRanks(pokemon.getStats()),
+                        controller.findSimilarPokemon(pokemon, SIMILAR_COUNT, false));
+            }
+
+            // Runs on the EDT; a lookup that failed simply leaves the ranks and the line out
+            @Override
+            protected void done() {
+                if (comparisonWorker != this || isCancelled()) {
+                    return;
+                }
+                try {
+                    StatComparison comparison = get();
+                    showPercentileRanks(pokemon.getStats(), comparison.ranks);
+                    List<Pokemon> similar = comparison.similar;
+                    if (!similar.isEmpty()) {
+                        infoPanel.add(Box.createVerticalStrut(15));
+                        JLabel similarLabel = new JLabel("Similar stats: " + joinNames(similar));
+                        similarLabel.setFont(new Font("SansSerif", Font.PLAIN, 14));
+                        similarLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+                        infoPanel.add(similarLabel);
+                        infoPanel.revalidate();
+                        infoPanel.repaint();
+                    }
+                } catch (InterruptedException | ExecutionException e) {
+                    System.err.println("Error comparing Pokemon stats: " + e.getMessage());
+                }
+            }
+        };
+
+        comparisonWorker = worker;
+        worker.execute();
+    }
+
+    /**
+     * Joins the capitalized names of some Pokemon with commas.
+     *
+     * @param pokemonList the Pokemon to name
+     * @return the names
+     */
+    private String joinNames(List<Pokemon> pokemonList) {
+        StringBuilder names = new StringBuilder();
+        for (Pokemon entry : pokemonList) {
+            if (names.length() > 0) {
+                names.append(", ");
+            }
+            names.append(capitalizeFirst(entry.getName()));
+        }
+        return names.toString();
+    }
+
     /**
      * Creates a styled label for a Pokemon type.
      *
@@ -369,4 +489,17 @@ public class PokemonDetailPanel extends JPanel {
         }
         return str.substring(0, 1).toUpperCase() + str.substring(1).toLowerCase();
     }
+
+    /**
+     * Result of comparing a Pokemon's stats with the collection.
+     */
+    private static final class StatComparison {
+        private final Map<PokemonStat, Double> ranks;
+        private final List<Pokemon> similar;
+
+        StatComparison(Map<PokemonStat, Double> ranks, List<Pokemon> similar) {
+            this.ranks = ranks;
+            this.similar = similar;
+        }
+    }
 }
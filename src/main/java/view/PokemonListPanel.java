@@ -2,30 +2,61 @@ package view;
 
 import model.Pokemon;
 import model.PokemonType;
+import controller.AsyncPokemonController;
 import controller.IPokemonController;
+import controller.PokemonChangeEvent;
+import controller.PokemonQuery;
+import controller.PokemonSortKey;
 
 import javax.swing.*;
 import java.awt.*;
 import java.util.List;
 import java.util.function.Consumer;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.io.File;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseAdapter;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
 
 /**
  * Panel for displaying a list of Pokemon.
  * Uses a JList to show Pokemon names and allows for selection.
+ * <p>
+ * The rows come from the controller's paged queries, run through an
+ * {@link AsyncPokemonController} so the EDT never waits for a query, a page, a name
+ * suggestion or a save. A new request supersedes the pending one of its kind there,
+ * and the panel drops the results of any request that is no longer the latest.
  */
 public class PokemonListPanel extends JPanel {
-    private final IPokemonController controller;
-    private final DefaultListModel<CheckBoxListItem> listModel;
+    /**
+     * Rows fetched with the count of a query, so the first screen needs no further work.
+     */
+    private static final int FIRST_WINDOW = 100;
+
+    /**
+     * Most names suggested below the search field.
+     */
+    private static final int SUGGESTION_COUNT = 8;
+
+    private final AsyncPokemonController asyncController;
+    private final PagedPokemonListModel listModel;
     private final JList<CheckBoxListItem> pokemonList;
     private Consumer<Pokemon> selectionListener;
-    private List<Pokemon> fullPokemonList; // Store the complete list
+    private boolean listShown; // Filters and sorting apply once the collection is on screen
+    // Latest query request until its results are shown; results of any other request are dropped
+    private CompletableFuture<AsyncPokemonController.Page> pendingResults;
+    private PokemonQuery shownQuery; // Normalized, as the controller reports paged queries
+    private ControllerPageSource shownSource;
+    private long shownVersion = -1; // Collection version on screen
+    private long latestVersion = -1; // Newest collection version announced by a change event
     private JTextField searchField;
+    private JPopupMenu suggestionPopup;
+    private JList<String> suggestionList;
+    private boolean acceptingSuggestion; // Set while a picked suggestion is put into the search field
     private JComboBox<PokemonType> typeFilter;
     private JComboBox<SortOption> sortOptions;
     private JButton saveButton;
@@ -36,16 +67,20 @@ public class PokemonListPanel extends JPanel {
      * Enum for sort options.
      */ 
     private enum SortOption {
-        NAME_ASC("Name A-Z"),
-        NAME_DESC("Name Z-A"),
-        ID_ASC("ID ↑"),
-        ID_DESC("ID ↓"),
-        HP_DESC("HP ↓");
+        NAME_ASC("Name A-Z", PokemonSortKey.NAME, false),
+        NAME_DESC("Name Z-A", PokemonSortKey.NAME, true),
+        ID_ASC("ID ↑", PokemonSortKey.ID, false),
+        ID_DESC("ID ↓", PokemonSortKey.ID, true),
+        HP_DESC("HP ↓", PokemonSortKey.HP, true);
 
         private final String label;
+        private final PokemonSortKey key;
+        private final boolean descending;
 
-        SortOption(String label) {
+        SortOption(String label, PokemonSortKey key, boolean descending) {
             this.label = label;
+            this.key = key;
+            this.descending = descending;
         }
 
         @Override
@@ -55,13 +90,23 @@ public class PokemonListPanel extends JPanel {
     }
 
     /**
-     * Constructs a new PokemonListPanel.
+     * Constructs a new PokemonListPanel that runs its queries on a worker thread of its own.
      *
      * @param controller the Pokemon controller
      */
     public PokemonListPanel(IPokemonController controller) {
-        this.controller = controller;
-        this.listModel = new DefaultListModel<>();
+        this(new AsyncPokemonController(controller));
+    }
+
+    /**
+     * Constructs a new PokemonListPanel.
+     *
+     * @param asyncController the asynchronous front of the Pokemon controller, which runs
+     *                        the panel's queries, page fetches, suggestions and saves
+     */
+    public PokemonListPanel(AsyncPokemonController asyncController) {
+        this.asyncController = asyncController;
+        this.listModel = new PagedPokemonListModel();
         this.pokemonList = new JList<>(listModel);
 
         initializeComponents();
@@ -144,6 +189,8 @@ public class PokemonListPanel extends JPanel {
         // Use custom cell renderer with checkboxes
         pokemonList.setCellRenderer(new PokemonCheckBoxListRenderer());
         pokemonList.setFixedCellHeight(40); // Smaller height
+        // A fixed width too, or the list would render every row to measure the widest
+        pokemonList.setFixedCellWidth(260);
 
         // Enable multiple selection
         pokemonList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
@@ -151,6 +198,7 @@ public class PokemonListPanel extends JPanel {
         JScrollPane scrollPane = new JScrollPane(pokemonList);
         scrollPane.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200)));
         scrollPane.getVerticalScrollBar().setUnitIncrement(16);
+        scrollPane.getViewport().addChangeListener(e -> prefetchVisibleRows());
 
         // Add custom styling to the scroll pane
         scrollPane.setBackground(Color.WHITE);
@@ -223,8 +271,9 @@ public class PokemonListPanel extends JPanel {
             @Override
             public void mouseClicked(MouseEvent e) {
                 int index = pokemonList.locationToIndex(e.getPoint());
-                if (index >= 0) {
-                    CheckBoxListItem item = listModel.getElementAt(index);
+                CheckBoxListItem item = index >= 0 ? listModel.getElementAt(index) : null;
+                // A row still being fetched has no Pokemon to check or show yet
+                if (item != null && item.getPokemon() != null) {
                     Rectangle cellBounds = pokemonList.getCellBounds(index, index);
 
                     // Calculate checkbox bounds (assuming 20px width from left edge)
@@ -251,26 +300,12 @@ public class PokemonListPanel extends JPanel {
     }
 
     /**
-     * Filters and sorts the list of Pokemon based on the selected type and sort option.
+     * Filters and sorts the list of Pokemon based on the search text, selected type and sort option.
      */
     private void filterAndSortList() {
-        if (fullPokemonList == null) return;
-
-        List<Pokemon> filtered = fullPokemonList.stream()
-                .filter(pokemon -> typeFilter.getSelectedItem() == null ||
-                        pokemon.getTypes().contains(typeFilter.getSelectedItem()))
-                .collect(Collectors.toList());
+        if (!listShown) return;
 
-        SortOption selectedSort = (SortOption) sortOptions.getSelectedItem();
-        switch (selectedSort) {
-            case NAME_ASC -> filtered.sort(Comparator.comparing(Pokemon::getName));
-            case NAME_DESC -> filtered.sort(Comparator.comparing(Pokemon::getName).reversed());
-            case ID_ASC -> filtered.sort(Comparator.comparingInt(Pokemon::getId));
-            case ID_DESC -> filtered.sort(Comparator.comparingInt(Pokemon::getId).reversed());
-            case HP_DESC -> filtered.sort(Comparator.comparingInt((Pokemon p) -> p.getStats().getHp()).reversed());
-        }
-
-        updateListContent(filtered);
+        updateListContent(buildQuery(), false);
     }
     /** 
      * Sets up the search functionality.
@@ -292,41 +327,105 @@ public class PokemonListPanel extends JPanel {
     }
 
     /**
-     * Filters the list based on the search text.
+     * Filters the list based on the search text, keeping the selected type and sort option.
      */ 
     private void filterList() {
-        String searchText = searchField.getText().toLowerCase().trim();
-
-        if (fullPokemonList != null) {
-            listModel.clear();
-
-            if (searchText.isEmpty()) {
-                fullPokemonList.forEach(pokemon -> listModel.addElement(new CheckBoxListItem(pokemon)));
-            } else {
-                fullPokemonList.stream()
-                        .filter(pokemon -> pokemon.getName().toLowerCase().contains(searchText) ||
-                                String.valueOf(pokemon.getId()).contains(searchText))
-                        .forEach(pokemon -> listModel.addElement(new CheckBoxListItem(pokemon)));
-            }
+        if (listShown) {
+            // Selects the first item once the results are shown, if there are any
+            updateListContent(buildQuery(), true);
+            updateSuggestions();
+        }
+    }
 
-            // Select first item if list is not empty
-            if (listModel.size() > 0) {
-                pokemonList.setSelectedIndex(0);
-            }
+    /**
+     * Combines the search text, type filter and sort option into one query over the full list.
+     *
+     * @return the query for the current controls
+     */
+    private PokemonQuery buildQuery() {
+        SortOption selectedSort = (SortOption) sortOptions.getSelectedItem();
+        PokemonQuery.Builder query = PokemonQuery.builder()
+                .nameOrIdContains(searchField.getText().trim())
+                .types((PokemonType) typeFilter.getSelectedItem());
+        if (selectedSort != null) {
+            query.sortBy(selectedSort.key, selectedSort.descending);
         }
+        return query.build();
     }
 
     /**
-     * Updates the list with new Pokemon data.
+     * Shows the controller's collection from the top, with no search, filter or sort.
+     * <p>
+     * The rows are read from the controller page by page as they scroll into view, so
+     * the list must be the controller's current collection; it is not read itself.
      *
-     * @param pokemonList the list of Pokemon to display
+     * @param pokemonList the controller's collection
      */
     public void updatePokemonList(List<Pokemon> pokemonList) {
-        fullPokemonList = new ArrayList<>(pokemonList);
-        updateListContent(pokemonList);
+        Objects.requireNonNull(pokemonList, "pokemonList");
+        listShown = true;
+        updateListContent(PokemonQuery.builder().build(), false);
         viewingLabel.setText("Currently Viewing: All Pokémon");
     }
 
+    /**
+     * Applies a change to the controller's collection, touching only the rows it affects.
+     * <p>
+     * For a one-row change the controller reports where the row was and is in the
+     * results of the query on screen, so the row is patched with a single interval event
+     * and one that changed sort position is moved. Resets, multi-row changes, gaps in the
+     * version sequence and changes to another query's results fetch the results again;
+     * a change arriving while results are being fetched is left to that fetch, which is
+     * repeated if it read the collection before the change. Must be called on the EDT.
+     *
+     * @param event the change
+     */
+    public void applyChange(PokemonChangeEvent event) {
+        latestVersion = Math.max(latestVersion, event.getVersion());
+        if (event.getVersion() <= shownVersion || pendingResults != null) {
+            return; // Already on screen, or left to the pending request
+        }
+        boolean incremental = shownSource != null
+                && event.getVersion() == shownVersion + 1
+                && event.getType() != PokemonChangeEvent.Type.RESET
+                && event.getFirstRow() == event.getLastRow()
+                && shownQuery.equals(event.getPagedQuery());
+        listShown = true;
+        if (incremental) {
+            shownVersion = event.getVersion();
+            applyRowChange(event);
+        } else {
+            updateListContent(buildQuery(), false);
+        }
+    }
+
+    /**
+     * Moves the row of a one-row change to the positions the controller reported and
+     * fires the matching list events.
+     */
+    private void applyRowChange(PokemonChangeEvent event) {
+        int oldPosition = event.getOldPosition();
+        int newPosition = event.getNewPosition();
+        int count = shownSource.count - (oldPosition >= 0 ? 1 : 0) + (newPosition >= 0 ? 1 : 0);
+        shownSource = new ControllerPageSource(shownQuery, count);
+        if (oldPosition >= 0 && oldPosition == newPosition) {
+            listModel.rowsChanged(shownSource, newPosition, newPosition, event.getPokemon(), event.getPreviousPokemon());
+        } else if (oldPosition >= 0 && newPosition >= 0) {
+            // Carries the check mark along, which a removal followed by an insertion would drop
+            listModel.rowMoved(shownSource, oldPosition, newPosition,
+                    event.getPokemon().get(0), event.getPreviousPokemon().get(0));
+        } else {
+            if (oldPosition >= 0) {
+                listModel.rowsRemoved(shownSource, oldPosition, oldPosition, event.getPreviousPokemon());
+            }
+            if (newPosition >= 0) {
+                listModel.rowsInserted(shownSource, newPosition, newPosition, event.getPokemon());
+            }
+        }
+        // A page dropped while the change was on its way leaves rows in view to fetch again
+        prefetchVisibleRows();
+    }
+
     /**
      * Sets up a listener for Pokemon selection events.
      *
@@ -338,7 +437,7 @@ public class PokemonListPanel extends JPanel {
         pokemonList.addListSelectionListener(e -> {
             if (!e.getValueIsAdjusting()) {
                 CheckBoxListItem selectedItem = pokemonList.getSelectedValue();
-                if (selectedItem != null && selectionListener != null) {
+                if (selectedItem != null && selectedItem.getPokemon() != null && selectionListener != null) {
                     selectionListener.accept(selectedItem.getPokemon());
                 }
             }
@@ -371,20 +470,124 @@ public class PokemonListPanel extends JPanel {
         searchPanel.add(searchField, BorderLayout.CENTER);
 
         setupSearch(); // Initialize search functionality
+        setupSuggestions();
         return searchPanel;
     }
 
     /**
-     * Saves the selected Pokémon to a file.
+     * Sets up the popup of name suggestions below the search field. The popup never takes
+     * the focus: Up and Down move through the suggestions while typing continues, Enter
+     * or a click picks one, and Escape closes it.
      */
-    private void saveSelectedPokemon() {
-        List<Pokemon> selectedPokemon = new ArrayList<>();
-        for (int i = 0; i < listModel.size(); i++) {
-            CheckBoxListItem item = listModel.getElementAt(i);
-            if (item.isSelected()) {
-                selectedPokemon.add(item.getPokemon());
+    private void setupSuggestions() {
+        suggestionList = new JList<>();
+        suggestionList.setFont(new Font("Arial", Font.PLAIN, 14));
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.setFocusable(false);
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = suggestionList.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    acceptSuggestion(suggestionList.getModel().getElementAt(index));
+                }
+            }
+        });
+
+        suggestionPopup = new JPopupMenu();
+        suggestionPopup.setFocusable(false);
+        suggestionPopup.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200)));
+        suggestionPopup.add(suggestionList);
+
+        searchField.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                if (!suggestionPopup.isVisible()) {
+                    return;
+                }
+                int selected = suggestionList.getSelectedIndex();
+                int size = suggestionList.getModel().getSize();
+                if (e.getKeyCode() == KeyEvent.VK_DOWN) {
+                    suggestionList.setSelectedIndex(Math.min(size - 1, selected + 1));
+                } else if (e.getKeyCode() == KeyEvent.VK_UP) {
+                    suggestionList.setSelectedIndex(Math.max(0, selected - 1));
+                } else if (e.getKeyCode() == KeyEvent.VK_ENTER && selected >= 0) {
+                    acceptSuggestion(suggestionList.getSelectedValue());
+                } else if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+                    suggestionPopup.setVisible(false);
+                } else {
+                    return;
+                }
+                e.consume();
+            }
+        });
+    }
+
+    /**
+     * Asks for the best-ranked names starting with the search text and shows them once
+     * they arrive, unless the text changed meanwhile.
+     */
+    private void updateSuggestions() {
+        String text = searchField.getText();
+        if (acceptingSuggestion || text.isBlank()) {
+            showSuggestions(text, List.of());
+            return;
+        }
+        CompletableFuture<List<String>> suggestions = asyncController.suggestNames(text, SUGGESTION_COUNT);
+        whenDone(suggestions, () -> {
+            List<String> names = resultOf(suggestions, "suggesting names");
+            if (names != null && text.equals(searchField.getText())) {
+                showSuggestions(text, names);
             }
+        });
+    }
+
+    /**
+     * Shows suggested names below the search field, or hides the popup if there are
+     * none to show.
+     *
+     * @param text the search text the names were suggested for
+     * @param suggestions the names, best ranked first
+     */
+    private void showSuggestions(String text, List<String> suggestions) {
+        // A lone suggestion that is already typed out adds nothing
+        if (suggestions.isEmpty() || !searchField.isShowing()
+                || (suggestions.size() == 1 && suggestions.get(0).equalsIgnoreCase(text))) {
+            suggestionPopup.setVisible(false);
+            return;
+        }
+        suggestionList.setListData(suggestions.toArray(new String[0]));
+        suggestionList.setVisibleRowCount(suggestions.size());
+        // Resizes the popup in place if it is already showing
+        suggestionPopup.setPopupSize(searchField.getWidth(), suggestionList.getPreferredScrollableViewportSize().height + 2);
+        if (!suggestionPopup.isVisible()) {
+            suggestionPopup.show(searchField, 0, searchField.getHeight());
         }
+    }
+
+    /**
+     * Puts a picked suggestion into the search field, which searches for it, and ranks it
+     * higher in later suggestions.
+     *
+     * @param name the picked name
+     */
+    private void acceptSuggestion(String name) {
+        asyncController.recordNameUse(name);
+        suggestionPopup.setVisible(false);
+        acceptingSuggestion = true;
+        try {
+            searchField.setText(name);
+        } finally {
+            acceptingSuggestion = false;
+        }
+    }
+
+    /**
+     * Saves the selected Pokémon to a file on the asynchronous controller's worker, and
+     * reports the outcome once the file is written.
+     */
+    private void saveSelectedPokemon() {
+        List<Pokemon> selectedPokemon = listModel.getCheckedPokemon();
 
         if (selectedPokemon.isEmpty()) {
             JOptionPane.showMessageDialog(this,
@@ -400,22 +603,146 @@ public class PokemonListPanel extends JPanel {
             fileName = String.format("team%d.json", nextTeamNumber++);
         } while (new File(fileName).exists());
 
-        controller.saveCollection(fileName);
-        JOptionPane.showMessageDialog(this,
-                "Team saved successfully to " + fileName,
-                "Save Successful",
-                JOptionPane.INFORMATION_MESSAGE);
+        String savedFileName = fileName;
+        CompletableFuture<Void> save = asyncController.saveCollection(fileName);
+        whenDone(save, () -> {
+            try {
+                save.join();
+                JOptionPane.showMessageDialog(this,
+                        "Team saved successfully to " + savedFileName,
+                        "Save Successful",
+                        JOptionPane.INFORMATION_MESSAGE);
+            } catch (CompletionException e) {
+                JOptionPane.showMessageDialog(this,
+                        "Could not save team to " + savedFileName + ": " + e.getCause().getMessage(),
+                        "Save Failed",
+                        JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
 
     /**
-    * Updates the content of the displayed JList based on a given filtered list of Pokemon.
+    * Points the displayed JList at the results of a query over the controller's collection.
+    * The count and the first rows are fetched in one request; further rows are fetched
+    * page by page as they scroll into view.
     * <p>
-    * Note: This does not change the fullPokemonList data source.
+    * The request runs on the asynchronous controller's worker and the result is applied
+    * on the EDT, unless a newer request was made in the meantime. The old results stay
+    * on screen until then.
     *
-    * @param filtered The filtered list of Pokemon to display.
+    * @param query The query whose results to display.
+    * @param selectFirst whether to select the first row once the results are shown
     */
-    private void updateListContent(List<Pokemon> filtered) {
-        listModel.clear();
-        filtered.forEach(pokemon -> listModel.addElement(new CheckBoxListItem(pokemon)));
+    private void updateListContent(PokemonQuery query, boolean selectFirst) {
+        CompletableFuture<AsyncPokemonController.Page> page = asyncController.getPage(query, 0, FIRST_WINDOW);
+        pendingResults = page;
+        whenDone(page, () -> showResults(page, query, selectFirst));
+    }
+
+    /**
+     * Shows query results on the EDT if they belong to the latest request. Results read
+     * before a change that has since been announced are fetched again.
+     */
+    private void showResults(CompletableFuture<AsyncPokemonController.Page> request, PokemonQuery query,
+                             boolean selectFirst) {
+        if (request != pendingResults) {
+            return; // Superseded, even if it completed before the newer request was made
+        }
+        AsyncPokemonController.Page page = resultOf(request, "querying Pokemon list");
+        if (page == null) {
+            pendingResults = null;
+            return;
+        }
+        if (page.getVersion() < latestVersion) {
+            updateListContent(query, selectFirst);
+            return;
+        }
+        pendingResults = null;
+        shownQuery = query.normalized();
+        shownVersion = page.getVersion();
+        shownSource = new ControllerPageSource(shownQuery, page.getCount());
+        listModel.setSource(shownSource, page.getPokemon());
+        prefetchVisibleRows();
+        if (selectFirst && listModel.size() > 0) {
+            pokemonList.setSelectedIndex(0);
+        }
+    }
+
+    /**
+     * Loads the rows in the viewport, plus the model's prefetch margin, in one page.
+     */
+    private void prefetchVisibleRows() {
+        int first = pokemonList.getFirstVisibleIndex();
+        int last = pokemonList.getLastVisibleIndex();
+        if (first >= 0 && last >= first) {
+            listModel.prefetch(first, last);
+        }
+    }
+
+    /**
+     * Runs an action on the EDT once a future is done: right away if it already is,
+     * which is the case when the asynchronous controller runs calls on the caller's thread.
+     */
+    private static void whenDone(CompletableFuture<?> future, Runnable action) {
+        if (future.isDone()) {
+            action.run();
+        } else {
+            future.whenComplete((result, error) -> SwingUtilities.invokeLater(action));
+        }
+    }
+
+    /**
+     * Returns the result of a done future, or null if it was cancelled or failed.
+     * Failures are logged.
+     */
+    private static <T> T resultOf(CompletableFuture<T> future, String action) {
+        try {
+            return future.join();
+        } catch (CancellationException e) {
+            return null; // Superseded by a newer request
+        } catch (CompletionException e) {
+            System.err.println("Error " + action + ": " + e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Pages through the results of the query on screen, as of the collection version on
+     * screen. A page read at another version, or while newer results are on their way,
+     * is cancelled, so the list never mixes rows of two versions; the change that made
+     * the difference fetches the rows in view again once it is applied.
+     */
+    private final class ControllerPageSource implements PagedPokemonListModel.PageSource {
+        private final PokemonQuery query;
+        private final int count;
+
+        ControllerPageSource(PokemonQuery query, int count) {
+            this.query = query;
+            this.count = count;
+        }
+
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public CompletableFuture<List<Pokemon>> page(int offset, int limit) {
+            CompletableFuture<List<Pokemon>> rows = new CompletableFuture<>();
+            if (this != shownSource || pendingResults != null) {
+                rows.cancel(false);
+                return rows;
+            }
+            CompletableFuture<AsyncPokemonController.Page> page = asyncController.getPage(query, offset, limit);
+            whenDone(page, () -> {
+                AsyncPokemonController.Page results = resultOf(page, "loading Pokemon rows");
+                if (results != null && this == shownSource && results.getVersion() == shownVersion) {
+                    rows.complete(results.getPokemon());
+                } else {
+                    rows.cancel(false);
+                }
+            });
+            return rows;
+        }
     }
 }
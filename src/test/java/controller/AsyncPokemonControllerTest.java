@@ -0,0 +1,196 @@
+package controller;
+
+import model.IPokemonModel;
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link AsyncPokemonController}.
+ * Uses a model whose fetch can be held back to control what the worker is doing.
+ */
+public class AsyncPokemonControllerTest {
+
+    private BlockingModel model;
+    private PokemonController controller;
+    private AsyncPokemonController asyncController;
+
+    private static class BlockingModel implements IPokemonModel {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final CountDownLatch fetching = new CountDownLatch(1);
+        private volatile boolean block;
+        private volatile List<Pokemon> saved;
+        private volatile Error loadError;
+        private volatile boolean failSave;
+
+        @Override
+        public Pokemon fetchPokemonById(int id) {
+            return new PokemonGenerator(id).generatePokemon(id);
+        }
+
+        @Override
+        public List<Pokemon> fetchMultiplePokemon(int count) {
+            fetching.countDown();
+            if (block) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new PokemonGenerator(1).generate(count);
+        }
+
+        @Override
+        public void saveCollection(List<Pokemon> collection, String filename) throws IOException {
+            if (failSave) {
+                throw new IOException("Disk full");
+            }
+            saved = new ArrayList<>(collection);
+        }
+
+        @Override
+        public List<Pokemon> loadCollection(String filename) {
+            if (loadError != null) {
+                throw loadError;
+            }
+            return new PokemonGenerator(2).generate(5);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        model = new BlockingModel();
+        controller = new PokemonController(model);
+        asyncController = new AsyncPokemonController(controller);
+    }
+
+    @AfterEach
+    void tearDown() {
+        asyncController.close();
+    }
+
+    @Test
+    void calls_RunInSubmissionOrder() throws Exception {
+        CompletableFuture<Void> fetch = asyncController.fetchInitialPokemon(50);
+        CompletableFuture<List<Pokemon>> all = asyncController.query(PokemonQuery.builder().build());
+
+        assertEquals(50, all.get(5, TimeUnit.SECONDS).size());
+        assertTrue(fetch.isDone());
+    }
+
+    @Test
+    void saveAfterLoad_WritesLoadedCollection() throws Exception {
+        CompletableFuture<List<Pokemon>> load = asyncController.loadCollection("team.json");
+        asyncController.saveCollection("copy.json").get(5, TimeUnit.SECONDS);
+
+        assertEquals(load.get(), model.saved);
+    }
+
+    @Test
+    void failedSave_FailsFuture() throws Exception {
+        asyncController.fetchInitialPokemon(5);
+        model.failSave = true;
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncController.saveCollection("team.json").get(5, TimeUnit.SECONDS));
+
+        assertTrue(exception.getCause() instanceof UncheckedIOException);
+        assertEquals("Disk full", exception.getCause().getMessage());
+        assertNull(model.saved);
+    }
+
+    @Test
+    void newQuery_CancelsPendingOne() throws Exception {
+        model.block = true;
+        CompletableFuture<Void> fetch = asyncController.fetchInitialPokemon(30);
+        assertTrue(model.fetching.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<List<Pokemon>> stale = asyncController.searchPokemon("a");
+        CompletableFuture<List<Pokemon>> latest = asyncController.filterPokemonByType(PokemonType.WATER);
+        model.release.countDown();
+
+        List<Pokemon> water = latest.get(5, TimeUnit.SECONDS);
+        assertTrue(stale.isCancelled());
+        assertEquals(controller.filterPokemonByType(PokemonType.WATER), water);
+        assertFalse(fetch.isCancelled(), "Fetches are never superseded");
+    }
+
+    @Test
+    void getPage_ReadsWindowCountAndVersionTogether() throws Exception {
+        asyncController.fetchInitialPokemon(50);
+        PokemonQuery query = PokemonQuery.builder().types(PokemonType.WATER).sortBy(PokemonSortKey.HP, true).build();
+
+        AsyncPokemonController.Page page = asyncController.getPage(query, 2, 5).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, page.getOffset());
+        assertEquals(controller.query(query.toBuilder().offset(2).limit(5).build()), page.getPokemon());
+        assertEquals(controller.count(query), page.getCount());
+        assertEquals(controller.getSnapshot().getVersion(), page.getVersion());
+    }
+
+    @Test
+    void newPageOrSuggestion_CancelsPendingOneOfItsKind() throws Exception {
+        model.block = true;
+        asyncController.fetchInitialPokemon(30);
+        assertTrue(model.fetching.await(5, TimeUnit.SECONDS));
+
+        PokemonQuery query = PokemonQuery.builder().build();
+        CompletableFuture<AsyncPokemonController.Page> stalePage = asyncController.getPage(query, 0, 10);
+        CompletableFuture<List<String>> staleNames = asyncController.suggestNames("a", 5);
+        CompletableFuture<List<Pokemon>> all = asyncController.query(query);
+        CompletableFuture<AsyncPokemonController.Page> page = asyncController.getPage(query, 10, 10);
+        CompletableFuture<List<String>> names = asyncController.suggestNames("b", 5);
+        model.release.countDown();
+
+        assertEquals(all.get(5, TimeUnit.SECONDS).subList(10, 20), page.get(5, TimeUnit.SECONDS).getPokemon());
+        assertEquals(controller.suggestNames("b", 5), names.get(5, TimeUnit.SECONDS));
+        assertTrue(stalePage.isCancelled());
+        assertTrue(staleNames.isCancelled());
+    }
+
+    @Test
+    void failure_CompletesExceptionally() {
+        CompletableFuture<List<Pokemon>> sorted = asyncController.sortPokemon(null, false);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> sorted.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+
+    @Test
+    void error_CompletesExceptionallyAndWorkerKeepsRunning() throws Exception {
+        model.loadError = new AssertionError("Test error");
+        CompletableFuture<List<Pokemon>> failed = asyncController.loadCollection("team.json");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof AssertionError);
+
+        model.loadError = null;
+        assertEquals(5, asyncController.loadCollection("team.json").get(5, TimeUnit.SECONDS).size());
+    }
+
+    @Test
+    void afterClose_CallsAreRejected() {
+        asyncController.close();
+
+        CompletableFuture<Void> fetch = asyncController.fetchInitialPokemon(1);
+
+        ExecutionException e = assertThrows(ExecutionException.class, fetch::get);
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+}
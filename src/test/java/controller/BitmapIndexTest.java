@@ -0,0 +1,140 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonStat;
+import model.PokemonType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link BitmapIndex}.
+ * Checks bitmap expressions against plain scans of the same list.
+ */
+public class BitmapIndexTest {
+
+    private List<Pokemon> pokemonList;
+    private BitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new PokemonGenerator(31).generate(3000);
+        index = new BitmapIndex(pokemonList);
+    }
+
+    private int[] scan(IntPredicate predicate) {
+        return IntStream.range(0, pokemonList.size()).filter(predicate).toArray();
+    }
+
+    private boolean hasType(int row, PokemonType type) {
+        return pokemonList.get(row).getTypes().contains(type);
+    }
+
+    private int stat(int row, PokemonStat stat) {
+        return stat.of(pokemonList.get(row).getStats());
+    }
+
+    @Test
+    void type_MatchesScan() {
+        for (PokemonType type : PokemonType.values()) {
+            assertArrayEquals(scan(row -> hasType(row, type)), index.type(type).toArray(), type.toString());
+        }
+    }
+
+    @Test
+    void statRange_MatchesScanForPartialAndWholeBuckets() {
+        int[][] ranges = {{0, 255}, {16, 31}, {100, 255}, {80, 120}, {37, 37}, {250, 1000}, {-5, 3}};
+        for (PokemonStat stat : PokemonStat.values()) {
+            for (int[] range : ranges) {
+                int[] expected = scan(row -> stat(row, stat) >= range[0] && stat(row, stat) <= range[1]);
+                assertArrayEquals(expected, index.statRange(stat, range[0], range[1]).toArray());
+            }
+        }
+        assertTrue(index.statRange(PokemonStat.HP, 10, 5).isEmpty());
+    }
+
+    @Test
+    void statBucket_PartitionsRows() {
+        int total = 0;
+        for (int b = 0; b < BitmapIndex.BUCKETS; b++) {
+            total += index.statBucket(PokemonStat.DEFENSE, b).cardinality();
+        }
+        assertEquals(pokemonList.size(), total);
+        assertEquals(0, BitmapIndex.bucketOf(15));
+        assertEquals(1, BitmapIndex.bucketOf(16));
+        assertEquals(BitmapIndex.BUCKETS - 1, BitmapIndex.bucketOf(999));
+    }
+
+    @Test
+    void booleanExpression_MatchesScan() {
+        RowBitmap result = index.type(PokemonType.FIRE)
+                .or(index.type(PokemonType.DRAGON))
+                .and(index.statRange(PokemonStat.SPEED, 100, 255))
+                .andNot(index.type(PokemonType.FLYING));
+        int[] expected = scan(row -> (hasType(row, PokemonType.FIRE) || hasType(row, PokemonType.DRAGON))
+                && stat(row, PokemonStat.SPEED) >= 100
+                && !hasType(row, PokemonType.FLYING));
+
+        assertEquals(expected.length, result.cardinality());
+        assertArrayEquals(expected, result.toArray());
+        assertEquals(pokemonList.size() - index.type(PokemonType.WATER).cardinality(),
+                index.type(PokemonType.WATER).not(index.size()).cardinality());
+    }
+
+    @Test
+    void matching_AppliesTypesAndStatRanges() {
+        PokemonQuery query = PokemonQuery.builder()
+                .types(PokemonType.GRASS, PokemonType.BUG)
+                .statRange(PokemonStat.ATTACK, 60, 140)
+                .statRange(PokemonStat.HP, 50, 255)
+                .build();
+
+        assertArrayEquals(scan(row -> QueryFilters.matches(query, pokemonList.get(row))), index.matching(query).toArray());
+        assertEquals(pokemonList.size(), index.matching(PokemonQuery.builder().build()).cardinality());
+    }
+
+    @Test
+    void rowChanges_MatchFreshIndex() {
+        pokemonList = new ArrayList<>(pokemonList);
+        index = new BitmapIndex(pokemonList);
+        PokemonGenerator generator = new PokemonGenerator(77);
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 300; i++) {
+            int choice = random.nextInt(3);
+            if (choice == 0) {
+                pokemonList.add(generator.generatePokemon(10_000 + i));
+                index.rowAdded(pokemonList.get(pokemonList.size() - 1));
+            } else if (choice == 1) {
+                int row = random.nextInt(pokemonList.size());
+                pokemonList.remove(row);
+                index.rowRemoved(row);
+            } else {
+                int row = random.nextInt(pokemonList.size());
+                pokemonList.set(row, generator.generatePokemon(20_000 + i));
+                index.rowUpdated(row, pokemonList.get(row));
+            }
+        }
+
+        BitmapIndex fresh = new BitmapIndex(pokemonList);
+        assertEquals(fresh.size(), index.size());
+        assertEquals(fresh.all(), index.all());
+        for (PokemonType type : PokemonType.values()) {
+            assertEquals(fresh.type(type), index.type(type), type.toString());
+        }
+        for (PokemonStat stat : PokemonStat.values()) {
+            for (int b = 0; b < BitmapIndex.BUCKETS; b++) {
+                assertEquals(fresh.statBucket(stat, b), index.statBucket(stat, b), stat + " bucket " + b);
+            }
+            assertArrayEquals(scan(row -> stat(row, stat) >= 70 && stat(row, stat) <= 90),
+                    index.statRange(stat, 70, 90).toArray());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link FuzzyNameIndex}.
+ */
+public class FuzzyNameIndexTest {
+
+    private FuzzyNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FuzzyNameIndex(Arrays.asList(
+                "pikachu", "raichu", "charizard", "Charmander", "pikachu", null, "pichu"));
+    }
+
+    @Test
+    void distance_ClassicCases() {
+        assertEquals(0, FuzzyNameIndex.distance("abc", "abc"));
+        assertEquals(3, FuzzyNameIndex.distance("kitten", "sitting"));
+        assertEquals(2, FuzzyNameIndex.distance("pikachoo", "pikachu"));
+        assertEquals(4, FuzzyNameIndex.distance("", "abcd"));
+    }
+
+    @Test
+    void search_FindsMisspellings() {
+        assertArrayEquals(new int[] {2}, index.search("charizrd", 1));
+        assertArrayEquals(new int[] {0, 4}, index.search("PIKACHOO", 2));
+    }
+
+    @Test
+    void search_RanksByDistance() {
+        // pikachu x2 at distance 0, pichu at 2; raichu is 4 away
+        assertArrayEquals(new int[] {0, 4, 6}, index.search("pikachu", 3));
+        // raichu itself at 0, pichu at 2
+        assertArrayEquals(new int[] {1, 6}, index.search("raichu", 2));
+    }
+
+    @Test
+    void search_ExactOnlyAtZero() {
+        assertArrayEquals(new int[] {3}, index.search("charmander", 0));
+        assertArrayEquals(new int[0], index.search("charmandr", 0));
+    }
+
+    @Test
+    void search_RejectsOutOfRangeDistance() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("pikachu", -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> index.search("pikachu", FuzzyNameIndex.MAX_DISTANCE + 1));
+    }
+
+    @Test
+    void search_EmptyIndex() {
+        FuzzyNameIndex empty = new FuzzyNameIndex(new ArrayList<>());
+
+        assertEquals(0, empty.size());
+        assertArrayEquals(new int[0], empty.search("pikachu", 2));
+        assertEquals(5, index.size());
+    }
+}
@@ -0,0 +1,95 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link MatchupEngine}.
+ */
+public class MatchupEngineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final QueryExecutor parallel = new QueryExecutor(2, 1);
+
+    @AfterEach
+    void tearDown() {
+        parallel.close();
+    }
+
+    @Test
+    void score_FavorsTypeAdvantage() {
+        Pokemon.PokemonStats even = new Pokemon.PokemonStats(80, 80, 80, 80, 80, 80);
+        Pokemon water = new Pokemon(1, "water", "url", List.of(PokemonType.WATER), even);
+        Pokemon fire = new Pokemon(2, "fire", "url", List.of(PokemonType.FIRE), even);
+        Pokemon ground = new Pokemon(3, "ground", "url", List.of(PokemonType.GROUND), even);
+        Pokemon flying = new Pokemon(4, "flying", "url", List.of(PokemonType.FLYING), even);
+        MatchupEngine engine = new MatchupEngine(List.of(water, fire, ground, flying));
+
+        // Water hits fire twice as hard and takes half from it: two doublings
+        assertEquals(2 * MatchupEngine.SCALE, engine.score(0, 1));
+        assertEquals(-2 * MatchupEngine.SCALE, engine.score(1, 0));
+        assertEquals(0, engine.score(2, 2));
+        assertTrue(engine.score(3, 2) > 0, "Flying is immune to ground");
+    }
+
+    @Test
+    void score_UsesBetterAttackingStat() {
+        Pokemon physical = new Pokemon(1, "physical", "url", List.of(PokemonType.NORMAL),
+                new Pokemon.PokemonStats(100, 160, 100, 40, 100, 100));
+        Pokemon special = new Pokemon(2, "special", "url", List.of(PokemonType.NORMAL),
+                new Pokemon.PokemonStats(100, 40, 100, 80, 100, 100));
+        MatchupEngine engine = new MatchupEngine(List.of(physical, special));
+
+        // 160 attack against 80 special attack over equal defenses and HP
+        assertEquals(MatchupEngine.SCALE, engine.score(0, 1));
+    }
+
+    @Test
+    void writeMatrix_StoresEveryScoreAcrossBands() throws IOException {
+        List<Pokemon> pokemonList = new PokemonGenerator(4).generate(2100);
+        MatchupEngine engine = new MatchupEngine(pokemonList);
+
+        try (MatchupMatrix matrix = engine.writeMatrix(tempDir.resolve("matchups.bin"), parallel)) {
+            assertEquals(2100, matrix.size());
+            for (int row = 0; row < matrix.size(); row += 7) {
+                short[] scores = matrix.readRow(row);
+                for (int column = 0; column < scores.length; column++) {
+                    assertEquals(engine.score(row, column), scores[column]);
+                }
+            }
+            assertEquals(pokemonList.get(2099).getId(), matrix.getId(2099));
+        }
+    }
+
+    @Test
+    void writeMatrix_SequentialMatchesParallel() throws IOException {
+        List<Pokemon> pokemonList = new PokemonGenerator(9).generate(300);
+        MatchupEngine engine = new MatchupEngine(pokemonList);
+
+        try (MatchupMatrix sequential = engine.writeMatrix(tempDir.resolve("a.bin"), QueryExecutor.sequential());
+             MatchupMatrix parallelMatrix = engine.writeMatrix(tempDir.resolve("b.bin"), parallel)) {
+            for (int row = 0; row < 300; row++) {
+                assertTrue(Arrays.equals(sequential.readRow(row), parallelMatrix.readRow(row)));
+            }
+        }
+    }
+
+    @Test
+    void constructor_RejectsNull() {
+        assertThrows(IllegalArgumentException.class, () -> new MatchupEngine(null));
+        assertThrows(IllegalArgumentException.class, () -> new MatchupEngine(Arrays.asList((Pokemon) null)));
+    }
+}
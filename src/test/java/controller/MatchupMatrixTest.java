@@ -0,0 +1,98 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link MatchupMatrix}.
+ */
+public class MatchupMatrixTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<Pokemon> pokemonList;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        pokemonList = new PokemonGenerator(2).generate(50);
+        file = tempDir.resolve("matchups.bin");
+        new MatchupEngine(pokemonList).writeMatrix(file, QueryExecutor.sequential()).close();
+    }
+
+    @Test
+    void open_ReadsIdsAndScores() throws IOException {
+        MatchupEngine engine = new MatchupEngine(pokemonList);
+
+        try (MatchupMatrix matrix = MatchupMatrix.open(file)) {
+            assertEquals(50, matrix.size());
+            assertEquals(MatchupEngine.SCALE, matrix.getScale());
+            int row = matrix.rowOf(pokemonList.get(17).getId());
+            assertEquals(17, row);
+            assertEquals(-1, matrix.rowOf(-5));
+            assertEquals(engine.score(17, 3), matrix.getScore(17, 3));
+            assertEquals(-matrix.getScore(17, 3), matrix.getScore(3, 17));
+            assertEquals(0, matrix.getScore(17, 17));
+        }
+    }
+
+    @Test
+    void bestMatchups_OrdersByScore() throws IOException {
+        try (MatchupMatrix matrix = MatchupMatrix.open(file)) {
+            short[] scores = matrix.readRow(4);
+            int[] best = matrix.bestMatchups(4, 10);
+
+            assertEquals(10, best.length);
+            for (int i = 1; i < best.length; i++) {
+                assertTrue(scores[best[i - 1]] >= scores[best[i]]);
+            }
+            for (short score : scores) {
+                assertTrue(score <= scores[best[0]]);
+            }
+            assertEquals(50, matrix.bestMatchups(4, 100).length);
+        }
+    }
+
+    @Test
+    void open_RejectsOtherAndTruncatedFiles() throws IOException {
+        Path other = tempDir.resolve("other.bin");
+        Files.write(other, new byte[64]);
+        assertThrows(IOException.class, () -> MatchupMatrix.open(other));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+        assertThrows(IOException.class, () -> MatchupMatrix.open(file));
+    }
+
+    @Test
+    void readRow_OutOfBounds() throws IOException {
+        try (MatchupMatrix matrix = MatchupMatrix.open(file)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> matrix.readRow(50));
+            assertThrows(IndexOutOfBoundsException.class, () -> matrix.getScore(0, -1));
+        }
+    }
+
+    @Test
+    void emptyCollection_GivesEmptyMatrix() throws IOException {
+        Path empty = tempDir.resolve("empty.bin");
+
+        try (MatchupMatrix matrix = new MatchupEngine(List.of()).writeMatrix(empty, QueryExecutor.sequential())) {
+            assertEquals(0, matrix.size());
+            assertEquals(16, Files.size(empty));
+        }
+    }
+}
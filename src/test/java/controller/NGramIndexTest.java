@@ -0,0 +1,90 @@
+package controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link NGramIndex}.
+ */
+public class NGramIndexTest {
+
+    private NGramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NGramIndex(Arrays.asList(
+                "bulbasaur", "Charmander", "charmeleon", "Charizard", "squirtle", null, "abab"));
+    }
+
+    @Test
+    void search_LongTermUsesTrigrams() {
+        assertArrayEquals(new int[] {1, 2, 3}, index.search("char"));
+        assertArrayEquals(new int[] {1}, index.search("MANDER"));
+        assertArrayEquals(new int[0], index.search("pikachu"));
+    }
+
+    @Test
+    void search_VerifiesTrigramOrder() {
+        // "rmal" has no match even though its trigrams "rma" and "mal" do not line up anywhere
+        assertArrayEquals(new int[0], index.search("rmal"));
+        assertArrayEquals(new int[] {6}, index.search("bab"));
+    }
+
+    @Test
+    void search_ShortTermScans() {
+        assertArrayEquals(new int[] {0, 4}, index.search("u"));
+        assertArrayEquals(new int[] {1, 2, 3}, index.search("CH"));
+        assertEquals(7, index.search("").length);
+    }
+
+    @Test
+    void search_NullKeysNeverMatch() {
+        for (int row : index.search("a")) {
+            assertNotEquals(5, row);
+        }
+        assertEquals(7, index.size());
+    }
+
+    @Test
+    void union_MergesSortedRows() {
+        assertArrayEquals(new int[] {1, 2, 3, 5, 8}, NGramIndex.union(new int[] {1, 3, 5}, new int[] {2, 3, 8}));
+        assertArrayEquals(new int[] {4}, NGramIndex.union(new int[0], new int[] {4}));
+    }
+
+    @Test
+    void rowChanges_MatchFreshIndex() {
+        String[] names = {"pikachu", "Raichu", "pichu", null, "charmander", "abab", "bab", "squirtle", ""};
+        List<String> keys = new ArrayList<>(Arrays.asList(
+                "bulbasaur", "Charmander", "charmeleon", "Charizard", "squirtle", null, "abab"));
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 200; i++) {
+            int choice = random.nextInt(3);
+            String name = names[random.nextInt(names.length)];
+            if (choice == 0 || keys.isEmpty()) {
+                keys.add(name);
+                index.rowAdded(name);
+            } else if (choice == 1) {
+                int row = random.nextInt(keys.size());
+                keys.remove(row);
+                index.rowRemoved(row);
+            } else {
+                int row = random.nextInt(keys.size());
+                keys.set(row, name);
+                index.rowUpdated(row, name);
+            }
+        }
+
+        NGramIndex fresh = new NGramIndex(keys);
+        assertEquals(keys.size(), index.size());
+        for (String term : new String[] {"chu", "CHAR", "bab", "ab", "u", "", "squirtle", "rmal"}) {
+            assertArrayEquals(fresh.search(term), index.search(term), term);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link NamePrefixIndex}.
+ */
+public class NamePrefixIndexTest {
+
+    private NamePrefixIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NamePrefixIndex(Arrays.asList(
+                "Pikachu", "pichu", "pidgey", "pikachu", null, "", "Charmander", "pidgey", "pidgey"));
+    }
+
+    @Test
+    void suggest_RanksByRowCountThenName() {
+        assertEquals(List.of("pidgey", "Pikachu", "pichu"), index.suggest("pi", 5));
+        assertEquals(List.of("pidgey", "Pikachu"), index.suggest("PI", 2));
+        assertEquals(List.of("Charmander"), index.suggest("charmander", 5));
+        assertEquals(List.of(), index.suggest("pix", 5));
+        assertEquals(List.of(), index.suggest("pi", 0));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void suggest_FollowsUsesAddsAndRemoves() {
+        assertTrue(index.recordUse("PICHU"));
+        assertFalse(index.recordUse("raichu"));
+        assertEquals(List.of("pichu", "pidgey", "Pikachu"), index.suggest("p", 5));
+
+        index.add("pikachu");
+        index.add("pikachu");
+        index.add("Pikachuu");
+        assertTrue(index.remove("pichu"));
+        assertFalse(index.remove("pichu"));
+
+        assertEquals(List.of("Pikachu", "pidgey", "Pikachuu"), index.suggest("p", 5));
+        assertEquals(List.of("Pikachu", "Pikachuu"), index.suggest("pikachu", 5));
+        assertEquals(4, index.size());
+        assertThrows(IllegalArgumentException.class, () -> index.suggest("p", -1));
+    }
+
+    @Test
+    void suggest_MatchesRankingEveryName() {
+        List<String> names = new PokemonGenerator(5).generate(3000).stream()
+                .map(Pokemon::getName).collect(Collectors.toList());
+        index = new NamePrefixIndex(names);
+        Map<String, Integer> rows = new HashMap<>();
+        Map<String, Integer> uses = new HashMap<>();
+        names.forEach(name -> rows.merge(name, 1, Integer::sum));
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            String name = names.get(random.nextInt(names.size()));
+            if (i % 3 == 0) {
+                index.remove(name);
+                rows.merge(name, -1, Integer::sum);
+            } else if (rows.get(name) > 0) {
+                index.recordUse(name);
+                uses.merge(name, 1, Integer::sum);
+            }
+        }
+        Comparator<String> ranking = Comparator.<String>comparingInt(name -> uses.getOrDefault(name, 0)).reversed()
+                .thenComparing(Comparator.<String>comparingInt(rows::get).reversed())
+                .thenComparing(Comparator.naturalOrder());
+
+        for (String prefix : List.of("", "a", "ka", names.get(0).substring(0, 3), names.get(1))) {
+            List<String> expected = rows.keySet().stream()
+                    .filter(name -> rows.get(name) > 0 && name.startsWith(prefix))
+                    .sorted(ranking).limit(10).collect(Collectors.toList());
+            assertEquals(expected, index.suggest(prefix, 10), prefix);
+        }
+        assertEquals(rows.values().stream().filter(count -> count > 0).count(), (long) index.size());
+    }
+}
@@ -0,0 +1,69 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PokemonColumns}.
+ */
+public class PokemonColumnsTest {
+
+    @Test
+    void columns_CopyEveryFieldByRow() {
+        List<Pokemon> pokemonList = Arrays.asList(
+                new Pokemon(1, "bulbasaur", "url", Arrays.asList(PokemonType.GRASS, PokemonType.POISON),
+                        new Pokemon.PokemonStats(45, 49, 49, 65, 65, 45)),
+                new Pokemon(4, "charmander", "url", Arrays.asList(PokemonType.FIRE),
+                        new Pokemon.PokemonStats(39, 52, 43, 60, 50, 65)));
+
+        PokemonColumns columns = new PokemonColumns(pokemonList);
+
+        assertEquals(2, columns.size());
+        assertArrayEquals(new int[] {1, 4}, columns.column(QueryExpression.Field.ID));
+        assertArrayEquals(new int[] {45, 39}, columns.column(QueryExpression.Field.HP));
+        assertArrayEquals(new int[] {65, 50}, columns.column(QueryExpression.Field.SPECIAL_DEFENSE));
+        assertArrayEquals(new int[] {318, 309}, columns.column(QueryExpression.Field.TOTAL));
+        assertArrayEquals(new int[] {PokemonType.GRASS.mask() | PokemonType.POISON.mask(), PokemonType.FIRE.mask()},
+                columns.typeMasks());
+    }
+
+    @Test
+    void rowChanges_MatchFreshColumns() {
+        List<Pokemon> pokemonList = new ArrayList<>(new PokemonGenerator(3).generate(20));
+        PokemonColumns columns = new PokemonColumns(pokemonList);
+        PokemonGenerator generator = new PokemonGenerator(4);
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 100; i++) {
+            int choice = random.nextInt(3);
+            if (choice == 0) {
+                pokemonList.add(generator.generatePokemon(1000 + i));
+                columns.rowAdded(pokemonList.get(pokemonList.size() - 1));
+            } else if (choice == 1) {
+                int row = random.nextInt(pokemonList.size());
+                pokemonList.remove(row);
+                columns.rowRemoved(row);
+            } else {
+                int row = random.nextInt(pokemonList.size());
+                pokemonList.set(row, generator.generatePokemon(2000 + i));
+                columns.rowUpdated(row, pokemonList.get(row));
+            }
+        }
+
+        PokemonColumns fresh = new PokemonColumns(pokemonList);
+        int size = pokemonList.size();
+        assertEquals(size, columns.size());
+        for (QueryExpression.Field field : QueryExpression.Field.values()) {
+            assertArrayEquals(fresh.column(field), Arrays.copyOf(columns.column(field), size), field.toString());
+        }
+        assertArrayEquals(fresh.typeMasks(), Arrays.copyOf(columns.typeMasks(), size));
+    }
+}
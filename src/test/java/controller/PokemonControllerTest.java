@@ -2,15 +2,22 @@ package controller;
 
 import model.IPokemonModel;
 import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonStat;
 import model.PokemonType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -20,6 +27,9 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 public class PokemonControllerTest {
 
+    @TempDir
+    Path tempDir;
+
     private TestPokemonModel testModel;
     private IPokemonController controller;
     private List<Pokemon> testPokemonList;
@@ -221,6 +231,43 @@ public class PokemonControllerTest {
         assertEquals(1, secondCall.size());
     }
 
+    @Test
+    void getSnapshot_VersionAdvancesOnEveryChange() {
+        // Arrange
+        long initial = controller.getSnapshot().getVersion();
+
+        // Act
+        controller.fetchInitialPokemon(7);
+        PokemonSnapshot fetched = controller.getSnapshot();
+        controller.addPokemon(testPokemonList.get(0));
+        PokemonSnapshot added = controller.getSnapshot();
+        controller.removePokemon(4);
+        PokemonSnapshot removed = controller.getSnapshot();
+
+        // Assert
+        assertTrue(fetched.getVersion() > initial);
+        assertTrue(added.getVersion() > fetched.getVersion());
+        assertTrue(removed.getVersion() > added.getVersion());
+        assertEquals(3, fetched.size());
+        assertEquals(4, added.size());
+        assertEquals(3, removed.size());
+        assertEquals(4, fetched.get(1).getId(), "Older snapshots never change");
+        assertEquals(4, added.getById(4).getId());
+        assertNull(removed.getById(4));
+    }
+
+    @Test
+    void getSnapshot_PublishedAcrossThreads() throws Exception {
+        // Act
+        Thread loader = new Thread(() -> controller.fetchInitialPokemon(7));
+        loader.start();
+        loader.join();
+
+        // Assert
+        assertEquals(3, controller.getSnapshot().size());
+        assertEquals(3, controller.getPokemonCollection().size());
+    }
+
     @Test
     void getPokemonCollection_EmptyWhenNothingFetched() {
         // Act
@@ -260,8 +307,10 @@ public class PokemonControllerTest {
         controller.fetchInitialPokemon(3);
         testModel.setThrowExceptionOnSave(true);
 
-        // Act & Assert - The controller should catch the exception
-        assertDoesNotThrow(() -> controller.saveCollection("error.json"));
+        // Act & Assert - The failure is reported to the caller
+        UncheckedIOException exception = assertThrows(UncheckedIOException.class,
+                () -> controller.saveCollection("error.json"));
+        assertEquals("Test save exception", exception.getMessage());
 
         // Reset for other tests
         testModel.setThrowExceptionOnSave(false);
@@ -276,6 +325,42 @@ public class PokemonControllerTest {
         controller.saveCollection(null);
     }
 
+    // =============== loadCollection Tests ===============
+
+    @Test
+    void loadCollection_ReplacesCurrentCollection() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        controller.saveCollection("team.json");
+        controller.fetchInitialPokemon(1);
+
+        // Act
+        List<Pokemon> loaded = controller.loadCollection("team.json");
+
+        // Assert
+        assertEquals(3, loaded.size());
+        assertEquals(3, controller.getPokemonCollection().size());
+        assertEquals("squirtle", controller.getPokemonById(7).getName());
+    }
+
+    @Test
+    void loadCollection_ModelThrowsException() {
+        // Arrange
+        controller.fetchInitialPokemon(3);
+        testModel.setThrowExceptionOnLoad(true);
+
+        // Act
+        List<Pokemon> loaded = controller.loadCollection("error.json");
+
+        // Assert - the current collection is kept
+        assertTrue(loaded.isEmpty());
+        assertEquals(1, controller.getPokemonCollection().size());
+        assertNotNull(controller.getPokemonById(1));
+
+        // Reset for other tests
+        testModel.setThrowExceptionOnLoad(false);
+    }
+
     // =============== searchPokemon Tests ===============
 
     @Test
@@ -328,6 +413,18 @@ public class PokemonControllerTest {
         assertEquals(1, results.size());
     }
 
+    @Test
+    void searchPokemon_TermIsNotTrimmed() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act & Assert - spaces are part of the term, as no name contains them
+        assertTrue(controller.searchPokemon("  ").isEmpty());
+        assertTrue(controller.searchPokemon(" bulba").isEmpty());
+        assertTrue(controller.searchPokemon("char ").isEmpty());
+        assertEquals(1, controller.searchPokemon("bulba").size());
+    }
+
     @Test
     void searchPokemon_NullSearchTerm() {
         // Arrange
@@ -350,6 +447,48 @@ public class PokemonControllerTest {
         assertTrue(results.isEmpty());
     }
 
+    // =============== fuzzySearchPokemon Tests ===============
+
+    @Test
+    void fuzzySearchPokemon_Misspelling() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act
+        List<Pokemon> results = controller.fuzzySearchPokemon("charmandr", 2);
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals("charmander", results.get(0).getName());
+    }
+
+    @Test
+    void fuzzySearchPokemon_NoMatchWithinDistance() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act & Assert
+        assertTrue(controller.fuzzySearchPokemon("pikachu", 1).isEmpty());
+    }
+
+    @Test
+    void fuzzySearchPokemon_EmptyTermReturnsAll() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act & Assert
+        assertEquals(3, controller.fuzzySearchPokemon("", 2).size());
+    }
+
+    @Test
+    void fuzzySearchPokemon_InvalidDistance() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> controller.fuzzySearchPokemon("squirtle", 10));
+    }
+
     // =============== sortPokemonByName Tests ===============
 
     @Test
@@ -389,6 +528,262 @@ public class PokemonControllerTest {
         assertEquals(2, controller.getPokemonCollection().size());
     }
 
+    // =============== sortPokemon Tests ===============
+
+    @Test
+    void sortPokemon_ByHpDescending() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act
+        List<Pokemon> sortedList = controller.sortPokemon(PokemonSortKey.HP, true);
+
+        // Assert
+        assertEquals("bulbasaur", sortedList.get(0).getName());
+        assertEquals("squirtle", sortedList.get(1).getName());
+        assertEquals("charmander", sortedList.get(2).getName());
+    }
+
+    @Test
+    void sortPokemon_ByBaseStatTotal() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act
+        List<Pokemon> sortedList = controller.sortPokemon(PokemonSortKey.BASE_STAT_TOTAL, false);
+
+        // Assert - 309, 314, 318
+        assertEquals("charmander", sortedList.get(0).getName());
+        assertEquals("squirtle", sortedList.get(1).getName());
+        assertEquals("bulbasaur", sortedList.get(2).getName());
+    }
+
+    // =============== addPokemon / removePokemon Tests ===============
+
+    @Test
+    void addPokemon_UpdatesLookupsAndSorts() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        Pokemon pikachu = new Pokemon(25, "pikachu", "pikachu.png",
+                Collections.singletonList(PokemonType.ELECTRIC),
+                new Pokemon.PokemonStats(35, 55, 40, 50, 50, 90));
+
+        // Act
+        controller.addPokemon(pikachu);
+
+        // Assert
+        assertEquals(4, controller.getPokemonCollection().size());
+        assertSame(pikachu, controller.getPokemonById(25));
+        assertEquals("pikachu", controller.sortPokemonByName().get(2).getName());
+        assertEquals(1, controller.searchPokemon("pika").size());
+    }
+
+    @Test
+    void addPokemon_Null() {
+        assertThrows(IllegalArgumentException.class, () -> controller.addPokemon(null));
+    }
+
+    @Test
+    void removePokemon_UpdatesLookupsAndSorts() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act
+        boolean removed = controller.removePokemon(4);
+
+        // Assert
+        assertTrue(removed);
+        assertNull(controller.getPokemonById(4));
+        assertEquals(2, controller.sortPokemon(PokemonSortKey.ID, false).size());
+        assertEquals("squirtle", controller.sortPokemon(PokemonSortKey.ID, true).get(0).getName());
+        assertTrue(controller.searchPokemon("char").isEmpty());
+    }
+
+    @Test
+    void removePokemon_UnknownId() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act & Assert
+        assertFalse(controller.removePokemon(999));
+        assertEquals(3, controller.getPokemonCollection().size());
+    }
+
+    @Test
+    void updatePokemon_ReplacesInPlace() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        Pokemon charmeleon = new Pokemon(4, "charmeleon", "url",
+                Collections.singletonList(PokemonType.FIRE), new Pokemon.PokemonStats(58, 64, 58, 80, 65, 80));
+
+        // Act
+        boolean updated = controller.updatePokemon(charmeleon);
+
+        // Assert
+        assertTrue(updated);
+        assertEquals("charmeleon", controller.getPokemonCollection().get(1).getName());
+        assertSame(charmeleon, controller.getPokemonById(4));
+        assertEquals("squirtle", controller.sortPokemonByName().get(2).getName());
+        assertFalse(controller.updatePokemon(new Pokemon(99, "missingno", "url",
+                Collections.singletonList(PokemonType.NORMAL), new Pokemon.PokemonStats(1, 1, 1, 1, 1, 1))));
+    }
+
+    // =============== change event Tests ===============
+
+    @Test
+    void changeListener_ReceivesRowRangesInVersionOrder() {
+        // Arrange
+        List<PokemonChangeEvent> events = new ArrayList<>();
+        controller.addChangeListener(events::add);
+        controller.fetchInitialPokemon(7);
+        Pokemon charmander = controller.getPokemonById(4);
+        Pokemon ivysaur = new Pokemon(2, "ivysaur", "url",
+                Arrays.asList(PokemonType.GRASS, PokemonType.POISON), new Pokemon.PokemonStats(60, 62, 63, 80, 80, 60));
+
+        // Act
+        controller.addPokemon(ivysaur);
+        controller.removePokemon(4);
+        controller.updatePokemon(ivysaur);
+
+        // Assert
+        assertEquals(4, events.size());
+        assertEquals(PokemonChangeEvent.Type.RESET, events.get(0).getType());
+        assertEquals(PokemonChangeEvent.Type.INSERTED, events.get(1).getType());
+        assertEquals(3, events.get(1).getFirstRow());
+        assertEquals(3, events.get(1).getLastRow());
+        assertEquals(PokemonChangeEvent.Type.REMOVED, events.get(2).getType());
+        assertEquals(1, events.get(2).getFirstRow());
+        assertEquals(List.of(charmander), events.get(2).getPreviousPokemon());
+        assertEquals(PokemonChangeEvent.Type.UPDATED, events.get(3).getType());
+        assertEquals(2, events.get(3).getFirstRow());
+        for (int i = 1; i < events.size(); i++) {
+            assertEquals(events.get(i - 1).getVersion() + 1, events.get(i).getVersion());
+        }
+        assertSame(controller.getSnapshot(), events.get(3).getSnapshot());
+    }
+
+    @Test
+    void changeListener_NotCalledForNoOpsOrAfterRemoval() {
+        // Arrange
+        List<PokemonChangeEvent> events = new ArrayList<>();
+        PokemonChangeListener listener = events::add;
+        controller.addChangeListener(listener);
+        controller.addChangeListener(event -> {
+            throw new IllegalStateException("Failing listener");
+        });
+
+        // Act
+        controller.removePokemon(42);
+        controller.fetchInitialPokemon(7);
+        controller.removeChangeListener(listener);
+        controller.removePokemon(1);
+
+        // Assert
+        assertEquals(1, events.size(), "Only the fetch should be reported, despite the failing listener");
+    }
+
+    @Test
+    void changeListener_GivesPositionsInPagedResults() throws IOException {
+        // Arrange
+        testModel.saveCollection(new PokemonGenerator(6).generate(400), "generated.json");
+        controller.loadCollection("generated.json");
+        PokemonQuery query = PokemonQuery.builder()
+                .types(PokemonType.WATER, PokemonType.GRASS, PokemonType.FIRE)
+                .sortBy(PokemonSortKey.SPEED, true)
+                .build();
+        List<Pokemon> shown = new ArrayList<>(controller.getPage(query, 0, PokemonQuery.NO_LIMIT));
+        List<PokemonChangeEvent> events = new ArrayList<>();
+        controller.addChangeListener(events::add);
+        PokemonGenerator generator = new PokemonGenerator(7);
+        SplittableRandom random = new SplittableRandom(2);
+
+        // Act & Assert: patching the shown rows with the event positions keeps them equal to the results
+        for (int i = 0; i < 150; i++) {
+            List<Pokemon> collection = controller.getPokemonCollection();
+            int choice = random.nextInt(3);
+            if (choice == 0) {
+                controller.addPokemon(generator.generatePokemon(1000 + i));
+            } else if (choice == 1) {
+                controller.removePokemon(collection.get(random.nextInt(collection.size())).getId());
+            } else {
+                int id = collection.get(random.nextInt(collection.size())).getId();
+                controller.updatePokemon(generator.generatePokemon(id));
+            }
+            PokemonChangeEvent event = events.get(events.size() - 1);
+            assertEquals(query.toBuilder().limit(PokemonQuery.NO_LIMIT).build(), event.getPagedQuery());
+            if (event.getOldPosition() >= 0) {
+                assertSame(event.getPreviousPokemon().get(0), shown.remove(event.getOldPosition()));
+            }
+            if (event.getNewPosition() >= 0) {
+                shown.add(event.getNewPosition(), event.getPokemon().get(0));
+            }
+            assertEquals(controller.query(query), shown);
+        }
+        assertEquals(shown.size(), controller.count(query));
+        assertEquals(shown.subList(10, 15), controller.getPage(query, 10, 5));
+    }
+
+    @Test
+    void getPage_RejectsNegativeWindow() {
+        controller.fetchInitialPokemon(7);
+        PokemonQuery query = PokemonQuery.builder().build();
+
+        assertThrows(IllegalArgumentException.class, () -> controller.getPage(query, -1, 5));
+        assertThrows(IllegalArgumentException.class, () -> controller.getPage(query, 0, -1));
+    }
+
+    @Test
+    void getPage_NarrowsAsSearchTermGrows() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        PokemonQuery.Builder query = PokemonQuery.builder().sortBy(PokemonSortKey.NAME, false);
+
+        // Act & Assert: each longer term narrows the previous results
+        assertEquals(List.of("bulbasaur", "charmander"),
+                controller.getPage(query.nameOrIdContains("a").build(), 0, 10).stream().map(Pokemon::getName).toList());
+        assertEquals(List.of("charmander"),
+                controller.getPage(query.nameOrIdContains("ar").build(), 0, 10).stream().map(Pokemon::getName).toList());
+        assertTrue(controller.getPage(query.nameOrIdContains("arx").build(), 0, 10).isEmpty());
+        assertEquals(3, controller.count(query.nameOrIdContains("").build()));
+    }
+
+    // =============== suggestNames Tests ===============
+
+    @Test
+    void suggestNames_FollowsChanges() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        Pokemon chikorita = new Pokemon(152, "chikorita", "url",
+                Collections.singletonList(PokemonType.GRASS), new Pokemon.PokemonStats(45, 49, 65, 49, 65, 45));
+
+        // Act & Assert
+        assertEquals(List.of("charmander"), controller.suggestNames("ch", 8));
+        controller.updatePokemon(new Pokemon(4, "charmeleon", "url",
+                Collections.singletonList(PokemonType.FIRE), new Pokemon.PokemonStats(58, 64, 58, 80, 65, 80)));
+        controller.addPokemon(chikorita);
+        assertEquals(List.of("charmeleon", "chikorita"), controller.suggestNames("CH", 8));
+        controller.recordNameUse("chikorita");
+        assertEquals(List.of("chikorita", "charmeleon"), controller.suggestNames("ch", 8));
+        controller.removePokemon(152);
+        assertEquals(List.of("charmeleon"), controller.suggestNames("ch", 8));
+        assertThrows(IllegalArgumentException.class, () -> controller.suggestNames("ch", -1));
+    }
+
+    @Test
+    void suggestNames_RestartAfterLoad() throws IOException {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        controller.recordNameUse("squirtle");
+        testModel.saveCollection(new PokemonGenerator(6).generate(50), "generated.json");
+
+        // Act
+        List<Pokemon> loaded = controller.loadCollection("generated.json");
+
+        // Assert: the recorded use was forgotten with the old collection
+        NamePrefixIndex fresh = new NamePrefixIndex(loaded.stream().map(Pokemon::getName).toList());
+        assertEquals(fresh.suggest("s", 8), controller.suggestNames("s", 8));
+    }
+
     // =============== filterPokemonByType Tests ===============
 
     @Test
@@ -450,6 +845,274 @@ public class PokemonControllerTest {
         assertTrue(filteredList.isEmpty());
     }
 
+    // =============== stat range Tests ===============
+
+    @Test
+    void filterPokemonByStatRange_Success() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act
+        List<Pokemon> fast = controller.filterPokemonByStatRange(PokemonStat.SPEED, 45, 100);
+
+        // Assert
+        assertEquals(2, fast.size());
+        assertEquals("bulbasaur", fast.get(0).getName());
+        assertEquals("charmander", fast.get(1).getName());
+    }
+
+    @Test
+    void filterPokemonByStatRange_InvalidRange() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> controller.filterPokemonByStatRange(PokemonStat.HP, 50, 40));
+    }
+
+    @Test
+    void filterPokemonByTotalRange_Success() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act - totals are 318, 309 and 314
+        List<Pokemon> result = controller.filterPokemonByTotalRange(310, 320);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("bulbasaur", result.get(0).getName());
+        assertEquals("squirtle", result.get(1).getName());
+    }
+
+    @Test
+    void query_CombinesStatRanges() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        PokemonQuery query = PokemonQuery.builder()
+                .statRange(PokemonStat.SPEED, 44, 255)
+                .statRange(PokemonStat.ATTACK, 50, 60)
+                .build();
+
+        // Act
+        List<Pokemon> result = controller.query(query);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("charmander", result.get(0).getName());
+    }
+
+    // =============== query Tests ===============
+
+    @Test
+    void query_CombinesSearchTypeAndSort() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        PokemonQuery query = PokemonQuery.builder()
+                .nameContains("r")
+                .types(PokemonType.FIRE, PokemonType.WATER)
+                .sortBy(PokemonSortKey.ID, true)
+                .build();
+
+        // Act
+        List<Pokemon> result = controller.query(query);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("squirtle", result.get(0).getName());
+        assertEquals("charmander", result.get(1).getName());
+    }
+
+    @Test
+    void query_ReturnsOnlyRequestedPage() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        PokemonQuery query = PokemonQuery.builder()
+                .sortBy(PokemonSortKey.NAME, false)
+                .offset(1)
+                .limit(1)
+                .build();
+
+        // Act
+        List<Pokemon> result = controller.query(query);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("charmander", result.get(0).getName());
+    }
+
+    @Test
+    void getPage_ReturnsWindowOfSortedResults() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        PokemonQuery query = PokemonQuery.builder()
+                .sortBy(PokemonSortKey.ID, true)
+                .limit(1)
+                .build();
+
+        // Act
+        List<Pokemon> result = controller.getPage(query, 1, 2);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("charmander", result.get(0).getName());
+        assertEquals("bulbasaur", result.get(1).getName());
+    }
+
+    @Test
+    void count_IgnoresPaging() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        PokemonQuery query = PokemonQuery.builder()
+                .totalRange(310, 400)
+                .limit(1)
+                .build();
+
+        // Act & Assert
+        assertEquals(2, controller.count(query));
+        assertEquals(0, controller.count(PokemonQuery.builder().nameContains("zzz").build()));
+    }
+
+    @Test
+    void query_RepeatedQueryIsServedFromCache() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        PokemonQuery query = PokemonQuery.builder().types(PokemonType.FIRE).build();
+
+        // Act
+        List<Pokemon> first = controller.query(query);
+        List<Pokemon> second = controller.query(query.toBuilder().build());
+
+        // Assert
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        QueryCache.Stats stats = controller.getQueryCacheStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void query_CacheIsInvalidatedByChanges() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        PokemonQuery query = PokemonQuery.builder().types(PokemonType.FIRE).build();
+        assertEquals(1, controller.query(query).size());
+
+        // Act
+        controller.addPokemon(new Pokemon(5, "charmeleon", "url",
+                Collections.singletonList(PokemonType.FIRE), new Pokemon.PokemonStats(58, 64, 58, 80, 65, 80)));
+
+        // Assert
+        assertEquals(2, controller.query(query).size());
+        assertEquals(0, controller.getQueryCacheStats().getHits());
+    }
+
+    // =============== statistics Tests ===============
+
+    @Test
+    void statSummaries_FollowChanges() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        assertEquals(1, controller.getStatSummary(PokemonType.FIRE, PokemonStat.HP).getCount());
+        assertEquals(3, controller.getTotalSummary(null).getCount());
+
+        // Act
+        controller.addPokemon(new Pokemon(5, "charmeleon", "url",
+                Collections.singletonList(PokemonType.FIRE), new Pokemon.PokemonStats(58, 64, 58, 80, 65, 80)));
+        controller.removePokemon(7);
+        controller.updatePokemon(new Pokemon(1, "bulbasaur", "url",
+                Arrays.asList(PokemonType.GRASS, PokemonType.POISON), new Pokemon.PokemonStats(90, 49, 49, 65, 65, 45)));
+
+        // Assert
+        PokemonStatistics.Summary fireHp = controller.getStatSummary(PokemonType.FIRE, PokemonStat.HP);
+        assertEquals(2, fireHp.getCount());
+        assertEquals(58, fireHp.getMax());
+        assertEquals(0, controller.getStatSummary(PokemonType.WATER, PokemonStat.HP).getCount());
+        assertEquals(90, controller.getStatSummary(null, PokemonStat.HP).getMax());
+        assertEquals(3, controller.getTotalSummary(null).getCount());
+        assertThrows(IllegalArgumentException.class, () -> controller.getStatSummary(null, null));
+    }
+
+    @Test
+    void getPercentileRanks_RanksEachStat() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        Pokemon charmander = controller.getPokemonById(4);
+
+        // Act
+        Map<PokemonStat, Double> ranks = controller.getPercentileRanks(charmander.getStats());
+
+        // Assert
+        assertEquals(PokemonStat.values().length, ranks.size());
+        assertEquals(100 * 2.5 / 3, ranks.get(PokemonStat.SPEED), 1e-9, "Charmander is the fastest of three");
+        assertEquals(100 * 0.5 / 3, ranks.get(PokemonStat.HP), 1e-9, "Charmander has the lowest HP of three");
+        assertThrows(IllegalArgumentException.class, () -> controller.getPercentileRanks(null));
+    }
+
+    @Test
+    void findSimilarPokemon_FollowsChanges() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        Pokemon bulbasaur = controller.getPokemonById(1);
+        Pokemon ivysaur = new Pokemon(2, "ivysaur", "url",
+                Arrays.asList(PokemonType.GRASS, PokemonType.POISON), new Pokemon.PokemonStats(46, 50, 50, 66, 66, 46));
+
+        // Act
+        controller.addPokemon(ivysaur);
+        List<Pokemon> similar = controller.findSimilarPokemon(bulbasaur, 2, false);
+        controller.removePokemon(2);
+
+        // Assert
+        assertEquals(2, similar.size());
+        assertSame(ivysaur, similar.get(0));
+        assertFalse(similar.contains(bulbasaur));
+        assertFalse(controller.findSimilarPokemon(bulbasaur, 5, false).contains(ivysaur));
+        assertTrue(controller.findSimilarPokemon(bulbasaur, 5, true).isEmpty(), "No other grass or poison Pokemon");
+    }
+
+    // =============== optimizeTeams Tests ===============
+
+    @Test
+    void optimizeTeams_UsesWholeSmallCollection() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act
+        TeamOptimizer.Result result = controller.optimizeTeams(3, 1000);
+
+        // Assert
+        assertTrue(result.isComplete());
+        assertEquals(1, result.getTeams().size());
+        assertEquals(3, result.getTeams().get(0).getMembers().size());
+        assertTrue(result.getTeams().get(0).getOffensiveCoverage().contains(PokemonType.FIRE),
+                "Squirtle's water attacks cover fire");
+    }
+
+    // =============== buildMatchupMatrix Tests ===============
+
+    @Test
+    void buildMatchupMatrix_WritesCurrentCollection() throws IOException {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        String filename = tempDir.resolve("matchups.bin").toString();
+
+        // Act
+        try (MatchupMatrix matrix = controller.buildMatchupMatrix(filename)) {
+            // Assert
+            assertEquals(3, matrix.size());
+            assertTrue(matrix.getScore(matrix.rowOf(7), matrix.rowOf(4)) > 0, "Squirtle should beat charmander");
+        }
+    }
+
+    @Test
+    void buildMatchupMatrix_UnwritableFile() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+
+        // Act & Assert
+        assertNull(controller.buildMatchupMatrix(tempDir.resolve("missing").resolve("matchups.bin").toString()));
+    }
+
     // =============== getPokemonById Tests ===============
 
     @Test
@@ -487,6 +1150,17 @@ public class PokemonControllerTest {
         assertNull(pokemon);
     }
 
+    @Test
+    void getPokemonById_ReflectsLatestFetch() {
+        // Arrange
+        controller.fetchInitialPokemon(7);
+        controller.fetchInitialPokemon(3);
+
+        // Act & Assert
+        assertNotNull(controller.getPokemonById(1));
+        assertNull(controller.getPokemonById(7));
+    }
+
     @Test
     void getPokemonById_NegativeId() {
         // Arrange
@@ -0,0 +1,137 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PokemonIdIndex}.
+ */
+public class PokemonIdIndexTest {
+
+    private PokemonIdIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PokemonIdIndex();
+    }
+
+    private static Pokemon createPokemon(int id, String name) {
+        return new Pokemon(id, name, name + ".png", Collections.singletonList(PokemonType.NORMAL),
+                new Pokemon.PokemonStats(50, 50, 50, 50, 50, 50));
+    }
+
+    @Test
+    void get_EmptyIndex() {
+        assertNull(index.get(1));
+        assertNull(index.get(0));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void put_ZeroAndNegativeIds() {
+        index.put(createPokemon(0, "zero"));
+        index.put(createPokemon(-5, "negative"));
+
+        assertEquals("zero", index.get(0).getName());
+        assertEquals("negative", index.get(-5).getName());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void put_ReplacesButPutIfAbsentKeepsFirst() {
+        index.put(createPokemon(1, "first"));
+
+        assertFalse(index.putIfAbsent(createPokemon(1, "second")));
+        assertEquals("first", index.get(1).getName());
+
+        index.put(createPokemon(1, "third"));
+        assertEquals("third", index.get(1).getName());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void constructor_FirstDuplicateWins() {
+        PokemonIdIndex built = new PokemonIdIndex(Arrays.asList(
+                createPokemon(25, "pikachu"), createPokemon(25, "clone")));
+
+        assertEquals("pikachu", built.get(25).getName());
+        assertEquals(1, built.size());
+    }
+
+    @Test
+    void put_GrowsPastInitialCapacity() {
+        List<Pokemon> pokemonList = new ArrayList<>();
+        for (int id = 1; id <= 10_000; id++) {
+            pokemonList.add(createPokemon(id * 16, "mon" + id));
+        }
+        PokemonIdIndex built = new PokemonIdIndex(pokemonList);
+
+        for (int id = 1; id <= 10_000; id++) {
+            assertEquals("mon" + id, built.get(id * 16).getName());
+        }
+        assertNull(built.get(17));
+    }
+
+    @Test
+    void remove_KeepsProbeChainsIntact() {
+        for (int id = 0; id < 1_000; id++) {
+            index.put(createPokemon(id, "mon" + id));
+        }
+        for (int id = 0; id < 1_000; id += 2) {
+            assertNotNull(index.remove(id));
+        }
+
+        assertEquals(500, index.size());
+        assertNull(index.remove(0));
+        for (int id = 0; id < 1_000; id++) {
+            if (id % 2 == 0) {
+                assertNull(index.get(id));
+            } else {
+                assertEquals("mon" + id, index.get(id).getName());
+            }
+        }
+    }
+
+    @Test
+    void copy_SharesUntilEitherSideChanges() {
+        for (int id = 0; id < 5_000; id++) {
+            index.put(createPokemon(id, "mon" + id), id);
+        }
+        PokemonIdIndex copy = new PokemonIdIndex(index);
+
+        copy.put(createPokemon(7, "changed"), 70);
+        copy.remove(8);
+        index.put(createPokemon(9, "original side"), 90);
+
+        assertEquals("mon7", index.get(7).getName());
+        assertEquals(7, index.getRowKey(7));
+        assertEquals("mon8", index.get(8).getName());
+        assertEquals("changed", copy.get(7).getName());
+        assertEquals(70, copy.getRowKey(7));
+        assertNull(copy.get(8));
+        assertEquals("mon9", copy.get(9).getName());
+        assertEquals(5_000, index.size());
+        assertEquals(4_999, copy.size());
+    }
+
+    @Test
+    void getRowKey_ListPositionsAndMissingIds() {
+        PokemonIdIndex built = new PokemonIdIndex(Arrays.asList(
+                createPokemon(4, "charmander"), createPokemon(4, "clone"), createPokemon(7, "squirtle")));
+        index.put(createPokemon(1, "unkeyed"));
+
+        assertEquals(0, built.getRowKey(4));
+        assertEquals(2, built.getRowKey(7));
+        assertEquals(PokemonIdIndex.NO_ROW_KEY, built.getRowKey(1));
+        assertEquals(PokemonIdIndex.NO_ROW_KEY, index.getRowKey(1));
+    }
+}
@@ -0,0 +1,107 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PokemonPages}.
+ */
+public class PokemonPagesTest {
+
+    @Test
+    void of_KeysRowsByPosition() {
+        List<Pokemon> pokemonList = new PokemonGenerator(4).generate(2_500);
+        PokemonPages pages = PokemonPages.of(pokemonList);
+
+        assertEquals(2_500, pages.size());
+        assertSame(pokemonList.get(1_024), pages.get(1_024));
+        assertEquals(2_499, pages.keyAt(2_499));
+        assertEquals(1_500, pages.rowOf(1_500));
+        assertEquals(-1, pages.rowOf(2_500));
+        assertArrayEquals(pokemonList.toArray(), pages.toArray());
+        assertThrows(IndexOutOfBoundsException.class, () -> pages.get(2_500));
+        assertEquals(0, PokemonPages.empty().size());
+        assertEquals(-1, PokemonPages.empty().rowOf(0));
+    }
+
+    @Test
+    void edits_LeaveOriginalUnchanged() {
+        List<Pokemon> pokemonList = new PokemonGenerator(4).generate(3_000);
+        PokemonPages original = PokemonPages.of(pokemonList);
+
+        PokemonPages edited = original.set(5, pokemonList.get(0)).remove(1_500).append(pokemonList.get(1));
+
+        assertArrayEquals(pokemonList.toArray(), original.toArray());
+        assertSame(pokemonList.get(0), edited.get(5));
+        assertEquals(-1, edited.rowOf(1_500));
+        assertEquals(1_500, edited.rowOf(1_501));
+        assertEquals(3_000, edited.keyAt(2_999));
+    }
+
+    @Test
+    void randomEdits_MatchList() {
+        List<Pokemon> pool = new PokemonGenerator(5).generate(500);
+        List<Pokemon> expected = new ArrayList<>(pool.subList(0, 300));
+        List<Integer> expectedKeys = new ArrayList<>();
+        for (int i = 0; i < expected.size(); i++) {
+            expectedKeys.add(i);
+        }
+        PokemonPages pages = PokemonPages.of(expected);
+        Random random = new Random(11);
+
+        for (int step = 0; step < 5_000; step++) {
+            int choice = random.nextInt(10);
+            Pokemon pokemon = pool.get(random.nextInt(pool.size()));
+            if (choice < 4 || expected.isEmpty()) {
+                int key = expectedKeys.isEmpty() ? 0 : expectedKeys.get(expectedKeys.size() - 1) + 1;
+                pages = pages.append(pokemon);
+                expected.add(pokemon);
+                expectedKeys.add(key);
+            } else if (choice < 8) {
+                int row = random.nextInt(expected.size());
+                pages = pages.remove(row);
+                expected.remove(row);
+                expectedKeys.remove(row);
+            } else {
+                int row = random.nextInt(expected.size());
+                pages = pages.set(row, pokemon);
+                expected.set(row, pokemon);
+            }
+        }
+
+        assertEquals(expected.size(), pages.size());
+        assertEquals(expected, Arrays.asList(pages.toArray()));
+        for (int row = 0; row < expected.size(); row++) {
+            assertSame(expected.get(row), pages.get(row));
+            assertEquals(expectedKeys.get(row).intValue(), pages.keyAt(row));
+            assertEquals(row, pages.rowOf(expectedKeys.get(row)));
+        }
+    }
+
+    @Test
+    void remove_MergesSmallPages() {
+        List<Pokemon> pokemonList = new PokemonGenerator(6).generate(2 * PokemonPages.PAGE_SIZE);
+        PokemonPages pages = PokemonPages.of(pokemonList);
+        List<Pokemon> expected = new ArrayList<>(pokemonList);
+
+        // Shrink the first page until it merges into the second, then empty everything
+        while (!expected.isEmpty()) {
+            pages = pages.remove(0);
+            expected.remove(0);
+            assertEquals(expected.size(), pages.size());
+            if (!expected.isEmpty()) {
+                assertSame(expected.get(expected.size() - 1), pages.get(pages.size() - 1));
+            }
+        }
+        assertEquals(-1, pages.rowOf(0));
+        assertEquals(0, pages.append(pokemonList.get(0)).keyAt(0));
+    }
+}
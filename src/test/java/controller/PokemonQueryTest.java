@@ -0,0 +1,122 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+import model.PokemonType;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PokemonQuery}.
+ */
+public class PokemonQueryTest {
+
+    private Pokemon pokemon(PokemonType... types) {
+        Pokemon.PokemonStats stats = new Pokemon.PokemonStats(45, 49, 49, 65, 65, 45);
+        return new Pokemon(1, "bulbasaur", "url", Arrays.asList(types), stats);
+    }
+
+    @Test
+    void builder_Defaults() {
+        PokemonQuery query = PokemonQuery.builder().build();
+
+        assertEquals("", query.getSearchTerm());
+        assertEquals(0, query.getTypeMask());
+        assertTrue(query.getSortOrders().isEmpty());
+        assertEquals(0, query.getOffset());
+        assertEquals(PokemonQuery.NO_LIMIT, query.getLimit());
+        assertFalse(QueryFilters.hasFilters(query));
+    }
+
+    @Test
+    void builder_TrimsTermAndIgnoresNullType() {
+        PokemonQuery query = PokemonQuery.builder().nameOrIdContains("  pika ").types((PokemonType) null).build();
+
+        assertEquals("pika", query.getSearchTerm());
+        assertTrue(query.isMatchIds());
+        assertEquals(0, query.getTypeMask());
+    }
+
+    @Test
+    void builder_RejectsInvalidValues() {
+        PokemonQuery.Builder builder = PokemonQuery.builder();
+
+        assertThrows(IllegalArgumentException.class, () -> builder.offset(-1));
+        assertThrows(IllegalArgumentException.class, () -> builder.limit(-1));
+        assertThrows(IllegalArgumentException.class, () -> builder.statRange(PokemonStat.HP, 10, 5));
+        assertThrows(IllegalArgumentException.class, () -> builder.totalRange(600, 100));
+        assertThrows(IllegalArgumentException.class, () -> builder.sortBy(null, false));
+    }
+
+    @Test
+    void matchesFilters_TypesMatchAny() {
+        PokemonQuery query = PokemonQuery.builder().types(PokemonType.FIRE, PokemonType.POISON).build();
+
+        assertTrue(QueryFilters.matches(query, pokemon(PokemonType.GRASS, PokemonType.POISON)));
+        assertFalse(QueryFilters.matches(query, pokemon(PokemonType.WATER)));
+    }
+
+    @Test
+    void matchesFilters_StatAndTotalRanges() {
+        Pokemon bulbasaur = pokemon(PokemonType.GRASS);
+
+        assertTrue(QueryFilters.matches(PokemonQuery.builder().statRange(PokemonStat.HP, 45, 45).build(), bulbasaur));
+        assertFalse(QueryFilters.matches(PokemonQuery.builder().statRange(PokemonStat.SPEED, 46, 255).build(), bulbasaur));
+        assertTrue(QueryFilters.matches(PokemonQuery.builder().totalRange(318, 318).build(), bulbasaur));
+        assertFalse(QueryFilters.matches(PokemonQuery.builder().totalRange(319, 720).build(), bulbasaur));
+    }
+
+    @Test
+    void where_ParsesExpressionAndJoinsFilters() {
+        Pokemon bulbasaur = pokemon(PokemonType.GRASS);
+        PokemonQuery query = PokemonQuery.builder().where("special_attack > attack").build();
+
+        assertTrue(QueryFilters.hasFilters(query));
+        assertTrue(QueryFilters.matches(query, bulbasaur));
+        assertFalse(QueryFilters.matches(query.toBuilder().where("speed > 45").build(), bulbasaur));
+        assertNull(query.toBuilder().where("  ").build().getExpression());
+        assertEquals(query, PokemonQuery.builder().where(QueryExpression.parse("SPECIAL_ATTACK>attack")).build());
+        assertThrows(IllegalArgumentException.class, () -> PokemonQuery.builder().where("speed >"));
+    }
+
+    @Test
+    void toBuilder_DerivesIndependentQuery() {
+        PokemonQuery original = PokemonQuery.builder().sortBy(PokemonSortKey.HP, true).limit(10).build();
+        PokemonQuery derived = original.toBuilder().offset(10).sortBy(PokemonSortKey.NAME, false).build();
+
+        assertEquals(1, original.getSortOrders().size());
+        assertEquals(0, original.getOffset());
+        assertEquals(2, derived.getSortOrders().size());
+        assertEquals(10, derived.getOffset());
+        assertEquals(10, derived.getLimit());
+    }
+
+    @Test
+    void equals_ComparesEveryCriterion() {
+        PokemonQuery query = PokemonQuery.builder().nameContains("char").types(PokemonType.FIRE)
+                .statRange(PokemonStat.SPEED, 60, 255).sortBy(PokemonSortKey.ID, true).limit(5).build();
+
+        assertEquals(query, query.toBuilder().build());
+        assertEquals(query.hashCode(), query.toBuilder().build().hashCode());
+        assertNotEquals(query, query.toBuilder().limit(6).build());
+        assertNotEquals(query, query.toBuilder().types(PokemonType.WATER).build());
+        assertNotEquals(query, query.toBuilder().statRange(PokemonStat.SPEED, 61, 255).build());
+        assertNotEquals(query, query.toBuilder().clearSort().build());
+    }
+
+    @Test
+    void normalized_LowerCasesTermAndDropsUnusedIdMatching() {
+        PokemonQuery upper = PokemonQuery.builder().nameOrIdContains(" PiKa ").build();
+        PokemonQuery lower = PokemonQuery.builder().nameOrIdContains("pika").build();
+
+        assertNotEquals(upper, lower);
+        assertEquals(lower, upper.normalized());
+        assertSame(lower, lower.normalized());
+        assertSame(upper.normalized(), upper.normalized());
+        assertSame(upper.normalized(), upper.normalized().normalized());
+        assertEquals(PokemonQuery.builder().build(), PokemonQuery.builder().nameOrIdContains("  ").build().normalized());
+    }
+}
@@ -0,0 +1,78 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PokemonSnapshot}.
+ */
+public class PokemonSnapshotTest {
+
+    private List<Pokemon> pokemonList;
+    private PokemonSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new PokemonGenerator(3).generate(5);
+        snapshot = new PokemonSnapshot(7, PokemonPages.of(pokemonList), new PokemonIdIndex(pokemonList));
+    }
+
+    @Test
+    void accessors() {
+        assertEquals(7, snapshot.getVersion());
+        assertEquals(5, snapshot.size());
+        assertSame(pokemonList.get(2), snapshot.get(2));
+        assertSame(pokemonList.get(4), snapshot.getById(5));
+        assertNull(snapshot.getById(99));
+        assertEquals(0, PokemonSnapshot.empty().getVersion());
+        assertEquals(0, PokemonSnapshot.empty().size());
+    }
+
+    @Test
+    void asList_ReadsWithoutCopying() {
+        List<Pokemon> view = snapshot.asList();
+
+        assertEquals(pokemonList, view);
+        assertEquals(pokemonList, new ArrayList<>(view));
+        assertEquals(pokemonList.indexOf(pokemonList.get(3)), view.indexOf(pokemonList.get(3)));
+    }
+
+    @Test
+    void asList_ModificationsStayInTheView() {
+        List<Pokemon> view = snapshot.asList();
+        List<Pokemon> other = snapshot.asList();
+
+        view.remove(0);
+        view.add(pokemonList.get(0));
+        view.set(1, pokemonList.get(0));
+
+        assertEquals(5, view.size());
+        assertSame(pokemonList.get(0), view.get(1));
+        assertEquals(pokemonList, other);
+        assertSame(pokemonList.get(0), snapshot.get(0));
+        assertSame(pokemonList.get(2), snapshot.get(2));
+
+        view.clear();
+        assertTrue(view.isEmpty());
+        assertEquals(5, snapshot.size());
+    }
+
+    @Test
+    void asList_IteratorRemove() {
+        List<Pokemon> view = snapshot.asList();
+        Iterator<Pokemon> iterator = view.iterator();
+        iterator.next();
+        iterator.remove();
+
+        assertEquals(4, view.size());
+        assertEquals(5, snapshot.size());
+    }
+}
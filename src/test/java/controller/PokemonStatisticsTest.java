@@ -0,0 +1,136 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonStat;
+import model.PokemonType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PokemonStatistics}.
+ */
+public class PokemonStatisticsTest {
+
+    private List<Pokemon> pokemonList;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new PokemonGenerator(6).generate(2000);
+    }
+
+    @Test
+    void summarize_MatchesDirectComputation() {
+        PokemonStatistics statistics = new PokemonStatistics(pokemonList);
+
+        for (PokemonType type : new PokemonType[]{null, PokemonType.FIRE, PokemonType.DRAGON}) {
+            int[] values = pokemonList.stream()
+                    .filter(pokemon -> type == null || pokemon.getTypes().contains(type))
+                    .mapToInt(pokemon -> pokemon.getStats().getSpeed())
+                    .sorted()
+                    .toArray();
+            PokemonStatistics.Summary summary = statistics.summarize(type, PokemonStat.SPEED);
+
+            assertEquals(values.length, summary.getCount());
+            assertEquals(values[0], summary.getMin());
+            assertEquals(values[values.length - 1], summary.getMax());
+            assertEquals(Arrays.stream(values).average().orElse(0), summary.getMean(), 1e-9);
+            assertEquals(values[(values.length + 1) / 2 - 1], summary.getPercentile(50));
+            assertEquals(values[(int) Math.ceil(0.9 * values.length) - 1], summary.getPercentile(90));
+            assertEquals(values[0], summary.getPercentile(0));
+        }
+        assertEquals(pokemonList.size(), statistics.getCount());
+    }
+
+    @Test
+    void summarizeTotal_UsesBaseStatTotal() {
+        PokemonStatistics statistics = new PokemonStatistics(pokemonList);
+        int max = pokemonList.stream().mapToInt(pokemon -> PokemonStat.total(pokemon.getStats())).max().orElse(0);
+
+        PokemonStatistics.Summary summary = statistics.summarizeTotal(null);
+
+        assertEquals(max, summary.getMax());
+        assertEquals(PokemonStatistics.MAX_TOTAL + 1, summary.getHistogram().length);
+    }
+
+    @Test
+    void addAndRemove_MatchRebuild() {
+        PokemonStatistics statistics = new PokemonStatistics(pokemonList.subList(0, 1500));
+        for (Pokemon pokemon : pokemonList.subList(1500, 2000)) {
+            statistics.add(pokemon);
+        }
+        for (Pokemon pokemon : pokemonList.subList(0, 300)) {
+            statistics.remove(pokemon);
+        }
+        PokemonStatistics rebuilt = new PokemonStatistics(pokemonList.subList(300, 2000));
+
+        for (PokemonType type : PokemonType.values()) {
+            assertEquals(rebuilt.getCount(type), statistics.getCount(type));
+            for (PokemonStat stat : PokemonStat.values()) {
+                assertArrayEquals(rebuilt.summarize(type, stat).getHistogram(),
+                        statistics.summarize(type, stat).getHistogram());
+                assertEquals(rebuilt.summarize(type, stat).getMean(), statistics.summarize(type, stat).getMean(), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void percentileRank_CountsTiesAsHalf() {
+        List<Pokemon> small = new ArrayList<>();
+        for (int hp : new int[]{10, 20, 20, 40}) {
+            small.add(new Pokemon(hp, "p" + hp, "url", List.of(PokemonType.NORMAL),
+                    new Pokemon.PokemonStats(hp, 1, 1, 1, 1, 1)));
+        }
+        PokemonStatistics.Summary summary = new PokemonStatistics(small).summarize(null, PokemonStat.HP);
+
+        assertEquals(50.0, summary.getPercentileRank(20));
+        assertEquals(0.0, summary.getPercentileRank(5));
+        assertEquals(100.0, summary.getPercentileRank(300));
+        assertEquals(12.5, summary.getPercentileRank(10));
+        assertArrayEquals(new int[]{0, 1, 2, 0, 1}, Arrays.copyOf(summary.getHistogram(10), 5));
+        assertThrows(IllegalArgumentException.class, () -> summary.getHistogram(0));
+        assertThrows(IllegalArgumentException.class, () -> summary.getPercentile(101));
+    }
+
+    @Test
+    void percentileRank_FollowsChangesWithoutSummaries() {
+        PokemonStatistics statistics = new PokemonStatistics(pokemonList.subList(0, 1000));
+        assertEquals(statistics.summarize(null, PokemonStat.ATTACK).getPercentileRank(80),
+                statistics.percentileRank(null, PokemonStat.ATTACK, 80), 1e-9);
+
+        for (Pokemon pokemon : pokemonList.subList(1000, 1200)) {
+            statistics.add(pokemon);
+        }
+        statistics.remove(pokemonList.get(0));
+
+        for (PokemonType type : new PokemonType[]{null, PokemonType.WATER}) {
+            for (int value : new int[]{-1, 0, 45, 80, 130, 255, 400}) {
+                assertEquals(statistics.summarize(type, PokemonStat.ATTACK).getPercentileRank(value),
+                        statistics.percentileRank(type, PokemonStat.ATTACK, value), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void summarizeByType_SkipsEmptyTypes() {
+        Pokemon fire = new Pokemon(1, "fire", "url", List.of(PokemonType.FIRE, PokemonType.FIRE),
+                new Pokemon.PokemonStats(50, 50, 50, 50, 50, 50));
+        PokemonStatistics statistics = new PokemonStatistics(List.of(fire));
+
+        Map<PokemonType, PokemonStatistics.Summary> byType = statistics.summarizeByType(PokemonStat.HP);
+
+        assertEquals(1, byType.size());
+        assertEquals(1, byType.get(PokemonType.FIRE).getCount(), "A repeated type counts once");
+        PokemonStatistics.Summary empty = statistics.summarize(PokemonType.WATER, PokemonStat.HP);
+        assertEquals(0, empty.getCount());
+        assertEquals(0, empty.getMean());
+        assertEquals(0, empty.getPercentile(50));
+    }
+}
@@ -0,0 +1,110 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link QueryCache}.
+ */
+public class QueryCacheTest {
+
+    private List<Pokemon> pokemonList;
+    private PokemonQuery fireQuery;
+    private PokemonQuery waterQuery;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new PokemonGenerator(3).generate(100);
+        fireQuery = PokemonQuery.builder().types(PokemonType.FIRE).build();
+        waterQuery = PokemonQuery.builder().types(PokemonType.WATER).build();
+    }
+
+    @Test
+    void get_ReturnsReadOnlyViewOfStoredResult() {
+        QueryCache cache = new QueryCache();
+        List<Pokemon> result = pokemonList.subList(0, 10);
+
+        assertNull(cache.get(1, fireQuery));
+        cache.put(1, fireQuery, result);
+        List<Pokemon> hit = cache.get(1, fireQuery);
+
+        assertEquals(result, hit);
+        assertThrows(UnsupportedOperationException.class, hit::clear);
+        assertEquals(result, cache.get(1, fireQuery));
+
+        QueryCache.Stats stats = cache.getStats();
+        assertEquals(2, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(2.0 / 3, stats.getHitRate(), 1e-9);
+        assertEquals(1, stats.getEntries());
+        assertTrue(stats.getEstimatedBytes() > 0);
+    }
+
+    @Test
+    void get_NormalizesSearchTerm() {
+        QueryCache cache = new QueryCache();
+        cache.put(1, PokemonQuery.builder().nameContains("Char").build(), pokemonList.subList(0, 3));
+
+        assertNotNull(cache.get(1, PokemonQuery.builder().nameContains("  cHAR ").build()));
+        assertNull(cache.get(1, PokemonQuery.builder().nameOrIdContains("char").build()));
+    }
+
+    @Test
+    void newerVersion_DropsEveryEntry() {
+        QueryCache cache = new QueryCache();
+        cache.put(1, fireQuery, pokemonList.subList(0, 3));
+        cache.put(1, waterQuery, pokemonList.subList(3, 6));
+
+        assertNull(cache.get(2, fireQuery));
+        assertEquals(0, cache.getStats().getEntries());
+        assertEquals(0, cache.getStats().getEstimatedBytes());
+        assertEquals(1, cache.getStats().getInvalidations());
+
+        // A result computed from an older version is not stored
+        cache.put(1, fireQuery, pokemonList.subList(0, 3));
+        assertNull(cache.get(2, fireQuery));
+    }
+
+    @Test
+    void put_EvictsLeastRecentlyUsed() {
+        QueryCache cache = new QueryCache(2, QueryCache.DEFAULT_MAX_BYTES);
+        PokemonQuery grassQuery = PokemonQuery.builder().types(PokemonType.GRASS).build();
+        cache.put(1, fireQuery, pokemonList.subList(0, 1));
+        cache.put(1, waterQuery, pokemonList.subList(1, 2));
+        cache.get(1, fireQuery);
+
+        cache.put(1, grassQuery, pokemonList.subList(2, 3));
+
+        assertNotNull(cache.get(1, fireQuery));
+        assertNull(cache.get(1, waterQuery));
+        assertNotNull(cache.get(1, grassQuery));
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void put_StaysWithinMemoryBound() {
+        QueryCache cache = new QueryCache(100, 600);
+
+        cache.put(1, fireQuery, pokemonList.subList(0, 100));
+        assertEquals(0, cache.getStats().getEntries(), "A result larger than the cache is not stored");
+
+        for (int i = 0; i < 20; i++) {
+            cache.put(1, fireQuery.toBuilder().offset(i).build(), pokemonList.subList(0, 50));
+            assertTrue(cache.getStats().getEstimatedBytes() <= 600);
+        }
+        assertTrue(cache.getStats().getEvictions() > 0);
+    }
+
+    @Test
+    void constructor_RejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new QueryCache(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new QueryCache(10, 0));
+    }
+}
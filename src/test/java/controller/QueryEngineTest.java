@@ -0,0 +1,306 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonStat;
+import model.PokemonType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link QueryEngine}.
+ * Checks query results against a plain filter, stable sort and sublist of the same list.
+ */
+public class QueryEngineTest {
+
+    private List<Pokemon> pokemonList;
+    private QueryEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new ArrayList<>(new PokemonGenerator(11).generate(600));
+        engine = new QueryEngine(pokemonList);
+    }
+
+    private List<Pokemon> expected(PokemonQuery query) {
+        String term = query.getSearchTerm().toLowerCase(Locale.ROOT);
+        Comparator<Pokemon> comparator = (a, b) -> 0;
+        for (PokemonQuery.SortOrder sortOrder : query.getSortOrders()) {
+            comparator = comparator.thenComparing(sortOrder::compare);
+        }
+        List<Pokemon> all = pokemonList.stream()
+                .filter(p -> p.getName().toLowerCase(Locale.ROOT).contains(term)
+                        || (query.isMatchIds() && String.valueOf(p.getId()).contains(term)))
+                .filter(p -> QueryFilters.matches(query, p))
+                .sorted(comparator)
+                .collect(Collectors.toList());
+        int from = Math.min(query.getOffset(), all.size());
+        int to = (int) Math.min((long) from + query.getLimit(), all.size());
+        return all.subList(from, to);
+    }
+
+    private void assertMatches(PokemonQuery query) {
+        assertEquals(expected(query), engine.executeToList(query), query.toString());
+    }
+
+    @Test
+    void execute_NoCriteria_ReturnsEverythingInListOrder() {
+        assertEquals(pokemonList, engine.executeToList(PokemonQuery.builder().build()));
+    }
+
+    @Test
+    void execute_SearchRespectsTypeFilter() {
+        String term = pokemonList.get(0).getName().substring(0, 2);
+        PokemonType type = pokemonList.get(0).getTypes().get(0);
+        PokemonQuery query = PokemonQuery.builder().nameContains(term).types(type).build();
+
+        List<Pokemon> result = engine.executeToList(query);
+
+        assertFalse(result.isEmpty());
+        assertTrue(result.stream().allMatch(p -> p.getTypes().contains(type)));
+        assertMatches(query);
+    }
+
+    @Test
+    void execute_SingleSortKey_MatchesStableSort() {
+        for (PokemonSortKey key : PokemonSortKey.values()) {
+            for (boolean descending : new boolean[] {false, true}) {
+                assertMatches(PokemonQuery.builder().sortBy(key, descending).build());
+                assertMatches(PokemonQuery.builder().sortBy(key, descending).types(PokemonType.WATER).build());
+                assertMatches(PokemonQuery.builder().sortBy(key, descending).nameContains("a").build());
+                assertMatches(PokemonQuery.builder().sortBy(key, descending).nameOrIdContains("12").build());
+            }
+        }
+    }
+
+    @Test
+    void execute_MultipleSortKeys_UsesTopK() {
+        PokemonQuery.Builder builder = PokemonQuery.builder()
+                .sortBy(PokemonSortKey.HP, true)
+                .sortBy(PokemonSortKey.NAME, false);
+
+        assertMatches(builder.build());
+        assertMatches(builder.limit(10).build());
+        assertMatches(builder.offset(25).limit(10).build());
+        assertMatches(builder.types(PokemonType.FIRE, PokemonType.GRASS).offset(3).limit(5).build());
+    }
+
+    @Test
+    void execute_MultipleSortKeys_DeepPageRadixSorts() {
+        PokemonQuery.Builder builder = PokemonQuery.builder()
+                .sortBy(PokemonSortKey.TYPE, false)
+                .sortBy(PokemonSortKey.HP, true)
+                .sortBy(PokemonSortKey.ID, false);
+
+        assertMatches(builder.build());
+        assertMatches(builder.offset(100).limit(200).build());
+        assertMatches(builder.nameContains("a").offset(0).limit(PokemonQuery.NO_LIMIT).build());
+        assertMatches(PokemonQuery.builder().sortBy(PokemonSortKey.NAME, true)
+                .sortBy(PokemonSortKey.ATTACK, false).types(PokemonType.WATER).build());
+    }
+
+    @Test
+    void execute_StatRanges() {
+        assertMatches(PokemonQuery.builder().statRange(PokemonStat.SPEED, 100, 255).build());
+        assertMatches(PokemonQuery.builder()
+                .statRange(PokemonStat.ATTACK, 50, 120)
+                .totalRange(400, 600)
+                .sortBy(PokemonSortKey.BASE_STAT_TOTAL, true)
+                .limit(20)
+                .build());
+    }
+
+    @Test
+    void execute_Pagination() {
+        PokemonQuery.Builder builder = PokemonQuery.builder().sortBy(PokemonSortKey.NAME, false);
+
+        assertMatches(builder.offset(0).limit(50).build());
+        assertMatches(builder.offset(590).limit(50).build());
+        assertTrue(engine.execute(builder.offset(700).limit(50).build()).length == 0);
+        assertTrue(engine.execute(builder.offset(0).limit(0).build()).length == 0);
+        assertMatches(PokemonQuery.builder().types(PokemonType.BUG).offset(4).limit(3).build());
+    }
+
+    @Test
+    void execute_NoSearchMatch_ReturnsEmpty() {
+        assertEquals(0, engine.execute(PokemonQuery.builder().nameContains("zzzzzz").build()).length);
+    }
+
+    @Test
+    void count_MatchesFullResultSize() {
+        PokemonQuery[] queries = {
+                PokemonQuery.builder().build(),
+                PokemonQuery.builder().types(PokemonType.WATER, PokemonType.ICE).limit(3).build(),
+                PokemonQuery.builder().statRange(PokemonStat.DEFENSE, 70, 255).offset(5).build(),
+                PokemonQuery.builder().nameContains("a").types(PokemonType.FIRE).build(),
+                PokemonQuery.builder().totalRange(350, 450).types(PokemonType.NORMAL).build(),
+        };
+        for (PokemonQuery query : queries) {
+            int expected = expected(query.toBuilder().offset(0).limit(PokemonQuery.NO_LIMIT).build()).size();
+            assertEquals(expected, engine.count(query), query.toString());
+        }
+    }
+
+    @Test
+    void execute_WhereExpression_MatchesInterpretedFilter() {
+        PokemonQuery[] queries = {
+                PokemonQuery.builder().where("attack > defense and not type = water").build(),
+                PokemonQuery.builder().where("speed >= 80 or type in (dragon, ghost)").types(PokemonType.FLYING)
+                        .sortBy(PokemonSortKey.SPEED, true).build(),
+                PokemonQuery.builder().where("hp < special_attack").nameContains("a")
+                        .statRange(PokemonStat.DEFENSE, 40, 255).sortBy(PokemonSortKey.TYPE, false)
+                        .sortBy(PokemonSortKey.NAME, false).limit(20).build(),
+        };
+        for (PokemonQuery query : queries) {
+            assertMatches(query);
+            int expected = expected(query.toBuilder().offset(0).limit(PokemonQuery.NO_LIMIT).build()).size();
+            assertEquals(expected, engine.count(query), query.toString());
+        }
+
+        Pokemon updated = new PokemonGenerator(42).generatePokemon(pokemonList.get(3).getId());
+        pokemonList.set(3, updated);
+        engine.rowUpdated(3);
+        assertMatches(queries[0]);
+    }
+
+    @Test
+    void page_ReplacesQueryOffsetAndLimit() {
+        PokemonQuery query = PokemonQuery.builder()
+                .sortBy(PokemonSortKey.NAME, false)
+                .offset(7)
+                .limit(2)
+                .build();
+        List<Pokemon> all = expected(query.toBuilder().offset(0).limit(PokemonQuery.NO_LIMIT).build());
+
+        assertEquals(all.subList(100, 150), engine.page(query, 100, 50));
+        assertEquals(all.subList(590, 600), engine.page(query, 590, 50));
+        assertTrue(engine.page(query, 600, 50).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> engine.page(query, -1, 10));
+    }
+
+    @Test
+    void execute_ParallelExecutorGivesSameResults() {
+        try (QueryExecutor parallel = new QueryExecutor(4, 64)) {
+            QueryEngine sequentialEngine = new QueryEngine(pokemonList, QueryExecutor.sequential());
+            QueryEngine parallelEngine = new QueryEngine(pokemonList, parallel);
+            PokemonQuery[] queries = {
+                    PokemonQuery.builder().types(PokemonType.WATER).build(),
+                    PokemonQuery.builder().nameContains("a").build(),
+                    PokemonQuery.builder().sortBy(PokemonSortKey.NAME, true).build(),
+                    PokemonQuery.builder().sortBy(PokemonSortKey.HP, true).sortBy(PokemonSortKey.ID, false).build(),
+                    PokemonQuery.builder().sortBy(PokemonSortKey.BASE_STAT_TOTAL, false)
+                            .sortBy(PokemonSortKey.NAME, false).offset(20).limit(30).build(),
+            };
+            for (PokemonQuery query : queries) {
+                assertArrayEquals(sequentialEngine.execute(query), parallelEngine.execute(query), query.toString());
+                assertMatches(query);
+            }
+        }
+    }
+
+    @Test
+    void rowAddedAndRemoved_KeepResultsCurrent() {
+        Pokemon added = new PokemonGenerator(99).generatePokemon(9999);
+        pokemonList.add(added);
+        engine.rowAdded();
+        assertMatches(PokemonQuery.builder().sortBy(PokemonSortKey.ID, true).limit(1).build());
+        assertMatches(PokemonQuery.builder().nameContains(added.getName()).build());
+
+        pokemonList.remove(10);
+        engine.rowRemoved(10);
+        assertEquals(pokemonList.size(), engine.size());
+        assertMatches(PokemonQuery.builder().sortBy(PokemonSortKey.HP, false).build());
+        assertMatches(PokemonQuery.builder().nameContains("e").sortBy(PokemonSortKey.NAME, true).build());
+    }
+
+    @Test
+    void rowUpdated_KeepsResultsCurrent() {
+        Pokemon updated = new PokemonGenerator(42).generatePokemon(pokemonList.get(20).getId());
+        pokemonList.set(20, updated);
+        engine.rowUpdated(20);
+
+        assertMatches(PokemonQuery.builder().sortBy(PokemonSortKey.NAME, false).build());
+        assertMatches(PokemonQuery.builder().nameContains(updated.getName()).build());
+        assertMatches(PokemonQuery.builder().sortBy(PokemonSortKey.BASE_STAT_TOTAL, true).limit(50).build());
+    }
+
+    @Test
+    void rowChanges_UpdateBuiltIndexesInPlace() {
+        List<PokemonQuery> queries = List.of(
+                PokemonQuery.builder().nameOrIdContains("ar").build(),
+                PokemonQuery.builder().nameOrIdContains("1").sortBy(PokemonSortKey.NAME, false).build(),
+                PokemonQuery.builder().statRange(PokemonStat.SPEED, 60, 120).sortBy(PokemonSortKey.HP, true).build(),
+                PokemonQuery.builder().types(PokemonType.WATER, PokemonType.FIRE).totalRange(300, 500).build(),
+                PokemonQuery.builder().where("attack > defense or type = grass").sortBy(PokemonSortKey.ID, true).build());
+        // Build every index before the changes, so they have to be updated rather than rebuilt
+        queries.forEach(this::assertMatches);
+
+        PokemonGenerator generator = new PokemonGenerator(12);
+        SplittableRandom random = new SplittableRandom(8);
+        for (int i = 0; i < 200; i++) {
+            int choice = random.nextInt(3);
+            if (choice == 0) {
+                pokemonList.add(generator.generatePokemon(5000 + i));
+                engine.rowAdded();
+            } else if (choice == 1) {
+                int row = random.nextInt(pokemonList.size());
+                pokemonList.remove(row);
+                engine.rowRemoved(row);
+            } else {
+                int row = random.nextInt(pokemonList.size());
+                pokemonList.set(row, generator.generatePokemon(pokemonList.get(row).getId()));
+                engine.rowUpdated(row);
+            }
+            if (i % 20 == 0) {
+                queries.forEach(this::assertMatches);
+            }
+        }
+        queries.forEach(this::assertMatches);
+        for (PokemonQuery query : queries) {
+            assertEquals(expected(query).size(), engine.count(query), query.toString());
+        }
+    }
+
+    @Test
+    void searchAndMatchesRow_AgreeWithFullResults() {
+        PokemonQuery query = PokemonQuery.builder().types(PokemonType.GRASS, PokemonType.BUG)
+                .sortBy(PokemonSortKey.ATTACK, true).sortBy(PokemonSortKey.NAME, false).build();
+        Comparator<Integer> resultOrder = (a, b) -> {
+            for (PokemonQuery.SortOrder sortOrder : query.getSortOrders()) {
+                int result = sortOrder.compare(pokemonList.get(a), pokemonList.get(b));
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Integer.compare(a, b);
+        };
+        int[] results = engine.execute(query);
+        for (int row = 0; row < pokemonList.size(); row++) {
+            boolean matches = QueryFilters.matches(query, pokemonList.get(row));
+            assertEquals(matches, engine.matchesRow(query, row));
+            int position = engine.search(results, results.length, query, row, pokemonList.get(row));
+            if (matches) {
+                assertEquals(row, results[position]);
+            } else {
+                int insertion = -position - 1;
+                assertTrue(insertion == 0 || resultOrder.compare(results[insertion - 1], row) < 0);
+                assertTrue(insertion == results.length || resultOrder.compare(results[insertion], row) > 0);
+            }
+        }
+        PokemonQuery search = PokemonQuery.builder().nameOrIdContains("sa").build();
+        for (int row = 0; row < pokemonList.size(); row++) {
+            Pokemon pokemon = pokemonList.get(row);
+            boolean expected = pokemon.getName().contains("sa") || String.valueOf(pokemon.getId()).contains("sa");
+            assertEquals(expected, engine.matchesRow(search, row));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link QueryExecutor}.
+ * Uses a low threshold so small inputs already take the parallel path.
+ */
+public class QueryExecutorTest {
+
+    private QueryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new QueryExecutor(4, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void isParallel_RespectsThreshold() {
+        assertFalse(executor.isParallel(99));
+        assertTrue(executor.isParallel(100));
+        assertFalse(QueryExecutor.sequential().isParallel(Integer.MAX_VALUE));
+        assertEquals(4, executor.getParallelism());
+        assertEquals(100, executor.getThreshold());
+    }
+
+    @Test
+    void filter_MatchesSequentialInOrder() {
+        int size = 100_000;
+        int[] expected = IntStream.range(0, size).filter(i -> i % 7 == 3).toArray();
+
+        assertArrayEquals(expected, executor.filter(size, i -> i % 7 == 3));
+        assertArrayEquals(expected, QueryExecutor.sequential().filter(size, i -> i % 7 == 3));
+        assertEquals(0, executor.filter(0, i -> true).length);
+    }
+
+    @Test
+    void collect_RunsLargeInputsOnPoolWorkers() {
+        int[] onPool = executor.collect(50_000, (from, to) ->
+                Thread.currentThread().getName().startsWith("pokemon-query-") ? new int[] {1} : new int[] {0});
+        int[] small = executor.collect(10, (from, to) ->
+                Thread.currentThread().getName().startsWith("pokemon-query-") ? new int[] {1} : new int[] {0});
+
+        assertTrue(onPool.length > 1, "Large input should be split into chunks");
+        assertTrue(Arrays.stream(onPool).allMatch(v -> v == 1));
+        assertArrayEquals(new int[] {0}, small);
+    }
+
+    @Test
+    void sort_Primitives() {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] values = random.longs(200_000).toArray();
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+        executor.sort(values);
+        assertArrayEquals(expected, values);
+    }
+
+    @Test
+    void constructor_RejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new QueryExecutor(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new QueryExecutor(2, 0));
+    }
+
+    @Test
+    void shared_IsSingleInstance() {
+        assertSame(QueryExecutor.shared(), QueryExecutor.shared());
+    }
+}
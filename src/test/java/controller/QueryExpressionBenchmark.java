@@ -0,0 +1,97 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Manual benchmark comparing the interpreted form of a {@link QueryExpression}, a chain
+ * of lambdas over Pokemon getters, with the method handle compiled over
+ * {@link PokemonColumns}. Not a JUnit test; run it directly with a large heap:
+ * <pre>
+ * java -Xmx4g -cp build/classes/java/main:build/classes/java/test controller.QueryExpressionBenchmark 1000000
+ * </pre>
+ * Every expression goes through the same two scan loops, so their call sites see as many
+ * query shapes as they would in the application. Each pair of scans is repeated until
+ * the JIT has settled, and the last rounds are reported as the best time per row.
+ */
+public class QueryExpressionBenchmark {
+    private static final String[] EXPRESSIONS = {
+            "attack >= 100 and (type = fire or type in (dragon, flying)) and not speed < defense",
+            "hp > 80 or total >= 500",
+            "type = water and special_attack > special_defense",
+            "id < 5000 or (speed >= 90 and not type = bug)",
+    };
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args the row count, defaults to 1M
+     */
+    public static void main(String[] args) {
+        int size = args.length == 0 ? 1_000_000 : Integer.parseInt(args[0]);
+        List<Pokemon> pokemonList = new PokemonGenerator(1).generate(size);
+        PokemonColumns columns = new PokemonColumns(pokemonList);
+
+        int count = EXPRESSIONS.length;
+        List<Predicate<Pokemon>> interpreted = new ArrayList<>(count);
+        List<IntPredicate> compiled = new ArrayList<>(count);
+        for (String text : EXPRESSIONS) {
+            QueryExpression expression = QueryExpression.parse(text);
+            interpreted.add(expression.toPredicate());
+            compiled.add(expression.compile(columns));
+        }
+
+        long[] bestInterpreted = new long[count];
+        long[] bestCompiled = new long[count];
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            for (int i = 0; i < count; i++) {
+                long start = System.nanoTime();
+                int interpretedMatches = scan(pokemonList, interpreted.get(i));
+                long middle = System.nanoTime();
+                int compiledMatches = scan(size, compiled.get(i));
+                long end = System.nanoTime();
+                if (interpretedMatches != compiledMatches) {
+                    throw new IllegalStateException("Forms disagree on " + EXPRESSIONS[i]);
+                }
+                if (round >= WARMUP_ROUNDS) {
+                    bestInterpreted[i] = round == WARMUP_ROUNDS ? middle - start : Math.min(bestInterpreted[i], middle - start);
+                    bestCompiled[i] = round == WARMUP_ROUNDS ? end - middle : Math.min(bestCompiled[i], end - middle);
+                }
+            }
+        }
+
+        System.out.println("=== " + size + " rows ===");
+        for (int i = 0; i < count; i++) {
+            System.out.printf("%-85s interpreted=%5.1f ns/row compiled=%5.1f ns/row (%.1fx)%n",
+                    EXPRESSIONS[i], (double) bestInterpreted[i] / size, (double) bestCompiled[i] / size,
+                    (double) bestInterpreted[i] / bestCompiled[i]);
+        }
+    }
+
+    private static int scan(List<Pokemon> pokemonList, Predicate<Pokemon> predicate) {
+        int matches = 0;
+        for (int row = 0; row < pokemonList.size(); row++) {
+            if (predicate.test(pokemonList.get(row))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static int scan(int size, IntPredicate predicate) {
+        int matches = 0;
+        for (int row = 0; row < size; row++) {
+            if (predicate.test(row)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
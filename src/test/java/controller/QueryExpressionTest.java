@@ -0,0 +1,89 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link QueryExpression}.
+ * Checks the interpreted and compiled forms against the same condition written in Java.
+ */
+public class QueryExpressionTest {
+
+    private List<Pokemon> pokemonList;
+    private PokemonColumns columns;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new PokemonGenerator(17).generate(500);
+        columns = new PokemonColumns(pokemonList);
+    }
+
+    private void assertEvaluates(String text, Predicate<Pokemon> expected) {
+        QueryExpression expression = QueryExpression.parse(text);
+        IntPredicate compiled = expression.compile(columns);
+        for (int row = 0; row < pokemonList.size(); row++) {
+            Pokemon pokemon = pokemonList.get(row);
+            boolean match = expected.test(pokemon);
+            assertEquals(match, expression.test(pokemon), text + " on " + pokemon);
+            assertEquals(match, compiled.test(row), text + " compiled on " + pokemon);
+        }
+        assertEquals(expression, QueryExpression.parse(expression.toString()), text);
+    }
+
+    private static boolean hasType(Pokemon pokemon, PokemonType... types) {
+        return Arrays.stream(types).anyMatch(pokemon.getTypes()::contains);
+    }
+
+    @Test
+    void evaluate_ComparisonsOfFieldsAndConstants() {
+        assertEvaluates("attack >= 100", p -> p.getStats().getAttack() >= 100);
+        assertEvaluates("80 < hp", p -> p.getStats().getHp() > 80);
+        assertEvaluates("SPEED != Defense", p -> p.getStats().getSpeed() != p.getStats().getDefense());
+        assertEvaluates("special_attack <= special_defense",
+                p -> p.getStats().getSpecialAttack() <= p.getStats().getSpecialDefense());
+        assertEvaluates("total = 400 or id < 50",
+                p -> p.getStats().getHp() + p.getStats().getAttack() + p.getStats().getDefense()
+                        + p.getStats().getSpecialAttack() + p.getStats().getSpecialDefense()
+                        + p.getStats().getSpeed() == 400 || p.getId() < 50);
+        assertEvaluates("1 > 2 or 3 >= 3", p -> true);
+    }
+
+    @Test
+    void evaluate_TypesAndPrecedence() {
+        assertEvaluates("type = fire", p -> hasType(p, PokemonType.FIRE));
+        assertEvaluates("type != water and type in (grass, Poison, bug)",
+                p -> !hasType(p, PokemonType.WATER) && hasType(p, PokemonType.GRASS, PokemonType.POISON, PokemonType.BUG));
+        assertEvaluates("attack > 90 or speed > 90 and not type = normal",
+                p -> p.getStats().getAttack() > 90 || (p.getStats().getSpeed() > 90 && !hasType(p, PokemonType.NORMAL)));
+        assertEvaluates("(attack > 90 or speed > 90) and not (type = normal or hp < 40)",
+                p -> (p.getStats().getAttack() > 90 || p.getStats().getSpeed() > 90)
+                        && !(hasType(p, PokemonType.NORMAL) || p.getStats().getHp() < 40));
+    }
+
+    @Test
+    void parse_EqualTreesAreEqual() {
+        assertEquals(QueryExpression.parse("type != fire"), QueryExpression.parse("NOT (type = FIRE)"));
+        assertEquals(QueryExpression.parse("100 <= attack"), QueryExpression.parse("attack >= 100"));
+        assertEquals(QueryExpression.parse("hp>1 AND hp<9").hashCode(), QueryExpression.parse("hp > 1 and hp < 9").hashCode());
+        assertNotEquals(QueryExpression.parse("hp > 1 or hp < 9"), QueryExpression.parse("hp > 1 and hp < 9"));
+    }
+
+    @Test
+    void parse_RejectsInvalidExpressions() {
+        String[] invalid = {null, "", "attack", "attack >", "attack > 1 and", "power > 1", "type = plasma",
+                "type < fire", "(hp > 1", "hp > 1)", "hp => 1", "hp > 99999999999", "notattack > 1"};
+        for (String text : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> QueryExpression.parse(text), text);
+        }
+    }
+}
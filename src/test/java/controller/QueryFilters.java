@@ -0,0 +1,66 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonStat;
+import model.PokemonType;
+
+/**
+ * Test oracle that checks a {@link PokemonQuery}'s filters against a Pokemon one
+ * getter at a time, for comparing with the answers of the indexes.
+ */
+final class QueryFilters {
+
+    private QueryFilters() {
+    }
+
+    /**
+     * Checks every filter of a query against a Pokemon, except the search term.
+     *
+     * @param query the query
+     * @param pokemon the Pokemon to check
+     * @return true if the Pokemon passes the type, stat and expression filters
+     */
+    static boolean matches(PokemonQuery query, Pokemon pokemon) {
+        if (!matchesTypes(query, pokemon)) {
+            return false;
+        }
+        if (query.getExpression() != null && !query.getExpression().test(pokemon)) {
+            return false;
+        }
+        Pokemon.PokemonStats stats = pokemon.getStats();
+        for (PokemonStat stat : PokemonStat.values()) {
+            if (query.hasStatRange(stat)) {
+                int value = stat.of(stats);
+                if (value < query.getStatMin(stat) || value > query.getStatMax(stat)) {
+                    return false;
+                }
+            }
+        }
+        if (query.hasTotalRange()) {
+            int total = PokemonStat.total(stats);
+            return total >= query.getTotalMin() && total <= query.getTotalMax();
+        }
+        return true;
+    }
+
+    /**
+     * Checks only the type filter of a query against a Pokemon.
+     *
+     * @param query the query
+     * @param pokemon the Pokemon to check
+     * @return true if there is no type filter or the Pokemon has one of the selected types
+     */
+    private static boolean matchesTypes(PokemonQuery query, Pokemon pokemon) {
+        return query.getTypeMask() == 0 || (PokemonType.maskOf(pokemon.getTypes()) & query.getTypeMask()) != 0;
+    }
+
+    /**
+     * Tells whether a query has any type, stat or expression filter.
+     *
+     * @param query the query
+     * @return true if {@link #matches(PokemonQuery, Pokemon)} can reject a Pokemon
+     */
+    static boolean hasFilters(PokemonQuery query) {
+        return query.getTypeMask() != 0 || query.getExpression() != null || query.hasStatRanges();
+    }
+}
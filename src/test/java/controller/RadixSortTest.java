@@ -0,0 +1,72 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link RadixSort}.
+ * Checks both the counting and the radix path against a stable comparator sort.
+ */
+public class RadixSortTest {
+
+    private static int[] expected(int[] keys, boolean descending) {
+        Comparator<Integer> byKey = Comparator.comparingInt(row -> keys[row]);
+        return IntStream.range(0, keys.length).boxed()
+                .sorted(descending ? byKey.reversed() : byKey)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @Test
+    void order_SmallRangeUsesCountingAndIsStable() {
+        Random random = new Random(1);
+        int[] keys = random.ints(5000, 0, 256).toArray();
+
+        assertArrayEquals(expected(keys, false), RadixSort.order(keys, false));
+        assertArrayEquals(expected(keys, true), RadixSort.order(keys, true));
+    }
+
+    @Test
+    void order_WideRangeUsesRadixAndIsStable() {
+        Random random = new Random(2);
+        int[] keys = random.ints(5000, -1_000_000, 1_000_000).toArray();
+        keys[0] = Integer.MIN_VALUE;
+        keys[1] = Integer.MAX_VALUE;
+        keys[2] = keys[3];
+
+        assertArrayEquals(expected(keys, false), RadixSort.order(keys, false));
+        assertArrayEquals(expected(keys, true), RadixSort.order(keys, true));
+    }
+
+    @Test
+    void sort_ByEachKeyInTurnSortsByAllKeys() {
+        Random random = new Random(3);
+        int[] type = random.ints(2000, 0, 18).toArray();
+        int[] hp = random.ints(2000, 1, 256).toArray();
+        int[] rows = IntStream.range(0, 2000).toArray();
+
+        // Least significant key first: HP descending, then type ascending
+        int[] sorted = RadixSort.sort(rows, Arrays.stream(rows).map(row -> hp[row]).toArray(), true);
+        sorted = RadixSort.sort(sorted, Arrays.stream(sorted).map(row -> type[row]).toArray(), false);
+
+        int[] expected = IntStream.range(0, 2000).boxed()
+                .sorted(Comparator.<Integer>comparingInt(row -> type[row])
+                        .thenComparing(Comparator.<Integer>comparingInt(row -> hp[row]).reversed()))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertArrayEquals(expected, sorted);
+        assertArrayEquals(IntStream.range(0, 2000).toArray(), rows, "Input is not modified");
+    }
+
+    @Test
+    void sort_RejectsMismatchedKeys() {
+        assertThrows(IllegalArgumentException.class, () -> RadixSort.sort(new int[3], new int[2], false));
+        assertArrayEquals(new int[] {7}, RadixSort.sort(new int[] {7}, new int[] {1}, false));
+    }
+}
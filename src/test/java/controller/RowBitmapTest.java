@@ -0,0 +1,138 @@
+package controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link RowBitmap}.
+ * Checks set operations against {@link BitSet} for sparse, dense and multi-chunk sets.
+ */
+public class RowBitmapTest {
+
+    private static final int UNIVERSE = 200_000;
+
+    private BitSet randomSet(long seed, double density) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BitSet set = new BitSet(UNIVERSE);
+        for (int row = 0; row < UNIVERSE; row++) {
+            if (random.nextDouble() < density) {
+                set.set(row);
+            }
+        }
+        return set;
+    }
+
+    private RowBitmap toBitmap(BitSet set) {
+        RowBitmap.Builder builder = new RowBitmap.Builder();
+        set.stream().forEach(builder::add);
+        return builder.build();
+    }
+
+    private void assertSame(BitSet expected, RowBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertArrayEquals(expected.stream().toArray(), actual.toArray());
+    }
+
+    @Test
+    void build_KeepsRowsAndCardinality() {
+        BitSet sparse = randomSet(1, 0.01);
+        BitSet dense = randomSet(2, 0.6);
+
+        assertSame(sparse, toBitmap(sparse));
+        assertSame(dense, toBitmap(dense));
+        assertTrue(toBitmap(dense).contains(dense.nextSetBit(70_000)));
+        assertFalse(toBitmap(dense).contains(dense.nextClearBit(70_000)));
+        assertFalse(toBitmap(dense).contains(-1));
+    }
+
+    @Test
+    void operations_MatchBitSet() {
+        double[] densities = {0.001, 0.05, 0.5, 0.95};
+        for (int i = 0; i < densities.length; i++) {
+            for (int j = 0; j < densities.length; j++) {
+                BitSet a = randomSet(10 + i, densities[i]);
+                BitSet b = randomSet(20 + j, densities[j]);
+                RowBitmap bitmapA = toBitmap(a);
+                RowBitmap bitmapB = toBitmap(b);
+
+                BitSet and = (BitSet) a.clone();
+                and.and(b);
+                BitSet or = (BitSet) a.clone();
+                or.or(b);
+                BitSet andNot = (BitSet) a.clone();
+                andNot.andNot(b);
+
+                assertSame(and, bitmapA.and(bitmapB));
+                assertSame(or, bitmapA.or(bitmapB));
+                assertSame(andNot, bitmapA.andNot(bitmapB));
+            }
+        }
+    }
+
+    @Test
+    void not_ComplementsWithinUniverse() {
+        BitSet set = randomSet(3, 0.3);
+        BitSet expected = (BitSet) set.clone();
+        expected.flip(0, UNIVERSE);
+
+        assertSame(expected, toBitmap(set).not(UNIVERSE));
+        assertEquals(0, RowBitmap.empty().not(0).cardinality());
+    }
+
+    @Test
+    void range_CoversChunkBoundaries() {
+        RowBitmap range = RowBitmap.range(65_000, 140_000);
+
+        assertEquals(75_000, range.cardinality());
+        assertTrue(range.contains(65_000));
+        assertTrue(range.contains(65_536));
+        assertTrue(range.contains(139_999));
+        assertFalse(range.contains(140_000));
+        assertFalse(range.contains(64_999));
+        assertEquals(0, RowBitmap.range(10, 10).cardinality());
+        assertArrayEquals(new int[] {3, 4, 5}, RowBitmap.range(3, 6).toArray());
+    }
+
+    @Test
+    void of_SortsRows() {
+        assertArrayEquals(new int[] {1, 7, 70_000}, RowBitmap.of(70_000, 1, 7).toArray());
+        assertEquals(RowBitmap.of(1, 2), RowBitmap.of(2, 1));
+    }
+
+    @Test
+    void builder_RejectsUnorderedRows() {
+        RowBitmap.Builder builder = new RowBitmap.Builder().add(5);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add(5));
+        assertThrows(IllegalArgumentException.class, () -> new RowBitmap.Builder().add(-1));
+    }
+
+    @Test
+    void sizeInBytes_SparseSmallerThanDense() {
+        RowBitmap sparse = toBitmap(randomSet(4, 0.001));
+        RowBitmap dense = toBitmap(randomSet(5, 0.5));
+
+        assertTrue(sparse.sizeInBytes() < dense.sizeInBytes());
+    }
+
+    @Test
+    void removeRow_ShiftsLaterRowsDown() {
+        BitSet expected = randomSet(9, 0.3);
+        RowBitmap bitmap = toBitmap(expected);
+        int[] removals = {UNIVERSE - 1, 65_536, 65_535, 131_072, 0, 70_000, 12_345};
+        for (int row : removals) {
+            BitSet shifted = expected.get(0, row);
+            expected.stream().filter(r -> r > row).forEach(r -> shifted.set(r - 1));
+            expected = shifted;
+            bitmap = bitmap.removeRow(row);
+            assertSame(expected, bitmap);
+        }
+        RowBitmap small = RowBitmap.of(3, 9);
+        assertEquals(small, small.removeRow(10));
+        assertArrayEquals(new int[] {3, 8}, small.removeRow(5).toArray());
+    }
+}
@@ -0,0 +1,92 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link SearchSession}.
+ * Checks every search of a typing sequence against the same query run from scratch.
+ */
+public class SearchSessionTest {
+
+    private List<Pokemon> pokemonList;
+    private QueryEngine engine;
+    private SearchSession session;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new ArrayList<>(new PokemonGenerator(13).generate(2000));
+        engine = new QueryEngine(pokemonList);
+        session = new SearchSession(engine);
+    }
+
+    private static PokemonQuery query(String term, PokemonType type, PokemonSortKey key, boolean descending) {
+        PokemonQuery.Builder builder = PokemonQuery.builder().nameOrIdContains(term).types(type);
+        if (key != null) {
+            builder.sortBy(key, descending);
+        }
+        return builder.build();
+    }
+
+    private void assertSearch(PokemonQuery query) {
+        assertArrayEquals(engine.execute(query), session.search(query), query.toString());
+    }
+
+    @Test
+    void search_TypingAndDeletingMatchesFreshQueries() {
+        String name = pokemonList.stream().map(Pokemon::getName)
+                .filter(n -> n.length() >= 6).findFirst().orElseThrow();
+        for (int length = 0; length <= name.length(); length++) {
+            assertSearch(query(name.substring(0, length), null, PokemonSortKey.NAME, false));
+        }
+        for (int length = name.length() - 1; length >= 0; length--) {
+            assertSearch(query(name.substring(0, length), null, PokemonSortKey.NAME, false));
+        }
+        assertSearch(query(name.substring(1, 4), null, PokemonSortKey.NAME, false));
+        assertSearch(query("1", null, null, false));
+        assertSearch(query("12", null, null, false));
+    }
+
+    @Test
+    void search_ChangingFilterOrSortKeepsTermRows() {
+        String term = pokemonList.get(3).getName().substring(0, 2);
+
+        assertSearch(query(term, null, PokemonSortKey.HP, true));
+        assertSearch(query(term, PokemonType.WATER, PokemonSortKey.HP, true));
+        assertSearch(query(term + "a", PokemonType.WATER, PokemonSortKey.HP, true));
+        assertSearch(query(term + "a", PokemonType.WATER, PokemonSortKey.ID, false));
+        assertSearch(query(term.toUpperCase(), PokemonType.WATER, PokemonSortKey.ID, false));
+        assertSearch(PokemonQuery.builder().nameContains(term).statRange(model.PokemonStat.SPEED, 50, 150)
+                .sortBy(PokemonSortKey.TYPE, false).sortBy(PokemonSortKey.NAME, false).build());
+    }
+
+    @Test
+    void search_DeletingBackReturnsEarlierResult() {
+        int[] first = session.search(query("ch", null, PokemonSortKey.NAME, false));
+        session.search(query("cha", null, PokemonSortKey.NAME, false));
+
+        int[] again = session.search(query("ch", null, PokemonSortKey.NAME, false));
+
+        assertSame(first, again);
+        assertEquals(1, session.getHistorySize());
+    }
+
+    @Test
+    void search_EngineChangeDropsHistory() {
+        session.search(query("ch", null, PokemonSortKey.NAME, false));
+        pokemonList.remove(0);
+        engine.rowRemoved(0);
+
+        assertSearch(query("cha", null, PokemonSortKey.NAME, false));
+        assertEquals(1, session.getHistorySize());
+        assertThrows(IllegalArgumentException.class, () -> new SearchSession(null));
+    }
+}
@@ -0,0 +1,165 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link SortPermutations}.
+ * Checks every cached order against a plain stable sort of the same list.
+ */
+public class SortPermutationsTest {
+
+    private List<Pokemon> pokemonList;
+    private SortPermutations permutations;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new ArrayList<>(new PokemonGenerator(5).generate(500));
+        permutations = new SortPermutations(pokemonList);
+    }
+
+    private List<Pokemon> expected(List<Pokemon> source, PokemonSortKey key, boolean descending) {
+        Comparator<Pokemon> comparator = descending ? key.comparator().reversed() : key.comparator();
+        return source.stream().sorted(comparator).collect(Collectors.toList());
+    }
+
+    private List<Pokemon> actual(int[] rows) {
+        List<Pokemon> result = new ArrayList<>();
+        for (int row : rows) {
+            result.add(pokemonList.get(row));
+        }
+        return result;
+    }
+
+    @Test
+    void sortAll_MatchesStableSortForEveryKey() {
+        for (PokemonSortKey key : PokemonSortKey.values()) {
+            assertEquals(expected(pokemonList, key, false), actual(permutations.sortAll(key, false)));
+            assertEquals(expected(pokemonList, key, true), actual(permutations.sortAll(key, true)));
+        }
+    }
+
+    @Test
+    void sort_SmallAndLargeSubsets() {
+        int[] small = {450, 3, 77, 12};
+        List<Pokemon> smallSource = actual(new int[] {3, 12, 77, 450});
+        int[] large = new int[400];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = i + 50;
+        }
+        List<Pokemon> largeSource = actual(large);
+
+        for (PokemonSortKey key : PokemonSortKey.values()) {
+            assertEquals(expected(smallSource, key, false), actual(permutations.sort(small, key, false)));
+            assertEquals(expected(largeSource, key, true), actual(permutations.sort(large, key, true)));
+        }
+        assertEquals(450, small[0], "Input rows should not be modified");
+    }
+
+    @Test
+    void sortAll_OrdersNamesByCollationKey() {
+        List<Pokemon> named = new ArrayList<>();
+        String[] names = {"Typhlosion", "Type: Null", "nidoran♀", "Nidorina", "Flabébé", "flabebe",
+                "charcharcharmander", "Charcharcharmeleon", "charcharcharmander", "Zubat"};
+        for (int i = 0; i < names.length; i++) {
+            named.add(new Pokemon(i, names[i], "url", pokemonList.get(i).getTypes(), pokemonList.get(i).getStats()));
+        }
+        pokemonList.clear();
+        pokemonList.addAll(named);
+        SortPermutations nameOrder = new SortPermutations(pokemonList);
+
+        List<String> sorted = actual(nameOrder.sortAll(PokemonSortKey.NAME, false)).stream()
+                .map(Pokemon::getName)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of("charcharcharmander", "charcharcharmander", "Charcharcharmeleon", "flabebe",
+                "Flabébé", "nidoran♀", "Nidorina", "Type: Null", "Typhlosion", "Zubat"), sorted);
+        assertEquals(expected(pokemonList, PokemonSortKey.NAME, true), actual(nameOrder.sortAll(PokemonSortKey.NAME, true)));
+        assertArrayEquals(new int[] {6, 8}, Arrays.copyOf(nameOrder.order(PokemonSortKey.NAME), 2), "Equal names keep list order");
+    }
+
+    @Test
+    void sortByOrders_MatchesStableSortByAllKeys() {
+        List<PokemonQuery.SortOrder> typeHpId = List.of(new PokemonQuery.SortOrder(PokemonSortKey.TYPE, false),
+                new PokemonQuery.SortOrder(PokemonSortKey.HP, true), new PokemonQuery.SortOrder(PokemonSortKey.ID, false));
+        List<PokemonQuery.SortOrder> nameSpeed = List.of(new PokemonQuery.SortOrder(PokemonSortKey.NAME, true),
+                new PokemonQuery.SortOrder(PokemonSortKey.SPEED, false));
+        int[] rows = permutations.order(PokemonSortKey.ID);
+        Arrays.sort(rows);
+
+        for (List<PokemonQuery.SortOrder> sortOrders : List.of(typeHpId, nameSpeed)) {
+            Comparator<Pokemon> comparator = (a, b) -> 0;
+            for (PokemonQuery.SortOrder sortOrder : sortOrders) {
+                comparator = comparator.thenComparing(sortOrder::compare);
+            }
+            assertEquals(pokemonList.stream().sorted(comparator).collect(Collectors.toList()),
+                    actual(permutations.sort(rows, sortOrders)));
+        }
+
+        pokemonList.remove(10);
+        permutations.rowRemoved(10);
+        int[] remaining = Arrays.copyOf(rows, rows.length - 1);
+        assertEquals(pokemonList.stream().sorted((a, b) -> nameSpeed.get(0).compare(a, b)).collect(Collectors.toList()),
+                actual(permutations.sort(remaining, nameSpeed.subList(0, 1))), "Name groups follow removals");
+    }
+
+    @Test
+    void rowAdded_KeepsOrdersCurrent() {
+        List<Pokemon> extra = new PokemonGenerator(9).generate(40);
+        for (Pokemon pokemon : extra) {
+            pokemonList.add(pokemon);
+            permutations.rowAdded();
+        }
+
+        assertEquals(540, permutations.size());
+        for (PokemonSortKey key : PokemonSortKey.values()) {
+            assertEquals(expected(pokemonList, key, false), actual(permutations.sortAll(key, false)));
+        }
+    }
+
+    @Test
+    void rowRemoved_KeepsOrdersCurrent() {
+        for (int row : new int[] {0, 250, 497}) {
+            pokemonList.remove(row);
+            permutations.rowRemoved(row);
+        }
+
+        assertEquals(497, permutations.size());
+        for (PokemonSortKey key : PokemonSortKey.values()) {
+            assertEquals(expected(pokemonList, key, true), actual(permutations.sortAll(key, true)));
+            assertEquals(expected(pokemonList, key, false), actual(permutations.sort(permutations.order(PokemonSortKey.ID), key, false)));
+        }
+    }
+
+    @Test
+    void rowUpdated_MovesRowInEveryOrder() {
+        PokemonGenerator generator = new PokemonGenerator(13);
+        for (int row : new int[] {0, 123, 499, 123}) {
+            pokemonList.set(row, generator.generatePokemon(pokemonList.get(row).getId()));
+            permutations.rowUpdated(row);
+        }
+
+        for (PokemonSortKey key : PokemonSortKey.values()) {
+            assertEquals(expected(pokemonList, key, false), actual(permutations.sortAll(key, false)));
+            assertEquals(expected(pokemonList, key, true), actual(permutations.sort(permutations.order(PokemonSortKey.ID), key, true)));
+        }
+    }
+
+    @Test
+    void emptyList() {
+        SortPermutations empty = new SortPermutations(new ArrayList<>());
+
+        assertEquals(0, empty.sortAll(PokemonSortKey.NAME, true).length);
+        assertEquals(0, empty.sort(new int[0], PokemonSortKey.HP, false).length);
+    }
+}
@@ -0,0 +1,128 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonStat;
+import model.PokemonType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link StatNeighborIndex}.
+ */
+public class StatNeighborIndexTest {
+
+    private List<Pokemon> pokemonList;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new PokemonGenerator(11).generate(3000);
+    }
+
+    @Test
+    void nearest_MatchesBruteForce() {
+        StatNeighborIndex index = new StatNeighborIndex(pokemonList);
+
+        for (int i = 0; i < 50; i++) {
+            Pokemon target = pokemonList.get(i * 37);
+            List<Pokemon> nearest = index.nearest(target, 10, false);
+
+            assertEquals(bruteForceDistances(pokemonList, target, 10, 0), distances(nearest, target));
+            assertFalse(nearest.contains(target), "The target itself is left out");
+        }
+    }
+
+    @Test
+    void nearest_SameTypeOnlyReturnsSharedTypes() {
+        StatNeighborIndex index = new StatNeighborIndex(pokemonList);
+        Pokemon target = pokemonList.get(5);
+        int mask = PokemonType.maskOf(target.getTypes());
+
+        List<Pokemon> nearest = index.nearest(target, 8, true);
+
+        assertEquals(8, nearest.size());
+        for (Pokemon pokemon : nearest) {
+            assertTrue((PokemonType.maskOf(pokemon.getTypes()) & mask) != 0);
+        }
+        assertEquals(bruteForceDistances(pokemonList, target, 8, mask), distances(nearest, target));
+    }
+
+    @Test
+    void nearest_FollowsAddsAndRemovals() {
+        StatNeighborIndex index = new StatNeighborIndex(pokemonList.subList(0, 1000));
+        List<Pokemon> live = new ArrayList<>(pokemonList.subList(0, 1000));
+        Random random = new Random(3);
+
+        // Enough changes to go through several rebuilds
+        for (int i = 1000; i < 3000; i++) {
+            index.add(pokemonList.get(i));
+            live.add(pokemonList.get(i));
+            if (i % 3 == 0) {
+                Pokemon removed = live.remove(random.nextInt(live.size()));
+                assertTrue(index.remove(removed));
+            }
+        }
+
+        assertEquals(live.size(), index.size());
+        for (int i = 0; i < 20; i++) {
+            Pokemon target = live.get(i * 50);
+            assertEquals(bruteForceDistances(live, target, 6, 0), distances(index.nearest(target, 6, false), target));
+        }
+        Pokemon removed = live.remove(0);
+        index.remove(removed);
+        assertFalse(index.remove(removed), "Removing again finds nothing");
+        assertFalse(index.nearest(removed, live.size(), false).contains(removed));
+    }
+
+    @Test
+    void nearest_ByStatsReturnsExactMatchFirst() {
+        StatNeighborIndex index = new StatNeighborIndex(pokemonList);
+        Pokemon target = pokemonList.get(42);
+
+        List<Pokemon> nearest = index.nearest(target.getStats(), 3, 0);
+
+        assertEquals(0, distance(nearest.get(0), target));
+        assertTrue(index.nearest(target.getStats(), 0, 0).isEmpty());
+        assertEquals(pokemonList.size(), index.nearest(target.getStats(), 5000, 0).size());
+    }
+
+    @Test
+    void nearest_RejectsInvalidArguments() {
+        StatNeighborIndex index = new StatNeighborIndex(pokemonList);
+
+        assertThrows(IllegalArgumentException.class, () -> index.nearest((Pokemon) null, 3, false));
+        assertThrows(IllegalArgumentException.class, () -> index.nearest(pokemonList.get(0), -1, false));
+        assertThrows(IllegalArgumentException.class, () -> index.add(null));
+    }
+
+    private static List<Long> bruteForceDistances(List<Pokemon> pokemonList, Pokemon target, int count, int mask) {
+        return pokemonList.stream()
+                .filter(pokemon -> pokemon != target)
+                .filter(pokemon -> mask == 0 || (PokemonType.maskOf(pokemon.getTypes()) & mask) != 0)
+                .map(pokemon -> distance(pokemon, target))
+                .sorted(Comparator.naturalOrder())
+                .limit(count)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> distances(List<Pokemon> pokemonList, Pokemon target) {
+        return pokemonList.stream().map(pokemon -> distance(pokemon, target)).collect(Collectors.toList());
+    }
+
+    private static long distance(Pokemon a, Pokemon b) {
+        long distance = 0;
+        for (PokemonStat stat : PokemonStat.values()) {
+            long difference = stat.of(a.getStats()) - stat.of(b.getStats());
+            distance += difference * difference;
+        }
+        return distance;
+    }
+}
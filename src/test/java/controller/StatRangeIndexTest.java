@@ -0,0 +1,148 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonStat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link StatRangeIndex}.
+ * Checks range lookups against a plain scan of the same list.
+ */
+public class StatRangeIndexTest {
+
+    private List<Pokemon> pokemonList;
+    private StatRangeIndex index;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new ArrayList<>(new PokemonGenerator(21).generate(800));
+        index = new StatRangeIndex(pokemonList);
+    }
+
+    private int[] scan(PokemonStat stat, int min, int max) {
+        return IntStream.range(0, pokemonList.size())
+                .filter(row -> {
+                    int value = stat.of(pokemonList.get(row).getStats());
+                    return value >= min && value <= max;
+                })
+                .toArray();
+    }
+
+    private int[] sorted(int[] rows) {
+        int[] copy = rows.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    @Test
+    void rows_MatchScanForEveryStat() {
+        for (PokemonStat stat : PokemonStat.values()) {
+            assertArrayEquals(scan(stat, 80, 120), sorted(index.rows(stat, 80, 120)), stat.toString());
+            assertEquals(scan(stat, 80, 120).length, index.count(stat, 80, 120));
+            assertArrayEquals(scan(stat, 100, 100), sorted(index.rows(stat, 100, 100)));
+        }
+    }
+
+    @Test
+    void rows_OrderedByValueThenRow() {
+        int[] rows = index.rows(PokemonStat.SPEED, 0, PokemonStat.MAX_VALUE);
+        assertEquals(pokemonList.size(), rows.length);
+        for (int i = 1; i < rows.length; i++) {
+            int previous = PokemonStat.SPEED.of(pokemonList.get(rows[i - 1]).getStats());
+            int current = PokemonStat.SPEED.of(pokemonList.get(rows[i]).getStats());
+            assertTrue(previous < current || previous == current && rows[i - 1] < rows[i]);
+        }
+    }
+
+    @Test
+    void rows_RangesOutsideDomain() {
+        assertEquals(0, index.rows(PokemonStat.HP, 300, 400).length);
+        assertEquals(0, index.count(PokemonStat.HP, -10, 0));
+        assertEquals(pokemonList.size(), index.count(PokemonStat.HP, Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertEquals(0, index.count(PokemonStat.HP, 10, 5));
+    }
+
+    @Test
+    void totalRows_MatchScan() {
+        int[] expected = IntStream.range(0, pokemonList.size())
+                .filter(row -> {
+                    int total = PokemonStat.total(pokemonList.get(row).getStats());
+                    return total >= 400 && total <= 500;
+                })
+                .toArray();
+
+        assertArrayEquals(expected, sorted(index.totalRows(400, 500)));
+        assertEquals(expected.length, index.countTotal(400, 500));
+    }
+
+    @Test
+    void rowsForQuery_IntersectsAllRangesInRowOrder() {
+        PokemonQuery query = PokemonQuery.builder()
+                .statRange(PokemonStat.SPEED, 100, 255)
+                .statRange(PokemonStat.ATTACK, 80, 120)
+                .totalRange(300, 700)
+                .build();
+        int[] expected = IntStream.range(0, pokemonList.size())
+                .filter(row -> QueryFilters.matches(query, pokemonList.get(row)))
+                .toArray();
+
+        assertArrayEquals(expected, index.rows(query));
+        assertNull(index.rows(PokemonQuery.builder().build()));
+    }
+
+    @Test
+    void emptyList() {
+        StatRangeIndex empty = new StatRangeIndex(new ArrayList<>());
+
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.rows(PokemonStat.HP, 0, 255).length);
+        assertEquals(0, empty.rows(PokemonQuery.builder().totalRange(0, 100).build()).length);
+    }
+
+    @Test
+    void rowChanges_MatchFreshIndex() {
+        PokemonGenerator generator = new PokemonGenerator(77);
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 300; i++) {
+            int choice = random.nextInt(3);
+            if (choice == 0) {
+                pokemonList.add(generator.generatePokemon(10_000 + i));
+                index.rowAdded(pokemonList.get(pokemonList.size() - 1));
+            } else if (choice == 1) {
+                int row = random.nextInt(pokemonList.size());
+                pokemonList.remove(row);
+                index.rowRemoved(row);
+            } else {
+                int row = random.nextInt(pokemonList.size());
+                pokemonList.set(row, generator.generatePokemon(20_000 + i));
+                index.rowUpdated(row, pokemonList.get(row));
+            }
+        }
+
+        StatRangeIndex fresh = new StatRangeIndex(pokemonList);
+        assertEquals(pokemonList.size(), index.size());
+        int[][] ranges = {{0, 255}, {60, 100}, {120, 1000}, {-5, 40}};
+        for (PokemonStat stat : PokemonStat.values()) {
+            for (int[] range : ranges) {
+                assertArrayEquals(fresh.rows(stat, range[0], range[1]), index.rows(stat, range[0], range[1]));
+                assertArrayEquals(scan(stat, range[0], range[1]), sorted(index.rows(stat, range[0], range[1])));
+            }
+        }
+        assertArrayEquals(fresh.totalRows(300, 500), index.totalRows(300, 500));
+        PokemonQuery query = PokemonQuery.builder()
+                .statRange(PokemonStat.SPEED, 50, 150)
+                .totalRange(250, 600)
+                .build();
+        assertArrayEquals(fresh.rows(query), index.rows(query));
+    }
+}
@@ -0,0 +1,149 @@
+package controller;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonStat;
+import model.PokemonType;
+import model.TypeChart;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link TeamOptimizer}.
+ */
+public class TeamOptimizerTest {
+
+    private final QueryExecutor parallel = new QueryExecutor(2, 1);
+
+    @AfterEach
+    void tearDown() {
+        parallel.close();
+    }
+
+    @Test
+    void optimize_MatchesExhaustiveSearch() {
+        List<Pokemon> candidates = new PokemonGenerator(11).generate(18);
+        List<Long> expected = bruteForceScores(candidates, 4);
+
+        for (QueryExecutor executor : List.of(QueryExecutor.sequential(), parallel)) {
+            TeamOptimizer.Result result = new TeamOptimizer(executor, 100).optimize(candidates, 4, 5, 60_000);
+
+            assertTrue(result.isComplete());
+            assertEquals(5, result.getTeams().size());
+            for (int i = 0; i < 5; i++) {
+                TeamOptimizer.Team team = result.getTeams().get(i);
+                assertEquals(expected.get(i).longValue(), team.getScore());
+                assertEquals(score(team.getMembers(), 100), team.getScore());
+                assertEquals(4, new HashSet<>(team.getMembers()).size());
+            }
+        }
+    }
+
+    @Test
+    void optimize_SameResultSequentialAndParallel() {
+        List<Pokemon> candidates = new PokemonGenerator(5).generate(300);
+
+        TeamOptimizer.Result sequential = new TeamOptimizer(QueryExecutor.sequential(), 100)
+                .optimize(candidates, 3, 60_000);
+        TeamOptimizer.Result parallelResult = new TeamOptimizer(parallel, 100).optimize(candidates, 3, 60_000);
+
+        assertTrue(sequential.isComplete());
+        assertTrue(parallelResult.isComplete());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(sequential.getTeams().get(i).getMembers(), parallelResult.getTeams().get(i).getMembers());
+        }
+        assertEquals(TeamOptimizer.TEAM_SIZE, sequential.getTeams().get(0).getMembers().size());
+    }
+
+    @Test
+    void optimize_DropsWeakerPokemonOfSameTypes() {
+        List<Pokemon> candidates = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            candidates.add(new Pokemon(i, "fire" + i, "url", List.of(PokemonType.FIRE),
+                    new Pokemon.PokemonStats(i, i, i, i, i, i)));
+        }
+
+        TeamOptimizer.Result result = new TeamOptimizer(QueryExecutor.sequential(), 100)
+                .optimize(candidates, 1, 60_000);
+
+        assertEquals(TeamOptimizer.TEAM_SIZE, result.getCandidates());
+        List<Pokemon> members = result.getTeams().get(0).getMembers();
+        assertEquals("fire10", members.get(0).getName());
+        assertEquals("fire5", members.get(5).getName());
+        assertEquals(List.of(PokemonType.GRASS, PokemonType.ICE, PokemonType.BUG, PokemonType.STEEL),
+                result.getTeams().get(0).getOffensiveCoverage());
+    }
+
+    @Test
+    void optimize_ZeroBudgetStillReturnsTeam() {
+        List<Pokemon> candidates = new PokemonGenerator(3).generate(5000);
+
+        TeamOptimizer.Result result = new TeamOptimizer(parallel, 100).optimize(candidates, 1, 0);
+
+        assertEquals(1, result.getTeams().size());
+        assertEquals(TeamOptimizer.TEAM_SIZE, new HashSet<>(result.getTeams().get(0).getMembers()).size());
+    }
+
+    @Test
+    void optimize_SmallCollections() {
+        List<Pokemon> candidates = new PokemonGenerator(3).generate(3);
+        TeamOptimizer optimizer = new TeamOptimizer(QueryExecutor.sequential(), 100);
+
+        TeamOptimizer.Result result = optimizer.optimize(candidates, 5, 1000);
+
+        assertEquals(1, result.getTeams().size());
+        assertEquals(3, result.getTeams().get(0).getMembers().size());
+        assertTrue(optimizer.optimize(Collections.emptyList(), 5, 1000).getTeams().isEmpty());
+    }
+
+    @Test
+    void optimize_InvalidArguments() {
+        TeamOptimizer optimizer = new TeamOptimizer(QueryExecutor.sequential(), 100);
+
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(null, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(List.of(), 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(List.of(), 0, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(List.of(), 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> new TeamOptimizer(QueryExecutor.sequential(), -1));
+        assertThrows(IllegalArgumentException.class, () -> new TeamOptimizer(null, 100));
+    }
+
+    private static List<Long> bruteForceScores(List<Pokemon> candidates, int size) {
+        List<Long> scores = new ArrayList<>();
+        collect(candidates, size, 0, new ArrayList<>(), scores);
+        scores.sort(Collections.reverseOrder());
+        return scores;
+    }
+
+    private static void collect(List<Pokemon> candidates, int size, int from, List<Pokemon> team, List<Long> scores) {
+        if (team.size() == size) {
+            scores.add(score(team, 100));
+            return;
+        }
+        for (int i = from; i < candidates.size(); i++) {
+            team.add(candidates.get(i));
+            collect(candidates, size, i + 1, team, scores);
+            team.remove(team.size() - 1);
+        }
+    }
+
+    private static long score(List<Pokemon> team, int weight) {
+        int offense = 0;
+        int defense = 0;
+        long stats = 0;
+        for (Pokemon pokemon : team) {
+            int types = PokemonType.maskOf(pokemon.getTypes());
+            offense |= TypeChart.superEffectiveMask(types);
+            defense |= TypeChart.resistedMask(types);
+            stats += PokemonStat.total(pokemon.getStats());
+        }
+        return (long) weight * (Integer.bitCount(offense) + Integer.bitCount(defense)) + stats;
+    }
+}
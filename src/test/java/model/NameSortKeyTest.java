@@ -0,0 +1,54 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link NameSortKey}.
+ */
+class NameSortKeyTest {
+
+    @Test
+    void compare_OrdersLikeADictionary() {
+        // Arrange
+        String[] names = {"Zygarde", "Type: Null", "Nidorina", "flabebe", "Nidoran♂", "Flabébé",
+                "Typhlosion", "Nidoran♀", "Eevee", "Flabebe", "éclair", "Porygon2", "Mr. Mime"};
+
+        // Act
+        Arrays.sort(names, (a, b) -> NameSortKey.compare(NameSortKey.of(a), NameSortKey.of(b)));
+
+        // Assert
+        assertEquals(List.of("éclair", "Eevee", "Flabebe", "flabebe", "Flabébé", "Mr. Mime",
+                "Nidoran♀", "Nidoran♂", "Nidorina", "Porygon2", "Type: Null", "Typhlosion", "Zygarde"),
+                List.of(names));
+    }
+
+    @Test
+    void of_EqualOnlyForEqualNames() {
+        assertTrue(Arrays.equals(NameSortKey.of("Mr. Mime"), NameSortKey.of("Mr. Mime")));
+        assertNotEquals(0, NameSortKey.compare(NameSortKey.of("Mr. Mime"), NameSortKey.of("Mr Mime")));
+        assertNotEquals(0, NameSortKey.compare(NameSortKey.of("Eevee"), NameSortKey.of("eevee")));
+        assertTrue(NameSortKey.compare(NameSortKey.of(null), NameSortKey.of("a")) < 0);
+        assertTrue(NameSortKey.compare(NameSortKey.of("abc"), NameSortKey.of("abcd")) < 0);
+    }
+
+    @Test
+    void nameSortKey_FollowsSetName() {
+        // Arrange
+        Pokemon pokemon = new Pokemon(1, "bulbasaur", "url", List.of(PokemonType.GRASS),
+                new Pokemon.PokemonStats(45, 49, 49, 65, 65, 45));
+        byte[] before = pokemon.nameSortKey();
+
+        // Act
+        pokemon.setName("Ivysaur");
+
+        // Assert
+        assertSame(pokemon.nameSortKey(), pokemon.nameSortKey(), "The key is cached");
+        assertTrue(Arrays.equals(NameSortKey.of("Ivysaur"), pokemon.nameSortKey()));
+        assertFalse(Arrays.equals(before, pokemon.nameSortKey()));
+    }
+}
@@ -0,0 +1,183 @@
+package model;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manual benchmark comparing the heap-backed {@code ArrayList<Pokemon>} path with
+ * {@link OffHeapPokemonStore}. Not a JUnit test; run it directly with a large heap:
+ * <pre>
+ * java -Xmx8g -cp build/classes/java/main:build/classes/java/test model.OffHeapPokemonStoreBenchmark 1000000 10000000
+ * </pre>
+ * Each variant and row count runs in a fresh JVM with the same options, so one run's
+ * garbage never lands in the next run's figures. The child warms up both code paths,
+ * settles the heap, and only then starts counting GC time, so the reported pauses are
+ * the ones the load itself caused. The forced collections used to measure the
+ * footprint happen after that count is taken, and the name scan reports the best of
+ * several rounds.
+ */
+public class OffHeapPokemonStoreBenchmark {
+    private static final String RUN_FLAG = "--run";
+    private static final String HEAP = "heap";
+    private static final String OFF_HEAP = "offheap";
+    private static final int WARMUP_SIZE = 100_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int SCAN_ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args row counts to benchmark, defaults to 1M and 10M
+     * @throws IOException if a child JVM cannot be started
+     * @throws InterruptedException if interrupted while waiting for a child JVM
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 3 && RUN_FLAG.equals(args[0])) {
+            run(args[1], Integer.parseInt(args[2]));
+            return;
+        }
+
+        int[] sizes = args.length == 0 ? new int[] {1_000_000, 10_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        for (int size : sizes) {
+            System.out.println("=== " + size + " rows ===");
+            fork(HEAP, size);
+            fork(OFF_HEAP, size);
+        }
+    }
+
+    /**
+     * Runs one variant in a child JVM started with this JVM's options and class path.
+     *
+     * @param variant the variant to run
+     * @param size the row count
+     */
+    private static void fork(String variant, int size) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(OffHeapPokemonStoreBenchmark.class.getName());
+        command.add(RUN_FLAG);
+        command.add(variant);
+        command.add(Integer.toString(size));
+        int exitCode = new ProcessBuilder(command).inheritIO().start().waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException(variant + " run failed with exit code " + exitCode);
+        }
+    }
+
+    private static void run(String variant, int size) {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            if (HEAP.equals(variant)) {
+                scanHeap(loadHeap(WARMUP_SIZE));
+            } else {
+                OffHeapPokemonStore store = loadOffHeap(WARMUP_SIZE);
+                store.searchByName("mon99");
+                store.clear();
+            }
+        }
+        settleHeap();
+
+        if (HEAP.equals(variant)) {
+            long gcBefore = totalGcMillis();
+            List<Pokemon> list = loadHeap(size);
+            long gcMillis = totalGcMillis() - gcBefore;
+            long heap = settleHeap();
+
+            long scanNanos = Long.MAX_VALUE;
+            int matches = 0;
+            for (int round = 0; round < SCAN_ROUNDS; round++) {
+                long start = System.nanoTime();
+                matches = scanHeap(list);
+                scanNanos = Math.min(scanNanos, System.nanoTime() - start);
+            }
+            report("ArrayList<Pokemon>", heap, 0, gcMillis, scanNanos / 1_000_000, matches);
+        } else {
+            long gcBefore = totalGcMillis();
+            OffHeapPokemonStore store = loadOffHeap(size);
+            long gcMillis = totalGcMillis() - gcBefore;
+            long heap = settleHeap();
+
+            long scanNanos = Long.MAX_VALUE;
+            int matches = 0;
+            for (int round = 0; round < SCAN_ROUNDS; round++) {
+                long start = System.nanoTime();
+                matches = store.searchByName("mon99").size();
+                scanNanos = Math.min(scanNanos, System.nanoTime() - start);
+            }
+            report("OffHeapPokemonStore", heap, store.getReservedBytes(), gcMillis,
+                    scanNanos / 1_000_000, matches);
+        }
+    }
+
+    private static List<Pokemon> loadHeap(int size) {
+        List<Pokemon> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(createPokemon(i));
+        }
+        return list;
+    }
+
+    private static OffHeapPokemonStore loadOffHeap(int size) {
+        OffHeapPokemonStore store = new OffHeapPokemonStore();
+        for (int i = 0; i < size; i++) {
+            store.add(createPokemon(i));
+        }
+        return store;
+    }
+
+    private static int scanHeap(List<Pokemon> list) {
+        int matches = 0;
+        for (Pokemon pokemon : list) {
+            if (pokemon.getName().toLowerCase().contains("mon99")) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static Pokemon createPokemon(int i) {
+        List<PokemonType> types = new ArrayList<>(2);
+        types.add(PokemonType.values()[i % PokemonType.values().length]);
+        return new Pokemon(i + 1, "mon" + i, "https://example.com/sprites/" + i + ".png", types,
+                new Pokemon.PokemonStats(i % 255, (i * 7) % 255, (i * 13) % 255,
+                        (i * 17) % 255, (i * 19) % 255, (i * 23) % 255));
+    }
+
+    /**
+     * Forces a few full collections and reports the live heap afterwards. Callers read
+     * the GC counters before this, so the forced pauses are never part of a result.
+     *
+     * @return the used heap in bytes
+     */
+    private static long settleHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long totalGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, bean.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static void report(String label, long heapBytes, long offHeapBytes,
+                               long gcMillis, long scanMillis, int matches) {
+        System.out.printf("%-20s heap=%,d MB off-heap=%,d MB gc=%,d ms scan=%,d ms (%d matches)%n",
+                label, heapBytes >> 20, offHeapBytes >> 20, gcMillis, scanMillis, matches);
+    }
+}
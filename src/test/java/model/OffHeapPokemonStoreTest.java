@@ -0,0 +1,146 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link OffHeapPokemonStore}.
+ */
+class OffHeapPokemonStoreTest {
+
+    private OffHeapPokemonStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OffHeapPokemonStore();
+        store.add(new Pokemon(1, "bulbasaur", "bulbasaur.png",
+                Arrays.asList(PokemonType.GRASS, PokemonType.POISON),
+                new Pokemon.PokemonStats(45, 49, 49, 65, 65, 45)));
+        store.add(new Pokemon(4, "Charmander", "charmander.png",
+                Collections.singletonList(PokemonType.FIRE),
+                new Pokemon.PokemonStats(39, 52, 43, 60, 50, 65)));
+        store.add(new Pokemon(7, "squirtle", "squirtle.png",
+                Collections.singletonList(PokemonType.WATER),
+                new Pokemon.PokemonStats(44, 48, 65, 50, 64, 43)));
+    }
+
+    @Test
+    void add_RoundTripsAllFields() {
+        Pokemon bulbasaur = store.get(0);
+
+        assertEquals(3, store.size());
+        assertEquals(1, bulbasaur.getId());
+        assertEquals("bulbasaur", bulbasaur.getName());
+        assertEquals("bulbasaur.png", bulbasaur.getImageUrl());
+        assertEquals(Arrays.asList(PokemonType.GRASS, PokemonType.POISON), bulbasaur.getTypes());
+        assertEquals(65, bulbasaur.getStats().getSpecialDefense());
+        assertEquals(45, bulbasaur.getStats().getSpeed());
+    }
+
+    @Test
+    void add_KeepsTypeOrder() {
+        store.add(new Pokemon(16, "pidgey", "pidgey.png",
+                Arrays.asList(PokemonType.FLYING, PokemonType.NORMAL),
+                new Pokemon.PokemonStats(40, 45, 40, 35, 35, 56)));
+
+        assertEquals(Arrays.asList(PokemonType.FLYING, PokemonType.NORMAL), store.get(3).getTypes());
+    }
+
+    @Test
+    void add_RejectsInvalidPokemon() {
+        assertThrows(IllegalArgumentException.class, () -> store.add(null));
+        assertThrows(IllegalArgumentException.class, () -> store.add(new Pokemon()));
+        assertThrows(IllegalArgumentException.class, () -> store.add(new Pokemon(1, "x", "x.png",
+                Arrays.asList(PokemonType.FIRE, PokemonType.WATER, PokemonType.ICE),
+                new Pokemon.PokemonStats(1, 1, 1, 1, 1, 1))));
+        int size = store.size();
+        assertThrows(IllegalArgumentException.class, () -> store.add(new Pokemon(1, "x", "x.png",
+                List.of(PokemonType.FIRE), new Pokemon.PokemonStats(1, 1, 1, 1, 1, Short.MAX_VALUE + 1))));
+        assertEquals(size, store.size(), "A rejected Pokemon should not be stored");
+
+        int row = store.add(new Pokemon(1, "x", "x.png", List.of(PokemonType.FIRE),
+                new Pokemon.PokemonStats(Short.MAX_VALUE, 1, 1, 1, 1, 1)));
+        assertEquals(Short.MAX_VALUE, store.getStat(row, PokemonStat.HP));
+    }
+
+    @Test
+    void columnAccessors_ReadWithoutMaterializing() {
+        assertEquals(4, store.getId(1));
+        assertEquals(52, store.getStat(1, PokemonStat.ATTACK));
+        assertTrue(store.hasType(0, PokemonType.POISON));
+        assertFalse(store.hasType(2, PokemonType.FIRE));
+        assertThrows(IndexOutOfBoundsException.class, () -> store.getId(3));
+    }
+
+    @Test
+    void findById_FoundAndMissing() {
+        assertEquals("squirtle", store.findById(7).getName());
+        assertNull(store.findById(999));
+    }
+
+    @Test
+    void add_KeepsEmptyAndNullStringsApart() {
+        Pokemon.PokemonStats stats = new Pokemon.PokemonStats(1, 1, 1, 1, 1, 1);
+        store.add(new Pokemon(10, "", null, Collections.singletonList(PokemonType.BUG), stats));
+        store.add(new Pokemon(11, null, "", Collections.singletonList(PokemonType.BUG), stats));
+
+        assertEquals("", store.get(3).getName());
+        assertNull(store.get(3).getImageUrl());
+        assertNull(store.get(4).getName());
+        assertEquals("", store.get(4).getImageUrl());
+        assertTrue(store.searchByName("bug").isEmpty());
+    }
+
+    @Test
+    void indexOfId_FirstRowWinsAndClearResets() {
+        store.add(new Pokemon(4, "duplicate", "duplicate.png",
+                Collections.singletonList(PokemonType.FIRE), new Pokemon.PokemonStats(1, 1, 1, 1, 1, 1)));
+
+        assertEquals(1, store.indexOfId(4));
+        assertEquals(-1, store.indexOfId(5));
+
+        store.clear();
+        assertEquals(-1, store.indexOfId(4));
+    }
+
+    @Test
+    void searchByName_CaseInsensitive() {
+        List<Pokemon> results = store.searchByName("CHAR");
+
+        assertEquals(1, results.size());
+        assertEquals(4, results.get(0).getId());
+        assertTrue(store.searchByName("pikachu").isEmpty());
+        assertEquals(3, store.searchByName("").size());
+    }
+
+    @Test
+    void filterByType_MatchesEitherSlot() {
+        assertEquals(1, store.filterByType(PokemonType.POISON).size());
+        assertTrue(store.filterByType(PokemonType.ELECTRIC).isEmpty());
+        assertEquals(3, store.filterByType(null).size());
+    }
+
+    @Test
+    void add_SpansSeveralChunks() {
+        OffHeapPokemonStore large = new OffHeapPokemonStore();
+        Pokemon.PokemonStats stats = new Pokemon.PokemonStats(50, 50, 50, 50, 50, 50);
+        for (int i = 0; i < 70_000; i++) {
+            large.add(new Pokemon(i, "mon" + i, "https://example.com/" + i + ".png",
+                    Collections.singletonList(PokemonType.NORMAL), stats));
+        }
+
+        assertEquals(70_000, large.size());
+        assertEquals("mon69999", large.get(69_999).getName());
+        assertEquals(69_999, large.indexOfId(69_999));
+        assertTrue(large.getReservedBytes() > 0);
+
+        large.clear();
+        assertEquals(0, large.size());
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for {@link PokemonGenerator}.
+ */
+class PokemonGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generate_IsDeterministicForSeed() {
+        List<Pokemon> first = new PokemonGenerator(42).generate(100);
+        List<Pokemon> second = new PokemonGenerator(42).generate(100);
+
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getName(), second.get(i).getName());
+            assertEquals(first.get(i).getTypes(), second.get(i).getTypes());
+            assertEquals(first.get(i).getStats().toString(), second.get(i).getStats().toString());
+        }
+    }
+
+    @Test
+    void generate_DifferentSeedsDiffer() {
+        List<String> first = new PokemonGenerator(1).generate(50).stream()
+                .map(Pokemon::getName).collect(Collectors.toList());
+        List<String> second = new PokemonGenerator(2).generate(50).stream()
+                .map(Pokemon::getName).collect(Collectors.toList());
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void generate_ProducesValidPokemon() {
+        List<Pokemon> dex = new PokemonGenerator(7).generate(10_000);
+
+        assertEquals(10_000, dex.size());
+        for (int i = 0; i < dex.size(); i++) {
+            Pokemon pokemon = dex.get(i);
+            assertEquals(i + 1, pokemon.getId());
+            assertFalse(pokemon.getName().isEmpty());
+            assertTrue(pokemon.getImageUrl().endsWith(".png"));
+            assertTrue(pokemon.getTypes().size() == 1 || pokemon.getTypes().size() == 2);
+            if (pokemon.getTypes().size() == 2) {
+                assertNotEquals(pokemon.getTypes().get(0), pokemon.getTypes().get(1));
+            }
+            for (PokemonStat stat : PokemonStat.values()) {
+                int value = stat.of(pokemon.getStats());
+                assertTrue(value >= 1 && value <= PokemonStat.MAX_VALUE);
+            }
+        }
+    }
+
+    @Test
+    void generate_RandomAccessMatchesBulk() {
+        PokemonGenerator generator = new PokemonGenerator(3);
+
+        assertEquals(generator.generate(20).get(19).getName(), generator.generate(20).get(19).getName());
+        assertEquals(generator.generate(500).get(499).getName(), generator.generatePokemon(500).getName());
+        assertEquals(5, generator.stream(5).count());
+    }
+
+    @Test
+    void generate_NegativeCount() {
+        assertThrows(IllegalArgumentException.class, () -> new PokemonGenerator(1).generate(-1));
+    }
+
+    @Test
+    void writeCollection_LoadsBackWithModel() throws IOException {
+        String filename = tempDir.resolve("synthetic").toString();
+        PokemonGenerator generator = new PokemonGenerator(11);
+
+        generator.writeCollection(250, filename);
+        List<Pokemon> loaded = new PokemonModel().loadCollection(filename);
+
+        assertEquals(250, loaded.size());
+        assertEquals(generator.generatePokemon(250).getName(), loaded.get(249).getName());
+        assertEquals(generator.generatePokemon(250).getTypes(), loaded.get(249).getTypes());
+    }
+
+    @Test
+    void writeCollection_InvalidFilename() {
+        assertThrows(IllegalArgumentException.class, () -> new PokemonGenerator(1).writeCollection(1, " "));
+    }
+}
@@ -0,0 +1,59 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeChartTest {
+
+    @Test
+    void effectiveness_MatchesKnownMatchups() {
+        assertEquals(TypeChart.SUPER_EFFECTIVE, TypeChart.effectiveness(PokemonType.WATER, PokemonType.FIRE));
+        assertEquals(TypeChart.NOT_VERY_EFFECTIVE, TypeChart.effectiveness(PokemonType.FIRE, PokemonType.WATER));
+        assertEquals(TypeChart.NO_EFFECT, TypeChart.effectiveness(PokemonType.GROUND, PokemonType.FLYING));
+        assertEquals(TypeChart.NEUTRAL, TypeChart.effectiveness(PokemonType.NORMAL, PokemonType.FIRE));
+        assertEquals(TypeChart.NO_EFFECT, TypeChart.effectiveness(PokemonType.DRAGON, PokemonType.FAIRY));
+    }
+
+    @Test
+    void multiplier_CombinesDualTypes() {
+        List<PokemonType> gyarados = Arrays.asList(PokemonType.WATER, PokemonType.FLYING);
+
+        assertEquals(4.0, TypeChart.multiplier(PokemonType.ELECTRIC, gyarados));
+        assertEquals(0.0, TypeChart.multiplier(PokemonType.GROUND, gyarados));
+        assertEquals(0.5, TypeChart.multiplier(PokemonType.BUG, gyarados));
+        assertEquals(1.0, TypeChart.multiplier(PokemonType.FIRE, null));
+    }
+
+    @Test
+    void superEffectiveMask_UnionsAttackingTypes() {
+        int fire = TypeChart.superEffectiveMask(PokemonType.FIRE.mask());
+        int fireWater = TypeChart.superEffectiveMask(PokemonType.FIRE.mask() | PokemonType.WATER.mask());
+
+        assertEquals(PokemonType.maskOf(Arrays.asList(PokemonType.GRASS, PokemonType.ICE,
+                PokemonType.BUG, PokemonType.STEEL)), fire);
+        assertEquals(fire | PokemonType.maskOf(Arrays.asList(PokemonType.FIRE, PokemonType.GROUND,
+                PokemonType.ROCK)), fireWater);
+        assertEquals(0, TypeChart.superEffectiveMask(PokemonType.NORMAL.mask()));
+        assertEquals(0, TypeChart.superEffectiveMask(0));
+    }
+
+    @Test
+    void resistedMask_UsesCombinedMultiplier() {
+        int steel = TypeChart.resistedMask(PokemonType.STEEL.mask());
+        int waterGround = TypeChart.resistedMask(PokemonType.WATER.mask() | PokemonType.GROUND.mask());
+
+        assertTrue((steel & PokemonType.POISON.mask()) != 0, "Immunity counts as a resistance");
+        assertTrue((steel & PokemonType.DRAGON.mask()) != 0);
+        assertEquals(0, steel & PokemonType.FIRE.mask());
+        // Ground's weakness to water cancels water's resistance to it
+        assertTrue((waterGround & PokemonType.ELECTRIC.mask()) != 0);
+        assertTrue((waterGround & PokemonType.FIRE.mask()) != 0);
+        assertEquals(0, waterGround & PokemonType.WATER.mask());
+        assertEquals(0, waterGround & PokemonType.GRASS.mask());
+        assertEquals(0, TypeChart.resistedMask(0));
+    }
+}
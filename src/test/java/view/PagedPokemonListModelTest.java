@@ -0,0 +1,303 @@
+package view;
+
+import model.Pokemon;
+import model.PokemonGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedPokemonListModelTest {
+
+    private List<Pokemon> pokemonList;
+    private List<int[]> requestedPages;
+    private PagedPokemonListModel model;
+
+    @BeforeEach
+    void setUp() {
+        pokemonList = new ArrayList<>(new PokemonGenerator(5).generate(1000));
+        requestedPages = new ArrayList<>();
+        model = new PagedPokemonListModel(10);
+        model.setSource(source());
+    }
+
+    @Test
+    void setSource_KnowsSizeWithoutLoadingRows() {
+        assertEquals(1000, model.getSize());
+        assertEquals(1000, model.size());
+        assertFalse(model.isEmpty());
+        assertEquals(0, model.getWindowSize());
+        assertTrue(requestedPages.isEmpty());
+    }
+
+    @Test
+    void getElementAt_LoadsOnlyWindowAroundRow() {
+        assertSame(pokemonList.get(500), model.getElementAt(500).getPokemon());
+
+        assertEquals(1, requestedPages.size());
+        assertArrayEquals(new int[]{490, 21}, requestedPages.get(0));
+        assertEquals(21, model.getWindowSize());
+
+        // Rows inside the window are served without another fetch
+        assertSame(pokemonList.get(505), model.getElementAt(505).getPokemon());
+        assertEquals(1, requestedPages.size());
+    }
+
+    @Test
+    void prefetch_LoadsVisibleRangeWithMargin() {
+        model.prefetch(0, 19);
+        assertArrayEquals(new int[]{0, 30}, requestedPages.get(0));
+
+        model.prefetch(5, 25);
+        assertEquals(1, requestedPages.size(), "Range inside the window should not be fetched again");
+
+        model.prefetch(995, 1200);
+        assertArrayEquals(new int[]{985, 15}, requestedPages.get(1));
+        assertSame(pokemonList.get(999), model.getElementAt(model.getSize() - 1).getPokemon());
+    }
+
+    @Test
+    void checkedItems_SurviveWindowMovingAway() {
+        CheckBoxListItem first = model.getElementAt(0);
+        first.setSelected(true);
+        model.getElementAt(900).setSelected(true);
+
+        assertEquals(List.of(pokemonList.get(0), pokemonList.get(900)), model.getCheckedPokemon());
+        assertSame(first, model.getElementAt(0), "Checked item should be reused when its row comes back");
+        assertTrue(model.getElementAt(0).isSelected());
+    }
+
+    @Test
+    void clear_EmptiesModelAndNotifiesListeners() {
+        List<ListDataEvent> events = recordEvents();
+        model.getElementAt(3).setSelected(true);
+
+        model.clear();
+
+        assertEquals(0, model.getSize());
+        assertTrue(model.getCheckedPokemon().isEmpty());
+        assertEquals(1, events.size());
+        assertEquals(ListDataEvent.INTERVAL_REMOVED, events.get(0).getType());
+        assertEquals(999, events.get(0).getIndex1());
+    }
+
+    @Test
+    void getElementAt_OutOfRange_Throws() {
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> model.getElementAt(-1));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> model.getElementAt(1000));
+    }
+
+    @Test
+    void constructor_RejectsNegativePrefetch() {
+        assertThrows(IllegalArgumentException.class, () -> new PagedPokemonListModel(-1));
+    }
+
+    @Test
+    void setSource_WithFirstRows_ServesThemWithoutFetching() {
+        model.setSource(source(), new ArrayList<>(pokemonList.subList(0, 30)));
+
+        assertEquals(30, model.getWindowSize());
+        assertSame(pokemonList.get(29), model.getElementAt(29).getPokemon());
+        assertTrue(requestedPages.isEmpty());
+    }
+
+    @Test
+    void pendingPage_ShowsPlaceholderUntilItArrives() throws Exception {
+        List<CompletableFuture<List<Pokemon>>> pending = new ArrayList<>();
+        model.setSource(pendingSource(pending));
+        List<ListDataEvent> events = recordEvents();
+
+        assertNull(model.getElementAt(500).getPokemon());
+        assertNull(model.getElementAt(505).getPokemon());
+        assertEquals(1, pending.size(), "Rows of a pending page should not be asked for again");
+
+        pending.get(0).complete(new ArrayList<>(pokemonList.subList(490, 511)));
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertSame(pokemonList.get(505), model.getElementAt(505).getPokemon());
+        assertEquals(1, events.size());
+        assertEquals(ListDataEvent.CONTENTS_CHANGED, events.get(0).getType());
+        assertEquals(490, events.get(0).getIndex0());
+        assertEquals(510, events.get(0).getIndex1());
+    }
+
+    @Test
+    void pendingPage_IsDroppedAfterRowsChange() throws Exception {
+        List<CompletableFuture<List<Pokemon>>> pending = new ArrayList<>();
+        PagedPokemonListModel.PageSource source = pendingSource(pending);
+        model.setSource(source);
+        model.getElementAt(500);
+
+        pokemonList.add(0, new PokemonGenerator(8).generatePokemon(5000));
+        model.rowsInserted(source, 0, 0, List.of(pokemonList.get(0)));
+        pending.get(0).complete(new ArrayList<>(pokemonList.subList(490, 511)));
+        SwingUtilities.invokeAndWait(() -> { });
+
+        assertEquals(0, model.getWindowSize(), "A page fetched before the insertion is at the wrong rows");
+        assertNull(model.getElementAt(500).getPokemon());
+        assertEquals(2, pending.size());
+    }
+
+    @Test
+    void cancelledPage_LeavesRowsToFetchAgain() throws Exception {
+        List<CompletableFuture<List<Pokemon>>> pending = new ArrayList<>();
+        model.setSource(pendingSource(pending));
+        model.getElementAt(500);
+
+        pending.get(0).cancel(false);
+        SwingUtilities.invokeAndWait(() -> { });
+        model.getElementAt(500);
+
+        assertEquals(2, pending.size());
+    }
+
+    @Test
+    void rowsInserted_ShiftsWindowAndNotifies() {
+        List<ListDataEvent> events = recordEvents();
+        CheckBoxListItem before = model.getElementAt(500);
+        int fetches = requestedPages.size();
+
+        pokemonList.add(100, new PokemonGenerator(8).generatePokemon(5000));
+        model.rowsInserted(source(), 100, 100, List.of(pokemonList.get(100)));
+
+        assertEquals(1001, model.getSize());
+        assertSame(before, model.getElementAt(501), "Loaded rows after the insertion should shift, not reload");
+        assertEquals(fetches, requestedPages.size());
+        assertEquals(ListDataEvent.INTERVAL_ADDED, events.get(0).getType());
+        assertEquals(100, events.get(0).getIndex0());
+
+        pokemonList.add(505, new PokemonGenerator(8).generatePokemon(5001));
+        model.rowsInserted(source(), 505, 505, List.of(pokemonList.get(505)));
+        assertSame(pokemonList.get(505), model.getElementAt(505).getPokemon());
+        assertSame(before, model.getElementAt(501));
+    }
+
+    @Test
+    void rowsRemoved_DropsRowsAndTheirCheckMarks() {
+        model.getElementAt(500).setSelected(true);
+        Pokemon checked = pokemonList.get(500);
+        Pokemon next = pokemonList.get(501);
+
+        pokemonList.remove(500);
+        model.rowsRemoved(source(), 500, 500, List.of(checked));
+
+        assertEquals(999, model.getSize());
+        assertSame(next, model.getElementAt(500).getPokemon());
+        assertTrue(model.getCheckedPokemon().isEmpty());
+
+        pokemonList.remove(0);
+        model.rowsRemoved(source(), 0, 0, List.of());
+        assertSame(next, model.getElementAt(499).getPokemon());
+    }
+
+    @Test
+    void rowsChanged_KeepsCheckMarkOfReplacedPokemon() {
+        List<ListDataEvent> events = recordEvents();
+        model.getElementAt(10).setSelected(true);
+        model.getElementAt(900).setSelected(true);
+        Pokemon previous10 = pokemonList.get(10);
+        Pokemon previous900 = pokemonList.get(900);
+
+        pokemonList.set(10, new PokemonGenerator(8).generatePokemon(previous10.getId()));
+        pokemonList.set(900, new PokemonGenerator(8).generatePokemon(previous900.getId()));
+        model.rowsChanged(source(), 10, 10, List.of(pokemonList.get(10)), List.of(previous10));
+        model.rowsChanged(source(), 900, 900, List.of(pokemonList.get(900)), List.of(previous900));
+
+        assertSame(pokemonList.get(10), model.getElementAt(10).getPokemon());
+        assertTrue(model.getElementAt(10).isSelected());
+        assertTrue(model.getCheckedPokemon().contains(pokemonList.get(900)));
+        assertFalse(model.getCheckedPokemon().contains(previous900));
+        assertEquals(ListDataEvent.CONTENTS_CHANGED, events.get(0).getType());
+    }
+
+    @Test
+    void rowMoved_CarriesCheckMarkToNewPosition() {
+        List<ListDataEvent> events = recordEvents();
+        model.getElementAt(500).setSelected(true);
+        model.getElementAt(900).setSelected(true);
+        Pokemon previous500 = pokemonList.get(500);
+        Pokemon previous900 = pokemonList.get(900);
+
+        // Inside the window, and from outside the window to outside it
+        Pokemon moved500 = new PokemonGenerator(8).generatePokemon(previous500.getId());
+        pokemonList.remove(500);
+        pokemonList.add(503, moved500);
+        model.rowMoved(source(), 500, 503, moved500, previous500);
+        Pokemon moved900 = new PokemonGenerator(8).generatePokemon(previous900.getId());
+        pokemonList.remove(900);
+        pokemonList.add(20, moved900);
+        model.rowMoved(source(), 900, 20, moved900, previous900);
+
+        assertEquals(1000, model.getSize());
+        assertSame(moved500, model.getElementAt(504).getPokemon());
+        assertTrue(model.getElementAt(504).isSelected());
+        assertFalse(model.getElementAt(500).isSelected());
+        List<Pokemon> checked = model.getCheckedPokemon();
+        assertEquals(2, checked.size());
+        assertTrue(checked.contains(moved900));
+        assertTrue(model.getElementAt(20).isSelected());
+        assertEquals(ListDataEvent.INTERVAL_REMOVED, events.get(0).getType());
+        assertEquals(ListDataEvent.INTERVAL_ADDED, events.get(1).getType());
+        assertEquals(503, events.get(1).getIndex0());
+    }
+
+    private PagedPokemonListModel.PageSource source() {
+        return new PagedPokemonListModel.PageSource() {
+            @Override
+            public int count() {
+                return pokemonList.size();
+            }
+
+            @Override
+            public CompletableFuture<List<Pokemon>> page(int offset, int limit) {
+                requestedPages.add(new int[]{offset, limit});
+                return CompletableFuture.completedFuture(
+                        new ArrayList<>(pokemonList.subList(offset, Math.min(pokemonList.size(), offset + limit))));
+            }
+        };
+    }
+
+    private PagedPokemonListModel.PageSource pendingSource(List<CompletableFuture<List<Pokemon>>> pending) {
+        return new PagedPokemonListModel.PageSource() {
+            @Override
+            public int count() {
+                return pokemonList.size();
+            }
+
+            @Override
+            public CompletableFuture<List<Pokemon>> page(int offset, int limit) {
+                CompletableFuture<List<Pokemon>> page = new CompletableFuture<>();
+                pending.add(page);
+                return page;
+            }
+        };
+    }
+
+    private List<ListDataEvent> recordEvents() {
+        List<ListDataEvent> events = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add(e);
+            }
+        });
+        return events;
+    }
+}
@@ -74,6 +74,18 @@ class PokemonCheckBoxListRendererTest {
                 "Foreground should be selection foreground");
     }
 
+    @Test
+    void testGetListCellRendererComponent_RowStillLoading() {
+        // A row whose page is still being fetched has no Pokemon yet
+        Component result = renderer.getListCellRendererComponent(
+                mockList, new CheckBoxListItem(null), 0, false, false);
+
+        assertSame(renderer, result, "Should return itself");
+        assertEquals("Loading…", renderer.getText(), "Should show a loading note");
+        assertEquals(mockList.getBackground(), renderer.getBackground(),
+                "Background should be the plain list background");
+    }
+
     @Test
     void testGetListCellRendererComponent_NotSelected() {
         // Test when the item is not selected in the list
@@ -1,6 +1,10 @@
 package view;
 
+import controller.PokemonController;
+import model.IPokemonModel;
 import model.Pokemon;
+import model.PokemonGenerator;
+import model.PokemonStat;
 import model.PokemonType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +16,7 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -226,6 +231,102 @@ public class PokemonDetailPanelTest {
                 "Should handle leading whitespace");
     }
 
+    @Test
+    public void testDisplayingSamePokemonTwice_ShowsSimilarPokemonOnce() throws Exception {
+        PokemonController controller = createController(new PokemonGenerator(3).generate(200));
+        Pokemon pokemon = controller.getPokemonCollection().get(0);
+        PokemonDetailPanel[] panel = new PokemonDetailPanel[1];
+
+        // A row click reports the selection from both the list and the mouse listener
+        SwingUtilities.invokeAndWait(() -> {
+            panel[0] = new PokemonDetailPanel(controller);
+            panel[0].displayPokemonDetails(pokemon);
+            panel[0].displayPokemonDetails(pokemon);
+        });
+        JPanel info = getPrivateField(panel[0], "infoPanel");
+        int[] lines = new int[1];
+        for (int i = 0; i < 250 && lines[0] == 0; i++) {
+            Thread.sleep(20);
+            SwingUtilities.invokeAndWait(() -> lines[0] = countSimilarLines(info));
+        }
+        // Give a duplicate line the time to show up too
+        Thread.sleep(200);
+        SwingUtilities.invokeAndWait(() -> lines[0] = countSimilarLines(info));
+
+        assertEquals(1, lines[0], "Only the latest lookup should add its line");
+    }
+
+    private int countSimilarLines(JPanel info) {
+        int count = 0;
+        for (java.awt.Component component : info.getComponents()) {
+            if (component instanceof JLabel label && label.getText().startsWith("Similar stats")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void testPercentileRanks_LookedUpOffEdtAndShown() throws Exception {
+        List<Pokemon> pokemonList = new PokemonGenerator(5).generate(200);
+        boolean[] rankedOnEdt = new boolean[1];
+        PokemonController controller = new PokemonController(createModel(pokemonList)) {
+            @Override
+            public Map<PokemonStat, Double> getPercentileRanks(Pokemon.PokemonStats stats) {
+                // Waits for the index lock, which a collection rebuild may hold for long
+                rankedOnEdt[0] |= SwingUtilities.isEventDispatchThread();
+                return super.getPercentileRanks(stats);
+            }
+        };
+        controller.fetchInitialPokemon(pokemonList.size());
+        Pokemon pokemon = controller.getPokemonCollection().get(0);
+        PokemonDetailPanel[] panel = new PokemonDetailPanel[1];
+
+        SwingUtilities.invokeAndWait(() -> {
+            panel[0] = new PokemonDetailPanel(controller);
+            panel[0].displayPokemonDetails(pokemon);
+        });
+        Map<PokemonStat, JLabel> labels = getPrivateField(panel[0], "statValueLabels");
+        String[] hpText = new String[1];
+        for (int i = 0; i < 250 && (hpText[0] == null || !hpText[0].contains("%")); i++) {
+            Thread.sleep(20);
+            SwingUtilities.invokeAndWait(() -> hpText[0] = labels.get(PokemonStat.HP).getText());
+        }
+
+        assertFalse(rankedOnEdt[0], "Ranks should not be looked up on the EDT");
+        double rank = controller.getPercentileRanks(pokemon.getStats()).get(PokemonStat.HP);
+        assertEquals(String.format("%d (%.0f%%)", pokemon.getStats().getHp(), rank), hpText[0]);
+    }
+
+    private PokemonController createController(List<Pokemon> pokemonList) {
+        PokemonController controller = new PokemonController(createModel(pokemonList));
+        controller.fetchInitialPokemon(pokemonList.size());
+        return controller;
+    }
+
+    private IPokemonModel createModel(List<Pokemon> pokemonList) {
+        return new IPokemonModel() {
+            @Override
+            public Pokemon fetchPokemonById(int id) {
+                return null;
+            }
+
+            @Override
+            public List<Pokemon> fetchMultiplePokemon(int count) {
+                return new ArrayList<>(pokemonList);
+            }
+
+            @Override
+            public void saveCollection(List<Pokemon> collection, String filename) {
+            }
+
+            @Override
+            public List<Pokemon> loadCollection(String filename) {
+                return new ArrayList<>();
+            }
+        };
+    }
+
     private Pokemon createTestPokemon() {
         Pokemon.PokemonStats stats = new Pokemon.PokemonStats(45, 49, 49, 65, 65, 45);
         return new Pokemon(1, "bulbasaur", "http://example.com/bulbasaur.png",
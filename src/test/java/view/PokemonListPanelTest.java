@@ -1,12 +1,17 @@
 package view;
 
+import model.IPokemonModel;
 import model.Pokemon;
 import model.PokemonType;
+import controller.AsyncPokemonController;
 import controller.IPokemonController;
+import controller.PokemonController;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import javax.swing.*;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.lang.reflect.Field;
@@ -14,6 +19,9 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,20 +31,20 @@ import static org.mockito.Mockito.*;
 public class PokemonListPanelTest {
 
     private PokemonListPanel listPanel;
-    private IPokemonController mockController;
+    private IPokemonController controller;
     private JTextField searchField;
     private JComboBox<PokemonType> typeFilter;
     private JComboBox<Object> sortOptions;
     private JButton saveButton;
     private JList<CheckBoxListItem> pokemonList;
-    private DefaultListModel<CheckBoxListItem> listModel;
+    private PagedPokemonListModel listModel;
     private List<Pokemon> testPokemonList;
 
     @BeforeEach
     public void setUp() {
-        mockController = mock(IPokemonController.class);
-        listPanel = new PokemonListPanel(mockController);
         testPokemonList = createTestPokemonList();
+        controller = createController(testPokemonList);
+        listPanel = createPanel(controller);
 
         searchField = getPrivateField(listPanel, "searchField");
         typeFilter = getPrivateField(listPanel, "typeFilter");
@@ -44,8 +52,6 @@ public class PokemonListPanelTest {
         saveButton = getPrivateField(listPanel, "saveButton");
         pokemonList = getPrivateField(listPanel, "pokemonList");
         listModel = getPrivateField(listPanel, "listModel");
-
-        setPrivateField(listPanel, "fullPokemonList", new ArrayList<>(testPokemonList));
     }
 
     @Test
@@ -64,9 +70,8 @@ public class PokemonListPanelTest {
         assertEquals(testPokemonList.size(), listModel.size(),
                 "List model should contain all test Pokemon");
 
-        List<Pokemon> storedList = getPrivateField(listPanel, "fullPokemonList");
-        assertEquals(testPokemonList.size(), storedList.size(),
-                "Full Pokemon list should be stored");
+        assertTrue(this.<Boolean>getPrivateField(listPanel, "listShown"),
+                "Filters should apply once the list is shown");
 
         CheckBoxListItem firstItem = listModel.getElementAt(0);
         assertEquals("bulbasaur", firstItem.getPokemon().getName(),
@@ -102,9 +107,6 @@ public class PokemonListPanelTest {
 
     @Test
     public void testFilterAndSortList() throws Exception {
-        IPokemonController controller = mock(IPokemonController.class);
-        PokemonListPanel panel = new PokemonListPanel(controller);
-
         Pokemon bulbasaur = new Pokemon(1, "bulbasaur", "http://example.com/1.png",
                 Arrays.asList(PokemonType.GRASS),
                 new Pokemon.PokemonStats(45, 49, 49, 65, 65, 45));
@@ -117,11 +119,13 @@ public class PokemonListPanelTest {
 
         List<Pokemon> testList = Arrays.asList(bulbasaur, charizard, pikachu);
 
-        setPrivateField(panel, "fullPokemonList", new ArrayList<>(testList));
+        IPokemonController controller = createController(testList);
+        PokemonListPanel panel = createPanel(controller);
+        panel.updatePokemonList(controller.getPokemonCollection());
 
         JComboBox<PokemonType> typeFilter = getPrivateField(panel, "typeFilter");
         JComboBox<?> sortOptions = getPrivateField(panel, "sortOptions");
-        DefaultListModel<CheckBoxListItem> listModel = getPrivateField(panel, "listModel");
+        PagedPokemonListModel listModel = getPrivateField(panel, "listModel");
 
         Method filterAndSortMethod = PokemonListPanel.class.getDeclaredMethod("filterAndSortList");
         filterAndSortMethod.setAccessible(true);
@@ -162,11 +166,6 @@ public class PokemonListPanelTest {
 
     @Test
     public void testSearchFiltering() throws Exception {
-        IPokemonController mockController = mock(IPokemonController.class);
-        PokemonListPanel panel = new PokemonListPanel(mockController);
-
-        JTextField searchField = getPrivateField(panel, "searchField");
-        DefaultListModel<CheckBoxListItem> listModel = getPrivateField(panel, "listModel");
 
         Pokemon bulbasaur = new Pokemon(1, "bulbasaur", "http://example.com/1.png",
                 Arrays.asList(PokemonType.GRASS),
@@ -178,7 +177,12 @@ public class PokemonListPanelTest {
 
         List<Pokemon> testList = Arrays.asList(bulbasaur, ivysaur);
 
-        panel.updatePokemonList(testList);
+        IPokemonController controller = createController(testList);
+        PokemonListPanel panel = createPanel(controller);
+        JTextField searchField = getPrivateField(panel, "searchField");
+        PagedPokemonListModel listModel = getPrivateField(panel, "listModel");
+
+        panel.updatePokemonList(controller.getPokemonCollection());
 
         Method filterListMethod = PokemonListPanel.class.getDeclaredMethod("filterList");
         filterListMethod.setAccessible(true);
@@ -204,14 +208,14 @@ public class PokemonListPanelTest {
         filterListMethod.invoke(panel);
         assertEquals(1, listModel.size(), "Only Pokemon with ID 1 should be shown");
 
-        // Test case 5: Handling null fullPokemonList
-        setPrivateField(panel, "fullPokemonList", null);
+        // Test case 5: Nothing is shown before the list is
+        setPrivateField(panel, "listShown", false);
 
         listModel.clear();
 
         filterListMethod.invoke(panel);
 
-        assertTrue(true, "Method should handle null fullPokemonList without errors");
+        assertEquals(0, listModel.size(), "Filtering should wait until the list is shown");
     }
 
     @Test
@@ -241,32 +245,77 @@ public class PokemonListPanelTest {
         saveMethod.setAccessible(true);
         saveMethod.invoke(listPanel);
 
-        verify(mockController).saveCollection(anyString());
+        verify(controller).saveCollection(anyString());
     }
 
     @Test
     public void testUpdatePokemonListWithEmptyList() {
-        List<Pokemon> emptyList = new ArrayList<>();
-
-        listPanel.updatePokemonList(emptyList);
+        IPokemonController emptyController = createController(new ArrayList<>());
+        PokemonListPanel panel = createPanel(emptyController);
+        PagedPokemonListModel emptyModel = getPrivateField(panel, "listModel");
 
-        assertEquals(0, listModel.size(), "List model should be empty");
+        panel.updatePokemonList(emptyController.getPokemonCollection());
 
-        List<Pokemon> storedList = getPrivateField(listPanel, "fullPokemonList");
-        assertEquals(0, storedList.size(), "Stored full list should be empty");
+        assertEquals(0, emptyModel.size(), "List model should be empty");
     }
 
     @Test
     public void testUpdatePokemonListWithNull() {
-        try {
-            listPanel.updatePokemonList(null);
+        assertThrows(NullPointerException.class, () -> listPanel.updatePokemonList(null));
+        assertEquals(0, listModel.size(), "Nothing should be shown for a null list");
+    }
 
-            List<Pokemon> storedList = getPrivateField(listPanel, "fullPokemonList");
-            assertNotNull(storedList, "Stored full list should not be null");
-            assertEquals(0, storedList.size(), "Stored full list should be empty");
-        } catch (NullPointerException e) {
-            // This is also acceptable behavior, depending on implementation
-        }
+    @Test
+    public void testApplyChangeMovesOnlyChangedRow() {
+        listPanel.updatePokemonList(controller.getPokemonCollection());
+        sortOptions.setSelectedIndex(1); // NAME_DESC: squirtle, charmander, bulbasaur
+        listModel.getElementAt(0).setSelected(true);
+        List<ListDataEvent> events = new ArrayList<>();
+        listModel.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add(e);
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add(e);
+            }
+        });
+        controller.addChangeListener(listPanel::applyChange);
+
+        controller.updatePokemon(new Pokemon(4, "wartortle", "http://example.com/wartortle.png",
+                Arrays.asList(PokemonType.WATER), new Pokemon.PokemonStats(59, 63, 80, 65, 80, 58)));
+
+        assertEquals(2, events.size(), "The renamed row should be moved, not the list reloaded");
+        assertEquals(ListDataEvent.INTERVAL_REMOVED, events.get(0).getType());
+        assertEquals(1, events.get(0).getIndex0());
+        assertEquals(ListDataEvent.INTERVAL_ADDED, events.get(1).getType());
+        assertEquals(0, events.get(1).getIndex0());
+        assertEquals("wartortle", listModel.getElementAt(0).getPokemon().getName());
+        assertEquals("squirtle", listModel.getElementAt(1).getPokemon().getName());
+        assertEquals(List.of(testPokemonList.get(2)), listModel.getCheckedPokemon());
+    }
+
+    @Test
+    public void testApplyChangeKeepsCheckMarkOfMovedRow() {
+        listPanel.updatePokemonList(controller.getPokemonCollection());
+        sortOptions.setSelectedIndex(1); // NAME_DESC: squirtle, charmander, bulbasaur
+        listModel.getElementAt(1).setSelected(true);
+        controller.addChangeListener(listPanel::applyChange);
+
+        controller.updatePokemon(new Pokemon(4, "wartortle", "http://example.com/wartortle.png",
+                Arrays.asList(PokemonType.WATER), new Pokemon.PokemonStats(59, 63, 80, 65, 80, 58)));
+
+        assertEquals("wartortle", listModel.getElementAt(0).getPokemon().getName());
+        assertTrue(listModel.getElementAt(0).isSelected(), "The moved row should stay checked");
+        assertFalse(listModel.getElementAt(1).isSelected());
+        assertEquals(List.of(listModel.getElementAt(0).getPokemon()), listModel.getCheckedPokemon());
     }
 
     @Test
@@ -325,7 +374,63 @@ public class PokemonListPanelTest {
         } catch (Exception ignored) {
         }
 
-        verify(mockController, never()).saveCollection(anyString());
+        verify(controller, never()).saveCollection(anyString());
+    }
+
+    /**
+     * Creates a controller whose collection is the given Pokemon, spied on so calls can be verified.
+     */
+    private IPokemonController createController(List<Pokemon> pokemon) {
+        IPokemonModel model = mock(IPokemonModel.class);
+        when(model.fetchMultiplePokemon(anyInt())).thenReturn(new ArrayList<>(pokemon));
+        IPokemonController controller = spy(new PokemonController(model));
+        controller.fetchInitialPokemon(pokemon.size());
+        return controller;
+    }
+
+    /**
+     * Creates a panel whose asynchronous calls run on the calling thread, so results are
+     * on screen as soon as each call returns.
+     */
+    private PokemonListPanel createPanel(IPokemonController controller) {
+        return new PokemonListPanel(new AsyncPokemonController(controller, directExecutor()));
+    }
+
+    private static ExecutorService directExecutor() {
+        return new AbstractExecutorService() {
+            private volatile boolean shutdown;
+
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+
+            @Override
+            public void shutdown() {
+                shutdown = true;
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                shutdown = true;
+                return List.of();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return shutdown;
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return shutdown;
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) {
+                return shutdown;
+            }
+        };
     }
 
     private List<Pokemon> createTestPokemonList() {